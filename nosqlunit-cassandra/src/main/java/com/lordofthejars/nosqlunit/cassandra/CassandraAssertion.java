@@ -6,27 +6,37 @@ import static ch.lambdaj.Lambda.on;
 import static ch.lambdaj.Lambda.selectUnique;
 import static org.hamcrest.CoreMatchers.equalTo;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
-import me.prettyprint.cassandra.model.CqlQuery;
-import me.prettyprint.cassandra.model.CqlRows;
 import me.prettyprint.cassandra.serializers.BytesArraySerializer;
-import me.prettyprint.cassandra.serializers.LongSerializer;
-import me.prettyprint.cassandra.serializers.StringSerializer;
 import me.prettyprint.hector.api.Cluster;
 import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.beans.CounterRow;
 import me.prettyprint.hector.api.beans.HColumn;
 import me.prettyprint.hector.api.beans.HCounterColumn;
 import me.prettyprint.hector.api.beans.HSuperColumn;
+import me.prettyprint.hector.api.beans.Row;
+import me.prettyprint.hector.api.beans.SuperRow;
 import me.prettyprint.hector.api.ddl.ColumnFamilyDefinition;
 import me.prettyprint.hector.api.ddl.ColumnType;
 import me.prettyprint.hector.api.ddl.KeyspaceDefinition;
 import me.prettyprint.hector.api.factory.HFactory;
-import me.prettyprint.hector.api.query.ColumnQuery;
-import me.prettyprint.hector.api.query.CounterQuery;
-import me.prettyprint.hector.api.query.QueryResult;
-import me.prettyprint.hector.api.query.SuperColumnQuery;
+import me.prettyprint.hector.api.query.RangeSlicesCounterQuery;
+import me.prettyprint.hector.api.query.RangeSlicesQuery;
+import me.prettyprint.hector.api.query.RangeSuperSlicesQuery;
+import me.prettyprint.hector.api.query.SliceCounterQuery;
+import me.prettyprint.hector.api.query.SliceQuery;
+import me.prettyprint.hector.api.query.SuperSliceQuery;
 
 import org.cassandraunit.dataset.DataSet;
 import org.cassandraunit.model.ColumnFamilyModel;
@@ -38,9 +48,25 @@ import org.cassandraunit.type.GenericType;
 import org.cassandraunit.type.GenericTypeEnum;
 
 import com.lordofthejars.nosqlunit.core.FailureHandler;
-
+import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
+
+/**
+ * Compares a dataset with database content. Each column family is read once
+ * by pages of rows using range slices, and each read row is compared with
+ * expected row with same key. Column families are compared concurrently. Wide
+ * rows are read by pages of columns, so no request exceeds Thrift frame size.
+ * <p>
+ * Differences of rows and columns are collected and reported together, while
+ * differences of schema or of number of rows fail at once.
+ */
 public class CassandraAssertion {
 
+	private static final int ROW_PAGE_SIZE = 500;
+	private static final int COLUMNS_PER_REQUEST = 50000;
+	private static final int MAX_REPORTED_DIFFERENCES = 20;
+	private static final String EOL = System.getProperty("line.separator");
+
 	private CassandraAssertion() {
 		super();
 	}
@@ -55,46 +81,96 @@ public class CassandraAssertion {
 
 	}
 
-	private static void checkColumns(List<ColumnFamilyModel> expectedColumnFamilies, Keyspace keyspace,
+	private static void checkColumns(final List<ColumnFamilyModel> expectedColumnFamilies, final Keyspace keyspace,
 			KeyspaceDefinition keyspaceDefinition) {
 
-		List<ColumnFamilyDefinition> columnFamilyDefinitions = keyspaceDefinition.getCfDefs();
+		final List<ColumnFamilyDefinition> columnFamilyDefinitions = keyspaceDefinition.getCfDefs();
+		final List<List<String>> columnFamilyDifferences = new ArrayList<List<String>>(Collections.nCopies(
+				expectedColumnFamilies.size(), Collections.<String> emptyList()));
 
-		for (ColumnFamilyModel expectedColumnFamilyModel : expectedColumnFamilies) {
+		List<Callable<Void>> columnFamilyChecks = new ArrayList<Callable<Void>>();
 
-			ColumnFamilyDefinition columnFamily = checkColumnFamilyName(columnFamilyDefinitions,
-					expectedColumnFamilyModel);
+		for (int i = 0; i < expectedColumnFamilies.size(); i++) {
+			final int columnFamilyIndex = i;
+			columnFamilyChecks.add(new Callable<Void>() {
 
-			ColumnType columnType = checkColumnFamilyType(expectedColumnFamilyModel, columnFamily);
+				@Override
+				public Void call() {
+					columnFamilyDifferences.set(columnFamilyIndex, checkColumnFamily(keyspace,
+							columnFamilyDefinitions, expectedColumnFamilies.get(columnFamilyIndex)));
+					return null;
+				}
+			});
+		}
 
-			String expectedColumnFamilyName = expectedColumnFamilyModel.getName();
+		ParallelTasks.executeInParallel(columnFamilyChecks);
 
-			List<RowModel> expectedRows = expectedColumnFamilyModel.getRows();
+		Differences differences = new Differences();
 
-			checkNumberOfRowsIntoColumnFamily(keyspace, expectedColumnFamilyName, expectedRows.size());
+		for (int i = 0; i < expectedColumnFamilies.size(); i++) {
+			differences.add(expectedColumnFamilies.get(i).getName(), columnFamilyDifferences.get(i));
+		}
 
-			if (ColumnType.STANDARD == columnType) {
+		differences.throwIfAny();
 
-				for (RowModel expectedRowModel : expectedRows) {
-					checkStandardColumns(keyspace, expectedColumnFamilyModel, expectedRowModel);
-				}
+	}
 
-			} else {
-				if (ColumnType.SUPER == columnType) {
+	private static List<String> checkColumnFamily(Keyspace keyspace, List<ColumnFamilyDefinition> columnFamilyDefinitions,
+			ColumnFamilyModel expectedColumnFamilyModel) {
 
-					for (RowModel expectedRowModel : expectedRows) {
-						List<ColumnModel> expectedColumns = expectedRowModel.getColumns();
-						checkNotStandardColumnsInSuperColumns(expectedRowModel, expectedColumns.size());
-						checkSuperColumns(keyspace, expectedColumnFamilyModel, expectedRowModel);
-					}
+		ColumnFamilyDefinition columnFamily = checkColumnFamilyName(columnFamilyDefinitions,
+				expectedColumnFamilyModel);
 
-				} else {
-					throw new IllegalArgumentException("Column type is not STANDARD or SUPER.");
+		ColumnType columnType = checkColumnFamilyType(expectedColumnFamilyModel, columnFamily);
+
+		if (ColumnType.STANDARD != columnType && ColumnType.SUPER != columnType) {
+			throw new IllegalArgumentException("Column type is not STANDARD or SUPER.");
+		}
+
+		RowComparison rowComparison = new RowComparison(expectedColumnFamilyModel);
+		int currentRowsSize = 0;
+
+		RowPager rowPager = rowPager(keyspace, expectedColumnFamilyModel);
+		byte[] startKey = null;
+		List<ActualRow> page;
+
+		do {
+			page = rowPager.page(startKey, ROW_PAGE_SIZE);
+
+			for (ActualRow actualRow : page) {
+				if (!isPreviousPageLastRow(startKey, actualRow) && !actualRow.isEmpty()) {
+					currentRowsSize++;
+					rowComparison.compare(actualRow);
 				}
 			}
 
-		}
+			if (!page.isEmpty()) {
+				startKey = page.get(page.size() - 1).key;
+			}
+		} while (page.size() == ROW_PAGE_SIZE);
+
+		checkNumberOfRowsIntoColumnFamily(expectedColumnFamilyModel.getName(), expectedColumnFamilyModel.getRows()
+				.size(), currentRowsSize);
 
+		rowComparison.compareNotFoundRows();
+		return rowComparison.differences();
+	}
+
+	private static boolean isPreviousPageLastRow(byte[] startKey, ActualRow actualRow) {
+		return startKey != null && Arrays.equals(startKey, actualRow.key);
+	}
+
+	private static void checkRow(ColumnFamilyModel expectedColumnFamilyModel, ExpectedRow expectedRow,
+			ActualRow actualRow, List<String> differences) {
+
+		if (ColumnType.STANDARD == expectedColumnFamilyModel.getType()) {
+			checkStandardColumns(expectedRow, actualRow, differences);
+		} else {
+			RowModel expectedRowModel = expectedRow.rowModel;
+			List<ColumnModel> expectedColumns = expectedRowModel.getColumns();
+			checkNotStandardColumnsInSuperColumns(expectedRowModel, expectedColumns.size());
+			checkSuperColumns(expectedRow, actualRow, differences);
+		}
 	}
 
 	private static void checkNotStandardColumnsInSuperColumns(RowModel expectedRowModel, int size) throws Error {
@@ -105,54 +181,45 @@ public class CassandraAssertion {
 		}
 	}
 
-	private static void checkSuperColumns(Keyspace keyspace, ColumnFamilyModel expectedColumnFamilyModel, RowModel expectedRowModel)
+	private static void checkSuperColumns(ExpectedRow expectedRow, ActualRow actualRow, List<String> differences)
 			throws Error {
-		
-		String expectedColumnFamilyName = expectedColumnFamilyModel.getName();
-		
-		List<SuperColumnModel> expectedSuperColumns = expectedRowModel.getSuperColumns();
-		checkNumberOfSuperColumns(keyspace, expectedColumnFamilyName, expectedRowModel, expectedSuperColumns.size());
-
-		for (SuperColumnModel expectedSuperColumnModel : expectedSuperColumns) {
-			GenericType expectedSuperColumnName = expectedSuperColumnModel.getName();
 
-			SuperColumnQuery<byte[], byte[], byte[], byte[]> createSuperColumnQuery = HFactory.createSuperColumnQuery(
-					keyspace, BytesArraySerializer.get(), BytesArraySerializer.get(), BytesArraySerializer.get(),
-					BytesArraySerializer.get());
-			createSuperColumnQuery.setColumnFamily(expectedColumnFamilyName);
-			createSuperColumnQuery.setKey(getBytes(expectedRowModel.getKey()));
-			createSuperColumnQuery.setSuperName(getBytes(expectedSuperColumnName));
-			QueryResult<HSuperColumn<byte[], byte[], byte[]>> supercolumn = createSuperColumnQuery.execute();
+		RowModel expectedRowModel = expectedRow.rowModel;
+		checkNumberOfSuperColumns(expectedRowModel, expectedRowModel.getSuperColumns().size(),
+				actualRow.superColumns.size());
 
-			List<ColumnModel> expectedColumns = expectedSuperColumnModel.getColumns();
-			HSuperColumn<byte[], byte[], byte[]> hSuperColumn = supercolumn.get();
+		for (Map.Entry<ByteBuffer, ExpectedSuperColumn> expectedSuperColumn : expectedRow.superColumns.entrySet()) {
+			SuperColumnModel expectedSuperColumnModel = expectedSuperColumn.getValue().superColumnModel;
+			List<ActualColumn> columns = actualRow.superColumns.get(expectedSuperColumn.getKey());
 
-			checkSuperColumnNameAndKey(expectedSuperColumnName, hSuperColumn);
-
-			List<HColumn<byte[], byte[]>> columns = hSuperColumn.getColumns();
-
-			checkNumberOfColumnsInsideSuperColumn(expectedSuperColumnModel.getName().getValue(), expectedRowModel
-					.getKey().getValue(), expectedColumns.size(), columns.size());
-			checkColumnsOfSuperColumn(expectedRowModel, expectedSuperColumnModel, expectedColumns, columns);
+			try {
+				checkSuperColumnNameAndKey(expectedSuperColumnModel.getName(), columns);
 
+				checkNumberOfColumnsInsideSuperColumn(expectedSuperColumnModel.getName().getValue(), expectedRowModel
+						.getKey().getValue(), expectedSuperColumnModel.getColumns().size(), columns.size());
+				checkColumnsOfSuperColumn(expectedRowModel, expectedSuperColumn.getValue(), columns);
+			} catch (NoSqlAssertionError e) {
+				differences.add(e.getMessage());
+			}
 		}
 	}
 
-	private static void checkSuperColumnNameAndKey(GenericType expectedSuperColumnName,
-			HSuperColumn<byte[], byte[], byte[]> hSuperColumn) throws Error {
-		if (hSuperColumn == null) {
+	private static void checkSuperColumnNameAndKey(GenericType expectedSuperColumnName, List<ActualColumn> columns)
+			throws Error {
+		if (columns == null) {
 			throw FailureHandler.createFailure("Supercolumn %s is not found into database.",
 					expectedSuperColumnName.getValue());
 		}
 	}
 
-	private static void checkColumnsOfSuperColumn(RowModel expectedRowModel, SuperColumnModel expectedSuperColumnModel,
-			List<ColumnModel> expectedColumns, List<HColumn<byte[], byte[]>> columns) throws Error {
-		for (HColumn<byte[], byte[]> hColumn : columns) {
-			if (!areLoadValuesOnExpectedList(expectedColumns, hColumn.getName(), hColumn.getValue())) {
+	private static void checkColumnsOfSuperColumn(RowModel expectedRowModel, ExpectedSuperColumn expectedSuperColumn,
+			List<ActualColumn> columns) throws Error {
+
+		for (ActualColumn column : columns) {
+			if (!areLoadValuesOnExpectedList(expectedSuperColumn.columns, column)) {
 				throw FailureHandler.createFailure(
 						"Row with key %s and supercolumn %s does not contain expected column.",
-						asString(expectedRowModel.getKey()), expectedSuperColumnModel.getName().getValue());
+						asString(expectedRowModel.getKey()), expectedSuperColumn.superColumnModel.getName().getValue());
 			}
 		}
 	}
@@ -166,90 +233,31 @@ public class CassandraAssertion {
 		}
 	}
 
-	private static void checkNumberOfSuperColumns(Keyspace keyspace, String expectedColumnFamilyName,
-			RowModel expectedRowModel, int size) throws Error {
-		int countNumberOfSuperColumnsByKey = countNumberOfColumnsByKey(keyspace, expectedColumnFamilyName,
-				expectedRowModel);
-
+	private static void checkNumberOfSuperColumns(RowModel expectedRowModel, int size, int countNumberOfSuperColumnsByKey)
+			throws Error {
 		if (countNumberOfSuperColumnsByKey != size) {
 			throw FailureHandler.createFailure("Expected number of supercolumns for key %s is %s but was counted %s.",
 					asString(expectedRowModel.getKey()), size, countNumberOfSuperColumnsByKey);
 		}
 	}
 
-	private static void checkStandardColumns(Keyspace keyspace, ColumnFamilyModel expectedColumnFamilyModel,
-			RowModel expectedRowModel) throws Error {
-
-		String expectedColumnFamilyName = expectedColumnFamilyModel.getName();
+	private static void checkStandardColumns(ExpectedRow expectedRow, ActualRow actualRow, List<String> differences)
+			throws Error {
 
-		checkNumberOfColumns(keyspace, expectedColumnFamilyName, expectedRowModel);
+		RowModel expectedRowModel = expectedRow.rowModel;
 
-		List<ColumnModel> expectedColumns = expectedRowModel.getColumns();
+		checkNumberOfColumns(expectedRowModel, actualRow.columns.size());
 
-		for (ColumnModel expectedColumnModel : expectedColumns) {
+		for (Map.Entry<ByteBuffer, ExpectedColumn> expectedColumn : expectedRow.columns.entrySet()) {
+			ActualColumn column = actualRow.columns.get(expectedColumn.getKey());
 
-			if (expectedColumnFamilyModel.isCounter()) {
-				checkCounterColumn(keyspace, expectedRowModel, expectedColumnFamilyName, expectedColumnModel);
-			} else {
-				checkColumn(keyspace, expectedRowModel, expectedColumnFamilyName, expectedColumnModel);
+			if (column == null) {
+				differences.add(String.format("Expected name of column is %s but was not found.",
+						asString(expectedColumn.getValue().columnModel.getName())));
+			} else if (!Arrays.equals(expectedColumn.getValue().value, column.value)) {
+				differences.add(String.format("Row with key %s does not contain column with name %s and value %s.",
+						asString(expectedRowModel.getKey()), new String(column.name), column.printableValue));
 			}
-
-		}
-	}
-
-	private static void checkColumn(Keyspace keyspace, RowModel expectedRowModel, String expectedColumnFamilyName,
-			ColumnModel expectedColumnModel) throws Error {
-		ColumnQuery<byte[], byte[], byte[]> columnQuery = HFactory.createColumnQuery(keyspace,
-				BytesArraySerializer.get(), BytesArraySerializer.get(), BytesArraySerializer.get());
-		columnQuery.setColumnFamily(expectedColumnFamilyName).setKey(getBytes(expectedRowModel.getKey()))
-				.setName(getBytes(expectedColumnModel.getName()));
-		QueryResult<HColumn<byte[], byte[]>> result = columnQuery.execute();
-
-		HColumn<byte[], byte[]> hColumn = result.get();
-
-		checkColumnName(expectedColumnModel, hColumn);
-		checkColumnValue(expectedRowModel, hColumn);
-	}
-
-	private static void checkCounterColumn(Keyspace keyspace, RowModel expectedRowModel,
-			String expectedColumnFamilyName, ColumnModel expectedColumnModel) throws Error {
-		CounterQuery<byte[], byte[]> counterColumnQuery = HFactory.createCounterColumnQuery(keyspace,
-				BytesArraySerializer.get(), BytesArraySerializer.get());
-		counterColumnQuery.setColumnFamily(expectedColumnFamilyName)
-				.setKey(getBytes(expectedRowModel.getKey())).setName(getBytes(expectedColumnModel.getName()));
-		
-		QueryResult<HCounterColumn<byte[]>> result = counterColumnQuery.execute();
-
-		HCounterColumn<byte[]> hColumn = result.get();
-
-		checkCounterColumnName(expectedColumnModel, hColumn);
-		checkCounterColumnValue(expectedRowModel, hColumn);
-	}
-	
-	private static void checkCounterColumnValue(RowModel expectedRowModel, HCounterColumn<byte[]> hColumn) throws Error {
-		byte[] expectedColumnName = hColumn.getName();
-		Long expectedColumnValue = hColumn.getValue();
-
-		byte[] expectedColumnValueBytes = getBytes(new GenericType(Long.toString(expectedColumnValue), GenericTypeEnum.LONG_TYPE));
-		
-		if (!areLoadValuesOnExpectedList(expectedRowModel.getColumns(), expectedColumnName, expectedColumnValueBytes)) {
-			throw FailureHandler.createFailure("Row with key %s does not contain column with name %s and value %s.",
-					asString(expectedRowModel.getKey()), new String(expectedColumnName),
-					expectedColumnValue);
-		}
-	}
-
-	private static void checkCounterColumnName(ColumnModel expectedColumnModel, HCounterColumn<byte[]> hColumn) throws Error {
-		if (hColumn == null) {
-			throw FailureHandler.createFailure("Expected name of column is %s but was not found.",
-					asString(expectedColumnModel.getName()));
-		}
-	}
-	
-	private static void checkColumnName(ColumnModel expectedColumnModel, HColumn<byte[], byte[]> hColumn) throws Error {
-		if (hColumn == null) {
-			throw FailureHandler.createFailure("Expected name of column is %s but was not found.",
-					asString(expectedColumnModel.getName()));
 		}
 	}
 
@@ -259,41 +267,11 @@ public class CassandraAssertion {
 
 	}
 
-	private static void checkColumnValue(RowModel expectedRowModel, HColumn<byte[], byte[]> hColumn) throws Error {
-		byte[] expectedColumnName = hColumn.getName();
-		byte[] expectedColumnValue = hColumn.getValue();
-
-		if (!areLoadValuesOnExpectedList(expectedRowModel.getColumns(), expectedColumnName, expectedColumnValue)) {
-			throw FailureHandler.createFailure("Row with key %s does not contain column with name %s and value %s.",
-					asString(expectedRowModel.getKey()), new String(expectedColumnName),
-					new String(expectedColumnValue));
-		}
+	private static boolean areLoadValuesOnExpectedList(Map<ByteBuffer, byte[]> expectedValues, ActualColumn column) {
+		return Arrays.equals(expectedValues.get(ByteBuffer.wrap(column.name)), column.value);
 	}
 
-	private static boolean areLoadValuesOnExpectedList(List<ColumnModel> columns, byte[] expectedColumnName,
-			byte[] expectedColumnValue) {
-
-		boolean found = false;
-
-		for (ColumnModel columnModel : columns) {
-			byte[] columnName = getBytes(columnModel.getName());
-			byte[] columnValue = getBytes(columnModel.getValue());
-
-			boolean equalsName = Arrays.equals(expectedColumnName, columnName);
-			boolean equalsValue = Arrays.equals(expectedColumnValue, columnValue);
-
-			if (equalsName && equalsValue) {
-				found = true;
-				break;
-			}
-
-		}
-		return found;
-	}
-
-	private static void checkNumberOfColumns(Keyspace keyspace, String expectedColumnFamilyName,
-			RowModel expectedRowModel) throws Error {
-		int numberOfColumns = countNumberOfColumnsByKey(keyspace, expectedColumnFamilyName, expectedRowModel);
+	private static void checkNumberOfColumns(RowModel expectedRowModel, int numberOfColumns) throws Error {
 
 		int expectedNumberOfColumns = expectedRowModel.getColumns().size();
 		if (numberOfColumns != expectedNumberOfColumns) {
@@ -302,21 +280,8 @@ public class CassandraAssertion {
 		}
 	}
 
-	// change to bytearray instead of string
-	private static int countNumberOfColumnsByKey(Keyspace keyspace, String expectedColumnFamilyName,
-			RowModel expectedRowModel) {
-		QueryResult<Integer> qr = HFactory
-				.createCountQuery(keyspace, GenericTypeSerializer.get(), StringSerializer.get())
-				.setColumnFamily(expectedColumnFamilyName).setKey(expectedRowModel.getKey())
-				.setRange(null, null, 1000000000).execute();
-
-		int numberOfColumns = qr.get();
-		return numberOfColumns;
-	}
-
-	private static void checkNumberOfRowsIntoColumnFamily(Keyspace keyspace, String expectedColumnFamilyName,
-			int expectedSize) throws Error {
-		int currentRowsSize = countNumberOfRowsByFamilyColumn(keyspace, expectedColumnFamilyName);
+	private static void checkNumberOfRowsIntoColumnFamily(String expectedColumnFamilyName, int expectedSize,
+			int currentRowsSize) throws Error {
 		if (expectedSize != currentRowsSize) {
 			throw FailureHandler.createFailure("Expected keys for column family %s is %s but was counted %s.",
 					expectedColumnFamilyName, expectedSize, currentRowsSize);
@@ -368,14 +333,17 @@ public class CassandraAssertion {
 		return cluster.describeKeyspace(keyspaceName.getKeyspaceName());
 	}
 
-	private static int countNumberOfRowsByFamilyColumn(Keyspace keyspace, String columnFamilyName) {
+	private static RowPager rowPager(Keyspace keyspace, ColumnFamilyModel columnFamilyModel) {
+
+		if (ColumnType.SUPER == columnFamilyModel.getType()) {
+			return new SuperRowPager(keyspace, columnFamilyModel.getName());
+		}
 
-		CqlQuery<String, String, Long> cqlQuery = new CqlQuery<String, String, Long>(keyspace, StringSerializer.get(),
-				StringSerializer.get(), new LongSerializer());
-		cqlQuery.setQuery("SELECT COUNT(*) FROM " + columnFamilyName);
-		QueryResult<CqlRows<String, String, Long>> result = cqlQuery.execute();
-		return result.get().getAsCount();
+		if (columnFamilyModel.isCounter()) {
+			return new CounterRowPager(keyspace, columnFamilyModel.getName());
+		}
 
+		return new StandardRowPager(keyspace, columnFamilyModel.getName());
 	}
 
 	private static String asString(GenericType genericType) {
@@ -388,4 +356,470 @@ public class CassandraAssertion {
 
 	}
 
+	/**
+	 * Index of expected rows by key, which collects differences of each
+	 * expected row in dataset order.
+	 */
+	private static class RowComparison {
+
+		private ColumnFamilyModel expectedColumnFamilyModel;
+		private Map<ByteBuffer, ExpectedRow> notFoundRows = new LinkedHashMap<ByteBuffer, ExpectedRow>();
+
+		private SortedMap<Integer, List<String>> differencesByRow = new TreeMap<Integer, List<String>>();
+
+		public RowComparison(ColumnFamilyModel expectedColumnFamilyModel) {
+			this.expectedColumnFamilyModel = expectedColumnFamilyModel;
+
+			List<RowModel> expectedRows = expectedColumnFamilyModel.getRows();
+
+			for (int i = 0; i < expectedRows.size(); i++) {
+				RowModel expectedRowModel = expectedRows.get(i);
+				notFoundRows.put(ByteBuffer.wrap(getBytes(expectedRowModel.getKey())), new ExpectedRow(i,
+						expectedRowModel));
+			}
+		}
+
+		public void compare(ActualRow actualRow) {
+
+			ExpectedRow expectedRow = notFoundRows.remove(ByteBuffer.wrap(actualRow.key));
+
+			if (expectedRow != null) {
+				compare(expectedRow, actualRow);
+			}
+		}
+
+		public void compareNotFoundRows() {
+
+			for (ExpectedRow expectedRow : notFoundRows.values()) {
+				compare(expectedRow, ActualRow.empty(getBytes(expectedRow.rowModel.getKey())));
+			}
+		}
+
+		public List<String> differences() {
+
+			List<String> differences = new ArrayList<String>();
+
+			for (List<String> rowDifferences : differencesByRow.values()) {
+				differences.addAll(rowDifferences);
+			}
+
+			return differences;
+		}
+
+		private void compare(ExpectedRow expectedRow, ActualRow actualRow) {
+
+			List<String> rowDifferences = new ArrayList<String>();
+
+			try {
+				checkRow(expectedColumnFamilyModel, expectedRow, actualRow, rowDifferences);
+			} catch (NoSqlAssertionError e) {
+				rowDifferences.add(e.getMessage());
+			}
+
+			if (!rowDifferences.isEmpty()) {
+				differencesByRow.put(expectedRow.index, rowDifferences);
+			}
+		}
+
+	}
+
+	/**
+	 * Differences of all column families. A single difference is reported
+	 * with its own message, several ones are listed by column family up to a
+	 * maximum.
+	 */
+	private static class Differences {
+
+		private Map<String, List<String>> differencesByColumnFamily = new LinkedHashMap<String, List<String>>();
+		private int size;
+
+		public void add(String columnFamilyName, List<String> differences) {
+			if (!differences.isEmpty()) {
+				differencesByColumnFamily.put(columnFamilyName, differences);
+				size += differences.size();
+			}
+		}
+
+		public void throwIfAny() {
+
+			if (size == 1) {
+				throw FailureHandler.createFailure("%s", differencesByColumnFamily.values().iterator().next().get(0));
+			}
+
+			if (size > 1) {
+				throw FailureHandler.createFailure("%s", report());
+			}
+		}
+
+		private String report() {
+
+			StringBuilder report = new StringBuilder();
+			report.append(size).append(" differences have been found between database data and expected data:");
+
+			int reported = 0;
+
+			for (Map.Entry<String, List<String>> columnFamilyDifferences : differencesByColumnFamily.entrySet()) {
+
+				if (reported == MAX_REPORTED_DIFFERENCES) {
+					break;
+				}
+
+				report.append(EOL).append("Column family ").append(columnFamilyDifferences.getKey()).append(':');
+
+				for (String difference : columnFamilyDifferences.getValue()) {
+					if (reported == MAX_REPORTED_DIFFERENCES) {
+						break;
+					}
+
+					report.append(EOL).append("    ").append(difference);
+					reported++;
+				}
+			}
+
+			if (reported < size) {
+				report.append(EOL).append("... and ").append(size - reported).append(" more.");
+			}
+
+			return report.toString();
+		}
+
+	}
+
+	/**
+	 * Expected row whose column and supercolumn names, composite ones
+	 * included, are serialized once, so each read column is found by its
+	 * bytes.
+	 */
+	private static class ExpectedRow {
+
+		private int index;
+		private RowModel rowModel;
+		private Map<ByteBuffer, ExpectedColumn> columns = new LinkedHashMap<ByteBuffer, ExpectedColumn>();
+		private Map<ByteBuffer, ExpectedSuperColumn> superColumns = new LinkedHashMap<ByteBuffer, ExpectedSuperColumn>();
+
+		public ExpectedRow(int index, RowModel rowModel) {
+			this.index = index;
+			this.rowModel = rowModel;
+
+			for (ColumnModel columnModel : rowModel.getColumns()) {
+				columns.put(ByteBuffer.wrap(getBytes(columnModel.getName())), new ExpectedColumn(columnModel));
+			}
+
+			for (SuperColumnModel superColumnModel : rowModel.getSuperColumns()) {
+				superColumns.put(ByteBuffer.wrap(getBytes(superColumnModel.getName())), new ExpectedSuperColumn(
+						superColumnModel));
+			}
+		}
+
+	}
+
+	private static class ExpectedColumn {
+
+		private ColumnModel columnModel;
+		private byte[] value;
+
+		public ExpectedColumn(ColumnModel columnModel) {
+			this.columnModel = columnModel;
+			this.value = getBytes(columnModel.getValue());
+		}
+
+	}
+
+	private static class ExpectedSuperColumn {
+
+		private SuperColumnModel superColumnModel;
+		private Map<ByteBuffer, byte[]> columns = new HashMap<ByteBuffer, byte[]>();
+
+		public ExpectedSuperColumn(SuperColumnModel superColumnModel) {
+			this.superColumnModel = superColumnModel;
+
+			for (ColumnModel columnModel : superColumnModel.getColumns()) {
+				columns.put(ByteBuffer.wrap(getBytes(columnModel.getName())), getBytes(columnModel.getValue()));
+			}
+		}
+
+	}
+
+	private static class ActualRow {
+
+		private byte[] key;
+		private Map<ByteBuffer, ActualColumn> columns = new HashMap<ByteBuffer, ActualColumn>();
+		private Map<ByteBuffer, List<ActualColumn>> superColumns = new HashMap<ByteBuffer, List<ActualColumn>>();
+		private int numberOfColumns = 0;
+		private byte[] lastColumnName;
+
+		public ActualRow(byte[] key) {
+			this.key = key;
+		}
+
+		public static ActualRow empty(byte[] key) {
+			return new ActualRow(key);
+		}
+
+		public void addColumn(ActualColumn column) {
+			columns.put(ByteBuffer.wrap(column.name), column);
+			read(column.name);
+		}
+
+		public void addSuperColumn(byte[] name, List<ActualColumn> columns) {
+			superColumns.put(ByteBuffer.wrap(name), columns);
+			read(name);
+		}
+
+		private void read(byte[] name) {
+			numberOfColumns++;
+			lastColumnName = name;
+		}
+
+		public boolean isEmpty() {
+			return columns.isEmpty() && superColumns.isEmpty();
+		}
+
+	}
+
+	private static class ActualColumn {
+
+		private byte[] name;
+		private byte[] value;
+		private Object printableValue;
+
+		public ActualColumn(byte[] name, byte[] value, Object printableValue) {
+			this.name = name;
+			this.value = value;
+			this.printableValue = printableValue;
+		}
+
+		public static ActualColumn of(HColumn<byte[], byte[]> column) {
+			return new ActualColumn(column.getName(), column.getValue(), new String(column.getValue()));
+		}
+
+		public static ActualColumn of(HCounterColumn<byte[]> counterColumn) {
+			Long value = counterColumn.getValue();
+			return new ActualColumn(counterColumn.getName(), getBytes(new GenericType(Long.toString(value),
+					GenericTypeEnum.LONG_TYPE)), value);
+		}
+
+	}
+
+	/**
+	 * Reads rows by pages using range slices. No request reads more than
+	 * {@value CassandraAssertion#COLUMNS_PER_REQUEST} columns (supercolumns in
+	 * super column families), so range slices read only first columns of each
+	 * row and remaining columns of wider rows are read by slices of that row.
+	 */
+	private static abstract class RowPager {
+
+		protected Keyspace keyspace;
+		protected String columnFamilyName;
+
+		public RowPager(Keyspace keyspace, String columnFamilyName) {
+			this.keyspace = keyspace;
+			this.columnFamilyName = columnFamilyName;
+		}
+
+		/**
+		 * @return rows from given key, inclusive, or from first row if key is
+		 *         null.
+		 */
+		public List<ActualRow> page(byte[] startKey, int rowCount) {
+
+			int columnCount = Math.max(1, COLUMNS_PER_REQUEST / rowCount);
+			List<ActualRow> rows = rows(startKey, rowCount, columnCount);
+
+			for (ActualRow actualRow : rows) {
+				if (actualRow.numberOfColumns == columnCount && !isPreviousPageLastRow(startKey, actualRow)) {
+					readRemainingColumns(actualRow);
+				}
+			}
+
+			return rows;
+		}
+
+		private void readRemainingColumns(ActualRow actualRow) {
+
+			int readColumns;
+
+			do {
+				readColumns = columns(actualRow, actualRow.lastColumnName, COLUMNS_PER_REQUEST);
+			} while (readColumns == COLUMNS_PER_REQUEST);
+		}
+
+		protected boolean isStartColumn(byte[] startColumnName, byte[] columnName) {
+			return Arrays.equals(startColumnName, columnName);
+		}
+
+		protected abstract List<ActualRow> rows(byte[] startKey, int rowCount, int columnCount);
+
+		/**
+		 * Adds to given row its columns from given column, exclusive.
+		 * 
+		 * @return number of read columns, given column included.
+		 */
+		protected abstract int columns(ActualRow actualRow, byte[] startColumnName, int columnCount);
+
+	}
+
+	private static class StandardRowPager extends RowPager {
+
+		public StandardRowPager(Keyspace keyspace, String columnFamilyName) {
+			super(keyspace, columnFamilyName);
+		}
+
+		@Override
+		protected List<ActualRow> rows(byte[] startKey, int rowCount, int columnCount) {
+
+			RangeSlicesQuery<byte[], byte[], byte[]> rangeSlicesQuery = HFactory.createRangeSlicesQuery(keyspace,
+					BytesArraySerializer.get(), BytesArraySerializer.get(), BytesArraySerializer.get());
+			rangeSlicesQuery.setColumnFamily(columnFamilyName).setKeys(startKey, null).setRowCount(rowCount)
+					.setRange(null, null, false, columnCount);
+
+			List<ActualRow> rows = new ArrayList<ActualRow>();
+
+			for (Row<byte[], byte[], byte[]> row : rangeSlicesQuery.execute().get().getList()) {
+				ActualRow actualRow = new ActualRow(row.getKey());
+
+				for (HColumn<byte[], byte[]> column : row.getColumnSlice().getColumns()) {
+					actualRow.addColumn(ActualColumn.of(column));
+				}
+
+				rows.add(actualRow);
+			}
+
+			return rows;
+		}
+
+		@Override
+		protected int columns(ActualRow actualRow, byte[] startColumnName, int columnCount) {
+
+			SliceQuery<byte[], byte[], byte[]> sliceQuery = HFactory.createSliceQuery(keyspace,
+					BytesArraySerializer.get(), BytesArraySerializer.get(), BytesArraySerializer.get());
+			sliceQuery.setColumnFamily(columnFamilyName).setKey(actualRow.key)
+					.setRange(startColumnName, null, false, columnCount);
+
+			List<HColumn<byte[], byte[]>> columns = sliceQuery.execute().get().getColumns();
+
+			for (HColumn<byte[], byte[]> column : columns) {
+				if (!isStartColumn(startColumnName, column.getName())) {
+					actualRow.addColumn(ActualColumn.of(column));
+				}
+			}
+
+			return columns.size();
+		}
+
+	}
+
+	private static class CounterRowPager extends RowPager {
+
+		public CounterRowPager(Keyspace keyspace, String columnFamilyName) {
+			super(keyspace, columnFamilyName);
+		}
+
+		@Override
+		protected List<ActualRow> rows(byte[] startKey, int rowCount, int columnCount) {
+
+			RangeSlicesCounterQuery<byte[], byte[]> rangeSlicesCounterQuery = HFactory.createRangeSlicesCounterQuery(
+					keyspace, BytesArraySerializer.get(), BytesArraySerializer.get());
+			rangeSlicesCounterQuery.setColumnFamily(columnFamilyName).setKeys(startKey, null).setRowCount(rowCount)
+					.setRange(null, null, false, columnCount);
+
+			List<ActualRow> rows = new ArrayList<ActualRow>();
+
+			for (CounterRow<byte[], byte[]> row : rangeSlicesCounterQuery.execute().get().getList()) {
+				ActualRow actualRow = new ActualRow(row.getKey());
+
+				for (HCounterColumn<byte[]> counterColumn : row.getColumnSlice().getColumns()) {
+					actualRow.addColumn(ActualColumn.of(counterColumn));
+				}
+
+				rows.add(actualRow);
+			}
+
+			return rows;
+		}
+
+		@Override
+		protected int columns(ActualRow actualRow, byte[] startColumnName, int columnCount) {
+
+			SliceCounterQuery<byte[], byte[]> sliceCounterQuery = HFactory.createCounterSliceQuery(keyspace,
+					BytesArraySerializer.get(), BytesArraySerializer.get());
+			sliceCounterQuery.setColumnFamily(columnFamilyName).setKey(actualRow.key)
+					.setRange(startColumnName, null, false, columnCount);
+
+			List<HCounterColumn<byte[]>> counterColumns = sliceCounterQuery.execute().get().getColumns();
+
+			for (HCounterColumn<byte[]> counterColumn : counterColumns) {
+				if (!isStartColumn(startColumnName, counterColumn.getName())) {
+					actualRow.addColumn(ActualColumn.of(counterColumn));
+				}
+			}
+
+			return counterColumns.size();
+		}
+
+	}
+
+	private static class SuperRowPager extends RowPager {
+
+		public SuperRowPager(Keyspace keyspace, String columnFamilyName) {
+			super(keyspace, columnFamilyName);
+		}
+
+		@Override
+		protected List<ActualRow> rows(byte[] startKey, int rowCount, int columnCount) {
+
+			RangeSuperSlicesQuery<byte[], byte[], byte[], byte[]> rangeSuperSlicesQuery = HFactory
+					.createRangeSuperSlicesQuery(keyspace, BytesArraySerializer.get(), BytesArraySerializer.get(),
+							BytesArraySerializer.get(), BytesArraySerializer.get());
+			rangeSuperSlicesQuery.setColumnFamily(columnFamilyName).setKeys(startKey, null).setRowCount(rowCount)
+					.setRange(null, null, false, columnCount);
+
+			List<ActualRow> rows = new ArrayList<ActualRow>();
+
+			for (SuperRow<byte[], byte[], byte[], byte[]> row : rangeSuperSlicesQuery.execute().get().getList()) {
+				ActualRow actualRow = new ActualRow(row.getKey());
+				addSuperColumns(actualRow, null, row.getSuperSlice().getSuperColumns());
+				rows.add(actualRow);
+			}
+
+			return rows;
+		}
+
+		@Override
+		protected int columns(ActualRow actualRow, byte[] startColumnName, int columnCount) {
+
+			SuperSliceQuery<byte[], byte[], byte[], byte[]> superSliceQuery = HFactory.createSuperSliceQuery(
+					keyspace, BytesArraySerializer.get(), BytesArraySerializer.get(), BytesArraySerializer.get(),
+					BytesArraySerializer.get());
+			superSliceQuery.setColumnFamily(columnFamilyName).setKey(actualRow.key)
+					.setRange(startColumnName, null, false, columnCount);
+
+			List<HSuperColumn<byte[], byte[], byte[]>> superColumns = superSliceQuery.execute().get()
+					.getSuperColumns();
+			addSuperColumns(actualRow, startColumnName, superColumns);
+
+			return superColumns.size();
+		}
+
+		private void addSuperColumns(ActualRow actualRow, byte[] startColumnName,
+				List<HSuperColumn<byte[], byte[], byte[]>> superColumns) {
+
+			for (HSuperColumn<byte[], byte[], byte[]> superColumn : superColumns) {
+
+				if (isStartColumn(startColumnName, superColumn.getName())) {
+					continue;
+				}
+
+				List<ActualColumn> columns = new ArrayList<ActualColumn>();
+
+				for (HColumn<byte[], byte[]> column : superColumn.getColumns()) {
+					columns.add(ActualColumn.of(column));
+				}
+
+				actualRow.addSuperColumn(superColumn.getName(), columns);
+			}
+		}
+
+	}
+
 }
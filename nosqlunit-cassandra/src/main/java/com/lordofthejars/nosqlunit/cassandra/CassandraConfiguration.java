@@ -7,6 +7,7 @@ public class CassandraConfiguration extends AbstractJsr330Configuration {
 	private String clusterName;
 	private String host;
 	private int port;
+	private boolean truncateColumnFamilies;
 	
 	public CassandraConfiguration() {
 		super();
@@ -43,5 +44,12 @@ public class CassandraConfiguration extends AbstractJsr330Configuration {
 		this.port = port;
 	}
 
+	public boolean isTruncateColumnFamilies() {
+		return truncateColumnFamilies;
+	}
+
+	public void setTruncateColumnFamilies(boolean truncateColumnFamilies) {
+		this.truncateColumnFamilies = truncateColumnFamilies;
+	}
 	
 }
@@ -1,12 +1,16 @@
 package com.lordofthejars.nosqlunit.cassandra;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 
+import me.prettyprint.cassandra.serializers.ByteBufferSerializer;
 import me.prettyprint.hector.api.Cluster;
 import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.ddl.ColumnFamilyDefinition;
 import me.prettyprint.hector.api.ddl.KeyspaceDefinition;
 import me.prettyprint.hector.api.factory.HFactory;
+import me.prettyprint.hector.api.query.RangeSlicesQuery;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
@@ -71,23 +75,56 @@ public class CassandraOperation extends AbstractCustomizableDatabaseOperation<Ca
 
 	@Override
 	public void deleteAll() {
-		dropKeyspaces();
+		cleanKeyspaces();
 	}
 
-	private void dropKeyspaces() {
+	private void cleanKeyspaces() {
 
 		List<KeyspaceDefinition> keyspaces = cluster.describeKeyspaces();
 
-		/* drop all keyspace except internal cassandra keyspace */
+		/* clean all keyspace except internal cassandra keyspace */
 		for (KeyspaceDefinition keyspaceDefinition : keyspaces) {
 			String keyspaceName = keyspaceDefinition.getName();
 
 			if (!INTERNAL_CASSANDRA_KEYSPACE.equals(keyspaceName)) {
-				cluster.dropKeyspace(keyspaceName, true);
+				if (isTruncatable(keyspaceName)) {
+					truncateColumnFamilies(keyspaceDefinition);
+				} else {
+					cluster.dropKeyspace(keyspaceName, true);
+					SchemaFingerprint.forget(cassandraConfiguration, keyspaceName);
+				}
+			}
+		}
+
+	}
+
+	private boolean isTruncatable(String keyspaceName) {
+		return this.cassandraConfiguration.isTruncateColumnFamilies()
+				&& SchemaFingerprint.isLoaded(cassandraConfiguration, keyspaceName);
+	}
+
+	private void truncateColumnFamilies(KeyspaceDefinition keyspaceDefinition) {
+
+		Keyspace truncatedKeyspace = HFactory.createKeyspace(keyspaceDefinition.getName(), cluster);
+
+		for (ColumnFamilyDefinition columnFamilyDefinition : keyspaceDefinition.getCfDefs()) {
+			if (hasRows(truncatedKeyspace, columnFamilyDefinition.getName())) {
+				cluster.truncate(keyspaceDefinition.getName(), columnFamilyDefinition.getName());
 			}
 		}
 
-		List<KeyspaceDefinition> keyspaces2 = cluster.describeKeyspaces();
+	}
+
+	private boolean hasRows(Keyspace keyspace, String columnFamilyName) {
+
+		RangeSlicesQuery<ByteBuffer, ByteBuffer, ByteBuffer> rangeSlicesQuery = HFactory.createRangeSlicesQuery(
+				keyspace, ByteBufferSerializer.get(), ByteBufferSerializer.get(), ByteBufferSerializer.get());
+		rangeSlicesQuery.setColumnFamily(columnFamilyName);
+		rangeSlicesQuery.setKeys(null, null);
+		rangeSlicesQuery.setReturnKeysOnly();
+		rangeSlicesQuery.setRowCount(1);
+
+		return !rangeSlicesQuery.execute().get().getList().isEmpty();
 	}
 
 	@Override
@@ -0,0 +1,180 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.beans.HColumn;
+import me.prettyprint.hector.api.beans.HCounterColumn;
+import me.prettyprint.hector.api.ddl.ColumnType;
+import me.prettyprint.hector.api.factory.HFactory;
+import me.prettyprint.hector.api.mutation.Mutator;
+
+import org.cassandraunit.model.ColumnFamilyModel;
+import org.cassandraunit.model.ColumnModel;
+import org.cassandraunit.model.RowModel;
+import org.cassandraunit.model.SuperColumnModel;
+import org.cassandraunit.serializer.GenericTypeSerializer;
+import org.cassandraunit.type.GenericType;
+
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
+
+/**
+ * Inserts rows of a dataset into column families which already exist, without
+ * touching the schema as cassandra-unit <i>DataLoader</i> does.
+ * <p>
+ * Mutations are sent in batches of a maximum number of columns, so wide rows
+ * are split into several requests, and each column family is loaded by its
+ * own thread.
+ */
+public class ColumnFamilyDataLoader {
+
+	public static final int DEFAULT_MUTATION_BATCH_SIZE = 1000;
+
+	private static final GenericTypeSerializer GENERIC_TYPE_SERIALIZER = GenericTypeSerializer.get();
+
+	private int mutationBatchSize;
+
+	public ColumnFamilyDataLoader() {
+		this(DEFAULT_MUTATION_BATCH_SIZE);
+	}
+
+	/**
+	 * @param mutationBatchSize
+	 *            maximum number of columns sent in one batch mutation.
+	 */
+	public ColumnFamilyDataLoader(int mutationBatchSize) {
+
+		if (mutationBatchSize <= 0) {
+			throw new IllegalArgumentException("Number of mutations per batch should be positive.");
+		}
+
+		this.mutationBatchSize = mutationBatchSize;
+	}
+
+	public void load(final Keyspace keyspace, List<ColumnFamilyModel> columnFamilies) {
+
+		List<Callable<Void>> columnFamilyLoads = new ArrayList<Callable<Void>>();
+
+		for (final ColumnFamilyModel columnFamilyModel : columnFamilies) {
+			columnFamilyLoads.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					loadColumnFamilyData(keyspace, columnFamilyModel);
+					return null;
+				}
+			});
+		}
+
+		ParallelTasks.executeInParallel(columnFamilyLoads);
+
+	}
+
+	private void loadColumnFamilyData(Keyspace keyspace, ColumnFamilyModel columnFamilyModel) {
+
+		BatchMutator batchMutator = new BatchMutator(HFactory.createMutator(keyspace, GENERIC_TYPE_SERIALIZER));
+
+		for (RowModel rowModel : columnFamilyModel.getRows()) {
+			if (columnFamilyModel.getType() == ColumnType.SUPER) {
+				addSuperColumns(columnFamilyModel, batchMutator, rowModel);
+			} else {
+				addColumns(columnFamilyModel, batchMutator, rowModel);
+			}
+		}
+
+		batchMutator.flush();
+	}
+
+	private void addSuperColumns(ColumnFamilyModel columnFamilyModel, BatchMutator batchMutator, RowModel rowModel) {
+
+		for (SuperColumnModel superColumnModel : rowModel.getSuperColumns()) {
+			if (columnFamilyModel.isCounter()) {
+				batchMutator.mutator().addCounter(rowModel.getKey(), columnFamilyModel.getName(),
+						HFactory.createCounterSuperColumn(superColumnModel.getName(),
+								counterColumns(superColumnModel.getColumns()), GENERIC_TYPE_SERIALIZER,
+								GENERIC_TYPE_SERIALIZER));
+			} else {
+				batchMutator.mutator().addInsertion(rowModel.getKey(), columnFamilyModel.getName(),
+						HFactory.createSuperColumn(superColumnModel.getName(), columns(superColumnModel.getColumns()),
+								GENERIC_TYPE_SERIALIZER, GENERIC_TYPE_SERIALIZER, GENERIC_TYPE_SERIALIZER));
+			}
+			batchMutator.added(superColumnModel.getColumns().size());
+		}
+	}
+
+	private void addColumns(ColumnFamilyModel columnFamilyModel, BatchMutator batchMutator, RowModel rowModel) {
+
+		if (columnFamilyModel.isCounter()) {
+			for (HCounterColumn<GenericType> counterColumn : counterColumns(rowModel.getColumns())) {
+				batchMutator.mutator().addCounter(rowModel.getKey(), columnFamilyModel.getName(), counterColumn);
+				batchMutator.added(1);
+			}
+		} else {
+			for (HColumn<GenericType, GenericType> column : columns(rowModel.getColumns())) {
+				batchMutator.mutator().addInsertion(rowModel.getKey(), columnFamilyModel.getName(), column);
+				batchMutator.added(1);
+			}
+		}
+	}
+
+	private List<HColumn<GenericType, GenericType>> columns(List<ColumnModel> columnModels) {
+
+		List<HColumn<GenericType, GenericType>> columns = new ArrayList<HColumn<GenericType, GenericType>>();
+
+		for (ColumnModel columnModel : columnModels) {
+			columns.add(HFactory.createColumn(columnModel.getName(), columnModel.getValue(), GENERIC_TYPE_SERIALIZER,
+					GENERIC_TYPE_SERIALIZER));
+		}
+
+		return columns;
+	}
+
+	private List<HCounterColumn<GenericType>> counterColumns(List<ColumnModel> columnModels) {
+
+		List<HCounterColumn<GenericType>> counterColumns = new ArrayList<HCounterColumn<GenericType>>();
+
+		for (ColumnModel columnModel : columnModels) {
+			long value = LongSerializer.get().fromByteBuffer(
+					GENERIC_TYPE_SERIALIZER.toByteBuffer(columnModel.getValue()));
+			counterColumns.add(HFactory.createCounterColumn(columnModel.getName(), value, GENERIC_TYPE_SERIALIZER));
+		}
+
+		return counterColumns;
+	}
+
+	private class BatchMutator {
+
+		private Mutator<GenericType> mutator;
+		private int pendingMutations;
+
+		public BatchMutator(Mutator<GenericType> mutator) {
+			this.mutator = mutator;
+		}
+
+		public Mutator<GenericType> mutator() {
+			return mutator;
+		}
+
+		public void added(int mutations) {
+
+			pendingMutations += mutations;
+
+			if (pendingMutations >= mutationBatchSize) {
+				flush();
+			}
+		}
+
+		public void flush() {
+
+			if (pendingMutations > 0) {
+				mutator.execute();
+				pendingMutations = 0;
+			}
+		}
+
+	}
+
+}
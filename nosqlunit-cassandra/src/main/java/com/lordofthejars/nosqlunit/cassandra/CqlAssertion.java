@@ -0,0 +1,237 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import me.prettyprint.hector.api.Cluster;
+import me.prettyprint.hector.api.ddl.ColumnFamilyDefinition;
+import me.prettyprint.hector.api.ddl.KeyspaceDefinition;
+
+import org.apache.cassandra.db.marshal.MarshalException;
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.CqlMetadata;
+import org.apache.cassandra.thrift.CqlResult;
+import org.apache.cassandra.thrift.CqlRow;
+
+import com.lordofthejars.nosqlunit.core.FailureHandler;
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
+
+/**
+ * Compares a CQL dataset with database content. Expected rows of each table
+ * are grouped by partition key and each partition is read with one prepared
+ * SELECT, so a table is never read whole into memory. Tables are compared
+ * concurrently, each one using its own connection.
+ */
+public class CqlAssertion {
+
+	private static final String COUNT_LIMIT = "1000000";
+
+	private CqlAssertion() {
+		super();
+	}
+
+	public static void strictAssertEquals(CqlDataSet dataSet, final CassandraConfiguration cassandraConfiguration,
+			Cluster cluster) {
+
+		final KeyspaceDefinition keyspaceDefinition = cluster.describeKeyspace(dataSet.getKeyspace());
+
+		checkKeyspace(dataSet.getKeyspace(), keyspaceDefinition);
+		checkTablesSize(dataSet.getTables(), keyspaceDefinition.getCfDefs());
+
+		List<Callable<Void>> tableChecks = new ArrayList<Callable<Void>>();
+
+		for (final CqlTable expectedTable : dataSet.getTables()) {
+			tableChecks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					checkTable(cassandraConfiguration, keyspaceDefinition, expectedTable);
+					return null;
+				}
+			});
+		}
+
+		ParallelTasks.executeInParallel(tableChecks);
+
+	}
+
+	private static void checkTable(CassandraConfiguration cassandraConfiguration,
+			KeyspaceDefinition keyspaceDefinition, CqlTable expectedTable) {
+
+		checkTableName(keyspaceDefinition.getCfDefs(), expectedTable.getName());
+
+		String partitionKey = CqlDataLoader.partitionKey(keyspaceDefinition, expectedTable.getName());
+
+		if (partitionKey == null) {
+			throw FailureHandler.createFailure("Partition key of table %s was not found.", expectedTable.getName());
+		}
+
+		CqlConnection cqlConnection = CqlConnection.open(cassandraConfiguration);
+
+		try {
+			cqlConnection.useKeyspace(keyspaceDefinition.getName());
+
+			checkNumberOfRowsIntoTable(expectedTable, countRows(cqlConnection, expectedTable.getName()));
+
+			String selectPartition = "SELECT * FROM " + expectedTable.getName() + " WHERE " + partitionKey + " = ?";
+
+			for (Map.Entry<Object, List<LinkedHashMap<String, Object>>> partition : CqlDataLoader.groupByPartition(
+					expectedTable, partitionKey).entrySet()) {
+
+				CqlResult result = cqlConnection.executePrepared(selectPartition,
+						Arrays.asList(partition.getKey()));
+
+				checkPartition(expectedTable.getName(), partition.getKey(), partition.getValue(), actualRows(result));
+			}
+		} finally {
+			cqlConnection.close();
+		}
+	}
+
+	private static void checkPartition(String tableName, Object partitionValue,
+			List<LinkedHashMap<String, Object>> expectedRows, List<ActualRow> actualRows) {
+
+		if (expectedRows.size() != actualRows.size()) {
+			throw FailureHandler.createFailure(
+					"Expected number of rows for partition key %s of table %s is %s but was counted %s.",
+					partitionValue, tableName, expectedRows.size(), actualRows.size());
+		}
+
+		for (Map<String, Object> expectedRow : expectedRows) {
+			if (!containsRow(actualRows, expectedRow)) {
+				throw FailureHandler.createFailure("Table %s does not contain row %s.", tableName, expectedRow);
+			}
+		}
+	}
+
+	private static boolean containsRow(List<ActualRow> actualRows, Map<String, Object> expectedRow) {
+
+		for (ActualRow actualRow : actualRows) {
+			if (actualRow.matches(expectedRow)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static List<ActualRow> actualRows(CqlResult result) {
+
+		List<ActualRow> actualRows = new ArrayList<ActualRow>();
+
+		for (CqlRow row : result.getRows()) {
+			actualRows.add(new ActualRow(row, result.getSchema()));
+		}
+
+		return actualRows;
+	}
+
+	private static long countRows(CqlConnection cqlConnection, String tableName) {
+
+		CqlResult result = cqlConnection.execute("SELECT COUNT(*) FROM " + tableName + " LIMIT " + COUNT_LIMIT);
+		Column count = result.getRows().get(0).getColumns().get(0);
+
+		return Long.parseLong(CqlTypes.asString(valueType(result.getSchema(), count.bufferForName()),
+				count.bufferForValue()));
+	}
+
+	private static String valueType(CqlMetadata metadata, ByteBuffer columnName) {
+
+		String valueType = metadata.getValue_types().get(columnName);
+		return valueType == null ? metadata.getDefault_value_type() : valueType;
+	}
+
+	private static void checkNumberOfRowsIntoTable(CqlTable expectedTable, long numberOfRows) {
+		if (expectedTable.getRows().size() != numberOfRows) {
+			throw FailureHandler.createFailure("Expected number of rows for table %s is %s but was counted %s.",
+					expectedTable.getName(), expectedTable.getRows().size(), numberOfRows);
+		}
+	}
+
+	private static void checkTableName(List<ColumnFamilyDefinition> columnFamilyDefinitions, String expectedTableName) {
+
+		for (ColumnFamilyDefinition columnFamilyDefinition : columnFamilyDefinitions) {
+			if (columnFamilyDefinition.getName().equalsIgnoreCase(expectedTableName)) {
+				return;
+			}
+		}
+
+		throw FailureHandler.createFailure("Expected name of table is %s but was not found.", expectedTableName);
+	}
+
+	private static void checkTablesSize(List<CqlTable> expectedTables,
+			List<ColumnFamilyDefinition> columnFamilyDefinitions) {
+		if (expectedTables.size() != columnFamilyDefinitions.size()) {
+			throw FailureHandler.createFailure("Expected number of tables is %s but was %s.", expectedTables.size(),
+					columnFamilyDefinitions.size());
+		}
+	}
+
+	private static void checkKeyspace(String expectedKeyspaceName, KeyspaceDefinition keyspaceDefinition) {
+		if (keyspaceDefinition == null) {
+			throw FailureHandler.createFailure("Expected keyspace name is %s but was not found.",
+					expectedKeyspaceName);
+		}
+	}
+
+	/**
+	 * Row read from database, with values of not null columns indexed by
+	 * lower case column name.
+	 */
+	private static class ActualRow {
+
+		private Map<String, ByteBuffer> values = new HashMap<String, ByteBuffer>();
+		private Map<String, String> types = new HashMap<String, String>();
+
+		public ActualRow(CqlRow row, CqlMetadata metadata) {
+
+			for (Column column : row.getColumns()) {
+				if (column.getValue() != null) {
+					String columnName = CqlTypes.columnName(column.bufferForName()).toLowerCase();
+					values.put(columnName, column.bufferForValue());
+					types.put(columnName, valueType(metadata, column.bufferForName()));
+				}
+			}
+		}
+
+		public boolean matches(Map<String, Object> expectedRow) {
+
+			int expectedColumns = 0;
+
+			for (Map.Entry<String, Object> expectedColumn : expectedRow.entrySet()) {
+				if (expectedColumn.getValue() != null) {
+					expectedColumns++;
+
+					if (!hasValue(expectedColumn.getKey().toLowerCase(), expectedColumn.getValue())) {
+						return false;
+					}
+				}
+			}
+
+			return expectedColumns == values.size();
+		}
+
+		private boolean hasValue(String columnName, Object expectedValue) {
+
+			ByteBuffer value = values.get(columnName);
+
+			if (value == null) {
+				return false;
+			}
+
+			try {
+				return value.equals(CqlTypes.decompose(types.get(columnName), expectedValue));
+			} catch (MarshalException e) {
+				return false;
+			}
+		}
+
+	}
+
+}
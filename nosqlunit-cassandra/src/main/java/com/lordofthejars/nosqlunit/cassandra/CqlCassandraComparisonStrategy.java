@@ -0,0 +1,20 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.io.InputStream;
+
+import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+
+/**
+ * Compares datasets written in CQL dataset format (see {@link CqlDataSet}).
+ */
+public class CqlCassandraComparisonStrategy implements CassandraComparisonStrategy {
+
+	@Override
+	public boolean compare(CassandraConnectionCallback connection, InputStream dataset) throws NoSqlAssertionError,
+			Throwable {
+		CqlAssertion.strictAssertEquals(CqlDataSet.fromJson(dataset), connection.cassandraConfiguration(),
+				connection.cluster());
+		return true;
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import me.prettyprint.cassandra.service.ThriftKsDef;
+import me.prettyprint.hector.api.Cluster;
+import me.prettyprint.hector.api.ddl.ColumnFamilyDefinition;
+import me.prettyprint.hector.api.ddl.KeyspaceDefinition;
+import me.prettyprint.hector.api.factory.HFactory;
+
+/**
+ * Inserts datasets written in CQL dataset format (see {@link CqlDataSet}).
+ */
+public class CqlCassandraInsertionStrategy implements CassandraInsertionStrategy {
+
+	private String keyspaceName;
+	private CqlDataLoader cqlDataLoader;
+
+	public CqlCassandraInsertionStrategy() {
+		this(CqlDataLoader.DEFAULT_BATCH_SIZE, CqlDataLoader.DEFAULT_MAX_IN_FLIGHT_REQUESTS);
+	}
+
+	/**
+	 * @param batchSize
+	 *            maximum number of rows sent in one batch.
+	 * @param maxInFlightRequests
+	 *            maximum number of batches executed at same time.
+	 */
+	public CqlCassandraInsertionStrategy(int batchSize, int maxInFlightRequests) {
+		this.cqlDataLoader = new CqlDataLoader(batchSize, maxInFlightRequests);
+	}
+
+	@Override
+	public void insert(CassandraConnectionCallback connection, InputStream dataset) throws Throwable {
+
+		CqlDataSet cqlDataSet = CqlDataSet.fromJson(dataset);
+
+		CassandraConfiguration cassandraConfiguration = connection.cassandraConfiguration();
+		Cluster cluster = connection.cluster();
+
+		keyspaceName = cqlDataSet.getKeyspace();
+		String schemaFingerprint = SchemaFingerprint.of(cqlDataSet);
+
+		if (!isSchemaReusable(connection, schemaFingerprint)) {
+			createSchema(cassandraConfiguration, cluster, cqlDataSet);
+			SchemaFingerprint.loaded(cassandraConfiguration, keyspaceName, schemaFingerprint);
+		}
+
+		cqlDataLoader.load(cassandraConfiguration, cluster.describeKeyspace(keyspaceName), cqlDataSet.getTables());
+
+	}
+
+	private void createSchema(CassandraConfiguration cassandraConfiguration, Cluster cluster, CqlDataSet cqlDataSet) {
+
+		if (cluster.describeKeyspace(keyspaceName) != null) {
+			cluster.dropKeyspace(keyspaceName, true);
+		}
+
+		KeyspaceDefinition keyspaceDefinition = HFactory.createKeyspaceDefinition(keyspaceName,
+				ThriftKsDef.DEF_STRATEGY_CLASS, cqlDataSet.getReplicationFactor(),
+				new ArrayList<ColumnFamilyDefinition>());
+		cluster.addKeyspace(keyspaceDefinition, true);
+
+		CqlConnection cqlConnection = CqlConnection.open(cassandraConfiguration);
+
+		try {
+			cqlConnection.useKeyspace(keyspaceName);
+
+			for (String statement : cqlDataSet.getSchema()) {
+				cqlConnection.execute(statement);
+			}
+		} finally {
+			cqlConnection.close();
+		}
+	}
+
+	private boolean isSchemaReusable(CassandraConnectionCallback connection, String schemaFingerprint) {
+
+		CassandraConfiguration cassandraConfiguration = connection.cassandraConfiguration();
+		Cluster cluster = connection.cluster();
+
+		return cassandraConfiguration.isTruncateColumnFamilies()
+				&& SchemaFingerprint.isLoaded(cassandraConfiguration, keyspaceName, schemaFingerprint)
+				&& cluster.describeKeyspace(keyspaceName) != null;
+	}
+
+	@Override
+	public String getKeyspaceName() {
+		return keyspaceName;
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.Compression;
+import org.apache.cassandra.thrift.CqlPreparedResult;
+import org.apache.cassandra.thrift.CqlResult;
+import org.apache.cassandra.utils.ByteBufferUtil;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+
+/**
+ * Thrift connection speaking CQL3. Prepared statements live in server side
+ * session of the connection, so each statement is prepared only once per
+ * connection and then executed with bound values.
+ */
+class CqlConnection {
+
+	private static final String CQL_VERSION = "3.0.0";
+
+	private TTransport transport;
+	private Cassandra.Client client;
+	private Map<String, CqlPreparedResult> preparedStatements = new HashMap<String, CqlPreparedResult>();
+
+	private CqlConnection(TTransport transport) {
+		this.transport = transport;
+		this.client = new Cassandra.Client(new TBinaryProtocol(transport));
+	}
+
+	public static CqlConnection open(CassandraConfiguration cassandraConfiguration) {
+
+		TTransport transport = new TFramedTransport(new TSocket(cassandraConfiguration.getHost(),
+				cassandraConfiguration.getPort()));
+
+		try {
+			transport.open();
+			CqlConnection cqlConnection = new CqlConnection(transport);
+			cqlConnection.client.set_cql_version(CQL_VERSION);
+			return cqlConnection;
+		} catch (Exception e) {
+			transport.close();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public void useKeyspace(String keyspaceName) {
+		try {
+			client.set_keyspace(keyspaceName);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public CqlResult execute(String statement) {
+		try {
+			return client.execute_cql_query(ByteBufferUtil.bytes(statement), Compression.NONE);
+		} catch (Exception e) {
+			throw new IllegalStateException("Statement " + statement + " cannot be executed.", e);
+		}
+	}
+
+	/**
+	 * @param values
+	 *            dataset values of each bind marker, converted to the type
+	 *            Cassandra reports for that marker.
+	 */
+	public CqlResult executePrepared(String statement, List<Object> values) {
+		try {
+			CqlPreparedResult preparedStatement = prepare(statement);
+			return client.execute_prepared_cql_query(preparedStatement.getItemId(),
+					bind(preparedStatement, values));
+		} catch (Exception e) {
+			throw new IllegalStateException("Statement " + statement + " cannot be executed.", e);
+		}
+	}
+
+	private CqlPreparedResult prepare(String statement) throws Exception {
+
+		CqlPreparedResult preparedStatement = preparedStatements.get(statement);
+
+		if (preparedStatement == null) {
+			preparedStatement = client.prepare_cql_query(ByteBufferUtil.bytes(statement), Compression.NONE);
+			preparedStatements.put(statement, preparedStatement);
+		}
+
+		return preparedStatement;
+	}
+
+	private List<ByteBuffer> bind(CqlPreparedResult preparedStatement, List<Object> values) {
+
+		List<ByteBuffer> boundValues = new ArrayList<ByteBuffer>(values.size());
+		List<String> variableTypes = preparedStatement.getVariable_types();
+
+		for (int i = 0; i < values.size(); i++) {
+			boundValues.add(CqlTypes.decompose(variableTypes.get(i), values.get(i)));
+		}
+
+		return boundValues;
+	}
+
+	public void close() {
+		transport.close();
+	}
+
+}
@@ -0,0 +1,228 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import me.prettyprint.hector.api.ddl.ColumnFamilyDefinition;
+import me.prettyprint.hector.api.ddl.KeyspaceDefinition;
+
+import org.apache.cassandra.db.marshal.UTF8Type;
+
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
+
+/**
+ * Inserts rows of a CQL dataset into tables which already exist. Rows are
+ * grouped by partition key and each group is sent as batches of prepared
+ * INSERT statements, so rows of a batch are written to the same partition.
+ * <p>
+ * Batches are spread among a bounded number of connections which execute
+ * them concurrently, so at most that number of requests are in flight.
+ */
+public class CqlDataLoader {
+
+	public static final int DEFAULT_BATCH_SIZE = 100;
+	public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 4;
+
+	private int batchSize;
+	private int maxInFlightRequests;
+
+	public CqlDataLoader() {
+		this(DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT_REQUESTS);
+	}
+
+	/**
+	 * @param batchSize
+	 *            maximum number of rows sent in one batch.
+	 * @param maxInFlightRequests
+	 *            maximum number of batches executed at same time.
+	 */
+	public CqlDataLoader(int batchSize, int maxInFlightRequests) {
+
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Number of rows per batch should be positive.");
+		}
+
+		if (maxInFlightRequests <= 0) {
+			throw new IllegalArgumentException("Number of in flight requests should be positive.");
+		}
+
+		this.batchSize = batchSize;
+		this.maxInFlightRequests = maxInFlightRequests;
+	}
+
+	public void load(final CassandraConfiguration cassandraConfiguration, KeyspaceDefinition keyspaceDefinition,
+			List<CqlTable> tables) {
+
+		final String keyspaceName = keyspaceDefinition.getName();
+		List<Batch> batches = new ArrayList<Batch>();
+
+		for (CqlTable table : tables) {
+			String partitionKey = partitionKey(keyspaceDefinition, table.getName());
+
+			for (List<LinkedHashMap<String, Object>> partitionRows : groupByPartition(table, partitionKey).values()) {
+				batches.addAll(split(table.getName(), partitionRows));
+			}
+		}
+
+		List<Callable<Void>> batchExecutions = new ArrayList<Callable<Void>>();
+
+		for (final List<Batch> connectionBatches : distribute(batches)) {
+			batchExecutions.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+
+					CqlConnection cqlConnection = CqlConnection.open(cassandraConfiguration);
+
+					try {
+						cqlConnection.useKeyspace(keyspaceName);
+
+						for (Batch batch : connectionBatches) {
+							cqlConnection.executePrepared(batch.statement(), batch.values());
+						}
+					} finally {
+						cqlConnection.close();
+					}
+
+					return null;
+				}
+			});
+		}
+
+		ParallelTasks.executeInParallel(batchExecutions);
+
+	}
+
+	/**
+	 * @return name of partition key column of a table, or null if it is not
+	 *         found.
+	 */
+	static String partitionKey(KeyspaceDefinition keyspaceDefinition, String tableName) {
+
+		for (ColumnFamilyDefinition columnFamilyDefinition : keyspaceDefinition.getCfDefs()) {
+			if (columnFamilyDefinition.getName().equalsIgnoreCase(tableName)
+					&& columnFamilyDefinition.getKeyAlias() != null) {
+				return UTF8Type.instance.getString(columnFamilyDefinition.getKeyAlias());
+			}
+		}
+
+		return null;
+	}
+
+	static Map<Object, List<LinkedHashMap<String, Object>>> groupByPartition(CqlTable table, String partitionKey) {
+
+		Map<Object, List<LinkedHashMap<String, Object>>> partitions = new LinkedHashMap<Object, List<LinkedHashMap<String, Object>>>();
+
+		for (LinkedHashMap<String, Object> row : table.getRows()) {
+			Object partitionValue = partitionKey == null ? null : CqlTable.columnValue(row, partitionKey);
+			List<LinkedHashMap<String, Object>> partitionRows = partitions.get(partitionValue);
+
+			if (partitionRows == null) {
+				partitionRows = new ArrayList<LinkedHashMap<String, Object>>();
+				partitions.put(partitionValue, partitionRows);
+			}
+
+			partitionRows.add(row);
+		}
+
+		return partitions;
+	}
+
+	private List<Batch> split(String tableName, List<LinkedHashMap<String, Object>> partitionRows) {
+
+		List<Batch> batches = new ArrayList<Batch>();
+
+		for (int from = 0; from < partitionRows.size(); from += batchSize) {
+			int to = Math.min(from + batchSize, partitionRows.size());
+			batches.add(new Batch(tableName, partitionRows.subList(from, to)));
+		}
+
+		return batches;
+	}
+
+	private List<List<Batch>> distribute(List<Batch> batches) {
+
+		int connections = Math.min(maxInFlightRequests, batches.size());
+		List<List<Batch>> connectionBatches = new ArrayList<List<Batch>>(connections);
+
+		for (int i = 0; i < connections; i++) {
+			connectionBatches.add(new ArrayList<Batch>());
+		}
+
+		for (int i = 0; i < batches.size(); i++) {
+			connectionBatches.get(i % connections).add(batches.get(i));
+		}
+
+		return connectionBatches;
+	}
+
+	/**
+	 * Rows of one partition, inserted with one statement. Statements of
+	 * batches with same columns and size are equal, so they are prepared once
+	 * per connection.
+	 */
+	static class Batch {
+
+		private String tableName;
+		private List<LinkedHashMap<String, Object>> rows;
+
+		public Batch(String tableName, List<LinkedHashMap<String, Object>> rows) {
+			this.tableName = tableName;
+			this.rows = rows;
+		}
+
+		public String statement() {
+
+			if (rows.size() == 1) {
+				return insert(rows.get(0));
+			}
+
+			StringBuilder statement = new StringBuilder("BEGIN BATCH ");
+
+			for (Map<String, Object> row : rows) {
+				statement.append(insert(row)).append(' ');
+			}
+
+			return statement.append("APPLY BATCH").toString();
+		}
+
+		public List<Object> values() {
+
+			List<Object> values = new ArrayList<Object>();
+
+			for (Map<String, Object> row : rows) {
+				for (Object value : row.values()) {
+					if (value != null) {
+						values.add(value);
+					}
+				}
+			}
+
+			return values;
+		}
+
+		private String insert(Map<String, Object> row) {
+
+			StringBuilder columns = new StringBuilder();
+			StringBuilder markers = new StringBuilder();
+
+			for (Map.Entry<String, Object> column : row.entrySet()) {
+				if (column.getValue() != null) {
+					if (columns.length() > 0) {
+						columns.append(", ");
+						markers.append(", ");
+					}
+					columns.append(column.getKey());
+					markers.append('?');
+				}
+			}
+
+			return "INSERT INTO " + tableName + " (" + columns + ") VALUES (" + markers + ")";
+		}
+
+	}
+
+}
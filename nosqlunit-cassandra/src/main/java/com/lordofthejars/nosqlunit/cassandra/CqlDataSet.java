@@ -0,0 +1,93 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cassandraunit.dataset.ParseException;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.map.JsonMappingException;
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * Dataset of CQL3 tables. Keyspace is created with given replication factor,
+ * schema statements are executed inside it, and each row of a table is a map
+ * from column name to value.
+ * 
+ * <pre>
+ * {
+ *   "keyspace" : "CqlKeyspace",
+ *   "schema" : ["CREATE TABLE users (id text, added int, name text, PRIMARY KEY (id, added))"],
+ *   "tables" : [{
+ *     "name" : "users",
+ *     "rows" : [{"id" : "jsmith", "added" : 1, "name" : "John"}]
+ *   }]
+ * }
+ * </pre>
+ */
+public class CqlDataSet {
+
+	private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+	private String keyspace;
+	private int replicationFactor = 1;
+	private List<String> schema = new ArrayList<String>();
+	private List<CqlTable> tables = new ArrayList<CqlTable>();
+
+	public static CqlDataSet fromJson(InputStream dataSet) {
+
+		if (dataSet == null) {
+			throw new ParseException("Dataset not found");
+		}
+
+		try {
+			CqlDataSet cqlDataSet = JSON_MAPPER.readValue(dataSet, CqlDataSet.class);
+
+			if (cqlDataSet.getKeyspace() == null) {
+				throw new ParseException("Keyspace name is mandatory");
+			}
+
+			return cqlDataSet;
+		} catch (JsonParseException e) {
+			throw new ParseException(e);
+		} catch (JsonMappingException e) {
+			throw new ParseException(e);
+		} catch (IOException e) {
+			throw new ParseException(e);
+		}
+	}
+
+	public String getKeyspace() {
+		return keyspace;
+	}
+
+	public void setKeyspace(String keyspace) {
+		this.keyspace = keyspace;
+	}
+
+	public int getReplicationFactor() {
+		return replicationFactor;
+	}
+
+	public void setReplicationFactor(int replicationFactor) {
+		this.replicationFactor = replicationFactor;
+	}
+
+	public List<String> getSchema() {
+		return schema;
+	}
+
+	public void setSchema(List<String> schema) {
+		this.schema = schema;
+	}
+
+	public List<CqlTable> getTables() {
+		return tables;
+	}
+
+	public void setTables(List<CqlTable> tables) {
+		this.tables = tables;
+	}
+
+}
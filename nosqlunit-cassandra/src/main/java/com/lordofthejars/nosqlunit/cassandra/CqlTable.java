@@ -0,0 +1,44 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CqlTable {
+
+	private String name;
+	private List<LinkedHashMap<String, Object>> rows = new ArrayList<LinkedHashMap<String, Object>>();
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List<LinkedHashMap<String, Object>> getRows() {
+		return rows;
+	}
+
+	public void setRows(List<LinkedHashMap<String, Object>> rows) {
+		this.rows = rows;
+	}
+
+	/**
+	 * @return value of given column of a row, column names are not case
+	 *         sensitive as in CQL.
+	 */
+	public static Object columnValue(Map<String, Object> row, String columnName) {
+
+		for (Map.Entry<String, Object> column : row.entrySet()) {
+			if (column.getKey().equalsIgnoreCase(columnName)) {
+				return column.getValue();
+			}
+		}
+
+		return null;
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.nio.ByteBuffer;
+
+import org.apache.cassandra.config.ConfigurationException;
+import org.apache.cassandra.db.marshal.AbstractType;
+import org.apache.cassandra.db.marshal.TypeParser;
+import org.apache.cassandra.db.marshal.UTF8Type;
+
+/**
+ * Converts dataset values from and to the binary form of a Cassandra
+ * validator, like <i>Int32Type</i> or <i>UTF8Type</i>.
+ */
+final class CqlTypes {
+
+	private CqlTypes() {
+		super();
+	}
+
+	public static ByteBuffer decompose(String typeName, Object value) {
+		return type(typeName).fromString(String.valueOf(value));
+	}
+
+	public static String asString(String typeName, ByteBuffer value) {
+		return type(typeName).getString(value);
+	}
+
+	public static String columnName(ByteBuffer name) {
+		return UTF8Type.instance.getString(name);
+	}
+
+	private static AbstractType<?> type(String typeName) {
+		try {
+			return TypeParser.parse(typeName);
+		} catch (ConfigurationException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+}
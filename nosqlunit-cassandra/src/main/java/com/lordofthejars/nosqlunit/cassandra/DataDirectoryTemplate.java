@@ -0,0 +1,89 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+
+import org.apache.cassandra.io.util.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.Files;
+
+/**
+ * Pre-warmed copy of an embedded Cassandra data directory. It is captured once
+ * after the first cold start, when system keyspace has been bootstrapped and
+ * flushed to SSTables, and it is copied into the data directory of every
+ * later start instead of bootstrapping it again.
+ * <p>
+ * Template is first written into a sibling directory and then renamed, so
+ * concurrent JVM forks never see a half written template; when two forks
+ * capture it at same time the first rename wins and the other copy is
+ * discarded.
+ */
+class DataDirectoryTemplate {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DataDirectoryTemplate.class);
+
+	private static final String TEMPORARY_FILE_MARK = "-tmp-";
+
+	private File templateDirectory;
+
+	public DataDirectoryTemplate(String templateDirectory) {
+		this.templateDirectory = new File(templateDirectory);
+	}
+
+	public boolean exists() {
+		return templateDirectory.isDirectory();
+	}
+
+	public void copyTo(File dataDirectory) throws IOException {
+		LOGGER.debug("Copying data directory template {} to {}", templateDirectory, dataDirectory);
+		copyDirectory(templateDirectory, dataDirectory);
+	}
+
+	public void saveFrom(File dataDirectory) throws IOException {
+
+		File parentDirectory = templateDirectory.getAbsoluteFile().getParentFile();
+
+		if (!parentDirectory.exists() && !parentDirectory.mkdirs()) {
+			throw new IOException("Directory " + parentDirectory + " cannot be created.");
+		}
+
+		File workingDirectory = new File(parentDirectory, templateDirectory.getName() + "-" + UUID.randomUUID());
+		copyDirectory(dataDirectory, workingDirectory);
+
+		if (workingDirectory.renameTo(templateDirectory)) {
+			LOGGER.debug("Data directory template saved in {}", templateDirectory);
+		} else {
+			LOGGER.debug("Data directory template {} was already saved by another process.", templateDirectory);
+			FileUtils.deleteRecursive(workingDirectory);
+		}
+	}
+
+	private void copyDirectory(File source, File destination) throws IOException {
+
+		if (!destination.exists() && !destination.mkdirs()) {
+			throw new IOException("Directory " + destination + " cannot be created.");
+		}
+
+		File[] files = source.listFiles();
+
+		if (files == null) {
+			throw new IOException("Directory " + source + " cannot be read.");
+		}
+
+		for (File file : files) {
+			if (file.isDirectory()) {
+				copyDirectory(file, new File(destination, file.getName()));
+			} else if (!isBeingWritten(file)) {
+				Files.copy(file, new File(destination, file.getName()));
+			}
+		}
+	}
+
+	private boolean isBeingWritten(File file) {
+		return file.getName().contains(TEMPORARY_FILE_MARK);
+	}
+
+}
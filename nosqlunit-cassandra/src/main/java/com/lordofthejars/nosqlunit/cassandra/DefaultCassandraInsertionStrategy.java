@@ -2,24 +2,64 @@ package com.lordofthejars.nosqlunit.cassandra;
 
 import java.io.InputStream;
 
+import me.prettyprint.hector.api.Cluster;
+import me.prettyprint.hector.api.factory.HFactory;
+
 import org.cassandraunit.DataLoader;
+import org.cassandraunit.LoadingOption;
 
 public class DefaultCassandraInsertionStrategy implements CassandraInsertionStrategy {
 
 	private String keyspaceName;
+	private ColumnFamilyDataLoader columnFamilyDataLoader;
+
+	public DefaultCassandraInsertionStrategy() {
+		this(ColumnFamilyDataLoader.DEFAULT_MUTATION_BATCH_SIZE);
+	}
+
+	/**
+	 * @param mutationBatchSize
+	 *            maximum number of columns sent in one batch mutation.
+	 */
+	public DefaultCassandraInsertionStrategy(int mutationBatchSize) {
+		this.columnFamilyDataLoader = new ColumnFamilyDataLoader(mutationBatchSize);
+	}
 
 	@Override
 	public void insert(CassandraConnectionCallback connection, InputStream dataset) throws Throwable {
-		
+
 		InputStreamJsonDataSet dataSet = new InputStreamJsonDataSet(dataset);
-		
+
 		CassandraConfiguration cassandraConfiguration = connection.cassandraConfiguration();
-		
-		DataLoader dataLoader = new DataLoader(cassandraConfiguration.getClusterName(), getFullHost(cassandraConfiguration));
-		dataLoader.load(dataSet);
-		
+
 		keyspaceName = dataSet.getKeyspace().getName();
-		
+		String schemaFingerprint = SchemaFingerprint.of(dataSet.getKeyspace());
+
+		if (!isSchemaReusable(connection, schemaFingerprint)) {
+			DataLoader dataLoader = new DataLoader(cassandraConfiguration.getClusterName(), getFullHost(cassandraConfiguration));
+			dataLoader.load(dataSet, onlySchema());
+			SchemaFingerprint.loaded(cassandraConfiguration, keyspaceName, schemaFingerprint);
+		}
+
+		columnFamilyDataLoader.load(HFactory.createKeyspace(keyspaceName, connection.cluster()),
+				dataSet.getColumnFamilies());
+
+	}
+
+	private boolean isSchemaReusable(CassandraConnectionCallback connection, String schemaFingerprint) {
+
+		CassandraConfiguration cassandraConfiguration = connection.cassandraConfiguration();
+		Cluster cluster = connection.cluster();
+
+		return cassandraConfiguration.isTruncateColumnFamilies()
+				&& SchemaFingerprint.isLoaded(cassandraConfiguration, keyspaceName, schemaFingerprint)
+				&& cluster.describeKeyspace(keyspaceName) != null;
+	}
+
+	private LoadingOption onlySchema() {
+		LoadingOption loadingOption = new LoadingOption();
+		loadingOption.setOnlySchema(true);
+		return loadingOption;
 	}
 
 	private String getFullHost(CassandraConfiguration cassandraConfiguration) {
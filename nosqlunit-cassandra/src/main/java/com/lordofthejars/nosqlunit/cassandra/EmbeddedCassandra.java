@@ -38,6 +38,11 @@ public class EmbeddedCassandra extends ExternalResource {
 			return this;
 		}
 		
+		public EmbeddedCassandraRuleBuilder dataDirectoryTemplatePath(String dataDirectoryTemplatePath) {
+			this.embeddedCassandraLifecycleManager.setDataDirectoryTemplatePath(dataDirectoryTemplatePath);
+			return this;
+		}
+		
 		public EmbeddedCassandra build() {
 			
 			if (this.embeddedCassandraLifecycleManager.getTargetPath() == null) {
@@ -32,6 +32,11 @@ public class EmbeddedCassandraConfigurationBuilder {
 		return this;
 	}
 	
+	public EmbeddedCassandraConfigurationBuilder truncateColumnFamilies() {
+		this.cassandraConfiguration.setTruncateColumnFamilies(true);
+		return this;
+	}
+	
 	public CassandraConfiguration build() {
 		if(this.cassandraConfiguration.getClusterName() == null) {
 			throw new IllegalArgumentException("Cluster name cannot be null");
@@ -24,6 +24,7 @@ private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedCassandra.c
 	private String targetPath = DEFAULT_CASSANDRA_TARGET_PATH;
 	private String cassandraConfigurationFile = DEFAULT_CASSANDRA_CONFIGURATION_FILE_LOCATION;
 	private int port = DEFAULT_PORT;
+	private String dataDirectoryTemplatePath;
 	
 	private EmbeddedCassandraServerHelper embeddedCassandraServerHelper = new EmbeddedCassandraServerHelper();
 	
@@ -57,7 +58,12 @@ private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedCassandra.c
 	}
 
 	private void createEmbeddedCassandra() throws TTransportException, IOException, InterruptedException, ConfigurationException {
-		embeddedCassandraServerHelper.startEmbeddedCassandra(cassandraConfigurationFile, targetPath);
+		if (dataDirectoryTemplatePath == null) {
+			embeddedCassandraServerHelper.startEmbeddedCassandra(cassandraConfigurationFile, targetPath);
+		} else {
+			embeddedCassandraServerHelper.startEmbeddedCassandra(cassandraConfigurationFile, targetPath, port,
+					dataDirectoryTemplatePath);
+		}
 	}
 
 	private void stopEmbeddedCassandra() {
@@ -72,6 +78,10 @@ private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedCassandra.c
 		return cassandraConfigurationFile;
 	}
 	
+	public String getDataDirectoryTemplatePath() {
+		return dataDirectoryTemplatePath;
+	}
+	
 	public void setTargetPath(String targetPath) {
 		this.targetPath = targetPath;
 	}
@@ -85,6 +95,10 @@ private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedCassandra.c
 		this.cassandraConfigurationFile = cassandraConfigurationFile;
 	}
 	
+	public void setDataDirectoryTemplatePath(String dataDirectoryTemplatePath) {
+		this.dataDirectoryTemplatePath = dataDirectoryTemplatePath;
+	}
+	
 	protected void setEmbeddedCassandraServerHelper(EmbeddedCassandraServerHelper embeddedCassandraServerHelper) {
 		this.embeddedCassandraServerHelper = embeddedCassandraServerHelper;
 	}
@@ -7,11 +7,14 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
 
 import me.prettyprint.cassandra.service.CassandraHostConfigurator;
 import me.prettyprint.hector.api.Cluster;
@@ -22,12 +25,17 @@ import org.apache.cassandra.config.ConfigurationException;
 import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.db.commitlog.CommitLog;
 import org.apache.cassandra.io.util.FileUtils;
+import org.apache.cassandra.service.StorageService;
 import org.apache.cassandra.thrift.CassandraDaemon;
 import org.apache.commons.lang.StringUtils;
 import org.apache.thrift.transport.TTransportException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Charsets;
+import com.google.common.io.CharStreams;
+import com.google.common.io.Files;
+
 
 public class EmbeddedCassandraServerHelper {
 	
@@ -37,6 +45,9 @@ public class EmbeddedCassandraServerHelper {
 	public static final String DEFAULT_CASSANDRA_YML_FILE = "cu-cassandra.yaml";
 	private static final String INTERNAL_CASSANDRA_KEYSPACE = "system";
 
+	public static final int STORAGE_PORT_OFFSET = 10000;
+	public static final int SSL_STORAGE_PORT_OFFSET = 20000;
+
 	private static CassandraDaemon cassandraDaemon = null;
 	static ExecutorService executor = Executors.newSingleThreadExecutor();
 
@@ -73,31 +84,101 @@ public class EmbeddedCassandraServerHelper {
 			copy("/log4j-embedded-cassandra.properties", tmpDir);
 			copy(yamlFile, tmpDir);
 
-			System.setProperty("cassandra.config", "file:" + tmpDir + yamlFile);
-			System.setProperty("log4j.configuration", "file:" + tmpDir + "/log4j-embedded-cassandra.properties");
-			System.setProperty("cassandra-foreground", "true");
+			setSystemProperties(yamlFile, tmpDir);
 
 			cleanupAndLeaveDirs();
-			final CountDownLatch startupLatch = new CountDownLatch(1);
-			executor.execute(new Runnable() {
-				@Override
-				public void run() {
-					cassandraDaemon = new CassandraDaemon();
-					cassandraDaemon.activate();
-					startupLatch.countDown();
-				}
-			});
-			try {
-				startupLatch.await(10, SECONDS);
-			} catch (InterruptedException e) {
-				log.error("Interrupted waiting for Cassandra daemon to start:", e);
-				throw new AssertionError(e);
+			activateCassandraDaemon();
+		} else {
+			/* nothing to do Cassandra is already started */
+		}
+	}
+
+	/**
+	 * Set embedded cassandra up from a pre-warmed data directory template and
+	 * spawn it in a new thread. Directories and ports of configuration file
+	 * are rewritten to live inside tmpDir and to listen on given port, so each
+	 * JVM fork may run its own instance. If template does not exist yet,
+	 * cassandra is cold started and its flushed data directory is saved as
+	 * template.
+	 * 
+	 * @throws TTransportException
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public void startEmbeddedCassandra(String yamlFile, String tmpDir, int port, String templateDir)
+			throws TTransportException, IOException, ConfigurationException {
+
+		if (!StringUtils.startsWith(yamlFile, "/")) {
+			yamlFile = "/" + yamlFile;
+		}
+
+		if (cassandraDaemon == null) {
+			log.debug("Starting cassandra from data directory template {}", templateDir);
+			rmdir(tmpDir);
+			copy("/log4j-embedded-cassandra.properties", tmpDir);
+			copyForkConfiguration(yamlFile, tmpDir, port);
+
+			setSystemProperties(yamlFile, tmpDir);
+
+			DataDirectoryTemplate dataDirectoryTemplate = new DataDirectoryTemplate(templateDir);
+			boolean prewarmed = dataDirectoryTemplate.exists();
+
+			if (prewarmed) {
+				mkdirs();
+				dataDirectoryTemplate.copyTo(dataDirectory());
+			} else {
+				cleanupAndLeaveDirs();
+			}
+
+			activateCassandraDaemon();
+
+			if (!prewarmed) {
+				flushSystemKeyspace();
+				dataDirectoryTemplate.saveFrom(dataDirectory());
 			}
 		} else {
 			/* nothing to do Cassandra is already started */
 		}
 	}
 
+	private void setSystemProperties(String yamlFile, String tmpDir) {
+		System.setProperty("cassandra.config", "file:" + tmpDir + yamlFile);
+		System.setProperty("log4j.configuration", "file:" + tmpDir + "/log4j-embedded-cassandra.properties");
+		System.setProperty("cassandra-foreground", "true");
+	}
+
+	private void activateCassandraDaemon() {
+		final CountDownLatch startupLatch = new CountDownLatch(1);
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				cassandraDaemon = new CassandraDaemon();
+				cassandraDaemon.activate();
+				startupLatch.countDown();
+			}
+		});
+		try {
+			startupLatch.await(10, SECONDS);
+		} catch (InterruptedException e) {
+			log.error("Interrupted waiting for Cassandra daemon to start:", e);
+			throw new AssertionError(e);
+		}
+	}
+
+	private void flushSystemKeyspace() throws IOException {
+		try {
+			StorageService.instance.forceTableFlush(INTERNAL_CASSANDRA_KEYSPACE);
+		} catch (ExecutionException e) {
+			throw new IOException(e);
+		} catch (InterruptedException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private File dataDirectory() {
+		return new File(DatabaseDescriptor.getAllDataFileLocations()[0]);
+	}
+
 	/**
 	 * stop the embedded cassandra
 	 */
@@ -161,6 +242,37 @@ public class EmbeddedCassandraServerHelper {
 		is.close();
 	}
 
+	private static void copyForkConfiguration(String resource, String directory, int port) throws IOException {
+		mkdir(directory);
+		InputStream is = EmbeddedCassandraServerHelper.class.getResourceAsStream(resource);
+		String fileName = resource.substring(resource.lastIndexOf("/") + 1);
+		try {
+			String yaml = CharStreams.toString(new InputStreamReader(is, Charsets.UTF_8));
+			Files.write(forkConfiguration(yaml, directory, port), new File(directory, fileName), Charsets.UTF_8);
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Rewrites directories and ports of a cassandra yaml so they are owned by
+	 * only one embedded instance. Storage ports are derived from rpc port.
+	 */
+	static String forkConfiguration(String yaml, String directory, int port) {
+		String forkConfiguration = yaml;
+		forkConfiguration = replaceValue(forkConfiguration, "(?m)^(data_file_directories:\\s*\\n\\s*-\\s*).*$", directory + "/data");
+		forkConfiguration = replaceValue(forkConfiguration, "(?m)^(commitlog_directory:\\s*).*$", directory + "/commitlog");
+		forkConfiguration = replaceValue(forkConfiguration, "(?m)^(saved_caches_directory:\\s*).*$", directory + "/saved_caches");
+		forkConfiguration = replaceValue(forkConfiguration, "(?m)^(rpc_port:\\s*).*$", Integer.toString(port));
+		forkConfiguration = replaceValue(forkConfiguration, "(?m)^(storage_port:\\s*).*$", Integer.toString(port + STORAGE_PORT_OFFSET));
+		forkConfiguration = replaceValue(forkConfiguration, "(?m)^(ssl_storage_port:\\s*).*$", Integer.toString(port + SSL_STORAGE_PORT_OFFSET));
+		return forkConfiguration;
+	}
+
+	private static String replaceValue(String yaml, String property, String value) {
+		return yaml.replaceAll(property, "$1" + Matcher.quoteReplacement(value));
+	}
+
 	/**
 	 * Creates a directory
 	 * 
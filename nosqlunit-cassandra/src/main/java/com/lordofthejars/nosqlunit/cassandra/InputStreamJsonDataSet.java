@@ -13,6 +13,8 @@ import org.codehaus.jackson.map.ObjectMapper;
 
 public class InputStreamJsonDataSet extends AbstractCommonsParserDataSet implements DataSet  {
 
+	private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
 	private InputStream inputDataSetLocation;
 	
 	public InputStreamJsonDataSet(InputStream inputDataSetLocation) {
@@ -25,9 +27,8 @@ public class InputStreamJsonDataSet extends AbstractCommonsParserDataSet impleme
 			throw new ParseException("Dataset not found");
 		}
 
-		ObjectMapper jsonMapper = new ObjectMapper();
 		try {
-			return jsonMapper.readValue(inputDataSetLocation, ParsedKeyspace.class);
+			return JSON_MAPPER.readValue(inputDataSetLocation, ParsedKeyspace.class);
 		} catch (JsonParseException e) {
 			throw new ParseException(e);
 		} catch (JsonMappingException e) {
@@ -34,6 +34,11 @@ public class ManagedCassandraConfigurationBuilder {
 		return this;
 	}
 	
+	public ManagedCassandraConfigurationBuilder truncateColumnFamilies() {
+		this.cassandraConfiguration.setTruncateColumnFamilies(true);
+		return this;
+	}
+	
 	public CassandraConfiguration build() {
 		if(this.cassandraConfiguration.getClusterName() == null) {
 			throw new IllegalArgumentException("Cluster name cannot be null");
@@ -40,6 +40,11 @@ public class RemoteCassandraConfigurationBuilder {
 	
 	
 	
+	public RemoteCassandraConfigurationBuilder truncateColumnFamilies() {
+		this.cassandraConfiguration.setTruncateColumnFamilies(true);
+		return this;
+	}
+	
 	public CassandraConfiguration build() {
 		if(this.cassandraConfiguration.getClusterName() == null) {
 			throw new IllegalArgumentException("Cluster name cannot be null");
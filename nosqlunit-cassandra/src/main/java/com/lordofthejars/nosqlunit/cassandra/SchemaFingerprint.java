@@ -0,0 +1,153 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import me.prettyprint.hector.api.ddl.ComparatorType;
+
+import org.cassandraunit.model.ColumnFamilyModel;
+import org.cassandraunit.model.ColumnMetadataModel;
+import org.cassandraunit.model.CompactionStrategyOptionModel;
+import org.cassandraunit.model.KeyspaceModel;
+
+/**
+ * Digest of keyspace and column families definitions of a dataset, rows are
+ * not part of it. Fingerprints of keyspaces created from datasets are
+ * remembered by server, so a keyspace is only created again when a dataset
+ * declares a different schema.
+ */
+public class SchemaFingerprint {
+
+	private static final String SEPARATOR = "|";
+	private static final String KEYSPACE_SEPARATOR = "/";
+
+	private static final ConcurrentMap<String, String> LOADED_SCHEMAS = new ConcurrentHashMap<String, String>();
+
+	private SchemaFingerprint() {
+		super();
+	}
+
+	/**
+	 * @param keyspaceModel
+	 *            keyspace declared in a dataset.
+	 * @return hexadecimal digest of its schema.
+	 */
+	public static String of(KeyspaceModel keyspaceModel) {
+
+		StringBuilder schema = new StringBuilder();
+
+		schema.append(keyspaceModel.getName()).append(SEPARATOR).append(keyspaceModel.getStrategy())
+				.append(SEPARATOR).append(keyspaceModel.getReplicationFactor());
+
+		for (ColumnFamilyModel columnFamilyModel : keyspaceModel.getColumnFamilies()) {
+			appendColumnFamily(schema, columnFamilyModel);
+		}
+
+		return digest(schema.toString());
+	}
+
+	/**
+	 * @param cqlDataSet
+	 *            CQL dataset.
+	 * @return hexadecimal digest of its keyspace and schema statements.
+	 */
+	public static String of(CqlDataSet cqlDataSet) {
+
+		StringBuilder schema = new StringBuilder();
+
+		schema.append(cqlDataSet.getKeyspace()).append(SEPARATOR).append(cqlDataSet.getReplicationFactor());
+
+		for (String statement : cqlDataSet.getSchema()) {
+			schema.append(SEPARATOR).append(statement);
+		}
+
+		return digest(schema.toString());
+	}
+
+	/**
+	 * Remembers schema of a keyspace created from a dataset.
+	 */
+	public static void loaded(CassandraConfiguration cassandraConfiguration, String keyspaceName, String fingerprint) {
+		LOADED_SCHEMAS.put(key(cassandraConfiguration, keyspaceName), fingerprint);
+	}
+
+	/**
+	 * @return true if keyspace was created from a dataset with given schema.
+	 */
+	public static boolean isLoaded(CassandraConfiguration cassandraConfiguration, String keyspaceName,
+			String fingerprint) {
+		return fingerprint.equals(LOADED_SCHEMAS.get(key(cassandraConfiguration, keyspaceName)));
+	}
+
+	/**
+	 * @return true if keyspace was created from any dataset.
+	 */
+	public static boolean isLoaded(CassandraConfiguration cassandraConfiguration, String keyspaceName) {
+		return LOADED_SCHEMAS.containsKey(key(cassandraConfiguration, keyspaceName));
+	}
+
+	public static void forget(CassandraConfiguration cassandraConfiguration, String keyspaceName) {
+		LOADED_SCHEMAS.remove(key(cassandraConfiguration, keyspaceName));
+	}
+
+	private static void appendColumnFamily(StringBuilder schema, ColumnFamilyModel columnFamilyModel) {
+
+		schema.append(SEPARATOR).append(columnFamilyModel.getName()).append(SEPARATOR)
+				.append(columnFamilyModel.getType()).append(SEPARATOR)
+				.append(typeName(columnFamilyModel.getKeyType())).append(SEPARATOR)
+				.append(columnFamilyModel.getKeyTypeAlias()).append(SEPARATOR)
+				.append(typeName(columnFamilyModel.getComparatorType())).append(SEPARATOR)
+				.append(columnFamilyModel.getComparatorTypeAlias()).append(SEPARATOR)
+				.append(typeName(columnFamilyModel.getSubComparatorType())).append(SEPARATOR)
+				.append(typeName(columnFamilyModel.getDefaultColumnValueType())).append(SEPARATOR)
+				.append(columnFamilyModel.getComment()).append(SEPARATOR)
+				.append(columnFamilyModel.getCompactionStrategy()).append(SEPARATOR)
+				.append(columnFamilyModel.getGcGraceSeconds()).append(SEPARATOR)
+				.append(columnFamilyModel.getMaxCompactionThreshold()).append(SEPARATOR)
+				.append(columnFamilyModel.getMinCompactionThreshold()).append(SEPARATOR)
+				.append(columnFamilyModel.getReadRepairChance()).append(SEPARATOR)
+				.append(columnFamilyModel.getReplicationOnWrite());
+
+		if (columnFamilyModel.getCompactionStrategyOptions() != null) {
+			for (CompactionStrategyOptionModel option : columnFamilyModel.getCompactionStrategyOptions()) {
+				schema.append(SEPARATOR).append(option.getName()).append('=').append(option.getValue());
+			}
+		}
+
+		if (columnFamilyModel.getColumnsMetadata() != null) {
+			for (ColumnMetadataModel columnMetadata : columnFamilyModel.getColumnsMetadata()) {
+				schema.append(SEPARATOR).append(columnMetadata.getColumnName()).append(SEPARATOR)
+						.append(typeName(columnMetadata.getValidationClass())).append(SEPARATOR)
+						.append(columnMetadata.getColumnIndexType()).append(SEPARATOR)
+						.append(columnMetadata.getIndexName());
+			}
+		}
+	}
+
+	private static String typeName(ComparatorType comparatorType) {
+		return comparatorType == null ? null : comparatorType.getTypeName();
+	}
+
+	private static String key(CassandraConfiguration cassandraConfiguration, String keyspaceName) {
+		return cassandraConfiguration.getClusterName() + SEPARATOR
+				+ CassandraHostFormat.convert(cassandraConfiguration.getHost(), cassandraConfiguration.getPort())
+				+ KEYSPACE_SEPARATOR + keyspaceName;
+	}
+
+	private static String digest(String content) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+			byte[] digest = messageDigest.digest(content.getBytes("UTF-8"));
+			return String.format("%032x", new BigInteger(1, digest));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.lordofthejars.nosqlunit.cassandra;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+public class WhenDataDirectoryTemplateIsUsed {
+
+	private static final String CASSANDRA_CONFIGURATION = "data_file_directories:\n" +
+			"    - target/cassandra-temp/data\n" +
+			"commitlog_directory: target/cassandra-temp/commitlog\n" +
+			"saved_caches_directory: target/cassandra-temp/saved_caches\n" +
+			"seed_provider:\n" +
+			"    - class_name: org.apache.cassandra.locator.SimpleSeedProvider\n" +
+			"storage_port: 7010\n" +
+			"ssl_storage_port: 7011\n" +
+			"rpc_port: 9171\n";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void template_should_not_exist_until_it_is_saved() throws IOException {
+
+		File dataDirectory = dataDirectory();
+		DataDirectoryTemplate dataDirectoryTemplate = new DataDirectoryTemplate(new File(temporaryFolder.getRoot(),
+				"template").getPath());
+
+		assertThat(dataDirectoryTemplate.exists(), is(false));
+
+		dataDirectoryTemplate.saveFrom(dataDirectory);
+
+		assertThat(dataDirectoryTemplate.exists(), is(true));
+		assertThat(temporaryFolder.getRoot().list().length, is(2));
+
+	}
+
+	@Test
+	public void saved_template_should_be_copied_without_temporary_files() throws IOException {
+
+		File dataDirectory = dataDirectory();
+		DataDirectoryTemplate dataDirectoryTemplate = new DataDirectoryTemplate(new File(temporaryFolder.getRoot(),
+				"template").getPath());
+		dataDirectoryTemplate.saveFrom(dataDirectory);
+
+		File forkDataDirectory = new File(temporaryFolder.getRoot(), "fork/data");
+		dataDirectoryTemplate.copyTo(forkDataDirectory);
+
+		assertThat(Files.toString(new File(forkDataDirectory, "system/LocationInfo/system-LocationInfo-hc-1-Data.db"),
+				Charsets.UTF_8), is("sstable"));
+		assertThat(new File(forkDataDirectory, "system/LocationInfo/system-LocationInfo-tmp-hc-2-Data.db").exists(),
+				is(false));
+
+	}
+
+	@Test
+	public void already_saved_template_should_not_be_overwritten() throws IOException {
+
+		File dataDirectory = dataDirectory();
+		DataDirectoryTemplate dataDirectoryTemplate = new DataDirectoryTemplate(new File(temporaryFolder.getRoot(),
+				"template").getPath());
+		dataDirectoryTemplate.saveFrom(dataDirectory);
+
+		Files.write("newer", new File(dataDirectory, "system/LocationInfo/system-LocationInfo-hc-1-Data.db"),
+				Charsets.UTF_8);
+		dataDirectoryTemplate.saveFrom(dataDirectory);
+
+		assertThat(Files.toString(new File(temporaryFolder.getRoot(),
+				"template/system/LocationInfo/system-LocationInfo-hc-1-Data.db"), Charsets.UTF_8), is("sstable"));
+		assertThat(temporaryFolder.getRoot().list().length, is(2));
+
+	}
+
+	@Test
+	public void configuration_directories_and_ports_should_be_owned_by_fork() {
+
+		String forkConfiguration = EmbeddedCassandraServerHelper.forkConfiguration(CASSANDRA_CONFIGURATION,
+				"target/fork1", 9172);
+
+		assertThat(forkConfiguration.contains("data_file_directories:\n    - target/fork1/data\n"), is(true));
+		assertThat(forkConfiguration.contains("commitlog_directory: target/fork1/commitlog\n"), is(true));
+		assertThat(forkConfiguration.contains("saved_caches_directory: target/fork1/saved_caches\n"), is(true));
+		assertThat(forkConfiguration.contains("    - class_name: org.apache.cassandra.locator.SimpleSeedProvider\n"), is(true));
+		assertThat(forkConfiguration.contains("rpc_port: 9172\n"), is(true));
+		assertThat(forkConfiguration.contains("storage_port: 19172\n"), is(true));
+		assertThat(forkConfiguration.contains("ssl_storage_port: 29172\n"), is(true));
+
+	}
+
+	private File dataDirectory() throws IOException {
+
+		File dataDirectory = temporaryFolder.newFolder("data");
+		File columnFamilyDirectory = new File(dataDirectory, "system/LocationInfo");
+		columnFamilyDirectory.mkdirs();
+
+		Files.write("sstable", new File(columnFamilyDirectory, "system-LocationInfo-hc-1-Data.db"), Charsets.UTF_8);
+		Files.write("partial", new File(columnFamilyDirectory, "system-LocationInfo-tmp-hc-2-Data.db"), Charsets.UTF_8);
+
+		return dataDirectory;
+	}
+
+}
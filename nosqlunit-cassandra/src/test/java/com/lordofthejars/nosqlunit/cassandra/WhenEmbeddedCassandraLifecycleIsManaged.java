@@ -75,6 +75,31 @@ public class WhenEmbeddedCassandraLifecycleIsManaged {
 		
 	}
 	
+	@Test
+	public void embedded_cassandra_should_be_started_from_data_directory_template_when_configured() throws Throwable {
+		
+		EmbeddedCassandra cassandraRule = newEmbeddedCassandraRule().targetPath("tmp").port(9172).dataDirectoryTemplatePath("template").build();
+		cassandraRule.embeddedCassandraLifecycleManager.setEmbeddedCassandraServerHelper(embeddedCassandraServerHelper);
+		
+		Statement noStatement = new Statement() {
+			
+			@Override
+			public void evaluate() throws Throwable {
+			
+				assertThat(ConnectionManagement.getInstance().isConnectionRegistered(EmbeddedCassandraLifecycleManager.LOCALHOST, 9172), is(true));
+			}
+		};
+		
+		Statement decotedStatement = cassandraRule.apply(noStatement, Description.EMPTY);
+		decotedStatement.evaluate();
+		
+		verify(embeddedCassandraServerHelper).startEmbeddedCassandra(EmbeddedCassandraLifecycleManager.DEFAULT_CASSANDRA_CONFIGURATION_FILE_LOCATION, "tmp", 9172, "template");
+		verify(embeddedCassandraServerHelper).stopEmbeddedCassandra();
+		
+		assertThat(ConnectionManagement.getInstance().isConnectionRegistered(EmbeddedCassandraLifecycleManager.LOCALHOST, 9172), is(false));
+		
+	}
+	
 	@Test
 	public void simulataneous_cassandra_should_start_only_one_instance() throws Throwable {
 
@@ -0,0 +1,74 @@
+package com.lordofthejars.nosqlunit.cassandra.integration;
+
+import static com.lordofthejars.nosqlunit.cassandra.EmbeddedCassandra.EmbeddedCassandraRuleBuilder.newEmbeddedCassandraRule;
+import static com.lordofthejars.nosqlunit.cassandra.EmbeddedCassandraConfigurationBuilder.newEmbeddedCassandraConfiguration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+
+import me.prettyprint.hector.api.Cluster;
+import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.factory.HFactory;
+import me.prettyprint.hector.api.query.ColumnQuery;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.lordofthejars.nosqlunit.cassandra.CassandraConfiguration;
+import com.lordofthejars.nosqlunit.cassandra.CassandraOperation;
+import com.lordofthejars.nosqlunit.cassandra.EmbeddedCassandra;
+
+public class WhenCassandraColumnFamiliesAreTruncated {
+
+	private static final String INSERT_DATA = "{\n" +
+			"    \"name\" : \"TruncatedKeyspace\",\n" +
+			"    \"columnFamilies\" : [{\n" +
+			"        \"name\" : \"ColumnFamilyName\",\n" +
+			"		 \"keyType\" : \"UTF8Type\",\n"+
+			"        \"defaultColumnValueType\" : \"UTF8Type\",\n"+
+			"        \"comparatorType\" : \"UTF8Type\",\n"+
+			"        \"rows\" : [{\n" +
+			"            \"key\" : \"%s\",\n" +
+			"            \"columns\" : [{\n" +
+			"                \"name\" : \"first\",\n" +
+			"                \"value\" : \"John\"\n" +
+			"            }]\n" +
+			"        }]\n" +
+			"    }]\n" +
+			"}";
+
+	@Rule
+	public EmbeddedCassandra cassandraRule = newEmbeddedCassandraRule().build();
+
+	@Test
+	public void same_schema_should_be_kept_and_only_rows_removed() {
+
+		CassandraConfiguration cassandraConfiguration = newEmbeddedCassandraConfiguration().clusterName("Test Cluster")
+				.truncateColumnFamilies().build();
+
+		CassandraOperation cassandraOperation = new CassandraOperation(cassandraConfiguration);
+		cassandraOperation.insert(new ByteArrayInputStream(String.format(INSERT_DATA, "jsmith").getBytes()));
+
+		Cluster cluster = HFactory.getOrCreateCluster("Test Cluster", "127.0.0.1:9171");
+		String schemaVersion = cluster.describeSchemaVersions().keySet().iterator().next();
+
+		cassandraOperation.deleteAll();
+		cassandraOperation.insert(new ByteArrayInputStream(String.format(INSERT_DATA, "ajones").getBytes()));
+
+		assertThat(cluster.describeSchemaVersions().keySet().iterator().next(), is(schemaVersion));
+		assertThat(firstName(cassandraOperation.connectionManager(), "jsmith"), nullValue());
+		assertThat(firstName(cassandraOperation.connectionManager(), "ajones"), notNullValue());
+
+		new CassandraOperation(newEmbeddedCassandraConfiguration().clusterName("Test Cluster").build()).deleteAll();
+	}
+
+	private String firstName(Keyspace keyspace, String key) {
+		ColumnQuery<String, String, String> columnQuery = HFactory.createStringColumnQuery(keyspace);
+		columnQuery.setColumnFamily("ColumnFamilyName").setKey(key).setName("first");
+		return columnQuery.execute().get() == null ? null : columnQuery.execute().get().getValue();
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.lordofthejars.nosqlunit.cassandra.integration;
+
+import static com.lordofthejars.nosqlunit.cassandra.EmbeddedCassandra.EmbeddedCassandraRuleBuilder.newEmbeddedCassandraRule;
+import static com.lordofthejars.nosqlunit.cassandra.EmbeddedCassandraConfigurationBuilder.newEmbeddedCassandraConfiguration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.factory.HFactory;
+import me.prettyprint.hector.api.query.CountQuery;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.lordofthejars.nosqlunit.cassandra.CassandraOperation;
+import com.lordofthejars.nosqlunit.cassandra.DefaultCassandraInsertionStrategy;
+import com.lordofthejars.nosqlunit.cassandra.EmbeddedCassandra;
+
+public class WhenCassandraDatasetIsLoadedInBatches {
+
+	private static final int WIDE_ROW_COLUMNS = 2500;
+
+	@Rule
+	public EmbeddedCassandra cassandraRule = newEmbeddedCassandraRule().build();
+
+	@After
+	public void tearDown() {
+		new CassandraOperation(newEmbeddedCassandraConfiguration().clusterName("Test Cluster").build()).deleteAll();
+	}
+
+	@Test
+	public void wide_rows_of_every_column_family_should_be_inserted() {
+
+		CassandraOperation cassandraOperation = new CassandraOperation(newEmbeddedCassandraConfiguration()
+				.clusterName("Test Cluster").build());
+		cassandraOperation.setInsertionStrategy(new DefaultCassandraInsertionStrategy(100));
+
+		cassandraOperation.insert(new ByteArrayInputStream(dataset().getBytes()));
+
+		Keyspace keyspace = cassandraOperation.connectionManager();
+
+		assertThat(countColumns(keyspace, "WideColumnFamily", "wide"), is(WIDE_ROW_COLUMNS));
+		assertThat(countColumns(keyspace, "NarrowColumnFamily", "narrow"), is(1));
+
+	}
+
+	private int countColumns(Keyspace keyspace, String columnFamilyName, String key) {
+		CountQuery<String, String> countQuery = HFactory.createCountQuery(keyspace, StringSerializer.get(),
+				StringSerializer.get());
+		countQuery.setColumnFamily(columnFamilyName).setKey(key).setRange(null, null, Integer.MAX_VALUE);
+		return countQuery.execute().get();
+	}
+
+	private String dataset() {
+
+		StringBuilder dataset = new StringBuilder();
+		dataset.append("{\"name\" : \"BatchKeyspace\", \"columnFamilies\" : [");
+		dataset.append("{\"name\" : \"WideColumnFamily\", \"keyType\" : \"UTF8Type\", \"defaultColumnValueType\" : \"UTF8Type\", \"comparatorType\" : \"UTF8Type\",");
+		dataset.append(" \"rows\" : [{\"key\" : \"wide\", \"columns\" : [");
+
+		for (int i = 0; i < WIDE_ROW_COLUMNS; i++) {
+			if (i > 0) {
+				dataset.append(",");
+			}
+			dataset.append("{\"name\" : \"column").append(i).append("\", \"value\" : \"value").append(i).append("\"}");
+		}
+
+		dataset.append("]}]},");
+		dataset.append("{\"name\" : \"NarrowColumnFamily\", \"keyType\" : \"UTF8Type\", \"defaultColumnValueType\" : \"UTF8Type\", \"comparatorType\" : \"UTF8Type\",");
+		dataset.append(" \"rows\" : [{\"key\" : \"narrow\", \"columns\" : [{\"name\" : \"first\", \"value\" : \"John\"}]}]}");
+		dataset.append("]}");
+
+		return dataset.toString();
+	}
+
+}
@@ -23,6 +23,8 @@ import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
 
 public class WhenComparingCassandraDataset {
 
+	private static final String EOL = System.getProperty("line.separator");
+
 	private static final String INSERT_DATA = "{\n" + "    \"name\" : \"MyKeyspace\",\n"
 			+ "    \"columnFamilies\" : [{\n" + "        \"name\" : \"ColumnFamilyName\",\n"
 			+ "		 \"keyType\" : \"UTF8Type\",\n" + "        \"defaultColumnValueType\" : \"UTF8Type\",\n"
@@ -749,4 +751,156 @@ public class WhenComparingCassandraDataset {
 
 	}
 
+	@Test
+	public void no_exception_should_be_thrown_if_dataset_read_in_several_pages_is_expected() {
+
+		CassandraOperation cassandraOperation = new CassandraOperation(new CassandraConfiguration("Test Cluster",
+				"localhost", 9171));
+		cassandraOperation.insert(new ByteArrayInputStream(manyRowsDataset(1200, "value").getBytes()));
+
+		Cluster cluster = HFactory.getOrCreateCluster("Test Cluster", "localhost:9171");
+		Keyspace keyspace = HFactory.createKeyspace("MyKeyspace", cluster);
+
+		CassandraAssertion.strictAssertEquals(new InputStreamJsonDataSet(new ByteArrayInputStream(manyRowsDataset(
+				1200, "value").getBytes())), cluster, keyspace);
+
+	}
+
+	@Test
+	public void exception_should_be_thrown_with_every_different_row_of_dataset_read_in_several_pages() {
+
+		CassandraOperation cassandraOperation = new CassandraOperation(new CassandraConfiguration("Test Cluster",
+				"localhost", 9171));
+		cassandraOperation.insert(new ByteArrayInputStream(manyRowsDataset(1200, "value").getBytes()));
+
+		Cluster cluster = HFactory.getOrCreateCluster("Test Cluster", "localhost:9171");
+		Keyspace keyspace = HFactory.createKeyspace("MyKeyspace", cluster);
+
+		String expectedDataset = manyRowsDataset(1200, "value").replace("\"value5\"", "\"other5\"")
+				.replace("\"value1000\"", "\"other1000\"");
+
+		try {
+			CassandraAssertion.strictAssertEquals(new InputStreamJsonDataSet(new ByteArrayInputStream(
+					expectedDataset.getBytes())), cluster, keyspace);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), is("2 differences have been found between database data and expected data:" + EOL
+					+ "Column family ColumnFamilyName:" + EOL
+					+ "    Row with key key5 does not contain column with name first and value value5." + EOL
+					+ "    Row with key key1000 does not contain column with name first and value value1000."));
+		}
+
+	}
+
+	@Test
+	public void reported_differences_should_be_limited() {
+
+		CassandraOperation cassandraOperation = new CassandraOperation(new CassandraConfiguration("Test Cluster",
+				"localhost", 9171));
+		cassandraOperation.insert(new ByteArrayInputStream(manyRowsDataset(1200, "value").getBytes()));
+
+		Cluster cluster = HFactory.getOrCreateCluster("Test Cluster", "localhost:9171");
+		Keyspace keyspace = HFactory.createKeyspace("MyKeyspace", cluster);
+
+		try {
+			CassandraAssertion.strictAssertEquals(new InputStreamJsonDataSet(new ByteArrayInputStream(
+					manyRowsDataset(1200, "other").getBytes())), cluster, keyspace);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			String[] lines = e.getMessage().split(EOL);
+			assertThat(lines.length, is(23));
+			assertThat(lines[0], is("1200 differences have been found between database data and expected data:"));
+			assertThat(lines[2], is("    Row with key key0 does not contain column with name first and value value0."));
+			assertThat(lines[22], is("... and 1180 more."));
+		}
+
+	}
+
+	@Test
+	public void no_exception_should_be_thrown_if_wide_rows_read_in_several_pages_are_expected() {
+
+		CassandraOperation cassandraOperation = new CassandraOperation(new CassandraConfiguration("Test Cluster",
+				"localhost", 9171));
+		cassandraOperation.insert(new ByteArrayInputStream(wideRowsDataset(3, 250, "value").getBytes()));
+
+		Cluster cluster = HFactory.getOrCreateCluster("Test Cluster", "localhost:9171");
+		Keyspace keyspace = HFactory.createKeyspace("MyKeyspace", cluster);
+
+		CassandraAssertion.strictAssertEquals(new InputStreamJsonDataSet(new ByteArrayInputStream(wideRowsDataset(3,
+				250, "value").getBytes())), cluster, keyspace);
+
+	}
+
+	@Test
+	public void exception_should_be_thrown_if_last_columns_of_wide_row_are_different() {
+
+		CassandraOperation cassandraOperation = new CassandraOperation(new CassandraConfiguration("Test Cluster",
+				"localhost", 9171));
+		cassandraOperation.insert(new ByteArrayInputStream(wideRowsDataset(3, 250, "value").getBytes()));
+
+		Cluster cluster = HFactory.getOrCreateCluster("Test Cluster", "localhost:9171");
+		Keyspace keyspace = HFactory.createKeyspace("MyKeyspace", cluster);
+
+		String expectedDataset = wideRowsDataset(3, 250, "value").replace("\"value1-240\"", "\"other1-240\"");
+
+		try {
+			CassandraAssertion.strictAssertEquals(new InputStreamJsonDataSet(new ByteArrayInputStream(
+					expectedDataset.getBytes())), cluster, keyspace);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(),
+					is("Row with key key1 does not contain column with name column240 and value value1-240."));
+		}
+
+	}
+
+	private String wideRowsDataset(int numberOfRows, int numberOfColumns, String valuePrefix) {
+
+		StringBuilder dataset = new StringBuilder();
+		dataset.append("{\"name\" : \"MyKeyspace\", \"columnFamilies\" : [{\"name\" : \"ColumnFamilyName\",");
+		dataset.append(" \"keyType\" : \"UTF8Type\", \"defaultColumnValueType\" : \"UTF8Type\", \"comparatorType\" : \"UTF8Type\",");
+		dataset.append(" \"rows\" : [");
+
+		for (int i = 0; i < numberOfRows; i++) {
+			if (i > 0) {
+				dataset.append(",");
+			}
+			dataset.append("{\"key\" : \"key").append(i).append("\", \"columns\" : [");
+
+			for (int j = 0; j < numberOfColumns; j++) {
+				if (j > 0) {
+					dataset.append(",");
+				}
+				dataset.append("{\"name\" : \"column").append(j).append("\", \"value\" : \"").append(valuePrefix)
+						.append(i).append("-").append(j).append("\"}");
+			}
+
+			dataset.append("]}");
+		}
+
+		dataset.append("]}]}");
+
+		return dataset.toString();
+	}
+
+	private String manyRowsDataset(int numberOfRows, String valuePrefix) {
+
+		StringBuilder dataset = new StringBuilder();
+		dataset.append("{\"name\" : \"MyKeyspace\", \"columnFamilies\" : [{\"name\" : \"ColumnFamilyName\",");
+		dataset.append(" \"keyType\" : \"UTF8Type\", \"defaultColumnValueType\" : \"UTF8Type\", \"comparatorType\" : \"UTF8Type\",");
+		dataset.append(" \"rows\" : [");
+
+		for (int i = 0; i < numberOfRows; i++) {
+			if (i > 0) {
+				dataset.append(",");
+			}
+			dataset.append("{\"key\" : \"key").append(i).append("\", \"columns\" : [{\"name\" : \"first\", \"value\" : \"")
+					.append(valuePrefix).append(i).append("\"}]}");
+		}
+
+		dataset.append("]}]}");
+
+		return dataset.toString();
+	}
+
 }
@@ -0,0 +1,102 @@
+package com.lordofthejars.nosqlunit.cassandra.integration;
+
+import static com.lordofthejars.nosqlunit.cassandra.EmbeddedCassandra.EmbeddedCassandraRuleBuilder.newEmbeddedCassandraRule;
+import static com.lordofthejars.nosqlunit.cassandra.EmbeddedCassandraConfigurationBuilder.newEmbeddedCassandraConfiguration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.lordofthejars.nosqlunit.cassandra.CassandraOperation;
+import com.lordofthejars.nosqlunit.cassandra.CqlCassandraComparisonStrategy;
+import com.lordofthejars.nosqlunit.cassandra.CqlCassandraInsertionStrategy;
+import com.lordofthejars.nosqlunit.cassandra.EmbeddedCassandra;
+
+public class WhenCqlDatasetIsUsed {
+
+	private static final String CQL_DATASET = "{\n" +
+			"    \"keyspace\" : \"CqlKeyspace\",\n" +
+			"    \"schema\" : [\n" +
+			"        \"CREATE TABLE events (user text, added int, name text, PRIMARY KEY (user, added))\",\n" +
+			"        \"CREATE TABLE users (id text PRIMARY KEY, age int)\"\n" +
+			"    ],\n" +
+			"    \"tables\" : [{\n" +
+			"        \"name\" : \"events\",\n" +
+			"        \"rows\" : [\n" +
+			"            {\"user\" : \"jsmith\", \"added\" : 1, \"name\" : \"login\"},\n" +
+			"            {\"user\" : \"jsmith\", \"added\" : 2, \"name\" : \"logout\"},\n" +
+			"            {\"user\" : \"ajones\", \"added\" : 1, \"name\" : \"login\"}\n" +
+			"        ]\n" +
+			"    },{\n" +
+			"        \"name\" : \"users\",\n" +
+			"        \"rows\" : [\n" +
+			"            {\"id\" : \"jsmith\", \"age\" : 32},\n" +
+			"            {\"id\" : \"ajones\", \"age\" : 28}\n" +
+			"        ]\n" +
+			"    }]\n" +
+			"}";
+
+	@Rule
+	public EmbeddedCassandra cassandraRule = newEmbeddedCassandraRule().build();
+
+	private CassandraOperation cassandraOperation;
+
+	@Before
+	public void setUp() {
+		cassandraOperation = new CassandraOperation(newEmbeddedCassandraConfiguration().clusterName("Test Cluster")
+				.build());
+		cassandraOperation.setInsertionStrategy(new CqlCassandraInsertionStrategy(2, 2));
+		cassandraOperation.setComparisonStrategy(new CqlCassandraComparisonStrategy());
+	}
+
+	@After
+	public void tearDown() {
+		cassandraOperation.deleteAll();
+	}
+
+	@Test
+	public void inserted_rows_should_be_equal_to_dataset() {
+
+		cassandraOperation.insert(new ByteArrayInputStream(CQL_DATASET.getBytes()));
+
+		assertThat(cassandraOperation.databaseIs(new ByteArrayInputStream(CQL_DATASET.getBytes())), is(true));
+
+	}
+
+	@Test
+	public void different_column_value_should_fail() {
+
+		cassandraOperation.insert(new ByteArrayInputStream(CQL_DATASET.getBytes()));
+
+		try {
+			cassandraOperation.databaseIs(new ByteArrayInputStream(CQL_DATASET.replace("\"age\" : 28",
+					"\"age\" : 29").getBytes()));
+			fail();
+		} catch (AssertionError e) {
+			assertThat(e.getMessage(), is("Table users does not contain row {id=ajones, age=29}."));
+		}
+
+	}
+
+	@Test
+	public void missing_row_of_partition_should_fail() {
+
+		cassandraOperation.insert(new ByteArrayInputStream(CQL_DATASET.replace(
+				"            {\"user\" : \"jsmith\", \"added\" : 2, \"name\" : \"logout\"},\n", "").getBytes()));
+
+		try {
+			cassandraOperation.databaseIs(new ByteArrayInputStream(CQL_DATASET.getBytes()));
+			fail();
+		} catch (AssertionError e) {
+			assertThat(e.getMessage(), is("Expected number of rows for table events is 3 but was counted 2."));
+		}
+
+	}
+
+}
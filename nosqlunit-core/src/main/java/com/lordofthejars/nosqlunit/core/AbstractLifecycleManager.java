@@ -4,7 +4,7 @@ package com.lordofthejars.nosqlunit.core;
 
 public abstract class AbstractLifecycleManager implements LifecycleManager {
 
-	private boolean ready = false;
+	private volatile boolean ready = false;
 
 	@Override
 	public void startEngine() throws Throwable {
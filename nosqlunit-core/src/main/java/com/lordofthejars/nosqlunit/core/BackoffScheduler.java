@@ -0,0 +1,68 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls a {@link ReadinessProbe} until it is ready or a timeout expires. The
+ * first check is done right away, the next one after the initial interval,
+ * and the interval doubles after every failed check up to a maximum, so fast
+ * engines are detected in milliseconds while slow engines are not flooded with
+ * checks.
+ */
+public class BackoffScheduler {
+
+	public static final long DEFAULT_INITIAL_INTERVAL_MILLIS = 25;
+	public static final long DEFAULT_MAX_INTERVAL_MILLIS = 1000;
+
+	private final long initialIntervalMillis;
+	private final long maxIntervalMillis;
+	private final long timeoutMillis;
+
+	public BackoffScheduler(long timeout, TimeUnit timeUnit) {
+		this(DEFAULT_INITIAL_INTERVAL_MILLIS, DEFAULT_MAX_INTERVAL_MILLIS, timeUnit.toMillis(timeout));
+	}
+
+	public BackoffScheduler(long initialIntervalMillis, long maxIntervalMillis, long timeoutMillis) {
+
+		if (initialIntervalMillis <= 0 || maxIntervalMillis < initialIntervalMillis) {
+			throw new IllegalArgumentException("Poll intervals should be positive and initial interval "
+					+ initialIntervalMillis + " should not be greater than maximum interval " + maxIntervalMillis);
+		}
+
+		this.initialIntervalMillis = initialIntervalMillis;
+		this.maxIntervalMillis = maxIntervalMillis;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Waits until given probe is ready.
+	 * 
+	 * @param readinessProbe
+	 * @return true if probe became ready, false if timeout has expired before.
+	 * @throws InterruptedException
+	 */
+	public boolean awaitReady(ReadinessProbe readinessProbe) throws InterruptedException {
+
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		long interval = initialIntervalMillis;
+
+		while (!readinessProbe.isReady()) {
+
+			long remaining = deadline - System.currentTimeMillis();
+
+			if (remaining <= 0) {
+				return false;
+			}
+
+			TimeUnit.MILLISECONDS.sleep(Math.min(interval, remaining));
+			interval = Math.min(interval * 2, maxIntervalMillis);
+		}
+
+		return true;
+	}
+
+	public long getTimeoutMillis() {
+		return timeoutMillis;
+	}
+
+}
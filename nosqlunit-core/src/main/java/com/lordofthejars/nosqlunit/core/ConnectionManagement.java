@@ -71,7 +71,7 @@ public final class ConnectionManagement {
 		return connectionManagement;
 	}
 
-	public void addConnection(String host, int port) {
+	public synchronized void addConnection(String host, int port) {
 		
 		Connection connection = new Connection(host, port);
 		
@@ -83,7 +83,7 @@ public final class ConnectionManagement {
 		}
 	}
 	
-	public int removeConnection(String host, int port) {
+	public synchronized int removeConnection(String host, int port) {
 		
 		Connection connection = new Connection(host, port);
 		
@@ -101,7 +101,7 @@ public final class ConnectionManagement {
 		return 0;
 	}
 	
-	public boolean isConnectionRegistered(String host, int port) {
+	public synchronized boolean isConnectionRegistered(String host, int port) {
 		return isConnectionRegistered(new Connection(host, port));
 	}
 	
@@ -0,0 +1,89 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs independent tasks, for example one per collection, column family or
+ * database, each one in its own thread.
+ */
+public class ParallelTasks {
+
+	private ParallelTasks() {
+		super();
+	}
+
+	/**
+	 * Executes all tasks concurrently and waits until all of them are
+	 * finished. A single task is executed in caller thread.
+	 * 
+	 * @param tasks
+	 *            tasks to execute.
+	 * @throws RuntimeException
+	 *             or {@link Error} thrown by first failing task, checked
+	 *             exceptions are wrapped into an
+	 *             {@link IllegalStateException}.
+	 */
+	public static void executeInParallel(List<Callable<Void>> tasks) {
+
+		if (tasks.size() < 2) {
+			executeSequentially(tasks);
+			return;
+		}
+
+		ExecutorService executorService = Executors.newFixedThreadPool(tasks.size());
+
+		try {
+			List<Future<Void>> results = executorService.invokeAll(tasks);
+
+			for (Future<Void> result : results) {
+				result.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw propagate(e.getCause());
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	/**
+	 * Executes tasks one after the other in caller thread.
+	 * 
+	 * @param tasks
+	 *            tasks to execute.
+	 */
+	public static void executeSequentially(List<Callable<Void>> tasks) {
+		for (Callable<Void> task : tasks) {
+			execute(task);
+		}
+	}
+
+	private static void execute(Callable<Void> task) {
+		try {
+			task.call();
+		} catch (Exception e) {
+			throw propagate(e);
+		}
+	}
+
+	private static RuntimeException propagate(Throwable cause) {
+
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+
+		return new IllegalStateException(cause);
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.lordofthejars.nosqlunit.core;
+
+/**
+ * Checks whether an engine has reached a state, for example accepting
+ * connections or having released its port. Probes are polled by a
+ * {@link BackoffScheduler}, so they should return quickly and never block.
+ */
+public interface ReadinessProbe {
+
+	boolean isReady();
+
+}
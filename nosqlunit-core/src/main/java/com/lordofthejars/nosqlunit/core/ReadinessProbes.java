@@ -0,0 +1,91 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+
+public class ReadinessProbes {
+
+	private static final int CONNECT_TIMEOUT_MILLIS = 500;
+
+	private ReadinessProbes() {
+		super();
+	}
+
+	/**
+	 * Ready when a TCP connection to given address can be established.
+	 */
+	public static final ReadinessProbe tcpConnect(final String host, final int port) {
+		return new ReadinessProbe() {
+
+			@Override
+			public boolean isReady() {
+				return isListening(host, port);
+			}
+		};
+	}
+
+	/**
+	 * Ready when nothing accepts TCP connections at given address anymore.
+	 */
+	public static final ReadinessProbe portReleased(final String host, final int port) {
+		return new ReadinessProbe() {
+
+			@Override
+			public boolean isReady() {
+				return !isListening(host, port);
+			}
+		};
+	}
+
+	/**
+	 * Ready when given latch has been released.
+	 */
+	public static final ReadinessProbe latchReleased(final CountDownLatch latch) {
+		return new ReadinessProbe() {
+
+			@Override
+			public boolean isReady() {
+				return latch.getCount() == 0;
+			}
+		};
+	}
+
+	/**
+	 * Ready when any of given probes is ready.
+	 */
+	public static final ReadinessProbe anyOf(final ReadinessProbe... readinessProbes) {
+		return new ReadinessProbe() {
+
+			@Override
+			public boolean isReady() {
+				for (ReadinessProbe readinessProbe : readinessProbes) {
+					if (readinessProbe.isReady()) {
+						return true;
+					}
+				}
+				return false;
+			}
+		};
+	}
+
+	private static boolean isListening(String host, int port) {
+
+		Socket socket = new Socket();
+
+		try {
+			socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+			return true;
+		} catch (IOException e) {
+			return false;
+		} finally {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// nothing to do, socket is discarded
+			}
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static com.lordofthejars.nosqlunit.core.ReadinessProbes.portReleased;
+import static com.lordofthejars.nosqlunit.core.ReadinessProbes.tcpConnect;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class WhenEngineReadinessIsProbed {
+
+	@Test
+	public void scheduler_should_return_as_soon_as_probe_is_ready() throws InterruptedException {
+
+		CountingProbe probe = new CountingProbe(3);
+
+		long start = System.currentTimeMillis();
+		boolean ready = new BackoffScheduler(10, TimeUnit.SECONDS).awaitReady(probe);
+
+		assertThat(ready, is(true));
+		assertThat(probe.checks, is(3));
+		assertThat(System.currentTimeMillis() - start < 1000, is(true));
+
+	}
+
+	@Test
+	public void scheduler_should_give_up_when_timeout_expires() throws InterruptedException {
+
+		CountingProbe probe = new CountingProbe(Integer.MAX_VALUE);
+
+		boolean ready = new BackoffScheduler(10, 40, 200).awaitReady(probe);
+
+		assertThat(ready, is(false));
+		assertThat(probe.checks < 10, is(true));
+
+	}
+
+	@Test
+	public void tcp_probes_should_follow_listening_port() throws Exception {
+
+		ServerSocket serverSocket = new ServerSocket(0);
+		int port = serverSocket.getLocalPort();
+
+		assertThat(tcpConnect("127.0.0.1", port).isReady(), is(true));
+		assertThat(portReleased("127.0.0.1", port).isReady(), is(false));
+
+		serverSocket.close();
+
+		assertThat(tcpConnect("127.0.0.1", port).isReady(), is(false));
+		assertThat(portReleased("127.0.0.1", port).isReady(), is(true));
+
+	}
+
+	private static class CountingProbe implements ReadinessProbe {
+
+		private int readyAtCheck;
+		private int checks = 0;
+
+		public CountingProbe(int readyAtCheck) {
+			this.readyAtCheck = readyAtCheck;
+		}
+
+		@Override
+		public boolean isReady() {
+			checks++;
+			return checks >= readyAtCheck;
+		}
+	}
+
+}
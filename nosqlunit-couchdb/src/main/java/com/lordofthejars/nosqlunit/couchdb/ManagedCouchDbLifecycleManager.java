@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.couchdb;
 
 import static com.lordofthejars.nosqlunit.core.IOUtils.deleteDir;
+import static com.lordofthejars.nosqlunit.core.ReadinessProbes.portReleased;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import java.io.File;
@@ -10,12 +11,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
+import com.lordofthejars.nosqlunit.core.BackoffScheduler;
 import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
@@ -44,6 +45,8 @@ public class ManagedCouchDbLifecycleManager extends AbstractLifecycleManager {
 	private CommandLineExecutor commandLineExecutor = new CommandLineExecutor();
 	private OperatingSystemResolver operatingSystemResolver = new OsNameSystemPropertyOperatingSystemResolver();
 
+	private BackoffScheduler shutdownScheduler = new BackoffScheduler(2, SECONDS);
+
 	private String targetPath = DEFAULT_COUCHDB_TARGET_PATH;
 
 	private String couchDbPath = SystemEnvironmentVariables.getEnvironmentOrPropertyVariable("COUCHDB_HOME");
@@ -191,7 +194,7 @@ public class ManagedCouchDbLifecycleManager extends AbstractLifecycleManager {
 	private void stopCouchDb() throws InterruptedException {
 		if (isProcessAlive()) {
 			pwd.destroy();
-			TimeUnit.SECONDS.sleep(2);
+			shutdownScheduler.awaitReady(portReleased(LOCALHOST, port));
 		}
 	}
 
@@ -0,0 +1,126 @@
+package com.lordofthejars.nosqlunit.hbase;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.io.hfile.CacheConfig;
+import org.apache.hadoop.hbase.mapreduce.LoadIncrementalHFiles;
+import org.apache.hadoop.hbase.regionserver.StoreFile;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import com.lordofthejars.nosqlunit.hbase.model.ParsedColumnFamilyModel;
+import com.lordofthejars.nosqlunit.hbase.model.ParsedColumnModel;
+import com.lordofthejars.nosqlunit.hbase.model.ParsedRowModel;
+
+/**
+ * Loads rows of a dataset by writing one HFile per column family and bulk
+ * loading them into table regions, so no row goes through write path of region
+ * servers. It is meant for very large datasets, where buffered puts are still
+ * too slow.
+ * <p>
+ * HFiles are written in a temporary directory of file system configured for
+ * HBase, which is removed after they have been loaded.
+ */
+public class BulkDataLoader extends DataLoader {
+
+	private static final String BULK_LOAD_DIRECTORY_PREFIX = "nosqlunit-bulkload-";
+	private static final int BLOCK_SIZE = 64 * 1024;
+
+	public BulkDataLoader(Configuration configuration) {
+		super(configuration);
+	}
+
+	@Override
+	protected void loadRows(byte[] tableName, List<ParsedColumnFamilyModel> columnFamilies) throws IOException {
+
+		FileSystem fileSystem = FileSystem.get(configuration);
+		Path bulkLoadDirectory = new Path(fileSystem.getWorkingDirectory(), BULK_LOAD_DIRECTORY_PREFIX
+				+ UUID.randomUUID());
+
+		HTable table = new HTable(configuration, tableName);
+
+		try {
+			long timestamp = System.currentTimeMillis();
+
+			for (ParsedColumnFamilyModel parsedColumnFamilyModel : columnFamilies) {
+				writeHFile(fileSystem, bulkLoadDirectory, timestamp, parsedColumnFamilyModel);
+			}
+
+			bulkLoad(bulkLoadDirectory, table);
+		} finally {
+			table.close();
+			fileSystem.delete(bulkLoadDirectory, true);
+		}
+
+	}
+
+	private void writeHFile(FileSystem fileSystem, Path bulkLoadDirectory, long timestamp,
+			ParsedColumnFamilyModel parsedColumnFamilyModel) throws IOException {
+
+		SortedSet<KeyValue> keyValues = sortedKeyValues(timestamp, parsedColumnFamilyModel);
+
+		if (keyValues.isEmpty()) {
+			return;
+		}
+
+		Path familyDirectory = new Path(bulkLoadDirectory, parsedColumnFamilyModel.getName());
+
+		StoreFile.Writer writer = new StoreFile.WriterBuilder(configuration, new CacheConfig(configuration),
+				fileSystem, BLOCK_SIZE).withFilePath(new Path(familyDirectory, UUID.randomUUID().toString()))
+				.withComparator(KeyValue.COMPARATOR).build();
+
+		try {
+			for (KeyValue keyValue : keyValues) {
+				writer.append(keyValue);
+			}
+
+			writer.appendFileInfo(StoreFile.BULKLOAD_TIME_KEY, Bytes.toBytes(timestamp));
+			writer.appendFileInfo(StoreFile.MAJOR_COMPACTION_KEY, Bytes.toBytes(false));
+			writer.appendTrackedTimestampsToMetadata();
+		} finally {
+			writer.close();
+		}
+	}
+
+	private SortedSet<KeyValue> sortedKeyValues(long timestamp, ParsedColumnFamilyModel parsedColumnFamilyModel) {
+
+		SortedSet<KeyValue> keyValues = new TreeSet<KeyValue>(KeyValue.COMPARATOR);
+		byte[] familyName = parsedColumnFamilyModel.getName().getBytes();
+
+		for (ParsedRowModel parsedRowModel : parsedColumnFamilyModel.getRows()) {
+			byte[] key = parsedRowModel.getKey().getBytes();
+
+			for (ParsedColumnModel parsedColumnModel : parsedRowModel.getColumns()) {
+
+				KeyValue keyValue = new KeyValue(key, familyName, parsedColumnModel.getName().getBytes(), timestamp,
+						parsedColumnModel.getValue().getBytes());
+
+				// as a put would do, last value of a repeated column is the
+				// one which is stored.
+				keyValues.remove(keyValue);
+				keyValues.add(keyValue);
+			}
+		}
+
+		return keyValues;
+	}
+
+	private void bulkLoad(Path bulkLoadDirectory, HTable table) throws IOException {
+		try {
+			new LoadIncrementalHFiles(configuration).doBulkLoad(bulkLoadDirectory, table);
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.lordofthejars.nosqlunit.hbase;
+
+import java.io.InputStream;
+
+import com.lordofthejars.nosqlunit.hbase.model.DataSetParser;
+import com.lordofthejars.nosqlunit.hbase.model.JsonDataSetParser;
+import com.lordofthejars.nosqlunit.hbase.model.ParsedDataModel;
+
+/**
+ * Inserts dataset by generating HFiles and bulk loading them into table
+ * regions, instead of sending puts.
+ */
+public class BulkLoadHBaseInsertionStrategy implements HBaseInsertionStrategy {
+
+	@Override
+	public void insert(HBaseConnectionCallback connection, InputStream dataset) throws Throwable {
+		DataSetParser dataSetParser = new JsonDataSetParser();
+		ParsedDataModel parsedDataset = dataSetParser.parse(dataset);
+
+		DataLoader dataLoader = new BulkDataLoader(connection.configuration());
+		dataLoader.load(parsedDataset);
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.hbase;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
@@ -9,84 +10,226 @@ import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.io.hfile.Compression;
+import org.apache.hadoop.hbase.regionserver.StoreFile;
+import org.apache.hadoop.hbase.util.RegionSplitter;
 
 import com.lordofthejars.nosqlunit.hbase.model.ParsedColumnFamilyModel;
 import com.lordofthejars.nosqlunit.hbase.model.ParsedColumnModel;
 import com.lordofthejars.nosqlunit.hbase.model.ParsedDataModel;
 import com.lordofthejars.nosqlunit.hbase.model.ParsedRowModel;
 
+/**
+ * Creates table and column families of a dataset, when they are not already
+ * defined, and inserts its rows. Tables are created pre-split when dataset
+ * declares split keys, or a split algorithm of <i>RegionSplitter</i> (like
+ * <i>HexStringSplit</i> or <i>UniformSplit</i>) and a number of regions.
+ * <p>
+ * Puts are buffered on client side and sent when write buffer is full, instead
+ * of flushing every single row. Table is only disabled to alter its schema
+ * when any column family is missing or differs from expected one.
+ */
 public class DataLoader {
 
+	public static final long DEFAULT_WRITE_BUFFER_SIZE = 2 * 1024 * 1024;
+
 	protected Configuration configuration;
+	private long writeBufferSize;
 
 	public DataLoader(Configuration configuration) {
+		this(configuration, DEFAULT_WRITE_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param writeBufferSize
+	 *            size in bytes of puts buffered on client side before they are
+	 *            sent to region servers.
+	 */
+	public DataLoader(Configuration configuration, long writeBufferSize) {
+
+		if (writeBufferSize <= 0) {
+			throw new IllegalArgumentException("Write buffer size should be positive.");
+		}
+
 		this.configuration = configuration;
+		this.writeBufferSize = writeBufferSize;
 	}
 
 	public void load(ParsedDataModel parsedDataModel) throws IOException {
 
-		HBaseAdmin hBaseAdmin = new HBaseAdmin(configuration);
+		byte[] tableName = parsedDataModel.getName().getBytes();
+
+		prepareTable(parsedDataModel);
+		loadRows(tableName, parsedDataModel.getColumnFamilies());
+
+	}
+
+	protected void prepareTable(ParsedDataModel parsedDataModel) throws IOException {
 
 		byte[] tableName = parsedDataModel.getName().getBytes();
+		HBaseAdmin hBaseAdmin = new HBaseAdmin(configuration);
 
-		if (!hBaseAdmin.tableExists(tableName)) {
-			hBaseAdmin.createTable(new HTableDescriptor(tableName));
+		try {
+			if (hBaseAdmin.tableExists(tableName)) {
+				alterColumnFamilies(hBaseAdmin, tableName, parsedDataModel.getColumnFamilies());
+			} else {
+				createTable(hBaseAdmin, parsedDataModel);
+			}
+		} finally {
+			hBaseAdmin.close();
 		}
+	}
+
+	private void createTable(HBaseAdmin hBaseAdmin, ParsedDataModel parsedDataModel) throws IOException {
+
+		HTableDescriptor tableDescriptor = new HTableDescriptor(parsedDataModel.getName().getBytes());
+
+		for (ParsedColumnFamilyModel parsedColumnFamilyModel : parsedDataModel.getColumnFamilies()) {
+			tableDescriptor.addFamily(columnDescriptor(parsedColumnFamilyModel));
+		}
+
+		byte[][] splitKeys = splitKeys(parsedDataModel);
+
+		if (splitKeys.length == 0) {
+			hBaseAdmin.createTable(tableDescriptor);
+		} else {
+			hBaseAdmin.createTable(tableDescriptor, splitKeys);
+		}
+	}
+
+	private byte[][] splitKeys(ParsedDataModel parsedDataModel) throws IOException {
+
+		List<String> splitKeys = parsedDataModel.getSplitKeys();
+		String splitAlgorithm = parsedDataModel.getSplitAlgorithm();
+
+		if (splitAlgorithm == null) {
+
+			byte[][] splitKeysBytes = new byte[splitKeys.size()][];
+
+			for (int i = 0; i < splitKeys.size(); i++) {
+				splitKeysBytes[i] = splitKeys.get(i).getBytes();
+			}
+
+			return splitKeysBytes;
+		}
+
+		if (!splitKeys.isEmpty()) {
+			throw new IllegalArgumentException("Table " + parsedDataModel.getName()
+					+ " cannot declare both split keys and a split algorithm.");
+		}
+
+		Integer numberOfRegions = parsedDataModel.getNumberOfRegions();
+
+		if (numberOfRegions == null || numberOfRegions < 2) {
+			throw new IllegalArgumentException("Split algorithm of table " + parsedDataModel.getName()
+					+ " requires a number of regions greater than 1.");
+		}
+
+		return RegionSplitter.newSplitAlgoInstance(configuration, splitAlgorithm).split(numberOfRegions);
+	}
+
+	private void alterColumnFamilies(HBaseAdmin hBaseAdmin, byte[] tableName,
+			List<ParsedColumnFamilyModel> columnFamilies) throws IOException {
 
-		hBaseAdmin.disableTable(tableName);
 		HTableDescriptor tableDescriptor = hBaseAdmin.getTableDescriptor(tableName);
 
-		List<ParsedColumnFamilyModel> columnFamilies = parsedDataModel.getColumnFamilies();
+		List<HColumnDescriptor> missingColumnFamilies = new ArrayList<HColumnDescriptor>();
+		List<HColumnDescriptor> differentColumnFamilies = new ArrayList<HColumnDescriptor>();
 
 		for (ParsedColumnFamilyModel parsedColumnFamilyModel : columnFamilies) {
 
-			byte[] familyName = parsedColumnFamilyModel.getName().getBytes();
+			HColumnDescriptor expectedColumnDescriptor = columnDescriptor(parsedColumnFamilyModel);
+			HColumnDescriptor currentColumnDescriptor = tableDescriptor.getFamily(expectedColumnDescriptor.getName());
 
-			HColumnDescriptor hColumnDescriptor = new HColumnDescriptor(familyName);
-
-			if (existsColumnFamily(tableDescriptor, parsedColumnFamilyModel)) {
-				hBaseAdmin.modifyColumn(tableName, hColumnDescriptor);
-			} else {
-				hBaseAdmin.addColumn(tableName, hColumnDescriptor);
+			if (currentColumnDescriptor == null) {
+				missingColumnFamilies.add(expectedColumnDescriptor);
+			} else if (!currentColumnDescriptor.equals(expectedColumnDescriptor)) {
+				differentColumnFamilies.add(expectedColumnDescriptor);
 			}
+		}
+
+		if (missingColumnFamilies.isEmpty() && differentColumnFamilies.isEmpty()) {
+			return;
+		}
+
+		hBaseAdmin.disableTable(tableName);
+
+		for (HColumnDescriptor missingColumnFamily : missingColumnFamilies) {
+			hBaseAdmin.addColumn(tableName, missingColumnFamily);
+		}
 
+		for (HColumnDescriptor differentColumnFamily : differentColumnFamilies) {
+			hBaseAdmin.modifyColumn(tableName, differentColumnFamily);
 		}
 
 		hBaseAdmin.enableTable(tableName);
+	}
+
+	private HColumnDescriptor columnDescriptor(ParsedColumnFamilyModel parsedColumnFamilyModel) {
+
+		HColumnDescriptor columnDescriptor = new HColumnDescriptor(parsedColumnFamilyModel.getName().getBytes());
+
+		if (parsedColumnFamilyModel.getCompression() != null) {
+			columnDescriptor.setCompressionType(Compression.Algorithm.valueOf(parsedColumnFamilyModel
+					.getCompression().toUpperCase()));
+		}
+
+		if (parsedColumnFamilyModel.getBloomFilter() != null) {
+			columnDescriptor.setBloomFilterType(StoreFile.BloomType.valueOf(parsedColumnFamilyModel.getBloomFilter()
+					.toUpperCase()));
+		}
+
+		if (parsedColumnFamilyModel.getBlockSize() != null) {
+			columnDescriptor.setBlocksize(parsedColumnFamilyModel.getBlockSize());
+		}
+
+		if (parsedColumnFamilyModel.getMaxVersions() != null) {
+			columnDescriptor.setMaxVersions(parsedColumnFamilyModel.getMaxVersions());
+		}
+
+		if (parsedColumnFamilyModel.getTimeToLive() != null) {
+			columnDescriptor.setTimeToLive(parsedColumnFamilyModel.getTimeToLive());
+		}
+
+		return columnDescriptor;
+	}
+
+	protected void loadRows(byte[] tableName, List<ParsedColumnFamilyModel> columnFamilies) throws IOException {
 
 		HTable table = new HTable(configuration, tableName);
+		table.setAutoFlush(false);
+		table.setWriteBufferSize(writeBufferSize);
 
-		for (ParsedColumnFamilyModel parsedColumnFamilyModel : columnFamilies) {
-			byte[] familyName = parsedColumnFamilyModel.getName().getBytes();
+		try {
+			for (ParsedColumnFamilyModel parsedColumnFamilyModel : columnFamilies) {
+				byte[] familyName = parsedColumnFamilyModel.getName().getBytes();
 
-			List<ParsedRowModel> rows = parsedColumnFamilyModel.getRows();
+				List<ParsedRowModel> rows = parsedColumnFamilyModel.getRows();
 
-			for (ParsedRowModel parsedRowModel : rows) {
-				byte[] key = parsedRowModel.getKey().getBytes();
+				for (ParsedRowModel parsedRowModel : rows) {
+					byte[] key = parsedRowModel.getKey().getBytes();
 
-				List<ParsedColumnModel> columns = parsedRowModel.getColumns();
+					List<ParsedColumnModel> columns = parsedRowModel.getColumns();
 
-				Put column = new Put(key);
-				for (ParsedColumnModel parsedColumnModel : columns) {
+					Put column = new Put(key);
+					for (ParsedColumnModel parsedColumnModel : columns) {
 
-					byte[] columnName = parsedColumnModel.getName().getBytes();
-					byte[] columnValuee = parsedColumnModel.getValue().getBytes();
+						byte[] columnName = parsedColumnModel.getName().getBytes();
+						byte[] columnValue = parsedColumnModel.getValue().getBytes();
 
-					column.add(familyName, columnName, columnValuee);
+						column.add(familyName, columnName, columnValue);
+					}
+
+					table.put(column);
 				}
 
-				table.put(column);
-				table.flushCommits();
 			}
 
+			table.flushCommits();
+		} finally {
+			table.close();
 		}
 
-		table.close();
-
-	}
-
-	private boolean existsColumnFamily(HTableDescriptor tableDescriptor, ParsedColumnFamilyModel parsedColumnFamilyModel) {
-		return tableDescriptor.getFamily(parsedColumnFamilyModel.getName().getBytes()) != null;
 	}
 
 	public Configuration getConfiguration() {
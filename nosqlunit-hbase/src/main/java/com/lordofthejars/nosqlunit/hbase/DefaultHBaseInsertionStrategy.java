@@ -8,12 +8,27 @@ import com.lordofthejars.nosqlunit.hbase.model.ParsedDataModel;
 
 public class DefaultHBaseInsertionStrategy implements HBaseInsertionStrategy {
 
+	private long writeBufferSize;
+
+	public DefaultHBaseInsertionStrategy() {
+		this(DataLoader.DEFAULT_WRITE_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param writeBufferSize
+	 *            size in bytes of puts buffered on client side before they are
+	 *            sent to region servers.
+	 */
+	public DefaultHBaseInsertionStrategy(long writeBufferSize) {
+		this.writeBufferSize = writeBufferSize;
+	}
+
 	@Override
 	public void insert(HBaseConnectionCallback connection, InputStream dataset) throws Throwable {
 		DataSetParser dataSetParser = new JsonDataSetParser();
 		ParsedDataModel parsedDataset = dataSetParser.parse(dataset);
-		
-		DataLoader dataLoader = new DataLoader(connection.configuration());
+
+		DataLoader dataLoader = new DataLoader(connection.configuration(), writeBufferSize);
 		dataLoader.load(parsedDataset);
 	}
 
@@ -23,6 +23,11 @@ public class EmbeddedHBaseConfigurationBuilder {
 		return this;
 	}
 	
+	public EmbeddedHBaseConfigurationBuilder truncateTables() {
+		this.hBaseConfiguration.setTruncateTables(true);
+		return this;
+	}
+	
 	public HBaseConfiguration build() {
 		Configuration defaultConfiguration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
 		
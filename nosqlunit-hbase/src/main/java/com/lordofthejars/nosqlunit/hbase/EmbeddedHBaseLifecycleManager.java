@@ -75,6 +75,10 @@ private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedHBase.class
 		LOGGER.info("Stopping Embedded HBase instance.");
 		
 		EmbeddedHBaseInstances.getInstance().removeHBaseConfiguration(LOCALHOST+PORT);
+		if (configuration != null) {
+			HBaseAdminRegistry.getInstance().closeHBaseAdmin(configuration);
+		}
+		
 		shutdownMiniCluster();
 		cleanTargetDirectory();
 		
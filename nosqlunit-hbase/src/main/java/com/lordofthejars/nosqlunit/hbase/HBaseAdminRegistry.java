@@ -0,0 +1,121 @@
+package com.lordofthejars.nosqlunit.hbase;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.MasterNotRunningException;
+import org.apache.hadoop.hbase.ZooKeeperConnectionException;
+import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares one admin per cluster between operations, so tables are not
+ * listed and deleted through a new master connection by each test.
+ * <p>
+ * Admins live until the cluster they connect to is stopped by a lifecycle
+ * manager, or until the JVM exits.
+ */
+public class HBaseAdminRegistry {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(HBaseAdminRegistry.class);
+
+	private static final String KEY_SEPARATOR = "|";
+
+	private static HBaseAdminRegistry hBaseAdminRegistry;
+
+	private final Map<String, HBaseAdmin> hBaseAdmins = new HashMap<String, HBaseAdmin>();
+
+	private HBaseAdminRegistry() {
+		super();
+	}
+
+	public synchronized static HBaseAdminRegistry getInstance() {
+		if (hBaseAdminRegistry == null) {
+			hBaseAdminRegistry = new HBaseAdminRegistry();
+			Runtime.getRuntime().addShutdownHook(new Thread("hbase-admin-registry-shutdown") {
+
+				@Override
+				public void run() {
+					hBaseAdminRegistry.closeAll();
+				}
+			});
+		}
+
+		return hBaseAdminRegistry;
+	}
+
+	/**
+	 * Returns admin of cluster given configuration connects to, creating it
+	 * the first time.
+	 */
+	public synchronized HBaseAdmin getHBaseAdmin(Configuration configuration) {
+
+		String key = key(configuration);
+		HBaseAdmin hBaseAdmin = hBaseAdmins.get(key);
+
+		if (hBaseAdmin == null) {
+			LOGGER.debug("Registering HBase admin {}.", key);
+
+			hBaseAdmin = hBaseAdmin(configuration);
+			hBaseAdmins.put(key, hBaseAdmin);
+		}
+
+		return hBaseAdmin;
+	}
+
+	/**
+	 * Closes and forgets admin of cluster given configuration connects to.
+	 */
+	public synchronized void closeHBaseAdmin(Configuration configuration) {
+
+		String key = key(configuration);
+		HBaseAdmin hBaseAdmin = hBaseAdmins.remove(key);
+
+		if (hBaseAdmin != null) {
+			LOGGER.debug("Closing HBase admin {}.", key);
+			close(hBaseAdmin);
+		}
+	}
+
+	public synchronized void closeAll() {
+
+		for (HBaseAdmin hBaseAdmin : hBaseAdmins.values()) {
+			close(hBaseAdmin);
+		}
+
+		hBaseAdmins.clear();
+	}
+
+	public synchronized int size() {
+		return hBaseAdmins.size();
+	}
+
+	private String key(Configuration configuration) {
+		return configuration.get(HConstants.ZOOKEEPER_QUORUM) + KEY_SEPARATOR
+				+ configuration.get(HConstants.ZOOKEEPER_CLIENT_PORT) + KEY_SEPARATOR
+				+ configuration.get(HConstants.ZOOKEEPER_ZNODE_PARENT, HConstants.DEFAULT_ZOOKEEPER_ZNODE_PARENT);
+	}
+
+	private HBaseAdmin hBaseAdmin(Configuration configuration) {
+		try {
+			return new HBaseAdmin(configuration);
+		} catch (MasterNotRunningException e) {
+			throw new IllegalArgumentException(e);
+		} catch (ZooKeeperConnectionException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	private void close(HBaseAdmin hBaseAdmin) {
+		try {
+			hBaseAdmin.close();
+		} catch (IOException e) {
+			LOGGER.warn("HBase admin could not be closed.", e);
+		}
+	}
+
+}
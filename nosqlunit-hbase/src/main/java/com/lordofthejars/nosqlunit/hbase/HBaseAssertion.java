@@ -1,28 +1,24 @@
 package com.lordofthejars.nosqlunit.hbase;
 
-import static ch.lambdaj.Lambda.selectFirst;
-import static ch.lambdaj.Lambda.having;
-import static ch.lambdaj.Lambda.on;
-import static org.hamcrest.CoreMatchers.equalTo;
-
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.KeyValue;
-import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.client.HConnection;
 import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.client.coprocessor.AggregationClient;
-
-import ch.lambdaj.function.convert.Converter;
 
 import com.lordofthejars.nosqlunit.core.FailureHandler;
 import com.lordofthejars.nosqlunit.hbase.model.DataSetParser;
@@ -32,8 +28,18 @@ import com.lordofthejars.nosqlunit.hbase.model.ParsedColumnModel;
 import com.lordofthejars.nosqlunit.hbase.model.ParsedDataModel;
 import com.lordofthejars.nosqlunit.hbase.model.ParsedRowModel;
 
+/**
+ * Compares a table against expected dataset by reading it with a single scan.
+ * <p>
+ * Expected columns are indexed by column family, row key and qualifier before
+ * scanning, so every cell read is checked against that index, and number of
+ * rows of each column family is counted during the same scan.
+ */
 public class HBaseAssertion {
 
+	private static final int SCAN_CACHING = 1000;
+	private static final int SCAN_BATCH = 1000;
+
 	public static void strictAssertEquals(HConnection connection, InputStream dataset) throws Throwable {
 
 		DataSetParser dataSetParser = new JsonDataSetParser();
@@ -49,106 +55,87 @@ public class HBaseAssertion {
 
 		List<ParsedColumnFamilyModel> expectedColumnFamilies = parsedDataset.getColumnFamilies();
 		checkNumberOfColumnFamilies(tableDescriptor, expectedColumnFamilies);
-		checkColumnFamilies(connection, configuration, expectedTableName, tableDescriptor, expectedColumnFamilies);
+		checkColumnFamilyNames(tableDescriptor, expectedColumnFamilies);
 
-	}
+		checkRows(configuration, expectedTableName, expectedColumnFamilies);
 
-	private static void checkColumnFamilies(HConnection connection, Configuration configuration,
-			byte[] expectedTableName, HTableDescriptor tableDescriptor,
-			List<ParsedColumnFamilyModel> expectedColumnFamilies) throws Error, Throwable, IOException {
-		
-		for (ParsedColumnFamilyModel parsedColumnFamilyModel : expectedColumnFamilies) {
-			checkColumnFamily(connection, configuration, expectedTableName, tableDescriptor, expectedColumnFamilies,
-					parsedColumnFamilyModel);
-		}
 	}
 
-	private static void checkColumnFamily(HConnection connection, Configuration configuration,
-			byte[] expectedTableName, HTableDescriptor tableDescriptor,
-			List<ParsedColumnFamilyModel> expectedColumnFamilies, ParsedColumnFamilyModel parsedColumnFamilyModel)
-			throws Error, Throwable, IOException {
-		
-		byte[] expectedFamilyName = checkColumnFamilyName(tableDescriptor, parsedColumnFamilyModel);
+	private static void checkColumnFamilyNames(HTableDescriptor tableDescriptor,
+			List<ParsedColumnFamilyModel> expectedColumnFamilies) throws Error {
 
-		List<ParsedRowModel> expectedRows = checkNumberOfRows(connection, expectedTableName,
-				parsedColumnFamilyModel, expectedFamilyName);
-		checkRows(configuration, expectedTableName, expectedColumnFamilies, parsedColumnFamilyModel, expectedRows);
+		for (ParsedColumnFamilyModel parsedColumnFamilyModel : expectedColumnFamilies) {
+			checkColumnFamilyName(tableDescriptor, parsedColumnFamilyModel);
+		}
 	}
 
 	private static void checkRows(Configuration configuration, byte[] expectedTableName,
-			List<ParsedColumnFamilyModel> expectedColumnFamilies, ParsedColumnFamilyModel parsedColumnFamilyModel,
-			List<ParsedRowModel> expectedRows) throws IOException, Error {
-		
-		for (ParsedRowModel parsedRowModel : expectedRows) {
-			checkRow(configuration, expectedTableName, expectedColumnFamilies, parsedColumnFamilyModel, parsedRowModel);
-		}
-	}
+			List<ParsedColumnFamilyModel> expectedColumnFamilies) throws IOException, Error {
+
+		TableScan tableScan = new TableScan(new ExpectedData(expectedColumnFamilies));
 
-	private static void checkRow(Configuration configuration, byte[] expectedTableName,
-			List<ParsedColumnFamilyModel> expectedColumnFamilies, ParsedColumnFamilyModel parsedColumnFamilyModel,
-			ParsedRowModel parsedRowModel) throws IOException, Error {
-		
 		HTable table = new HTable(configuration, expectedTableName);
-		Get get = new Get(parsedRowModel.getKey().getBytes());
-		Result result = table.get(get);
-		
-		checkRowName(parsedRowModel, result);
-		
-		KeyValue[] raws = result.raw();
-
-		checkNumberOfColumns(expectedColumnFamilies, parsedColumnFamilyModel, raws, parsedRowModel);
-		checkRowValues(raws, parsedRowModel);
-	}
 
-	private static void checkRowName(ParsedRowModel parsedRowModel, Result result) throws Error {
-		if(result.isEmpty()) {
-			throw FailureHandler.createFailure("Expected row name is %s but is not found.",
-					parsedRowModel.getKey());
+		try {
+			ResultScanner scanner = table.getScanner(scan());
+
+			try {
+				for (Result result : scanner) {
+					for (KeyValue keyValue : result.raw()) {
+						tableScan.read(keyValue);
+					}
+				}
+			} finally {
+				scanner.close();
+			}
+		} finally {
+			table.close();
 		}
-	}
 
-	private static void checkRowValues(KeyValue[] raws, ParsedRowModel parsedRowModel) throws Error {
-		
-		List<ParsedColumnModel> expectedColumns = parsedRowModel.getColumns();
-		
-		ParsedColumnModel parsedColumnModel = selectFirst(
-				expectedColumns,
-				having(on(ParsedColumnModel.class).getName(), equalTo(getName(raws))).and(
-						having(on(ParsedColumnModel.class).getValue(), equalTo(getValue(raws)))));
+		tableScan.finish();
+
+		checkNumberOfRows(expectedColumnFamilies, tableScan);
+		checkRowNames(expectedColumnFamilies, tableScan);
 
-		if(parsedColumnModel == null) {
-			throw FailureHandler.createFailure("Expected column are not found. Encountered column with name %s and value %s is not found.",
-					getName(raws), getValue(raws));
+		if (tableScan.getFirstDifference() != null) {
+			throw FailureHandler.createFailure("%s", tableScan.getFirstDifference());
 		}
 	}
 
-	private static void checkNumberOfColumns(List<ParsedColumnFamilyModel> expectedColumnFamilies,
-			ParsedColumnFamilyModel parsedColumnFamilyModel, KeyValue[] raws, ParsedRowModel parsedRowModel)
+	private static Scan scan() {
+		Scan scan = new Scan();
+		scan.setCaching(SCAN_CACHING);
+		scan.setBatch(SCAN_BATCH);
+		scan.setCacheBlocks(false);
+		return scan;
+	}
+
+	private static void checkNumberOfRows(List<ParsedColumnFamilyModel> expectedColumnFamilies, TableScan tableScan)
 			throws Error {
-		
-		List<ParsedColumnModel> expectedColumns = parsedRowModel.getColumns();
-		
-		int numberOfColumns = raws.length;
-		int expectedNumberOfColumns = expectedColumns.size();
 
-		if (numberOfColumns != expectedNumberOfColumns) {
-			throw FailureHandler.createFailure("Expected number of columns for %s are %s but %s are found.",
-					parsedRowModel.getKey(), expectedNumberOfColumns, numberOfColumns);
+		for (ParsedColumnFamilyModel parsedColumnFamilyModel : expectedColumnFamilies) {
+
+			int numberOfRows = tableScan.numberOfRows(parsedColumnFamilyModel.getName());
+			int expectedNumberOfRows = parsedColumnFamilyModel.getRows().size();
+
+			if (numberOfRows != expectedNumberOfRows) {
+				throw FailureHandler.createFailure("Expected number of rows are %s but %s are found.",
+						expectedNumberOfRows, numberOfRows);
+			}
 		}
 	}
 
-	private static List<ParsedRowModel> checkNumberOfRows(HConnection connection, byte[] expectedTableName,
-			ParsedColumnFamilyModel parsedColumnFamilyModel, byte[] expectedFamilyName) throws Throwable, Error {
-		List<ParsedRowModel> expectedRows = parsedColumnFamilyModel.getRows();
-
-		long numberOfRows = countNumberOfRows(connection, expectedTableName, expectedFamilyName);
-		int expectedNumberOfRows = expectedRows.size();
+	private static void checkRowNames(List<ParsedColumnFamilyModel> expectedColumnFamilies, TableScan tableScan)
+			throws Error {
 
-		if (numberOfRows != expectedNumberOfRows) {
-			throw FailureHandler.createFailure("Expected number of rows are %s but %s are found.",
-					expectedNumberOfRows, numberOfRows);
+		for (ParsedColumnFamilyModel parsedColumnFamilyModel : expectedColumnFamilies) {
+			for (ParsedRowModel parsedRowModel : parsedColumnFamilyModel.getRows()) {
+				if (!tableScan.isRowFound(parsedColumnFamilyModel.getName(), parsedRowModel.getKey())) {
+					throw FailureHandler.createFailure("Expected row name is %s but is not found.",
+							parsedRowModel.getKey());
+				}
+			}
 		}
-		return expectedRows;
 	}
 
 	private static byte[] checkColumnFamilyName(HTableDescriptor tableDescriptor,
@@ -185,34 +172,174 @@ public class HBaseAssertion {
 		return expectedTableName;
 	}
 
-	private static String getValue(KeyValue[] raws) {
-		return toStringValue().convert(raws[0].getValue());
+	private static String toStringValue(byte[] from) {
+		try {
+			return new String(from, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalArgumentException(e);
+		}
 	}
 
-	private static String getName(KeyValue[] raws) {
-		return toStringValue().convert(raws[0].getQualifier());
-	}
+	/**
+	 * Expected columns of dataset indexed by column family, row key and
+	 * qualifier.
+	 */
+	private static class ExpectedData {
+
+		private Map<String, Map<String, Map<String, String>>> columnFamilies = new HashMap<String, Map<String, Map<String, String>>>();
+
+		public ExpectedData(List<ParsedColumnFamilyModel> expectedColumnFamilies) {
+
+			for (ParsedColumnFamilyModel parsedColumnFamilyModel : expectedColumnFamilies) {
+
+				Map<String, Map<String, String>> rows = new HashMap<String, Map<String, String>>();
+
+				for (ParsedRowModel parsedRowModel : parsedColumnFamilyModel.getRows()) {
 
-	private static Converter<byte[], String> toStringValue() {
-		return new Converter<byte[], String>() {
+					Map<String, String> columns = new LinkedHashMap<String, String>();
 
-			@Override
-			public String convert(byte[] from) {
-				try {
-					return new String(from, "UTF-8");
-				} catch (UnsupportedEncodingException e) {
-					throw new IllegalArgumentException(e);
+					for (ParsedColumnModel parsedColumnModel : parsedRowModel.getColumns()) {
+						columns.put(parsedColumnModel.getName(), parsedColumnModel.getValue());
+					}
+
+					rows.put(parsedRowModel.getKey(), columns);
 				}
+
+				columnFamilies.put(parsedColumnFamilyModel.getName(), rows);
+			}
+		}
+
+		public Map<String, String> columns(String family, String row) {
+
+			Map<String, Map<String, String>> rows = columnFamilies.get(family);
+
+			if (rows == null) {
+				return null;
 			}
-		};
+
+			return rows.get(row);
+		}
+
 	}
 
-	private static long countNumberOfRows(HConnection connection, byte[] tableName, byte[] columnFamily)
-			throws Throwable {
-		AggregationClient aggregationClient = new AggregationClient(connection.getConfiguration());
-		Scan scan = new Scan();
-		scan.addFamily(columnFamily);
-		return aggregationClient.rowCount(tableName, null, scan);
+	/**
+	 * State of a scan over the table. Cells of a row may be returned in
+	 * several results when row is wider than scan batch, so a row is only
+	 * checked when a cell of next row, or end of scan, is read.
+	 */
+	private static class TableScan {
+
+		private ExpectedData expectedData;
+
+		private Map<String, Integer> numberOfRowsByFamily = new HashMap<String, Integer>();
+		private Map<String, Set<String>> foundRowsByFamily = new HashMap<String, Set<String>>();
+		private String firstDifference;
+
+		private String currentRow;
+		private Map<String, Integer> currentNumberOfColumnsByFamily = new LinkedHashMap<String, Integer>();
+		private String currentRowDifference;
+
+		public TableScan(ExpectedData expectedData) {
+			this.expectedData = expectedData;
+		}
+
+		public void read(KeyValue keyValue) {
+
+			String row = toStringValue(keyValue.getRow());
+
+			if (!row.equals(currentRow)) {
+				finish();
+				currentRow = row;
+			}
+
+			String family = toStringValue(keyValue.getFamily());
+			increment(currentNumberOfColumnsByFamily, family);
+
+			Map<String, String> expectedColumns = expectedData.columns(family, row);
+
+			if (expectedColumns != null && currentRowDifference == null) {
+				checkColumn(keyValue, expectedColumns);
+			}
+		}
+
+		private void checkColumn(KeyValue keyValue, Map<String, String> expectedColumns) {
+
+			String name = toStringValue(keyValue.getQualifier());
+			String value = toStringValue(keyValue.getValue());
+
+			if (!value.equals(expectedColumns.get(name))) {
+				currentRowDifference = String.format(
+						"Expected column are not found. Encountered column with name %s and value %s is not found.",
+						name, value);
+			}
+		}
+
+		public void finish() {
+
+			if (currentRow == null) {
+				return;
+			}
+
+			for (Map.Entry<String, Integer> familyColumns : currentNumberOfColumnsByFamily.entrySet()) {
+
+				String family = familyColumns.getKey();
+				increment(numberOfRowsByFamily, family);
+				found(family, currentRow);
+
+				Map<String, String> expectedColumns = expectedData.columns(family, currentRow);
+
+				if (expectedColumns != null && expectedColumns.size() != familyColumns.getValue()) {
+					difference(String.format("Expected number of columns for %s are %s but %s are found.",
+							currentRow, expectedColumns.size(), familyColumns.getValue()));
+				}
+			}
+
+			if (currentRowDifference != null) {
+				difference(currentRowDifference);
+			}
+
+			currentRow = null;
+			currentNumberOfColumnsByFamily.clear();
+			currentRowDifference = null;
+		}
+
+		private void difference(String difference) {
+			if (firstDifference == null) {
+				firstDifference = difference;
+			}
+		}
+
+		private void found(String family, String row) {
+
+			Set<String> foundRows = foundRowsByFamily.get(family);
+
+			if (foundRows == null) {
+				foundRows = new HashSet<String>();
+				foundRowsByFamily.put(family, foundRows);
+			}
+
+			foundRows.add(row);
+		}
+
+		private void increment(Map<String, Integer> counters, String key) {
+			Integer counter = counters.get(key);
+			counters.put(key, counter == null ? 1 : counter + 1);
+		}
+
+		public int numberOfRows(String family) {
+			Integer numberOfRows = numberOfRowsByFamily.get(family);
+			return numberOfRows == null ? 0 : numberOfRows;
+		}
+
+		public boolean isRowFound(String family, String row) {
+			Set<String> foundRows = foundRowsByFamily.get(family);
+			return foundRows != null && foundRows.contains(row);
+		}
+
+		public String getFirstDifference() {
+			return firstDifference;
+		}
+
 	}
 
 }
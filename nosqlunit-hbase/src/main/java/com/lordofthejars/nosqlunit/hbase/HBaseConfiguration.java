@@ -7,6 +7,7 @@ import com.lordofthejars.nosqlunit.core.AbstractJsr330Configuration;
 public class HBaseConfiguration extends AbstractJsr330Configuration {
 
 	private Configuration configuration;
+	private boolean truncateTables;
 	
 	public void setConfiguration(Configuration configuration) {
 		this.configuration = configuration;
@@ -16,4 +17,12 @@ public class HBaseConfiguration extends AbstractJsr330Configuration {
 		return configuration;
 	}
 	
+	public boolean isTruncateTables() {
+		return truncateTables;
+	}
+	
+	public void setTruncateTables(boolean truncateTables) {
+		this.truncateTables = truncateTables;
+	}
+	
 }
@@ -5,11 +5,7 @@ import java.io.InputStream;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HTableDescriptor;
-import org.apache.hadoop.hbase.MasterNotRunningException;
-import org.apache.hadoop.hbase.ZooKeeperConnectionException;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
-import org.apache.hadoop.hbase.client.HConnection;
-import org.apache.hadoop.hbase.client.HConnectionManager;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
@@ -17,9 +13,11 @@ import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
 public class HBaseOperation extends AbstractCustomizableDatabaseOperation<HBaseConnectionCallback, Configuration> {
 
 	private Configuration configuration;
+	private HBaseConfiguration hBaseConfiguration;
 	
 	public HBaseOperation(HBaseConfiguration configuration) {
 		this.configuration = configuration.getConfiguration();
+		this.hBaseConfiguration = configuration;
 		setInsertionStrategy(new DefaultHBaseInsertionStrategy());
 		setComparisonStrategy(new DefaultHBaseComparisonStrategy());
 	}
@@ -47,14 +45,26 @@ public class HBaseOperation extends AbstractCustomizableDatabaseOperation<HBaseC
 
 	@Override
 	public void deleteAll() {
-		HConnection connection = connection();
-		HBaseAdmin hBaseAdmin = hBaseAdmin(connection);
-		deleteAllTables(connection, hBaseAdmin);
+		HBaseAdmin hBaseAdmin = HBaseAdminRegistry.getInstance().getHBaseAdmin(configuration);
+		
+		if (hBaseConfiguration.isTruncateTables()) {
+			truncateAllTables(hBaseAdmin);
+		} else {
+			deleteAllTables(hBaseAdmin);
+		}
+	}
+
+	private void truncateAllTables(HBaseAdmin hBaseAdmin) {
+		try {
+			new TableTruncator(configuration).truncate(hBaseAdmin.listTables());
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
 	}
 
-	private void deleteAllTables(HConnection connection, HBaseAdmin hBaseAdmin) {
+	private void deleteAllTables(HBaseAdmin hBaseAdmin) {
 		try {
-			HTableDescriptor[] listTables = connection.listTables();
+			HTableDescriptor[] listTables = hBaseAdmin.listTables();
 			
 			for (HTableDescriptor hTableDescriptor : listTables) {
 				byte[] tableName = hTableDescriptor.getName();
@@ -91,24 +101,5 @@ public class HBaseOperation extends AbstractCustomizableDatabaseOperation<HBaseC
 	public Configuration connectionManager() {
 		return configuration;
 	}
-	
-	
-	private HBaseAdmin hBaseAdmin(HConnection connection) {
-		try {
-			return new HBaseAdmin(connection);
-		} catch (MasterNotRunningException e) {
-			throw new IllegalArgumentException(e);
-		} catch (ZooKeeperConnectionException e) {
-			throw new IllegalArgumentException(e);
-		}
-	}
-	
-	private HConnection connection() {
-		try {
-			return HConnectionManager.createConnection(this.configuration);
-		} catch (ZooKeeperConnectionException e) {
-			throw new IllegalArgumentException(e);
-		}
-	}
 
 }
@@ -17,17 +17,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
+import com.lordofthejars.nosqlunit.core.BackoffScheduler;
 import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
 import com.lordofthejars.nosqlunit.core.OsNameSystemPropertyOperatingSystemResolver;
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
 import com.lordofthejars.nosqlunit.env.SystemEnvironmentVariables;
 
 public class ManagedHBaseLifecycleManager extends AbstractLifecycleManager {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ManagedHBaseLifecycleManager.class); 
 	
-	private static final int NUM_RETRIES_TO_CHECK_SERVER_UP = 3;
+	private static final int SECONDS_TO_CHECK_SERVER_UP = 9;
 	
 	protected static final String LOCALHOST = "127.0.0.1";
 	protected static final int PORT = HConstants.DEFAULT_MASTER_PORT;
@@ -42,6 +44,7 @@ public class ManagedHBaseLifecycleManager extends AbstractLifecycleManager {
 	private CommandLineExecutor commandLineExecutor = new CommandLineExecutor();
 	private OperatingSystemResolver operatingSystemResolver = new OsNameSystemPropertyOperatingSystemResolver();
 	private HBaseUtils hBaseUtils = new HBaseUtils();
+	private BackoffScheduler startupScheduler = new BackoffScheduler(SECONDS_TO_CHECK_SERVER_UP, TimeUnit.SECONDS);
 	
 	private String targetPath = DEFAULT_HBASE_TARGET_PATH;
 
@@ -98,6 +101,8 @@ public class ManagedHBaseLifecycleManager extends AbstractLifecycleManager {
 		
 		LOGGER.info("Stopping {} HBase instance.", hBasePath);
 		
+		HBaseAdminRegistry.getInstance().closeHBaseAdmin(HBaseConfiguration.create());
+		
 		try {
 			stopHBase();			
 		} catch(InterruptedException e) {
@@ -129,19 +134,15 @@ public class ManagedHBaseLifecycleManager extends AbstractLifecycleManager {
 	
 	private boolean assertThatConnectionIsPossible() throws InterruptedException {
 
-		Configuration config = HBaseConfiguration.create();
+		final Configuration config = HBaseConfiguration.create();
 
-		for (int i = 0; i < NUM_RETRIES_TO_CHECK_SERVER_UP; i++) {
-	         
-			if(hBaseUtils.isConnectionPossible(config)) {
-				return true;
-			}
-			
+		return startupScheduler.awaitReady(new ReadinessProbe() {
 
-			TimeUnit.SECONDS.sleep(3);
-		}
-
-		return false;
+			@Override
+			public boolean isReady() {
+				return hBaseUtils.isConnectionPossible(config);
+			}
+		});
 	}
 	
 	private List<String> stopHBase() throws InterruptedException {
@@ -0,0 +1,144 @@
+package com.lordofthejars.nosqlunit.hbase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.util.Pair;
+
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
+
+/**
+ * Removes all rows of tables while keeping tables, column families and
+ * regions, so they do not have to be disabled, dropped and created again.
+ * <p>
+ * Each region is scanned for its row keys and its rows are deleted by its own
+ * thread. Deletes are stamped with a single timestamp and truncation does not
+ * return until clock has passed it, so rows inserted right after are never
+ * hidden by delete markers.
+ * <p>
+ * Timestamps are taken from local clock, which is only shared with region
+ * servers by embedded HBase, so truncation is only offered for embedded
+ * configurations.
+ */
+class TableTruncator {
+
+	private static final int DELETE_BATCH_SIZE = 1000;
+
+	private Configuration configuration;
+
+	public TableTruncator(Configuration configuration) {
+		this.configuration = configuration;
+	}
+
+	public void truncate(HTableDescriptor[] tableDescriptors) throws IOException {
+
+		long deleteTimestamp = System.currentTimeMillis();
+
+		List<Callable<Void>> regionTruncations = new ArrayList<Callable<Void>>();
+
+		for (HTableDescriptor tableDescriptor : tableDescriptors) {
+			regionTruncations.addAll(regionTruncations(tableDescriptor.getName(), deleteTimestamp));
+		}
+
+		ParallelTasks.executeInParallel(regionTruncations);
+
+		waitUntilClockPasses(deleteTimestamp);
+	}
+
+	private List<Callable<Void>> regionTruncations(final byte[] tableName, final long deleteTimestamp)
+			throws IOException {
+
+		HTable table = new HTable(configuration, tableName);
+		Pair<byte[][], byte[][]> regionKeys;
+
+		try {
+			regionKeys = table.getStartEndKeys();
+		} finally {
+			table.close();
+		}
+
+		List<Callable<Void>> regionTruncations = new ArrayList<Callable<Void>>();
+
+		for (int i = 0; i < regionKeys.getFirst().length; i++) {
+
+			final byte[] startKey = regionKeys.getFirst()[i];
+			final byte[] endKey = regionKeys.getSecond()[i];
+
+			regionTruncations.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws IOException {
+					deleteRows(tableName, startKey, endKey, deleteTimestamp);
+					return null;
+				}
+			});
+		}
+
+		return regionTruncations;
+	}
+
+	private void deleteRows(byte[] tableName, byte[] startKey, byte[] endKey, long deleteTimestamp)
+			throws IOException {
+
+		HTable table = new HTable(configuration, tableName);
+
+		try {
+			ResultScanner scanner = table.getScanner(rowKeysScan(startKey, endKey));
+			List<Delete> deletes = new ArrayList<Delete>();
+
+			try {
+				for (Result result : scanner) {
+					deletes.add(new Delete(result.getRow(), deleteTimestamp, null));
+
+					if (deletes.size() >= DELETE_BATCH_SIZE) {
+						table.delete(deletes);
+						deletes.clear();
+					}
+				}
+			} finally {
+				scanner.close();
+			}
+
+			if (!deletes.isEmpty()) {
+				table.delete(deletes);
+			}
+		} finally {
+			table.close();
+		}
+	}
+
+	private Scan rowKeysScan(byte[] startKey, byte[] endKey) {
+
+		Scan scan = new Scan(startKey, endKey);
+		scan.setFilter(new FilterList(new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+		scan.setCaching(DELETE_BATCH_SIZE);
+		scan.setCacheBlocks(false);
+
+		return scan;
+	}
+
+	private void waitUntilClockPasses(long timestamp) {
+
+		while (System.currentTimeMillis() <= timestamp) {
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+}
@@ -7,6 +7,11 @@ public class ParsedColumnFamilyModel {
 
 	private String name;
 	private List<ParsedRowModel> rows = new ArrayList<ParsedRowModel>();
+	private String compression;
+	private String bloomFilter;
+	private Integer blockSize;
+	private Integer maxVersions;
+	private Integer timeToLive;
 	
 	public String getName() {
 		return name;
@@ -20,5 +25,35 @@ public class ParsedColumnFamilyModel {
 	public void setRows(List<ParsedRowModel> rows) {
 		this.rows = rows;
 	}
+	public String getCompression() {
+		return compression;
+	}
+	public void setCompression(String compression) {
+		this.compression = compression;
+	}
+	public String getBloomFilter() {
+		return bloomFilter;
+	}
+	public void setBloomFilter(String bloomFilter) {
+		this.bloomFilter = bloomFilter;
+	}
+	public Integer getBlockSize() {
+		return blockSize;
+	}
+	public void setBlockSize(Integer blockSize) {
+		this.blockSize = blockSize;
+	}
+	public Integer getMaxVersions() {
+		return maxVersions;
+	}
+	public void setMaxVersions(Integer maxVersions) {
+		this.maxVersions = maxVersions;
+	}
+	public Integer getTimeToLive() {
+		return timeToLive;
+	}
+	public void setTimeToLive(Integer timeToLive) {
+		this.timeToLive = timeToLive;
+	}
 
 }
@@ -7,6 +7,9 @@ public class ParsedDataModel {
 
 	private String name;
 	private List<ParsedColumnFamilyModel> columnFamilies = new ArrayList<ParsedColumnFamilyModel>();
+	private List<String> splitKeys = new ArrayList<String>();
+	private String splitAlgorithm;
+	private Integer numberOfRegions;
 	
 	public String getName() {
 		return name;
@@ -20,6 +23,24 @@ public class ParsedDataModel {
 	public void setColumnFamilies(List<ParsedColumnFamilyModel> columnFamilies) {
 		this.columnFamilies = columnFamilies;
 	}
+	public List<String> getSplitKeys() {
+		return splitKeys;
+	}
+	public void setSplitKeys(List<String> splitKeys) {
+		this.splitKeys = splitKeys;
+	}
+	public String getSplitAlgorithm() {
+		return splitAlgorithm;
+	}
+	public void setSplitAlgorithm(String splitAlgorithm) {
+		this.splitAlgorithm = splitAlgorithm;
+	}
+	public Integer getNumberOfRegions() {
+		return numberOfRegions;
+	}
+	public void setNumberOfRegions(Integer numberOfRegions) {
+		this.numberOfRegions = numberOfRegions;
+	}
 	
 	
 }
@@ -3,6 +3,7 @@ package com.lordofthejars.nosqlunit.hbase.integration;
 import static com.lordofthejars.nosqlunit.hbase.EmbeddedHBase.EmbeddedHBaseRuleBuilder.newEmbeddedHBaseRule;
 import static org.junit.Assert.assertThat;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 
@@ -262,6 +263,30 @@ public class WhenComparingHBaseDataset {
 			"  ]\r\n" + 
 			"}";
 	
+	private static final String HBASE_DATASET_DIFFERENT_SECOND_VALUE = "{\r\n" + 
+			"  \"name\": \"mytable\",\r\n" + 
+			"  \"columnFamilies\": [\r\n" + 
+			"    {\r\n" + 
+			"      \"name\": \"mycf\",\r\n" + 
+			"      \"rows\": [\r\n" + 
+			"        {\r\n" + 
+			"          \"key\": \"key\",\r\n" + 
+			"          \"columns\": [\r\n" + 
+			"            {\r\n" + 
+			"              \"name\": \"col1\",\r\n" + 
+			"              \"value\": \"val1\"\r\n" + 
+			"            },\r\n" + 
+			"            {\r\n" + 
+			"              \"name\": \"col2\",\r\n" + 
+			"              \"value\": \"val3\"\r\n" + 
+			"            }\r\n" + 
+			"          ]\r\n" + 
+			"        }\r\n" + 
+			"      ]\r\n" + 
+			"    }\r\n" + 
+			"  ]\r\n" + 
+			"}";
+	
 	@ClassRule
 	public static EmbeddedHBase embeddedHBase = newEmbeddedHBaseRule().build();
 	
@@ -398,6 +423,21 @@ public class WhenComparingHBaseDataset {
 		}
 	}
 	
+	@Test
+	public void exception_should_be_thrown_if_value_of_any_column_is_different() {
+		
+		Configuration configuration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
+		HBaseOperation hBaseOperation = hBaseOperation(configuration);
+		
+		hBaseOperation.insert(new ByteArrayInputStream(HBASE_DATASET.getBytes()));
+		try {
+			hBaseOperation.databaseIs(new ByteArrayInputStream(HBASE_DATASET_DIFFERENT_SECOND_VALUE.getBytes()));
+			fail();
+		}catch(NoSqlAssertionError e) {
+			assertThat(e.getMessage(), is("Expected column are not found. Encountered column with name col2 and value val2 is not found."));
+		}
+	}
+	
 	private HBaseOperation hBaseOperation(Configuration configuration) {
 		HBaseConfiguration hBaseConfiguration = new HBaseConfiguration();
 		hBaseConfiguration.setConfiguration(configuration);
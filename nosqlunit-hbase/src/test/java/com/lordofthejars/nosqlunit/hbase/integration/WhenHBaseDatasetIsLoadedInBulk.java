@@ -0,0 +1,128 @@
+package com.lordofthejars.nosqlunit.hbase.integration;
+
+import static com.lordofthejars.nosqlunit.hbase.EmbeddedHBase.EmbeddedHBaseRuleBuilder.newEmbeddedHBaseRule;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lordofthejars.nosqlunit.hbase.BulkLoadHBaseInsertionStrategy;
+import com.lordofthejars.nosqlunit.hbase.DefaultHBaseInsertionStrategy;
+import com.lordofthejars.nosqlunit.hbase.EmbeddedHBase;
+import com.lordofthejars.nosqlunit.hbase.EmbeddedHBaseInstances;
+import com.lordofthejars.nosqlunit.hbase.HBaseConfiguration;
+import com.lordofthejars.nosqlunit.hbase.HBaseOperation;
+
+public class WhenHBaseDatasetIsLoadedInBulk {
+
+	private static final int NUMBER_OF_ROWS = 500;
+
+	@ClassRule
+	public static EmbeddedHBase embeddedHBase = newEmbeddedHBaseRule().build();
+
+	@After
+	public void tearDown() {
+		Configuration configuration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
+		hBaseOperation(configuration).deleteAll();
+	}
+
+	@Test
+	public void bulk_load_should_insert_every_row_of_dataset() throws IOException {
+
+		Configuration configuration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
+		HBaseOperation hBaseOperation = hBaseOperation(configuration);
+		hBaseOperation.setInsertionStrategy(new BulkLoadHBaseInsertionStrategy());
+
+		hBaseOperation.insert(new ByteArrayInputStream(dataset().getBytes()));
+
+		HTable table = new HTable(configuration, "bulktable");
+
+		assertThat(countRows(table), is(NUMBER_OF_ROWS));
+
+		Result result = table.get(new Get("key42".getBytes()));
+		assertThat(new String(result.getValue("mycf".getBytes(), "col1".getBytes())), is("value42"));
+
+		table.close();
+	}
+
+	@Test
+	public void bulk_loaded_data_should_be_compared_as_any_other_data() {
+
+		Configuration configuration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
+		HBaseOperation hBaseOperation = hBaseOperation(configuration);
+		hBaseOperation.setInsertionStrategy(new BulkLoadHBaseInsertionStrategy());
+
+		hBaseOperation.insert(new ByteArrayInputStream(dataset().getBytes()));
+
+		assertThat(hBaseOperation.databaseIs(new ByteArrayInputStream(dataset().getBytes())), is(true));
+	}
+
+	@Test
+	public void buffered_puts_should_insert_every_row_of_dataset() throws IOException {
+
+		Configuration configuration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
+		HBaseOperation hBaseOperation = hBaseOperation(configuration);
+		hBaseOperation.setInsertionStrategy(new DefaultHBaseInsertionStrategy(1024));
+
+		hBaseOperation.insert(new ByteArrayInputStream(dataset().getBytes()));
+		hBaseOperation.insert(new ByteArrayInputStream(dataset().getBytes()));
+
+		HTable table = new HTable(configuration, "bulktable");
+
+		assertThat(countRows(table), is(NUMBER_OF_ROWS));
+
+		table.close();
+	}
+
+	private int countRows(HTable table) throws IOException {
+
+		ResultScanner scanner = table.getScanner(new Scan());
+		int rows = 0;
+
+		try {
+			while (scanner.next() != null) {
+				rows++;
+			}
+		} finally {
+			scanner.close();
+		}
+
+		return rows;
+	}
+
+	private String dataset() {
+
+		StringBuilder dataset = new StringBuilder();
+		dataset.append("{\"name\" : \"bulktable\", \"columnFamilies\" : [{\"name\" : \"mycf\", \"rows\" : [");
+
+		for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+			if (i > 0) {
+				dataset.append(",");
+			}
+			dataset.append("{\"key\" : \"key").append(i).append("\", \"columns\" : [");
+			dataset.append("{\"name\" : \"col1\", \"value\" : \"value").append(i).append("\"}]}");
+		}
+
+		dataset.append("]}]}");
+
+		return dataset.toString();
+	}
+
+	private HBaseOperation hBaseOperation(Configuration configuration) {
+		HBaseConfiguration hBaseConfiguration = new HBaseConfiguration();
+		hBaseConfiguration.setConfiguration(configuration);
+		return new HBaseOperation(hBaseConfiguration);
+	}
+
+}
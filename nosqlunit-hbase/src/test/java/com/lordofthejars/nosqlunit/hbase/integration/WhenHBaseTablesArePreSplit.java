@@ -0,0 +1,108 @@
+package com.lordofthejars.nosqlunit.hbase.integration;
+
+import static com.lordofthejars.nosqlunit.hbase.EmbeddedHBase.EmbeddedHBaseRuleBuilder.newEmbeddedHBaseRule;
+import static com.lordofthejars.nosqlunit.hbase.EmbeddedHBaseConfigurationBuilder.newEmbeddedHBaseConfiguration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.regionserver.StoreFile;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lordofthejars.nosqlunit.hbase.BulkLoadHBaseInsertionStrategy;
+import com.lordofthejars.nosqlunit.hbase.EmbeddedHBase;
+import com.lordofthejars.nosqlunit.hbase.EmbeddedHBaseInstances;
+import com.lordofthejars.nosqlunit.hbase.HBaseOperation;
+
+public class WhenHBaseTablesArePreSplit {
+
+	private static final String ROWS = "\"rows\" : ["
+			+ "{\"key\" : \"a\", \"columns\" : [{\"name\" : \"col1\", \"value\" : \"val1\"}]},"
+			+ "{\"key\" : \"m\", \"columns\" : [{\"name\" : \"col1\", \"value\" : \"val2\"}]},"
+			+ "{\"key\" : \"z\", \"columns\" : [{\"name\" : \"col1\", \"value\" : \"val3\"}]}]";
+
+	private static final String HBASE_DATASET_WITH_SPLIT_KEYS = "{\"name\" : \"splittable\", \"splitKeys\" : [\"f\", \"p\"],"
+			+ " \"columnFamilies\" : [{\"name\" : \"mycf\", \"bloomFilter\" : \"ROW\", \"blockSize\" : 8192,"
+			+ " \"maxVersions\" : 1, \"timeToLive\" : 3600, " + ROWS + "}]}";
+
+	private static final String HBASE_DATASET_WITH_SPLIT_ALGORITHM = "{\"name\" : \"splittable\", \"splitAlgorithm\" : \"UniformSplit\","
+			+ " \"numberOfRegions\" : 4, \"columnFamilies\" : [{\"name\" : \"mycf\", " + ROWS + "}]}";
+
+	@ClassRule
+	public static EmbeddedHBase embeddedHBase = newEmbeddedHBaseRule().build();
+
+	@After
+	public void tearDown() {
+		new HBaseOperation(newEmbeddedHBaseConfiguration().build()).deleteAll();
+	}
+
+	@Test
+	public void table_should_be_split_by_declared_keys() throws IOException {
+
+		HBaseOperation hBaseOperation = new HBaseOperation(newEmbeddedHBaseConfiguration().build());
+		hBaseOperation.insert(new ByteArrayInputStream(HBASE_DATASET_WITH_SPLIT_KEYS.getBytes()));
+
+		assertThat(numberOfRegions("splittable"), is(3));
+		assertThat(hBaseOperation.databaseIs(new ByteArrayInputStream(HBASE_DATASET_WITH_SPLIT_KEYS.getBytes())),
+				is(true));
+	}
+
+	@Test
+	public void table_should_be_split_by_split_algorithm() throws IOException {
+
+		HBaseOperation hBaseOperation = new HBaseOperation(newEmbeddedHBaseConfiguration().build());
+		hBaseOperation.insert(new ByteArrayInputStream(HBASE_DATASET_WITH_SPLIT_ALGORITHM.getBytes()));
+
+		assertThat(numberOfRegions("splittable"), is(4));
+	}
+
+	@Test
+	public void column_family_attributes_should_be_applied() throws IOException {
+
+		HBaseOperation hBaseOperation = new HBaseOperation(newEmbeddedHBaseConfiguration().build());
+		hBaseOperation.insert(new ByteArrayInputStream(HBASE_DATASET_WITH_SPLIT_KEYS.getBytes()));
+
+		Configuration configuration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
+		HBaseAdmin hBaseAdmin = new HBaseAdmin(configuration);
+		HColumnDescriptor columnDescriptor = hBaseAdmin.getTableDescriptor("splittable".getBytes()).getFamily(
+				"mycf".getBytes());
+
+		assertThat(columnDescriptor.getBloomFilterType(), is(StoreFile.BloomType.ROW));
+		assertThat(columnDescriptor.getBlocksize(), is(8192));
+		assertThat(columnDescriptor.getMaxVersions(), is(1));
+		assertThat(columnDescriptor.getTimeToLive(), is(3600));
+	}
+
+	@Test
+	public void bulk_load_should_spread_rows_across_regions() throws IOException {
+
+		HBaseOperation hBaseOperation = new HBaseOperation(newEmbeddedHBaseConfiguration().build());
+		hBaseOperation.setInsertionStrategy(new BulkLoadHBaseInsertionStrategy());
+		hBaseOperation.insert(new ByteArrayInputStream(HBASE_DATASET_WITH_SPLIT_KEYS.getBytes()));
+
+		assertThat(numberOfRegions("splittable"), is(3));
+		assertThat(hBaseOperation.databaseIs(new ByteArrayInputStream(HBASE_DATASET_WITH_SPLIT_KEYS.getBytes())),
+				is(true));
+	}
+
+	private int numberOfRegions(String tableName) throws IOException {
+
+		Configuration configuration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
+		HTable table = new HTable(configuration, tableName);
+
+		try {
+			return table.getStartKeys().length;
+		} finally {
+			table.close();
+		}
+	}
+
+}
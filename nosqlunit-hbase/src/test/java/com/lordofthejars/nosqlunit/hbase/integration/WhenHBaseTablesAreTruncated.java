@@ -0,0 +1,112 @@
+package com.lordofthejars.nosqlunit.hbase.integration;
+
+import static com.lordofthejars.nosqlunit.hbase.EmbeddedHBase.EmbeddedHBaseRuleBuilder.newEmbeddedHBaseRule;
+import static com.lordofthejars.nosqlunit.hbase.EmbeddedHBaseConfigurationBuilder.newEmbeddedHBaseConfiguration;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lordofthejars.nosqlunit.hbase.EmbeddedHBase;
+import com.lordofthejars.nosqlunit.hbase.EmbeddedHBaseInstances;
+import com.lordofthejars.nosqlunit.hbase.HBaseOperation;
+
+public class WhenHBaseTablesAreTruncated {
+
+	private static final String HBASE_DATASET = "{\"name\" : \"truncatedtable\", \"columnFamilies\" : [{\"name\" : \"mycf\", \"rows\" : ["
+			+ "{\"key\" : \"a\", \"columns\" : [{\"name\" : \"col1\", \"value\" : \"val1\"}]},"
+			+ "{\"key\" : \"m\", \"columns\" : [{\"name\" : \"col1\", \"value\" : \"val2\"}]},"
+			+ "{\"key\" : \"z\", \"columns\" : [{\"name\" : \"col1\", \"value\" : \"val3\"}]}]}]}";
+
+	@ClassRule
+	public static EmbeddedHBase embeddedHBase = newEmbeddedHBaseRule().build();
+
+	@After
+	public void tearDown() {
+		new HBaseOperation(newEmbeddedHBaseConfiguration().build()).deleteAll();
+	}
+
+	@Test
+	public void tables_should_be_kept_without_rows() throws IOException {
+
+		HBaseOperation hBaseOperation = new HBaseOperation(newEmbeddedHBaseConfiguration().truncateTables().build());
+
+		hBaseOperation.insert(new ByteArrayInputStream(HBASE_DATASET.getBytes()));
+		hBaseOperation.deleteAll();
+
+		Configuration configuration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
+		HBaseAdmin hBaseAdmin = new HBaseAdmin(configuration);
+
+		assertThat(hBaseAdmin.tableExists("truncatedtable"), is(true));
+		assertThat(countRows(configuration, "truncatedtable"), is(0));
+	}
+
+	@Test
+	public void rows_inserted_after_truncation_should_be_visible() throws IOException {
+
+		HBaseOperation hBaseOperation = new HBaseOperation(newEmbeddedHBaseConfiguration().truncateTables().build());
+
+		hBaseOperation.insert(new ByteArrayInputStream(HBASE_DATASET.getBytes()));
+		hBaseOperation.deleteAll();
+		hBaseOperation.insert(new ByteArrayInputStream(HBASE_DATASET.getBytes()));
+
+		Configuration configuration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
+
+		assertThat(countRows(configuration, "truncatedtable"), is(3));
+		assertThat(hBaseOperation.databaseIs(new ByteArrayInputStream(HBASE_DATASET.getBytes())), is(true));
+	}
+
+	@Test
+	public void regions_of_pre_split_tables_should_be_kept() throws IOException {
+
+		Configuration configuration = EmbeddedHBaseInstances.getInstance().getDefaultConfiguration();
+		HBaseAdmin hBaseAdmin = new HBaseAdmin(configuration);
+
+		HTableDescriptor tableDescriptor = new HTableDescriptor("truncatedtable");
+		tableDescriptor.addFamily(new HColumnDescriptor("mycf"));
+		hBaseAdmin.createTable(tableDescriptor, new byte[][] { "f".getBytes(), "p".getBytes() });
+
+		HBaseOperation hBaseOperation = new HBaseOperation(newEmbeddedHBaseConfiguration().truncateTables().build());
+
+		hBaseOperation.insert(new ByteArrayInputStream(HBASE_DATASET.getBytes()));
+		hBaseOperation.deleteAll();
+
+		HTable table = new HTable(configuration, "truncatedtable");
+
+		assertThat(table.getStartKeys().length, is(3));
+		assertThat(countRows(configuration, "truncatedtable"), is(0));
+
+		table.close();
+	}
+
+	private int countRows(Configuration configuration, String tableName) throws IOException {
+
+		HTable table = new HTable(configuration, tableName);
+		ResultScanner scanner = table.getScanner(new Scan());
+		int rows = 0;
+
+		try {
+			while (scanner.next() != null) {
+				rows++;
+			}
+		} finally {
+			scanner.close();
+			table.close();
+		}
+
+		return rows;
+	}
+
+}
@@ -36,6 +36,24 @@ public class WhenJsonHbaseDataSetIsLoaded {
 			"  ]\r\n" + 
 			"}";
 	
+	private static final String HBASE_DATASET_WITH_REGIONS = "{\r\n" + 
+			"  \"name\": \"mytable\",\r\n" + 
+			"  \"splitKeys\": [\"f\", \"p\"],\r\n" + 
+			"  \"splitAlgorithm\": \"HexStringSplit\",\r\n" + 
+			"  \"numberOfRegions\": 4,\r\n" + 
+			"  \"columnFamilies\": [\r\n" + 
+			"    {\r\n" + 
+			"      \"name\": \"mycf\",\r\n" + 
+			"      \"compression\": \"GZ\",\r\n" + 
+			"      \"bloomFilter\": \"ROW\",\r\n" + 
+			"      \"blockSize\": 8192,\r\n" + 
+			"      \"maxVersions\": 1,\r\n" + 
+			"      \"timeToLive\": 3600,\r\n" + 
+			"      \"rows\": []\r\n" + 
+			"    }\r\n" + 
+			"  ]\r\n" + 
+			"}";
+	
 	@Test
 	public void should_load_json_file_into_dataset() {
 		
@@ -69,5 +87,37 @@ public class WhenJsonHbaseDataSetIsLoaded {
 		assertThat(secondParsedColumnModel.getValue(), is("val2"));
 		
 	}
+	
+	@Test
+	public void should_load_regions_and_column_family_attributes_into_dataset() {
+		
+		DataSetParser dataSetParser = new JsonDataSetParser();
+		ParsedDataModel parsedDataset = dataSetParser.parse(new ByteArrayInputStream(HBASE_DATASET_WITH_REGIONS.getBytes()));
+		
+		assertThat(parsedDataset.getSplitKeys(), hasSize(2));
+		assertThat(parsedDataset.getSplitKeys().get(0), is("f"));
+		assertThat(parsedDataset.getSplitAlgorithm(), is("HexStringSplit"));
+		assertThat(parsedDataset.getNumberOfRegions(), is(4));
+		
+		ParsedColumnFamilyModel parsedColumnFamilyModel = parsedDataset.getColumnFamilies().get(0);
+		assertThat(parsedColumnFamilyModel.getCompression(), is("GZ"));
+		assertThat(parsedColumnFamilyModel.getBloomFilter(), is("ROW"));
+		assertThat(parsedColumnFamilyModel.getBlockSize(), is(8192));
+		assertThat(parsedColumnFamilyModel.getMaxVersions(), is(1));
+		assertThat(parsedColumnFamilyModel.getTimeToLive(), is(3600));
+		
+	}
+	
+	@Test
+	public void attributes_not_declared_should_be_null() {
+		
+		DataSetParser dataSetParser = new JsonDataSetParser();
+		ParsedDataModel parsedDataset = dataSetParser.parse(new ByteArrayInputStream(HBASE_DATASET.getBytes()));
+		
+		assertThat(parsedDataset.getSplitKeys(), hasSize(0));
+		assertThat(parsedDataset.getSplitAlgorithm(), is((String) null));
+		assertThat(parsedDataset.getColumnFamilies().get(0).getMaxVersions(), is((Integer) null));
+		
+	}
 
 }
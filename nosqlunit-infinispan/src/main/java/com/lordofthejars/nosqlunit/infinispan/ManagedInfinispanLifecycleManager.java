@@ -1,6 +1,10 @@
 package com.lordofthejars.nosqlunit.infinispan;
 
 import static com.lordofthejars.nosqlunit.core.IOUtils.deleteDir;
+import static com.lordofthejars.nosqlunit.core.ReadinessProbes.anyOf;
+import static com.lordofthejars.nosqlunit.core.ReadinessProbes.latchReleased;
+import static com.lordofthejars.nosqlunit.core.ReadinessProbes.portReleased;
+import static com.lordofthejars.nosqlunit.core.ReadinessProbes.tcpConnect;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import java.io.File;
@@ -10,12 +14,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
+import com.lordofthejars.nosqlunit.core.BackoffScheduler;
 import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
@@ -52,6 +56,9 @@ public class ManagedInfinispanLifecycleManager extends AbstractLifecycleManager
 
 	private CommandLineExecutor commandLineExecutor = new CommandLineExecutor();
 	private OperatingSystemResolver operatingSystemResolver = new OsNameSystemPropertyOperatingSystemResolver();
+
+	private BackoffScheduler startupScheduler = new BackoffScheduler(5, SECONDS);
+	private BackoffScheduler shutdownScheduler = new BackoffScheduler(2, SECONDS);
 	
 	private boolean closing = false;
 	
@@ -98,7 +105,7 @@ public class ManagedInfinispanLifecycleManager extends AbstractLifecycleManager
 		}).start();
 
 		try {
-			startupLatch.await(5, SECONDS);
+			startupScheduler.awaitReady(anyOf(latchReleased(startupLatch), tcpConnect(LOCALHOST, port)));
 		} catch (InterruptedException e) {
 			throw new AssertionError(e);
 		}
@@ -209,7 +216,7 @@ public class ManagedInfinispanLifecycleManager extends AbstractLifecycleManager
 	private void stopInfinispan() throws InterruptedException {
 		if (isProcessAlive()) {
 			pwd.destroy();
-			TimeUnit.SECONDS.sleep(2);
+			shutdownScheduler.awaitReady(portReleased(LOCALHOST, port));
 		}
 	}
 
@@ -0,0 +1,205 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Content of a collection in a dataset. It can be an array of documents or a
+ * document which apart from documents defines how collection is created:
+ *
+ * <pre>
+ * "collection1": {
+ *   "options": {"capped": true, "size": 1048576},
+ *   "shard-key-pattern": ["id"],
+ *   "indexes": [
+ *     {"key": {"code": 1}, "unique": true},
+ *     {"key": {"createdAt": 1}, "expireAfterSeconds": 3600}
+ *   ],
+ *   "data": [...]
+ * }
+ * </pre>
+ *
+ * Each index has its key and any option supported by server, like
+ * <i>unique</i>, <i>sparse</i>, <i>name</i> or <i>expireAfterSeconds</i>.
+ */
+public class CollectionDefinition {
+
+	public static final String DATA = "data";
+	public static final String SHARD_KEY_PATTERN = "shard-key-pattern";
+	public static final String INDEXES = "indexes";
+	public static final String OPTIONS = "options";
+
+	private static final String INDEX_KEY = "key";
+	private static final String UNIQUE = "unique";
+
+	private BasicDBList data = new BasicDBList();
+	private BasicDBList shardKeyPattern;
+	private DBObject options;
+	private List<IndexDefinition> indexes = new ArrayList<IndexDefinition>();
+
+	private CollectionDefinition() {
+		super();
+	}
+
+	/**
+	 * @param collectionContent
+	 *            value of a collection in a dataset.
+	 * @return definition of collection.
+	 */
+	public static CollectionDefinition of(Object collectionContent) {
+
+		CollectionDefinition collectionDefinition = new CollectionDefinition();
+
+		if (collectionContent instanceof BasicDBList) {
+			collectionDefinition.data = (BasicDBList) collectionContent;
+			return collectionDefinition;
+		}
+
+		DBObject collectionDocument = (DBObject) collectionContent;
+
+		if (collectionDocument.containsField(DATA)) {
+			collectionDefinition.data = (BasicDBList) collectionDocument.get(DATA);
+		}
+
+		collectionDefinition.shardKeyPattern = (BasicDBList) collectionDocument.get(SHARD_KEY_PATTERN);
+		collectionDefinition.options = (DBObject) collectionDocument.get(OPTIONS);
+
+		if (collectionDocument.containsField(INDEXES)) {
+			for (Object index : (BasicDBList) collectionDocument.get(INDEXES)) {
+				collectionDefinition.indexes.add(new IndexDefinition((DBObject) index));
+			}
+		}
+
+		return collectionDefinition;
+	}
+
+	/**
+	 * @param content
+	 *            any value of a dataset.
+	 * @return true if value is a collection defined as a document instead of
+	 *         an array.
+	 */
+	public static boolean isCollectionDocument(Object content) {
+
+		if (!(content instanceof DBObject) || content instanceof BasicDBList) {
+			return false;
+		}
+
+		DBObject document = (DBObject) content;
+
+		return document.containsField(DATA) || document.containsField(SHARD_KEY_PATTERN)
+				|| document.containsField(INDEXES) || document.containsField(OPTIONS);
+	}
+
+	/**
+	 * Checks without parsing it if dataset could define indexes or options of
+	 * any collection.
+	 *
+	 * @param jsonData
+	 *            dataset content.
+	 * @return false if dataset only contains documents.
+	 */
+	public static boolean mayDefineCollections(String jsonData) {
+		return jsonData.contains(INDEXES) || jsonData.contains(OPTIONS);
+	}
+
+	public BasicDBList getData() {
+		return data;
+	}
+
+	public boolean isSharded() {
+		return shardKeyPattern != null;
+	}
+
+	public DBObject getShardKeys() {
+
+		BasicDBObject shardKeys = new BasicDBObject();
+
+		for (Object shardKey : shardKeyPattern) {
+			shardKeys.append(shardKey.toString(), 1);
+		}
+
+		return shardKeys;
+	}
+
+	public DBObject getOptions() {
+		return options;
+	}
+
+	/**
+	 * Unique indexes are created before inserting documents so duplicates are
+	 * rejected while loading.
+	 *
+	 * @return indexes to create before inserting documents.
+	 */
+	public List<IndexDefinition> getIndexesBeforeData() {
+
+		List<IndexDefinition> indexesBeforeData = new ArrayList<IndexDefinition>();
+
+		for (IndexDefinition index : indexes) {
+			if (index.isUnique()) {
+				indexesBeforeData.add(index);
+			}
+		}
+
+		return indexesBeforeData;
+	}
+
+	/**
+	 * Not unique indexes are built once all documents are inserted, which is
+	 * faster than updating them with each insert.
+	 *
+	 * @return indexes to create after inserting documents.
+	 */
+	public List<IndexDefinition> getIndexesAfterData() {
+
+		List<IndexDefinition> indexesAfterData = new ArrayList<IndexDefinition>();
+
+		for (IndexDefinition index : indexes) {
+			if (!index.isUnique()) {
+				indexesAfterData.add(index);
+			}
+		}
+
+		return indexesAfterData;
+	}
+
+	public static class IndexDefinition {
+
+		private DBObject key;
+		private DBObject options = new BasicDBObject();
+
+		private IndexDefinition(DBObject index) {
+
+			if (!index.containsField(INDEX_KEY)) {
+				throw new IllegalArgumentException("Index definitions require a key document, but found " + index);
+			}
+
+			for (String field : index.keySet()) {
+				if (INDEX_KEY.equals(field)) {
+					this.key = (DBObject) index.get(field);
+				} else {
+					this.options.put(field, index.get(field));
+				}
+			}
+		}
+
+		public DBObject getKey() {
+			return key;
+		}
+
+		public DBObject getOptions() {
+			return options;
+		}
+
+		public boolean isUnique() {
+			return Boolean.TRUE.equals(options.get(UNIQUE));
+		}
+
+	}
+
+}
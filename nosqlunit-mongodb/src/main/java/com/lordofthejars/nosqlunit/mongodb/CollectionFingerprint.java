@@ -0,0 +1,154 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MapReduceCommand.OutputType;
+import com.mongodb.MapReduceOutput;
+
+/**
+ * Summary of a whole collection made of its number of documents and the sum
+ * of document fingerprints, so it does not depend on documents order.
+ * <p>
+ * Fingerprint of a stored collection is calculated inside server by a map
+ * reduce which builds same canonical form as {@link DocumentFingerprint}, so
+ * only one document is returned to client. Server ignores every top level key
+ * starting with <i>_</i>, so collections whose expected documents declare
+ * any of them, like <i>_id</i>, never get same fingerprint and are compared
+ * document by document.
+ */
+public class CollectionFingerprint {
+
+	private static final long HASH_MODULUS = 1L << 32;
+	private static final int HASH_HEX_DIGITS = 8;
+
+	private static final String MAP_FUNCTION = "function() {"
+			+ "  function str(type, value) { return type + value.length + ':' + value; }"
+			+ "  function num(value) {"
+			+ "    if (value === Math.round(value) && Math.abs(value) < 9223372036854775807) { return 'n' + value; }"
+			+ "    return 'd' + value;"
+			+ "  }"
+			+ "  function fields(document, topLevel) {"
+			+ "    var keys = [];"
+			+ "    for (var key in document) {"
+			+ "      if (!topLevel || key.charAt(0) != '_') { keys.push(key); }"
+			+ "    }"
+			+ "    if (topLevel) { keys.sort(); }"
+			+ "    var canonical = '{';"
+			+ "    for (var i = 0; i < keys.length; i++) { canonical += str('k', keys[i]) + val(document[keys[i]]); }"
+			+ "    return canonical + '}';"
+			+ "  }"
+			+ "  function val(value) {"
+			+ "    if (value === null || value === undefined) { return 'null'; }"
+			+ "    if (value instanceof Array) {"
+			+ "      var canonical = '[';"
+			+ "      for (var i = 0; i < value.length; i++) { canonical += val(value[i]); }"
+			+ "      return canonical + ']';"
+			+ "    }"
+			+ "    if (typeof value === 'number') { return num(value); }"
+			+ "    if (typeof NumberLong !== 'undefined' && value instanceof NumberLong) { return num(value.toNumber()); }"
+			+ "    if (typeof value === 'string') { return str('s', value); }"
+			+ "    if (typeof value === 'boolean') { return 'b' + value; }"
+			+ "    if (value instanceof Date) { return 't' + value.getTime(); }"
+			+ "    if (typeof ObjectId !== 'undefined' && value instanceof ObjectId) { return 'o' + value.str; }"
+			+ "    if (typeof value === 'object') { return fields(value, false); }"
+			+ "    return str('?', String(value));"
+			+ "  }"
+			+ "  emit(0, { count : 1, hash : parseInt(hex_md5(fields(this, true)).substring(0, 8), 16) });"
+			+ "}";
+
+	private static final String REDUCE_FUNCTION = "function(key, values) {"
+			+ "  var result = { count : 0, hash : 0 };"
+			+ "  values.forEach(function(value) {"
+			+ "    result.count += value.count;"
+			+ "    result.hash = (result.hash + value.hash) % 4294967296;"
+			+ "  });"
+			+ "  return result;"
+			+ "}";
+
+	private static final String VALUE = "value";
+	private static final String COUNT = "count";
+	private static final String HASH = "hash";
+
+	private long count;
+	private long hash;
+
+	private CollectionFingerprint(long count, long hash) {
+		this.count = count;
+		this.hash = hash;
+	}
+
+	/**
+	 * Calculates fingerprint of given documents in client side.
+	 *
+	 * @param documents
+	 *            expected documents.
+	 * @return fingerprint.
+	 */
+	public static CollectionFingerprint of(BasicDBList documents) {
+
+		long hash = 0;
+
+		for (Object document : documents) {
+			String fingerprint = DocumentFingerprint.fingerprint((DBObject) document);
+			hash = (hash + Long.parseLong(fingerprint.substring(0, HASH_HEX_DIGITS), 16)) % HASH_MODULUS;
+		}
+
+		return new CollectionFingerprint(documents.size(), hash);
+	}
+
+	/**
+	 * Calculates fingerprint of stored documents inside server.
+	 *
+	 * @param dbCollection
+	 *            stored collection.
+	 * @return fingerprint.
+	 */
+	public static CollectionFingerprint of(DBCollection dbCollection) {
+
+		MapReduceOutput mapReduceOutput = dbCollection.mapReduce(MAP_FUNCTION, REDUCE_FUNCTION, null,
+				OutputType.INLINE, null);
+
+		for (DBObject result : mapReduceOutput.results()) {
+			DBObject value = (DBObject) result.get(VALUE);
+			return new CollectionFingerprint(((Number) value.get(COUNT)).longValue(),
+					((Number) value.get(HASH)).longValue());
+		}
+
+		return new CollectionFingerprint(0, 0);
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getHash() {
+		return hash;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (31 * count + hash);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof CollectionFingerprint)) {
+			return false;
+		}
+
+		CollectionFingerprint other = (CollectionFingerprint) obj;
+		return count == other.count && hash == other.hash;
+	}
+
+	@Override
+	public String toString() {
+		return "{count=" + count + ", hash=" + hash + "}";
+	}
+
+}
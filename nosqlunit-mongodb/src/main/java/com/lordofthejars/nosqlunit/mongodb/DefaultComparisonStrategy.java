@@ -14,7 +14,7 @@ public class DefaultComparisonStrategy implements MongoComparisonStrategy {
 		String expectedJsonData = loadContentFromInputStream(dataset);
 		DBObject parsedData = parseData(expectedJsonData);
 
-		MongoDbAssertion.strictAssertEquals(parsedData, connection.db());
+		MongoDbAssertion.strictAssertEquals(parsedData, connection);
 		
 		return true;
 	}
@@ -2,32 +2,97 @@ package com.lordofthejars.nosqlunit.mongodb;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
+import org.bson.BSON;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.IOUtils;
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
+import com.lordofthejars.nosqlunit.mongodb.CollectionDefinition.IndexDefinition;
 import com.mongodb.BasicDBList;
-import com.mongodb.BasicDBObjectBuilder;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
+import com.mongodb.WriteConcern;
 import com.mongodb.util.JSON;
 
 public class DefaultInsertionStrategy implements MongoInsertionStrategy {
 
-	private static final String SHARD_KEY_PATTERN = "shard-key-pattern";
-	private static final String DATA = "data";
+	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultInsertionStrategy.class);
+
+	public static final int DEFAULT_MAX_BATCH_DOCUMENTS = 1000;
+	public static final int MAX_BATCH_BYTES = 16 * 1024 * 1024;
+
 	private static final String DATABASE_COLLECTION_SEPARATOR = ".";
 
+	private int maxBatchDocuments;
+	private int maxBatchBytes;
+	private boolean parallelCollections;
+
+	public DefaultInsertionStrategy() {
+		this(DEFAULT_MAX_BATCH_DOCUMENTS, MAX_BATCH_BYTES, false);
+	}
+
+	/**
+	 * @param maxBatchDocuments
+	 *            maximum number of documents sent in one insert message.
+	 * @param maxBatchBytes
+	 *            maximum size in bytes of documents sent in one insert
+	 *            message, up to 16MB.
+	 * @param parallelCollections
+	 *            if true each collection of dataset is loaded by its own
+	 *            thread.
+	 */
+	public DefaultInsertionStrategy(int maxBatchDocuments, int maxBatchBytes, boolean parallelCollections) {
+
+		if (maxBatchDocuments <= 0) {
+			throw new IllegalArgumentException("Maximum number of documents per batch should be positive.");
+		}
+
+		if (maxBatchBytes <= 0 || maxBatchBytes > MAX_BATCH_BYTES) {
+			throw new IllegalArgumentException("Maximum batch size should be between 1 and " + MAX_BATCH_BYTES
+					+ " bytes.");
+		}
+
+		this.maxBatchDocuments = maxBatchDocuments;
+		this.maxBatchBytes = maxBatchBytes;
+		this.parallelCollections = parallelCollections;
+	}
+
 	@Override
 	public void insert(MongoDbConnectionCallback connection, InputStream dataset)
 			throws IOException {
 		String jsonData = loadContentFromInputStream(dataset);
 		DBObject parsedData = parseData(jsonData);
 
-		insertParsedData(parsedData, connection.db());
+		List<Callable<Void>> databaseInsertions = new ArrayList<Callable<Void>>();
+		databaseInsertions.add(databaseInsertion(MultiDatabaseDataset.configuredDatabaseData(parsedData),
+				connection.db()));
+
+		for (Entry<String, DBObject> otherDatabaseData : MultiDatabaseDataset.otherDatabasesData(parsedData)
+				.entrySet()) {
+			databaseInsertions.add(databaseInsertion(otherDatabaseData.getValue(),
+					connection.db(otherDatabaseData.getKey())));
+		}
+
+		ParallelTasks.executeInParallel(databaseInsertions);
+	}
+
+	private Callable<Void> databaseInsertion(final DBObject databaseData, final DB mongoDb) {
+		return new Callable<Void>() {
+
+			@Override
+			public Void call() throws Exception {
+				insertParsedData(databaseData, mongoDb);
+				return null;
+			}
+		};
 	}
 
 	private String loadContentFromInputStream(InputStream inputStreamContent)
@@ -40,64 +105,113 @@ public class DefaultInsertionStrategy implements MongoInsertionStrategy {
 		return parsedData;
 	}
 
-	private void insertParsedData(DBObject parsedData, DB mongoDb) {
+	private void insertParsedData(DBObject parsedData, final DB mongoDb) {
 		Set<String> collectionaNames = parsedData.keySet();
 
-		for (String collectionName : collectionaNames) {
+		List<Callable<Void>> collectionInsertions = new ArrayList<Callable<Void>>(collectionaNames.size());
+
+		for (final String collectionName : collectionaNames) {
 
-			if (isShardedCollection((DBObject) parsedData.get(collectionName))) {
+			final CollectionDefinition collectionDefinition = CollectionDefinition.of(parsedData.get(collectionName));
 
-				DBObject collection = (DBObject)parsedData.get(collectionName);
-				
+			createCollection(mongoDb, collectionName, collectionDefinition);
+
+			if (collectionDefinition.isSharded()) {
 				//Insert shard-key-pattern
-				insertShardKeyPattern(mongoDb, collectionName, collection);
-				
-				//Insert data
-				BasicDBList data = (BasicDBList)collection.get(DATA);
-				insertData(data, mongoDb, collectionName);
-			
-			} else {
-				BasicDBList dataObjects = (BasicDBList) parsedData
-						.get(collectionName);
-				insertData(dataObjects, mongoDb, collectionName);
+				insertShardKeyPattern(mongoDb, collectionName, collectionDefinition);
 			}
+
+			collectionInsertions.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					DBCollection dbCollection = mongoDb.getCollection(collectionName);
+
+					createIndexes(dbCollection, collectionDefinition.getIndexesBeforeData());
+					insertData(collectionDefinition.getData(), mongoDb, collectionName);
+					createIndexes(dbCollection, collectionDefinition.getIndexesAfterData());
+					return null;
+				}
+			});
+		}
+
+		if (parallelCollections) {
+			ParallelTasks.executeInParallel(collectionInsertions);
+		} else {
+			ParallelTasks.executeSequentially(collectionInsertions);
+		}
+	}
+
+	private void createCollection(DB mongoDb, String collectionName, CollectionDefinition collectionDefinition) {
+		DBObject options = collectionDefinition.getOptions();
+
+		if (options != null && !mongoDb.collectionExists(collectionName)) {
+			LOGGER.debug("Creating collection {} with options {}.", collectionName, options);
+			mongoDb.createCollection(collectionName, options);
+		}
+	}
+
+	private void createIndexes(DBCollection dbCollection, List<IndexDefinition> indexes) {
+		for (IndexDefinition index : indexes) {
+			LOGGER.debug("Creating index {} on {}.", index.getKey(), dbCollection.getName());
+			dbCollection.ensureIndex(index.getKey(), index.getOptions());
 		}
 	}
 
 	private void insertShardKeyPattern(DB mongoDb, String collectionName,
-			DBObject collection) {
+			CollectionDefinition collectionDefinition) {
 		String databaseName = mongoDb.getName();
 		String collectionWithDatabase = databaseName+DATABASE_COLLECTION_SEPARATOR+collectionName;
 		
-		DBObject shardKeys = shardKeys(collection);
+		DBObject shardKeys = collectionDefinition.getShardKeys();
 		MongoDbCommands.shardCollection(mongoDb.getMongo(), collectionWithDatabase, shardKeys);
 	}
 
-	private DBObject shardKeys(DBObject collection) {
-		BasicDBList shards = (BasicDBList)collection.get(SHARD_KEY_PATTERN);
-		BasicDBObjectBuilder shardKeysBuilder = new BasicDBObjectBuilder();
-		
-		for (Object dbObject : shards) {
-			shardKeysBuilder.append(dbObject.toString(), 1);
-		}
-		
-		DBObject shardKeys = shardKeysBuilder.get();
-		return shardKeys;
-	}
-
 	private void insertData(BasicDBList dataObjects, DB mongoDb,
 			String collectionName) {
 
 		DBCollection dbCollection = mongoDb
 				.getCollection(collectionName);
 
+		WriteConcern writeConcern = unorderedWriteConcern(dbCollection);
+
+		List<DBObject> batch = new ArrayList<DBObject>();
+		int batchBytes = 0;
+
 		for (Object dataObject : dataObjects) {
 
-			dbCollection.insert((DBObject) dataObject);
+			DBObject document = (DBObject) dataObject;
+			int documentBytes = BSON.encode(document).length;
+
+			if (!batch.isEmpty()
+					&& (batch.size() == maxBatchDocuments || batchBytes + documentBytes > maxBatchBytes)) {
+				insertBatch(dbCollection, batch, writeConcern);
+
+				batch = new ArrayList<DBObject>();
+				batchBytes = 0;
+			}
+
+			batch.add(document);
+			batchBytes += documentBytes;
+		}
+
+		if (!batch.isEmpty()) {
+			insertBatch(dbCollection, batch, writeConcern);
 		}
 	}
 
-	private boolean isShardedCollection(DBObject dbObject) {
-		return !(dbObject instanceof BasicDBList);
+	private void insertBatch(DBCollection dbCollection, List<DBObject> batch, WriteConcern writeConcern) {
+		LOGGER.debug("Inserting {} documents into {}.", batch.size(), dbCollection.getName());
+		dbCollection.insert(batch.toArray(new DBObject[batch.size()]), writeConcern);
+	}
+
+	private WriteConcern unorderedWriteConcern(DBCollection dbCollection) {
+		WriteConcern writeConcern = dbCollection.getWriteConcern();
+
+		if (writeConcern == null) {
+			writeConcern = WriteConcern.SAFE;
+		}
+
+		return writeConcern.continueOnErrorForInsert(true);
 	}
 }
@@ -0,0 +1,179 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.bson.BSONObject;
+import org.bson.types.ObjectId;
+
+import com.mongodb.DBObject;
+
+/**
+ * Computes a stable fingerprint of a document, so two documents which would
+ * be considered equal by a query by example get the same fingerprint.
+ * <p>
+ * Top level keys starting with <i>_</i>, like <i>_id</i>, are only taken
+ * into account when expected document declares them, so a stored document is
+ * fingerprinted keeping the same system keys as the expected one it is
+ * compared with. Top level keys are sorted, embedded documents keep their
+ * order. Numbers with same value get same fingerprint regardless of their
+ * type.
+ */
+public class DocumentFingerprint {
+
+	private static final String SYSTEM_KEY_PREFIX = "_";
+	private static final String DIGEST_ALGORITHM = "MD5";
+	private static final String ENCODING = "UTF-8";
+
+	private DocumentFingerprint() {
+		super();
+	}
+
+	/**
+	 * @param document
+	 *            expected document.
+	 * @return fingerprint of given document, including every top level key
+	 *         starting with <i>_</i> it declares.
+	 */
+	public static final String fingerprint(DBObject document) {
+		return fingerprint(document, systemKeys(document));
+	}
+
+	/**
+	 * @param document
+	 *            stored document.
+	 * @param systemKeys
+	 *            top level keys starting with <i>_</i> to take into account,
+	 *            the ones declared by expected document.
+	 * @return fingerprint of given document.
+	 */
+	public static final String fingerprint(DBObject document, Set<String> systemKeys) {
+		return digest(canonicalForm(document, systemKeys));
+	}
+
+	/**
+	 * @param document
+	 * @return top level keys of given document starting with <i>_</i>.
+	 */
+	public static final Set<String> systemKeys(DBObject document) {
+
+		Set<String> systemKeys = new TreeSet<String>();
+
+		for (String key : document.keySet()) {
+			if (key.startsWith(SYSTEM_KEY_PREFIX)) {
+				systemKeys.add(key);
+			}
+		}
+
+		return systemKeys;
+	}
+
+	/**
+	 * @param content
+	 *            any text.
+	 * @return hexadecimal MD5 digest of given text.
+	 */
+	public static final String digest(String content) {
+
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			byte[] digest = messageDigest.digest(content.getBytes(ENCODING));
+
+			return String.format("%032x", new BigInteger(1, digest));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public static final String canonicalForm(DBObject document, Set<String> systemKeys) {
+
+		Map<String, Object> fields = new TreeMap<String, Object>();
+
+		for (String key : document.keySet()) {
+			if (!key.startsWith(SYSTEM_KEY_PREFIX) || systemKeys.contains(key)) {
+				fields.put(key, document.get(key));
+			}
+		}
+
+		StringBuilder canonicalForm = new StringBuilder();
+		appendFields(canonicalForm, fields);
+
+		return canonicalForm.toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void appendValue(StringBuilder canonicalForm, Object value) {
+
+		if (value == null) {
+			canonicalForm.append("null");
+		} else if (value instanceof List) {
+			appendList(canonicalForm, (List<Object>) value);
+		} else if (value instanceof BSONObject) {
+			appendFields(canonicalForm, ((BSONObject) value).toMap());
+		} else if (value instanceof Map) {
+			appendFields(canonicalForm, (Map<String, Object>) value);
+		} else if (value instanceof Number) {
+			appendNumber(canonicalForm, (Number) value);
+		} else if (value instanceof String) {
+			appendString(canonicalForm, "s", (String) value);
+		} else if (value instanceof Boolean) {
+			canonicalForm.append('b').append(value);
+		} else if (value instanceof Date) {
+			canonicalForm.append('t').append(((Date) value).getTime());
+		} else if (value instanceof ObjectId) {
+			canonicalForm.append('o').append(value);
+		} else {
+			appendString(canonicalForm, value.getClass().getName(), value.toString());
+		}
+	}
+
+	private static void appendFields(StringBuilder canonicalForm, Map<String, Object> fields) {
+
+		canonicalForm.append('{');
+
+		for (Entry<String, Object> field : fields.entrySet()) {
+			appendString(canonicalForm, "k", field.getKey());
+			appendValue(canonicalForm, field.getValue());
+		}
+
+		canonicalForm.append('}');
+	}
+
+	private static void appendList(StringBuilder canonicalForm, List<Object> values) {
+
+		canonicalForm.append('[');
+
+		for (Object value : values) {
+			appendValue(canonicalForm, value);
+		}
+
+		canonicalForm.append(']');
+	}
+
+	private static void appendNumber(StringBuilder canonicalForm, Number number) {
+
+		double doubleValue = number.doubleValue();
+
+		if (doubleValue == Math.rint(doubleValue) && Math.abs(doubleValue) < Long.MAX_VALUE) {
+			canonicalForm.append('n').append(number.longValue());
+		} else {
+			canonicalForm.append('d').append(doubleValue);
+		}
+	}
+
+	private static void appendString(StringBuilder canonicalForm, String type, String value) {
+		canonicalForm.append(type).append(value.length()).append(':').append(value);
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.lordofthejars.nosqlunit.core.IOUtils;
+import com.mongodb.DBObject;
+import com.mongodb.util.JSON;
+
+/**
+ * Comparison strategy for big collections which compares the number of
+ * documents and a hash of each collection calculated inside server, and only
+ * reads documents of collections which are different to report them.
+ */
+public class FingerprintComparisonStrategy implements MongoComparisonStrategy {
+
+	@Override
+	public boolean compare(MongoDbConnectionCallback connection, InputStream dataset) throws IOException {
+		String expectedJsonData = loadContentFromInputStream(dataset);
+		DBObject parsedData = parseData(expectedJsonData);
+
+		MongoDbAssertion.fingerprintAssertEquals(parsedData, connection);
+		
+		return true;
+	}
+
+	private String loadContentFromInputStream(InputStream inputStreamContent) throws IOException {
+		return IOUtils.readFullStream(inputStreamContent);
+	}
+	
+	private DBObject parseData(String jsonData) throws IOException {
+		DBObject parsedData = (DBObject) JSON.parse(jsonData);
+		return parsedData;
+	}
+	
+}
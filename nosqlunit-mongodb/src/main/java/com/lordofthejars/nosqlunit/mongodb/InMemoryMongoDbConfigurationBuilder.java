@@ -33,6 +33,7 @@ public class InMemoryMongoDbConfigurationBuilder {
 		}
 		
 		this.mongoDbConfiguration.setMongo(embeddedMongo);
+		this.mongoDbConfiguration.setInMemory(true);
 		return this.mongoDbConfiguration;
 		
 	}
@@ -50,6 +51,7 @@ public class InMemoryMongoDbConfigurationBuilder {
 		}
 		
 		this.mongoDbConfiguration.setMongo(embeddedMongo);
+		this.mongoDbConfiguration.setInMemory(true);
 		return this.mongoDbConfiguration;
 		
 	}
@@ -0,0 +1,173 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lordofthejars.nosqlunit.core.IOUtils;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.FongoDB;
+import com.mongodb.WriteConcern;
+
+/**
+ * Insertion strategy which remembers the documents left by seeding an empty
+ * in-memory database, so next time same dataset is loaded into an empty
+ * in-memory database reading and parsing the dataset is skipped; documents are
+ * re-inserted from an in-memory copy, so restoring still costs one insert per
+ * document.
+ * <p>
+ * Only in-memory databases are snapshotted, any other database, any dataset
+ * with other databases or with collection indexes or options, and any
+ * insertion into a not empty database is delegated to wrapped strategy.
+ */
+public class InMemorySnapshotInsertionStrategy implements MongoInsertionStrategy {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(InMemorySnapshotInsertionStrategy.class);
+
+	private static final String SYSTEM_COLLECTION_PREFIX = "system";
+	private static final String ENCODING = "UTF-8";
+
+	private static final Map<DB, Map<String, Map<String, List<DBObject>>>> SNAPSHOTS = Collections
+			.synchronizedMap(new WeakHashMap<DB, Map<String, Map<String, List<DBObject>>>>());
+
+	private MongoInsertionStrategy insertionStrategy;
+
+	public InMemorySnapshotInsertionStrategy(MongoInsertionStrategy insertionStrategy) {
+		this.insertionStrategy = insertionStrategy;
+	}
+
+	@Override
+	public void insert(MongoDbConnectionCallback connection, InputStream dataset) throws Throwable {
+
+		DB mongoDb = connection.db();
+
+		if (!isInMemory(mongoDb) || !isEmpty(mongoDb)) {
+			insertionStrategy.insert(connection, dataset);
+			return;
+		}
+
+		String jsonData = IOUtils.readFullStream(dataset);
+		String datasetKey = DocumentFingerprint.digest(jsonData);
+
+		Map<String, List<DBObject>> snapshot = snapshotsOf(mongoDb).get(datasetKey);
+
+		if (snapshot == null) {
+			insertionStrategy.insert(connection, new ByteArrayInputStream(jsonData.getBytes(ENCODING)));
+
+			if (!MultiDatabaseDataset.mayContainOtherDatabases(jsonData)
+					&& !CollectionDefinition.mayDefineCollections(jsonData)) {
+				snapshotsOf(mongoDb).put(datasetKey, takeSnapshot(mongoDb));
+			}
+		} else {
+			LOGGER.debug("Restoring snapshot of dataset into in-memory database {}.", mongoDb.getName());
+			restoreSnapshot(mongoDb, snapshot);
+		}
+	}
+
+	private boolean isInMemory(DB mongoDb) {
+		return mongoDb instanceof FongoDB;
+	}
+
+	private boolean isEmpty(DB mongoDb) {
+
+		for (String collectionName : mongoDb.getCollectionNames()) {
+			if (isNotASystemCollection(collectionName) && mongoDb.getCollection(collectionName).count() > 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private Map<String, Map<String, List<DBObject>>> snapshotsOf(DB mongoDb) {
+
+		synchronized (SNAPSHOTS) {
+			Map<String, Map<String, List<DBObject>>> snapshots = SNAPSHOTS.get(mongoDb);
+
+			if (snapshots == null) {
+				snapshots = Collections.synchronizedMap(new HashMap<String, Map<String, List<DBObject>>>());
+				SNAPSHOTS.put(mongoDb, snapshots);
+			}
+
+			return snapshots;
+		}
+	}
+
+	private Map<String, List<DBObject>> takeSnapshot(DB mongoDb) {
+
+		Map<String, List<DBObject>> snapshot = new LinkedHashMap<String, List<DBObject>>();
+
+		for (String collectionName : mongoDb.getCollectionNames()) {
+
+			if (isNotASystemCollection(collectionName)) {
+
+				List<DBObject> documents = new ArrayList<DBObject>();
+				DBCursor cursor = mongoDb.getCollection(collectionName).find();
+
+				try {
+					while (cursor.hasNext()) {
+						documents.add(copy(cursor.next()));
+					}
+				} finally {
+					cursor.close();
+				}
+
+				snapshot.put(collectionName, documents);
+			}
+		}
+
+		return snapshot;
+	}
+
+	private void restoreSnapshot(DB mongoDb, Map<String, List<DBObject>> snapshot) {
+
+		for (Entry<String, List<DBObject>> collection : snapshot.entrySet()) {
+
+			DBCollection dbCollection = mongoDb.getCollection(collection.getKey());
+			List<DBObject> documents = collection.getValue();
+
+			if (documents.isEmpty()) {
+				continue;
+			}
+
+			DBObject[] copies = new DBObject[documents.size()];
+
+			for (int i = 0; i < copies.length; i++) {
+				copies[i] = copy(documents.get(i));
+			}
+
+			dbCollection.insert(copies, WriteConcern.SAFE);
+		}
+	}
+
+	private DBObject copy(DBObject document) {
+
+		if (document instanceof BasicDBObject) {
+			return (DBObject) ((BasicDBObject) document).copy();
+		}
+
+		BasicDBObject copy = new BasicDBObject();
+		copy.putAll(document);
+
+		return (DBObject) copy.copy();
+	}
+
+	private boolean isNotASystemCollection(String collectionName) {
+		return !collectionName.startsWith(SYSTEM_COLLECTION_PREFIX);
+	}
+
+}
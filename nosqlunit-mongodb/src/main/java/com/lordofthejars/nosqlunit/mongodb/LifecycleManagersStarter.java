@@ -0,0 +1,63 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
+
+/**
+ * Starts a group of servers at the same time, so a cluster takes as long as
+ * its slowest member to come up instead of the sum of all of them.
+ */
+public class LifecycleManagersStarter {
+
+	private LifecycleManagersStarter() {
+		super();
+	}
+
+	/**
+	 * Starts every not ready server of given list concurrently and waits until
+	 * all of them are started.
+	 *
+	 * @param lifecycleManagers
+	 *            servers to start.
+	 * @throws RuntimeException
+	 *             or {@link Error} thrown while starting first failing server,
+	 *             other errors are wrapped into an
+	 *             {@link IllegalStateException}.
+	 */
+	public static void startInParallel(List<? extends AbstractLifecycleManager> lifecycleManagers) {
+
+		List<Callable<Void>> startups = new ArrayList<Callable<Void>>();
+
+		for (AbstractLifecycleManager lifecycleManager : lifecycleManagers) {
+			if (!lifecycleManager.isReady()) {
+				startups.add(startup(lifecycleManager));
+			}
+		}
+
+		ParallelTasks.executeInParallel(startups);
+	}
+
+	private static Callable<Void> startup(final AbstractLifecycleManager lifecycleManager) {
+		return new Callable<Void>() {
+
+			@Override
+			public Void call() throws Exception {
+				try {
+					lifecycleManager.startEngine();
+				} catch (Exception e) {
+					throw e;
+				} catch (Error e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new IllegalStateException(e);
+				}
+				return null;
+			}
+		};
+	}
+
+}
@@ -95,6 +95,8 @@ public class ManagedMongoDb extends ExternalResource {
 	@Override
 	public void after() {
 		this.managedMongoDbLifecycleManager.stopEngine();
+		MongoClientRegistry.getInstance().closeMongoClients(this.managedMongoDbLifecycleManager.getHost(),
+				this.managedMongoDbLifecycleManager.getPort());
 	}
 	
 }
@@ -0,0 +1,317 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.net.UnknownHostException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.DB;
+import com.mongodb.DBPortPool;
+import com.mongodb.DBTCPConnector;
+import com.mongodb.Mongo;
+import com.mongodb.MongoClient;
+import com.mongodb.ServerAddress;
+
+/**
+ * Shares one pooled client per server topology and credentials between rules,
+ * lifecycle managers and commands, so connections and authentications are
+ * not repeated by each test. Credentials are part of client key as user name
+ * and password digest, so a client authenticated with a password is never
+ * handed out for a different one.
+ * <p>
+ * Clients live until the servers they connect to are stopped by a managed
+ * rule, or until the JVM exits.
+ */
+public class MongoClientRegistry {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MongoClientRegistry.class);
+
+	private static final String ANONYMOUS = "";
+	private static final String CREDENTIALS_SEPARATOR = ":";
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+	private static final String ENCODING = "UTF-8";
+	private static final String KEY_SEPARATOR = "|";
+	private static final String DIRECT_CONNECTION = "direct:";
+	private static final String REPLICA_SET_CONNECTION = "replicaset:";
+
+	private static MongoClientRegistry mongoClientRegistry;
+
+	private final Map<String, MongoClient> mongoClients = new HashMap<String, MongoClient>();
+	private final Map<String, List<ServerAddress>> topologies = new HashMap<String, List<ServerAddress>>();
+	private final Map<DB, String> authenticatedCredentials = Collections
+			.synchronizedMap(new WeakHashMap<DB, String>());
+
+	private MongoClientRegistry() {
+		super();
+	}
+
+	public synchronized static MongoClientRegistry getInstance() {
+		if (mongoClientRegistry == null) {
+			mongoClientRegistry = new MongoClientRegistry();
+			Runtime.getRuntime().addShutdownHook(new Thread("mongo-client-registry-shutdown") {
+
+				@Override
+				public void run() {
+					mongoClientRegistry.closeAll();
+				}
+			});
+		}
+
+		return mongoClientRegistry;
+	}
+
+	/**
+	 * Returns client connected directly to given server.
+	 */
+	public MongoClient getMongoClient(String host, int port) {
+		return getMongoClient(host, port, null, null);
+	}
+
+	/**
+	 * Returns client connected directly to given server, used by given
+	 * credentials.
+	 */
+	public synchronized MongoClient getMongoClient(String host, int port, String username, String password) {
+
+		ServerAddress serverAddress = serverAddress(host, port);
+		String key = DIRECT_CONNECTION + serverAddress + KEY_SEPARATOR + credentials(username, password);
+
+		MongoClient mongoClient = mongoClients.get(key);
+
+		if (mongoClient == null) {
+			mongoClient = new MongoClient(serverAddress);
+			register(key, Collections.singletonList(serverAddress), mongoClient);
+		}
+
+		return mongoClient;
+	}
+
+	/**
+	 * Returns client connected to a replica set or to a group of mongos
+	 * discovered from given seeds.
+	 */
+	public MongoClient getMongoClient(List<ServerAddress> seeds) {
+		return getMongoClient(seeds, null, null);
+	}
+
+	/**
+	 * Returns client connected to a replica set or to a group of mongos
+	 * discovered from given seeds, used by given credentials.
+	 */
+	public synchronized MongoClient getMongoClient(List<ServerAddress> seeds, String username, String password) {
+
+		List<String> sortedSeeds = new ArrayList<String>();
+
+		for (ServerAddress seed : seeds) {
+			sortedSeeds.add(seed.toString());
+		}
+
+		Collections.sort(sortedSeeds);
+		String key = REPLICA_SET_CONNECTION + sortedSeeds + KEY_SEPARATOR + credentials(username, password);
+
+		MongoClient mongoClient = mongoClients.get(key);
+
+		if (mongoClient == null) {
+			mongoClient = new MongoClient(seeds);
+			register(key, new ArrayList<ServerAddress>(seeds), mongoClient);
+		}
+
+		return mongoClient;
+	}
+
+	/**
+	 * Returns database authenticating it only if it has not been authenticated
+	 * yet. Database handles are cached by client, so each database is
+	 * authenticated once per client, and later requests must provide same
+	 * credentials.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if credentials are not valid, or are not the ones database
+	 *             was authenticated with.
+	 */
+	public DB getAuthenticatedDatabase(Mongo mongo, String databaseName, String username, String password) {
+
+		DB db = mongo.getDB(databaseName);
+		String credentials = credentials(username, password);
+
+		synchronized (db) {
+			if (!db.isAuthenticated()) {
+
+				boolean authenticated = db.authenticate(username, password.toCharArray());
+
+				if (!authenticated) {
+					throw new IllegalArgumentException("Login/Password provided to connect to MongoDb are not valid");
+				}
+
+				authenticatedCredentials.put(db, credentials);
+			} else {
+
+				String usedCredentials = authenticatedCredentials.get(db);
+
+				if (usedCredentials != null && !usedCredentials.equals(credentials)) {
+					throw new IllegalArgumentException("Login/Password provided to connect to MongoDb are not valid");
+				}
+			}
+		}
+
+		return db;
+	}
+
+	/**
+	 * Closes and forgets every client which connects to given server.
+	 */
+	public synchronized void closeMongoClients(String host, int port) {
+
+		ServerAddress serverAddress = serverAddress(host, port);
+		Iterator<Entry<String, MongoClient>> clients = mongoClients.entrySet().iterator();
+
+		while (clients.hasNext()) {
+			Entry<String, MongoClient> client = clients.next();
+
+			if (topologies.get(client.getKey()).contains(serverAddress)) {
+				LOGGER.debug("Closing Mongo client {}.", client.getKey());
+
+				topologies.remove(client.getKey());
+				clients.remove();
+				client.getValue().close();
+			}
+		}
+	}
+
+	public synchronized void closeAll() {
+
+		for (MongoClient mongoClient : mongoClients.values()) {
+			mongoClient.close();
+		}
+
+		mongoClients.clear();
+		topologies.clear();
+	}
+
+	/**
+	 * @return statistics of connection pool of each server of each registered
+	 *         client.
+	 */
+	public synchronized List<PoolStatistics> getPoolStatistics() {
+
+		List<PoolStatistics> poolStatistics = new ArrayList<PoolStatistics>();
+
+		for (Entry<String, MongoClient> client : mongoClients.entrySet()) {
+
+			DBTCPConnector connector = client.getValue().getConnector();
+
+			for (ServerAddress serverAddress : topologies.get(client.getKey())) {
+				DBPortPool dbPortPool = connector.getDBPortPool(serverAddress);
+				poolStatistics.add(new PoolStatistics(client.getKey(), serverAddress, dbPortPool.getTotal(),
+						dbPortPool.getInUse(), dbPortPool.getAvailable(), dbPortPool.getMaxSize()));
+			}
+		}
+
+		return poolStatistics;
+	}
+
+	public synchronized int size() {
+		return mongoClients.size();
+	}
+
+	private void register(String key, List<ServerAddress> topology, MongoClient mongoClient) {
+		LOGGER.debug("Registering Mongo client {}.", key);
+
+		mongoClients.put(key, mongoClient);
+		topologies.put(key, topology);
+	}
+
+	private String credentials(String username, String password) {
+
+		if (username == null) {
+			return ANONYMOUS;
+		}
+
+		return username + CREDENTIALS_SEPARATOR + digest(password == null ? ANONYMOUS : password);
+	}
+
+	private String digest(String password) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			byte[] digest = messageDigest.digest(password.getBytes(ENCODING));
+
+			return String.format("%064x", new BigInteger(1, digest));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private ServerAddress serverAddress(String host, int port) {
+		try {
+			return new ServerAddress(host, port);
+		} catch (UnknownHostException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	public static class PoolStatistics {
+
+		private String client;
+		private ServerAddress serverAddress;
+		private int total;
+		private int inUse;
+		private int available;
+		private int maxSize;
+
+		public PoolStatistics(String client, ServerAddress serverAddress, int total, int inUse, int available,
+				int maxSize) {
+			this.client = client;
+			this.serverAddress = serverAddress;
+			this.total = total;
+			this.inUse = inUse;
+			this.available = available;
+			this.maxSize = maxSize;
+		}
+
+		public String getClient() {
+			return client;
+		}
+
+		public ServerAddress getServerAddress() {
+			return serverAddress;
+		}
+
+		public int getTotal() {
+			return total;
+		}
+
+		public int getInUse() {
+			return inUse;
+		}
+
+		public int getAvailable() {
+			return available;
+		}
+
+		public int getMaxSize() {
+			return maxSize;
+		}
+
+		@Override
+		public String toString() {
+			return "PoolStatistics [client=" + client + ", serverAddress=" + serverAddress + ", total=" + total
+					+ ", inUse=" + inUse + ", available=" + available + ", maxSize=" + maxSize + "]";
+		}
+
+	}
+
+}
@@ -1,24 +1,172 @@
 package com.lordofthejars.nosqlunit.mongodb;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.FailureHandler;
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
 import com.mongodb.BasicDBList;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 
 
 public class MongoDbAssertion {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(MongoDbAssertion.class);
+
 	private static final String SYSTEM_COLLECTIONS_PATTERN = "system."; 
 	
+	public static final int DEFAULT_MAX_REPORTED_OBJECTS = 100;
+	
+	private static final int CURSOR_BATCH_SIZE = 1000;
+	
 	private MongoDbAssertion() {
 		super();
 	}
 	
 	public static final void strictAssertEquals(DBObject expectedData, DB mongoDb) {
+		strictAssertEquals(expectedData, mongoDb, DEFAULT_MAX_REPORTED_OBJECTS);
+	}
+
+	public static final void strictAssertEquals(DBObject expectedData, MongoDbConnectionCallback connection) {
+		strictAssertEquals(expectedData, connection, DEFAULT_MAX_REPORTED_OBJECTS);
+	}
+	
+	/**
+	 * Checks that database contains exactly expected collections and
+	 * documents. Each collection is read once and compared by document
+	 * fingerprint, ignoring keys starting with <i>_</i> which are not declared
+	 * by expected documents.
+	 * 
+	 * @param expectedData
+	 * @param mongoDb
+	 * @param maxReportedObjects
+	 *            maximum number of not found and not expected documents
+	 *            listed in failure message. Documents over this limit are only
+	 *            counted.
+	 */
+	public static final void strictAssertEquals(DBObject expectedData, DB mongoDb, final int maxReportedObjects) {
+		strictAssertEquals(expectedData, sisterDatabasesConnection(mongoDb), maxReportedObjects);
+	}
+
+	/**
+	 * Checks that database contains exactly expected collections and
+	 * documents, getting other databases of expected data from given
+	 * connection, so they are authenticated like configured database.
+	 * 
+	 * @param expectedData
+	 * @param connection
+	 * @param maxReportedObjects
+	 *            maximum number of not found and not expected documents
+	 *            listed in failure message. Documents over this limit are only
+	 *            counted.
+	 */
+	public static final void strictAssertEquals(DBObject expectedData, MongoDbConnectionCallback connection,
+			final int maxReportedObjects) {
+		assertEqualsByDatabase(expectedData, connection, new DatabaseAssertion() {
+			
+			@Override
+			public void assertEquals(DBObject expectedDatabaseData, DB mongoDb) {
+				strictAssertDatabaseEquals(expectedDatabaseData, mongoDb, maxReportedObjects);
+			}
+		});
+	}
+
+	/**
+	 * Checks that database contains exactly expected collections and
+	 * documents, comparing first the number of documents and an order
+	 * independent hash of each collection calculated inside server. Only
+	 * collections whose summary is different, or could not be calculated, are
+	 * read and compared document by document.
+	 * 
+	 * @param expectedData
+	 * @param mongoDb
+	 */
+	public static final void fingerprintAssertEquals(DBObject expectedData, DB mongoDb) {
+		fingerprintAssertEquals(expectedData, sisterDatabasesConnection(mongoDb));
+	}
+
+	/**
+	 * Same as {@link #fingerprintAssertEquals(DBObject, DB)}, getting other
+	 * databases of expected data from given connection, so they are
+	 * authenticated like configured database.
+	 * 
+	 * @param expectedData
+	 * @param connection
+	 */
+	public static final void fingerprintAssertEquals(DBObject expectedData, MongoDbConnectionCallback connection) {
+		assertEqualsByDatabase(expectedData, connection, new DatabaseAssertion() {
+			
+			@Override
+			public void assertEquals(DBObject expectedDatabaseData, DB mongoDb) {
+				fingerprintAssertDatabaseEquals(expectedDatabaseData, mongoDb);
+			}
+		});
+	}
+
+	/**
+	 * Collections of configured database and of each other database of
+	 * expected data are checked concurrently.
+	 */
+	private static void assertEqualsByDatabase(DBObject expectedData, MongoDbConnectionCallback connection,
+			final DatabaseAssertion databaseAssertion) {
+		
+		List<Callable<Void>> databaseAssertions = new ArrayList<Callable<Void>>();
+		databaseAssertions.add(databaseAssertion(databaseAssertion,
+				MultiDatabaseDataset.configuredDatabaseData(expectedData), connection.db()));
+		
+		for (Entry<String, DBObject> otherDatabaseData : MultiDatabaseDataset.otherDatabasesData(expectedData)
+				.entrySet()) {
+			databaseAssertions.add(databaseAssertion(databaseAssertion, otherDatabaseData.getValue(),
+					connection.db(otherDatabaseData.getKey())));
+		}
+		
+		ParallelTasks.executeInParallel(databaseAssertions);
+	}
+
+	/*
+	 * Only used when no connection is provided, so sister databases share the
+	 * authentication of given database client, if any.
+	 */
+	private static MongoDbConnectionCallback sisterDatabasesConnection(final DB mongoDb) {
+		return new MongoDbConnectionCallback() {
+			
+			@Override
+			public DB db() {
+				return mongoDb;
+			}
+			
+			@Override
+			public DB db(String databaseName) {
+				return mongoDb.getSisterDB(databaseName);
+			}
+		};
+	}
+
+	private static Callable<Void> databaseAssertion(final DatabaseAssertion databaseAssertion,
+			final DBObject expectedDatabaseData, final DB mongoDb) {
+		return new Callable<Void>() {
+			
+			@Override
+			public Void call() throws Exception {
+				databaseAssertion.assertEquals(expectedDatabaseData, mongoDb);
+				return null;
+			}
+		};
+	}
+
+	private static void strictAssertDatabaseEquals(DBObject expectedData, DB mongoDb, int maxReportedObjects) {
 		Set<String> collectionaNames = expectedData.keySet();
 
 		Set<String> mongodbCollectionNames = mongoDb.getCollectionNames();
@@ -27,9 +175,43 @@ public class MongoDbAssertion {
 		
 		for (String collectionName : collectionaNames) {
 			
-			checkCollectionObjects(expectedData, mongoDb, collectionaNames,
-					collectionName);
+			checkCollectionObjects(expectedData, mongoDb, collectionName,
+					maxReportedObjects);
+			
+		}
+	}
+
+	private static void fingerprintAssertDatabaseEquals(DBObject expectedData, DB mongoDb) {
+		Set<String> collectionaNames = expectedData.keySet();
+
+		Set<String> mongodbCollectionNames = mongoDb.getCollectionNames();
+		
+		checkCollectionsName(collectionaNames, mongodbCollectionNames);
+		
+		for (String collectionName : collectionaNames) {
+			
+			if (!sameFingerprint(expectedData, mongoDb, collectionName)) {
+				checkCollectionObjects(expectedData, mongoDb, collectionName,
+						DEFAULT_MAX_REPORTED_OBJECTS);
+			}
+			
+		}
+	}
+
+	private static boolean sameFingerprint(DBObject expectedData, DB mongoDb, String collectionName) {
+		
+		CollectionFingerprint expectedFingerprint = CollectionFingerprint.of(CollectionDefinition.of(
+				expectedData.get(collectionName)).getData());
+		
+		try {
+			CollectionFingerprint insertedFingerprint = CollectionFingerprint.of(mongoDb
+					.getCollection(collectionName));
 			
+			return expectedFingerprint.equals(insertedFingerprint);
+		} catch (RuntimeException e) {
+			LOGGER.debug("Fingerprint of collection {} could not be calculated by server, comparing documents.",
+					collectionName, e);
+			return false;
 		}
 	}
 
@@ -66,66 +248,176 @@ public class MongoDbAssertion {
 	}
 
 	private static void checkCollectionObjects(DBObject expectedData,
-			DB mongoDb, Set<String> collectionaNames, String collectionName)
+			DB mongoDb, String collectionName, int maxReportedObjects)
 			throws Error {
-		BasicDBList dataObjects = (BasicDBList)expectedData.get(collectionName);
+		BasicDBList dataObjects = CollectionDefinition.of(expectedData.get(collectionName)).getData();
 		
 		DBCollection dbCollection = mongoDb.getCollection(collectionName);
 		
-		int expectedDataObjectsCount = dataObjects.size();
-		long insertedDataObjectsCount = dbCollection.count();
+		Map<Set<String>, Map<String, ExpectedObjects>> expectedObjects = indexByFingerprint(dataObjects);
+		
+		List<DBObject> unexpectedObjects = new ArrayList<DBObject>();
+		int unexpectedObjectsCount = 0;
+		long insertedDataObjectsCount = 0;
+		
+		DBCursor cursor = dbCollection.find().batchSize(CURSOR_BATCH_SIZE);
+		
+		try {
+			while (cursor.hasNext()) {
+				
+				DBObject insertedObject = cursor.next();
+				insertedDataObjectsCount++;
+				
+				if (!matchExpectedObject(expectedObjects, insertedObject)) {
+					
+					unexpectedObjectsCount++;
+					
+					if (unexpectedObjects.size() < maxReportedObjects) {
+						unexpectedObjects.add(insertedObject);
+					}
+				}
+			}
+		} finally {
+			cursor.close();
+		}
+		
+		List<DBObject> notFoundObjects = new ArrayList<DBObject>();
+		
+		for (Map<String, ExpectedObjects> expectedObjectsBySystemKeys : expectedObjects.values()) {
+			for (ExpectedObjects sameObjects : expectedObjectsBySystemKeys.values()) {
+				sameObjects.addNotMatched(notFoundObjects);
+			}
+		}
 		
-		if(expectedDataObjectsCount != insertedDataObjectsCount) {
-			throw FailureHandler.createFailure("Expected collection has %s elements but insert collection has %s", expectedDataObjectsCount, insertedDataObjectsCount);
+		if (!notFoundObjects.isEmpty() || unexpectedObjectsCount > 0) {
+			throw FailureHandler.createFailure("%s", differencesReport(collectionName, dataObjects.size(),
+					insertedDataObjectsCount, notFoundObjects, unexpectedObjects, unexpectedObjectsCount,
+					maxReportedObjects));
 		}
+	}
+
+	/*
+	 * Expected objects are grouped by the keys starting with _ they declare,
+	 * so stored objects are fingerprinted once per group keeping those keys.
+	 */
+	private static Map<Set<String>, Map<String, ExpectedObjects>> indexByFingerprint(BasicDBList dataObjects) {
+		
+		Map<Set<String>, Map<String, ExpectedObjects>> expectedObjects = new HashMap<Set<String>, Map<String, ExpectedObjects>>();
 		
 		for (Object dataObject : dataObjects) {
 			
 			DBObject expectedDataObject = (DBObject)dataObject;
-			DBObject foundObject = dbCollection.findOne(expectedDataObject);
+			Set<String> systemKeys = DocumentFingerprint.systemKeys(expectedDataObject);
+			String fingerprint = DocumentFingerprint.fingerprint(expectedDataObject, systemKeys);
 			
+			Map<String, ExpectedObjects> expectedObjectsBySystemKeys = expectedObjects.get(systemKeys);
 			
+			if (expectedObjectsBySystemKeys == null) {
+				expectedObjectsBySystemKeys = new HashMap<String, ExpectedObjects>();
+				expectedObjects.put(systemKeys, expectedObjectsBySystemKeys);
+			}
 			
-			if(!exists(foundObject)) {
-				throw FailureHandler.createFailure("Object # %s # is not found into collection %s", expectedDataObject.toString(), collectionaNames);
+			ExpectedObjects sameObjects = expectedObjectsBySystemKeys.get(fingerprint);
+			
+			if (sameObjects == null) {
+				sameObjects = new ExpectedObjects(expectedDataObject);
+				expectedObjectsBySystemKeys.put(fingerprint, sameObjects);
+			} else {
+				sameObjects.add();
 			}
+		}
+		
+		return expectedObjects;
+	}
 
-			checkSameKeys(expectedDataObject,foundObject);
+	private static boolean matchExpectedObject(Map<Set<String>, Map<String, ExpectedObjects>> expectedObjects,
+			DBObject insertedObject) {
+		
+		for (Entry<Set<String>, Map<String, ExpectedObjects>> expectedObjectsBySystemKeys : expectedObjects
+				.entrySet()) {
+			
+			ExpectedObjects sameObjects = expectedObjectsBySystemKeys.getValue().get(
+					DocumentFingerprint.fingerprint(insertedObject, expectedObjectsBySystemKeys.getKey()));
 			
+			if (sameObjects != null && sameObjects.match()) {
+				return true;
+			}
 		}
+		
+		return false;
 	}
 
-	private static void checkSameKeys(DBObject expectedDataObject,DBObject foundObject) {
+	private static String differencesReport(String collectionName, int expectedDataObjectsCount,
+			long insertedDataObjectsCount, List<DBObject> notFoundObjects, List<DBObject> unexpectedObjects,
+			int unexpectedObjectsCount, int maxReportedObjects) {
 		
-		Set<String> expectedKeys = expectedDataObject.keySet();
-		Set<String> expectedNoneSystemKeys = noneSystemKeys(expectedKeys);
-		Set<String> foundKeys = foundObject.keySet();
-		Set<String> foundNoneSystemKeys = noneSystemKeys(foundKeys);
-
-		Set<String> allKeys = new HashSet<String>(expectedNoneSystemKeys);
-		allKeys.addAll(foundNoneSystemKeys);
+		StringBuilder report = new StringBuilder();
 		
-		if(allKeys.size() != expectedNoneSystemKeys.size() || allKeys.size() != foundNoneSystemKeys.size()) {
-			throw FailureHandler.createFailure("Expected DbObject and insert DbObject have different keys: Expected: %s Inserted: %s", expectedNoneSystemKeys, foundNoneSystemKeys);
+		if (expectedDataObjectsCount != insertedDataObjectsCount) {
+			report.append(String.format("Expected collection %s has %s elements but insert collection has %s",
+					collectionName, expectedDataObjectsCount, insertedDataObjectsCount));
+		} else {
+			report.append(String.format("Expected collection %s and insert collection have different elements",
+					collectionName));
 		}
 		
+		int notFoundObjectsCount = notFoundObjects.size();
+		
+		for (int i = 0; i < notFoundObjectsCount && i < maxReportedObjects; i++) {
+			report.append(String.format("%n Object # %s # is not found", notFoundObjects.get(i)));
+		}
+		
+		if (notFoundObjectsCount > maxReportedObjects) {
+			report.append(String.format("%n ... and %s more objects not found", notFoundObjectsCount - maxReportedObjects));
+		}
+		
+		for (DBObject unexpectedObject : unexpectedObjects) {
+			report.append(String.format("%n Object # %s # is not expected", unexpectedObject));
+		}
+		
+		if (unexpectedObjectsCount > unexpectedObjects.size()) {
+			report.append(String.format("%n ... and %s more objects not expected",
+					unexpectedObjectsCount - unexpectedObjects.size()));
+		}
+		
+		return report.toString();
 	}
-	
-	private static Set<String> noneSystemKeys(Set<String> keys) {
+
+	private interface DatabaseAssertion {
 		
-		Set<String> noneSystemKeys = new HashSet<String>();
+		void assertEquals(DBObject expectedDatabaseData, DB mongoDb);
 		
-		for (String key : keys) {
-			if(!key.startsWith("_")) {
-				noneSystemKeys.add(key);
+	}
+
+	private static class ExpectedObjects {
+		
+		private DBObject expectedObject;
+		private int expected = 1;
+		private int matched = 0;
+		
+		public ExpectedObjects(DBObject expectedObject) {
+			this.expectedObject = expectedObject;
+		}
+		
+		public void add() {
+			expected++;
+		}
+		
+		public boolean match() {
+			
+			if (matched == expected) {
+				return false;
 			}
+			
+			matched++;
+			return true;
 		}
 		
-		return noneSystemKeys;
-	}
-	
-	private static boolean exists(DBObject foundObject) {
-		return foundObject != null;
+		public void addNotMatched(List<DBObject> notFoundObjects) {
+			for (int i = matched; i < expected; i++) {
+				notFoundObjects.add(expectedObject);
+			}
+		}
 	}
 
 	
@@ -19,6 +19,7 @@ public class MongoDbCommands {
 	private static final String ADD_SHARD_COMMAND = "addshard";
 	private static final String ENABLE_SHARDING_COMMAND = "enablesharding";
 	private static final String SHARD_COLLECTION_COMMAND = "shardcollection";
+	private static final String COPY_DATABASE_COMMAND = "copydb";
 	
 	private MongoDbCommands() {
 		super();
@@ -30,8 +31,7 @@ public class MongoDbCommands {
 	}
 	
 	public static DBObject replicaSetGetStatus(MongoClient mongoClient, String username, String password) {
-		DB adminDb = getAdminDatabase(mongoClient);
-		adminDb.authenticate(username, password.toCharArray());
+		DB adminDb = getAuthenticatedAdminDatabase(mongoClient, username, password);
 		return adminDb.command(new BasicDBObject(REPL_SET_GET_STATUS_COMMAND, 1));
 	}
 	
@@ -44,22 +44,38 @@ public class MongoDbCommands {
 	}
 	
 	public static CommandResult shardCollection(Mongo mongoClient, String collectionWithDatabase, DBObject shardKey, String username, String password) {
-		DB adminDb = getAdminDatabase(mongoClient);
-		adminDb.authenticate(username, password.toCharArray());
+		DB adminDb = getAuthenticatedAdminDatabase(mongoClient, username, password);
 		BasicDBObject basicDBObject = new BasicDBObject(SHARD_COLLECTION_COMMAND, collectionWithDatabase);
 		basicDBObject.put("key", shardKey);
 		
 		return adminDb.command(basicDBObject);
 	}
 	
+	public static CommandResult copyDatabase(Mongo mongoClient, String fromDatabase, String toDatabase) {
+		DB adminDb = getAdminDatabase(mongoClient);
+		BasicDBObject basicDBObject = new BasicDBObject(COPY_DATABASE_COMMAND, 1);
+		basicDBObject.put("fromdb", fromDatabase);
+		basicDBObject.put("todb", toDatabase);
+		
+		return adminDb.command(basicDBObject);
+	}
+	
+	public static CommandResult copyDatabase(Mongo mongoClient, String fromDatabase, String toDatabase, String username, String password) {
+		DB adminDb = getAuthenticatedAdminDatabase(mongoClient, username, password);
+		BasicDBObject basicDBObject = new BasicDBObject(COPY_DATABASE_COMMAND, 1);
+		basicDBObject.put("fromdb", fromDatabase);
+		basicDBObject.put("todb", toDatabase);
+		
+		return adminDb.command(basicDBObject);
+	}
+	
 	public static CommandResult enableSharding(MongoClient mongoClient, String database) {
 		DB adminDb = getAdminDatabase(mongoClient);
 		return adminDb.command(new BasicDBObject(ENABLE_SHARDING_COMMAND, database));
 	}
 	
 	public static CommandResult enableSharding(MongoClient mongoClient, String database, String username, String password) {
-		DB adminDb = getAdminDatabase(mongoClient);
-		adminDb.authenticate(username, password.toCharArray());
+		DB adminDb = getAuthenticatedAdminDatabase(mongoClient, username, password);
 		return adminDb.command(new BasicDBObject(ENABLE_SHARDING_COMMAND, database));
 	}
 	
@@ -72,8 +88,7 @@ public class MongoDbCommands {
 	}
 
 	public static void addShard(MongoClient mongoClient, Set<String> shards, String username, String password) {
-		DB adminDb = getAdminDatabase(mongoClient);
-		adminDb.authenticate(username, password.toCharArray());
+		DB adminDb = getAuthenticatedAdminDatabase(mongoClient, username, password);
 		
 		for (String shardUri : shards) {
 			adminDb.command(new BasicDBObject(ADD_SHARD_COMMAND, shardUri));			
@@ -94,9 +109,12 @@ public class MongoDbCommands {
 		return adminDb;
 	}
 	
+	private static DB getAuthenticatedAdminDatabase(Mongo mongoClient, String username, String password) {
+		return MongoClientRegistry.getInstance().getAuthenticatedDatabase(mongoClient, "admin", username, password);
+	}
+	
 	public static CommandResult replicaSetInitiate(MongoClient mongoClient, ConfigurationDocument configurationDocument, String username, String password) {
-		DB adminDb = getAdminDatabase(mongoClient);
-		adminDb.authenticate(username, password.toCharArray());
+		DB adminDb = getAuthenticatedAdminDatabase(mongoClient, username, password);
 		BasicDBObject command = new BasicDBObject(REPL_SET_INITIATE_COMMAND,
 				configurationDocument.getConfiguration());
 		return adminDb.command(command);
@@ -110,8 +128,7 @@ public class MongoDbCommands {
 	}
 	
 	public static CommandResult replSetReconfig(MongoClient mongoClient, ConfigurationDocument configurationDocument, String username, String password) {
-		DB adminDb = getAdminDatabase(mongoClient);
-		adminDb.authenticate(username, password.toCharArray());
+		DB adminDb = getAuthenticatedAdminDatabase(mongoClient, username, password);
 		BasicDBObject command = new BasicDBObject(RECONFIG_COMMAND,
 				configurationDocument.getConfiguration());
 		return adminDb.command(command);
@@ -18,6 +18,10 @@ public final class MongoDbConfiguration extends AbstractJsr330Configuration {
 	
 	private Mongo mongo;
 	
+	private boolean templateDatabase = false;
+	
+	private boolean inMemory = false;
+	
 	public MongoDbConfiguration() {
 		super();
 	}
@@ -89,4 +93,20 @@ public final class MongoDbConfiguration extends AbstractJsr330Configuration {
 		return mongo;
 	}
 	
+	public void setTemplateDatabase(boolean templateDatabase) {
+		this.templateDatabase = templateDatabase;
+	}
+	
+	public boolean isTemplateDatabase() {
+		return templateDatabase;
+	}
+	
+	public void setInMemory(boolean inMemory) {
+		this.inMemory = inMemory;
+	}
+	
+	public boolean isInMemory() {
+		return inMemory;
+	}
+	
 }
@@ -1,7 +1,5 @@
 package com.lordofthejars.nosqlunit.mongodb;
 
-import java.net.UnknownHostException;
-
 import com.mongodb.Mongo;
 
 
@@ -19,12 +17,10 @@ public class MongoDbConfigurationBuilder {
 	
 	public MongoDbConfiguration build() {
 		
-		try {
-			Mongo mongo = new Mongo(this.mongoDbConfiguration.getHost(), this.mongoDbConfiguration.getPort());
-			this.mongoDbConfiguration.setMongo(mongo);
-		} catch (UnknownHostException e) {
-			throw new IllegalStateException(e);
-		}
+		Mongo mongo = MongoClientRegistry.getInstance().getMongoClient(this.mongoDbConfiguration.getHost(),
+				this.mongoDbConfiguration.getPort(), this.mongoDbConfiguration.getUsername(),
+				this.mongoDbConfiguration.getPassword());
+		this.mongoDbConfiguration.setMongo(mongo);
 		
 		return mongoDbConfiguration;
 	}
@@ -54,6 +50,15 @@ public class MongoDbConfigurationBuilder {
 		return this;
 	}
 	
+	/**
+	 * Datasets are loaded once into a template database and copied server
+	 * side into tested database each time they are required.
+	 */
+	public MongoDbConfigurationBuilder templateDatabase() {
+		mongoDbConfiguration.setTemplateDatabase(true);
+		return this;
+	}
+	
 	public MongoDbConfigurationBuilder connectionIdentifier(String identifier) {
 		mongoDbConfiguration.setConnectionIdentifier(identifier);
 		return this;
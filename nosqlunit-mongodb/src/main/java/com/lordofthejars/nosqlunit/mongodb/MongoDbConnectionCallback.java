@@ -6,4 +6,14 @@ public interface MongoDbConnectionCallback {
 
 	DB db();
 	
+	/**
+	 * Returns another database of same server, authenticated like configured
+	 * database. Databases returned are also cleaned when data is deleted.
+	 * 
+	 * @param databaseName
+	 *            name of database.
+	 * @return database.
+	 */
+	DB db(String databaseName);
+	
 }
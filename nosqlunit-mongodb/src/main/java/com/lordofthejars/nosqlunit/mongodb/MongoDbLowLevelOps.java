@@ -3,6 +3,8 @@ package com.lordofthejars.nosqlunit.mongodb;
 import java.net.UnknownHostException;
 import java.util.concurrent.TimeUnit;
 
+import com.lordofthejars.nosqlunit.core.BackoffScheduler;
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
@@ -10,14 +12,22 @@ import com.mongodb.DBObject;
 import com.mongodb.Mongo;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
 import com.mongodb.util.JSON;
 
 public class MongoDbLowLevelOps {
 
 	private static final String MEMBERS_TOKEN = "members";
 
-	private static final int WAIT_TIME = 6;
-	private static final int MAX_RETRIES = 20;
+	private static final long TIMEOUT_SECONDS = 120;
+	private static final long INITIAL_POLL_INTERVAL_MILLIS = 50;
+	private static final long MAX_CONNECTION_POLL_INTERVAL_MILLIS = 2000;
+	private static final long MAX_STATUS_POLL_INTERVAL_MILLIS = 500;
+
+	private BackoffScheduler connectionScheduler = new BackoffScheduler(INITIAL_POLL_INTERVAL_MILLIS,
+			MAX_CONNECTION_POLL_INTERVAL_MILLIS, TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+	private BackoffScheduler statusScheduler = new BackoffScheduler(INITIAL_POLL_INTERVAL_MILLIS,
+			MAX_STATUS_POLL_INTERVAL_MILLIS, TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
 
 	private static final String STATE_TOKEN = "state";
 
@@ -35,42 +45,41 @@ public class MongoDbLowLevelOps {
 		super();
 	}
 
-	public void waitUntilReplicaSetBecomeStable(MongoClient mongoClient,
-			int numberOfServersStable, String... authenticateParameters) {
-
-		boolean isConfigurationSpread = false;
-
-		int retries = 0;
+	public void waitUntilReplicaSetBecomeStable(final MongoClient mongoClient,
+			final int numberOfServersStable, final String... authenticateParameters) {
 
-		while (!isConfigurationSpread) {
+		final DBObject[] lastStatus = new DBObject[1];
 
-			try {
-				TimeUnit.SECONDS.sleep(WAIT_TIME);
-			} catch (InterruptedException e) {
-				throw new IllegalStateException(e);
-			}
+		ReadinessProbe replicaSetStable = new ReadinessProbe() {
 
-			DBObject status = null;
-			try {
-				status = getStatus(mongoClient, authenticateParameters);
-				isConfigurationSpread = isSystemStable(status,
-						numberOfServersStable);
-			} catch (MongoException e) {
-				status = new BasicDBObject("MongoException", "can't find a master");
-				isConfigurationSpread = false;
+			@Override
+			public boolean isReady() {
+				try {
+					lastStatus[0] = getStatus(mongoClient, authenticateParameters);
+					return isSystemStable(lastStatus[0], numberOfServersStable);
+				} catch (MongoException e) {
+					lastStatus[0] = new BasicDBObject("MongoException", "can't find a master");
+					return false;
+				}
 			}
+		};
 
-			retries++;
+		boolean isConfigurationSpread;
 
-			if (retries > MAX_RETRIES && !isConfigurationSpread) {
-				mongoClient.close();
-				throw new IllegalStateException(
-						"After "
-								+ (WAIT_TIME * MAX_RETRIES)
-								+ " seconds replica set scenario could not be started and configured. Last status message was: "
-								+ JSON.serialize(status));
-			}
+		try {
+			isConfigurationSpread = statusScheduler.awaitReady(replicaSetStable);
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
 
+		if (!isConfigurationSpread) {
+			// client is shared through MongoClientRegistry, which closes it
+			// when servers are stopped.
+			throw new IllegalStateException(
+					"After "
+							+ TIMEOUT_SECONDS
+							+ " seconds replica set scenario could not be started and configured. Last status message was: "
+							+ JSON.serialize(lastStatus[0]));
 		}
 
 	}
@@ -124,27 +133,32 @@ public class MongoDbLowLevelOps {
 	public boolean assertThatConnectionIsPossible(String host, int port) throws InterruptedException, UnknownHostException,
 			MongoException {
 
-		int currentRetry = 0;
-		boolean connectionIsPossible = false;
+		final ServerAddress serverAddress = new ServerAddress(host, port);
+
+		ReadinessProbe mongoDbAnswersPing = new ReadinessProbe() {
+
+			@Override
+			public boolean isReady() {
+				return isConnectionPossible(serverAddress);
+			}
+		};
+
+		return connectionScheduler.awaitReady(mongoDbAnswersPing);
+	}
+
+	private boolean isConnectionPossible(ServerAddress serverAddress) {
+
+		Mongo server = new Mongo(serverAddress);
 
-		Mongo server = null;
 		try {
-			do {
-				TimeUnit.SECONDS.sleep(WAIT_TIME);
-				server = new Mongo(host, port);
-				DB db = server.getDB("admin");
-				try {
-					db.getStats();
-					connectionIsPossible = true;
-				} catch (MongoException e) {
-					currentRetry++;
-				}
-			} while (!connectionIsPossible && currentRetry <= MAX_RETRIES);
+			DB db = server.getDB("admin");
+			db.getStats();
+			return true;
+		} catch (MongoException e) {
+			return false;
 		} finally {
 			server.close();
 		}
-
-		return connectionIsPossible;
 	}
 
 	public void shutdown(String host, int port) {
@@ -1,13 +1,19 @@
 package com.lordofthejars.nosqlunit.mongodb;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
 import com.mongodb.Mongo;
@@ -22,10 +28,16 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
 	private Mongo mongo;
 	private MongoDbConfiguration mongoDbConfiguration;
 
+	/*
+	 * Other databases where this operation has loaded any dataset, so they are
+	 * cleaned by its deleteAll without touching databases of other rules.
+	 */
+	private Set<String> loadedDatabaseNames = Collections.synchronizedSet(new HashSet<String>());
+
 	protected MongoOperation(Mongo mongo, MongoDbConfiguration mongoDbConfiguration) {
 			this.mongo = mongo;
 			this.mongoDbConfiguration = mongoDbConfiguration;
-			this.setInsertionStrategy(new DefaultInsertionStrategy());
+			this.setInsertionStrategy(defaultInsertionStrategy(mongoDbConfiguration));
 			this.setComparisonStrategy(new DefaultComparisonStrategy());
 	}
 	
@@ -34,13 +46,27 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
 			this.mongo = mongoDbConfiguration.getMongo();
 			this.mongo.setWriteConcern(WriteConcern.SAFE);
 			this.mongoDbConfiguration = mongoDbConfiguration;
-			this.setInsertionStrategy(new DefaultInsertionStrategy());
+			this.setInsertionStrategy(defaultInsertionStrategy(mongoDbConfiguration));
 			this.setComparisonStrategy(new DefaultComparisonStrategy());
 		} catch (MongoException e) {
 			throw new IllegalArgumentException(e);
 		}
 	}
 
+	private MongoInsertionStrategy defaultInsertionStrategy(MongoDbConfiguration mongoDbConfiguration) {
+
+		MongoInsertionStrategy insertionStrategy = new DefaultInsertionStrategy();
+
+		if (mongoDbConfiguration.isTemplateDatabase()) {
+			insertionStrategy = new TemplateDatabaseInsertionStrategy(insertionStrategy, mongoDbConfiguration);
+		}
+
+		if (mongoDbConfiguration.isInMemory()) {
+			insertionStrategy = new InMemorySnapshotInsertionStrategy(insertionStrategy);
+		}
+		return insertionStrategy;
+	}
+
 	@Override
 	public void insert(InputStream contentStream) {
 
@@ -51,14 +77,7 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
 	private void insertData(InputStream contentStream) {
 		try {
 
-			final DB mongoDb = getMongoDb();
-			executeInsertion(new MongoDbConnectionCallback() {
-				
-				@Override
-				public DB db() {
-					return mongoDb;
-				}
-			}, contentStream);
+			executeInsertion(new OperationConnectionCallback(), contentStream);
 
 		} catch (Throwable e) {
 			throw new IllegalArgumentException("Unexpected error reading data set file.", e);
@@ -68,12 +87,29 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
 
 	@Override
 	public void deleteAll() {
-		DB mongoDb = getMongoDb();
-		deleteAllElements(mongoDb);
+		List<Callable<Void>> databaseDeletions = new ArrayList<Callable<Void>>();
+		databaseDeletions.add(databaseDeletion(getMongoDb()));
+
+		for (String databaseName : loadedDatabaseNames()) {
+			databaseDeletions.add(databaseDeletion(getMongoDb(databaseName)));
+		}
+
+		ParallelTasks.executeInParallel(databaseDeletions);
+	}
+
+	private Callable<Void> databaseDeletion(final DB mongoDb) {
+		return new Callable<Void>() {
+
+			@Override
+			public Void call() throws Exception {
+				deleteAllElements(mongoDb);
+				return null;
+			}
+		};
 	}
 
 	private void deleteAllElements(DB mongoDb) {
-		Set<String> collectionaNames = mongoDb.getCollectionNames();
+		Set<String> collectionaNames = new HashSet<String>(mongoDb.getCollectionNames());
 
 		for (String collectionName : collectionaNames) {
 
@@ -87,6 +123,12 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
 		}
 	}
 
+	private Set<String> loadedDatabaseNames() {
+		synchronized (loadedDatabaseNames) {
+			return new HashSet<String>(loadedDatabaseNames);
+		}
+	}
+
 	private boolean isNotASystemCollection(String collectionName) {
 		return !collectionName.startsWith("system");
 	}
@@ -100,14 +142,7 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
 
 	private boolean compareData(InputStream contentStream) throws NoSqlAssertionError {
 		try {
-			final DB mongoDb = getMongoDb();
-			executeComparison(new MongoDbConnectionCallback() {
-				
-				@Override
-				public DB db() {
-					return mongoDb;
-				}
-			}, contentStream);
+			executeComparison(new OperationConnectionCallback(), contentStream);
 			return true;
 		} catch (NoSqlAssertionError e) {
 			throw e;
@@ -117,21 +152,17 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
 	}
 
 	private DB getMongoDb() {
+		return getMongoDb(this.mongoDbConfiguration.getDatabaseName());
+	}
 
-		DB db = mongo.getDB(this.mongoDbConfiguration.getDatabaseName());
-
-		if (this.mongoDbConfiguration.isAuthenticateParametersSet() && !db.isAuthenticated()) {
-
-			boolean authenticated = db.authenticate(this.mongoDbConfiguration.getUsername(), this.mongoDbConfiguration
-					.getPassword().toCharArray());
-
-			if (!authenticated) {
-				throw new IllegalArgumentException("Login/Password provided to connect to MongoDb are not valid");
-			}
+	private DB getMongoDb(String databaseName) {
 
+		if (this.mongoDbConfiguration.isAuthenticateParametersSet()) {
+			return MongoClientRegistry.getInstance().getAuthenticatedDatabase(mongo, databaseName,
+					this.mongoDbConfiguration.getUsername(), this.mongoDbConfiguration.getPassword());
 		}
 
-		return db;
+		return mongo.getDB(databaseName);
 	}
 
 	@Override
@@ -139,4 +170,24 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
 		return mongo;
 	}
 
+	private final class OperationConnectionCallback implements MongoDbConnectionCallback {
+
+		@Override
+		public DB db() {
+			return getMongoDb();
+		}
+
+		@Override
+		public DB db(String databaseName) {
+
+			if (databaseName.equals(mongoDbConfiguration.getDatabaseName())) {
+				return getMongoDb();
+			}
+
+			loadedDatabaseNames.add(databaseName);
+			return getMongoDb(databaseName);
+		}
+
+	}
+
 }
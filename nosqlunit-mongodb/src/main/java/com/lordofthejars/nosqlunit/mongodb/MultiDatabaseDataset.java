@@ -0,0 +1,101 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Splits a dataset which, apart from collections of configured database,
+ * contains a <i>databases</i> document with collections of other databases
+ * of same server:
+ * 
+ * <pre>
+ * {
+ *   "collection1": [...],
+ *   "databases": {
+ *     "otherDatabase": {
+ *       "collection2": [...]
+ *     }
+ *   }
+ * }
+ * </pre>
+ */
+public class MultiDatabaseDataset {
+
+	public static final String DATABASES = "databases";
+
+	private MultiDatabaseDataset() {
+		super();
+	}
+
+	/**
+	 * Checks without parsing it if dataset could contain other databases.
+	 * 
+	 * @param jsonData
+	 *            dataset content.
+	 * @return false if dataset contains only collections of configured
+	 *         database.
+	 */
+	public static boolean mayContainOtherDatabases(String jsonData) {
+		return jsonData.contains(DATABASES);
+	}
+
+	/**
+	 * @param parsedData
+	 *            parsed dataset.
+	 * @return collections of configured database.
+	 */
+	public static DBObject configuredDatabaseData(DBObject parsedData) {
+
+		if (!hasOtherDatabases(parsedData)) {
+			return parsedData;
+		}
+
+		BasicDBObject configuredDatabaseData = new BasicDBObject();
+
+		for (String collectionName : parsedData.keySet()) {
+			if (!DATABASES.equals(collectionName)) {
+				configuredDatabaseData.put(collectionName, parsedData.get(collectionName));
+			}
+		}
+
+		return configuredDatabaseData;
+	}
+
+	/**
+	 * @param parsedData
+	 *            parsed dataset.
+	 * @return collections of each other database by database name.
+	 */
+	public static Map<String, DBObject> otherDatabasesData(DBObject parsedData) {
+
+		Map<String, DBObject> otherDatabasesData = new LinkedHashMap<String, DBObject>();
+
+		if (hasOtherDatabases(parsedData)) {
+
+			DBObject databases = (DBObject) parsedData.get(DATABASES);
+
+			for (String databaseName : databases.keySet()) {
+				otherDatabasesData.put(databaseName, (DBObject) databases.get(databaseName));
+			}
+		}
+
+		return otherDatabasesData;
+	}
+
+	/**
+	 * A collection named <i>databases</i> is still supported because its
+	 * value is an array or a collection document.
+	 */
+	private static boolean hasOtherDatabases(DBObject parsedData) {
+
+		Object databases = parsedData.get(DATABASES);
+
+		return databases instanceof DBObject && !(databases instanceof List)
+				&& !CollectionDefinition.isCollectionDocument(databases);
+	}
+
+}
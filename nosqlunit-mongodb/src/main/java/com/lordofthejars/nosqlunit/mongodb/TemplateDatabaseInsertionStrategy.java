@@ -0,0 +1,165 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lordofthejars.nosqlunit.core.IOUtils;
+import com.mongodb.BasicDBObject;
+import com.mongodb.CommandResult;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.Mongo;
+import com.mongodb.util.JSON;
+
+/**
+ * Insertion strategy which loads each dataset only once into a template
+ * database named <i>&lt;database&gt;__nosqlunit_template</i>, and then fills
+ * tested database by copying the template inside server with
+ * <i>copydb</i> command, so documents are not sent from client again.
+ * <p>
+ * Template is only used when tested database has no documents, and datasets
+ * with sharded collections or with other databases are always delegated to
+ * wrapped strategy because sharding is defined per namespace and only
+ * configured database is copied.
+ */
+public class TemplateDatabaseInsertionStrategy implements MongoInsertionStrategy {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TemplateDatabaseInsertionStrategy.class);
+
+	public static final String TEMPLATE_DATABASE_SUFFIX = "__nosqlunit_template";
+	public static final String TEMPLATE_MARKER_COLLECTION = "__nosqlunit_template";
+
+	private static final String SYSTEM_COLLECTION_PREFIX = "system";
+	private static final String MARKER_ID = "dataset";
+	private static final String DIGEST = "digest";
+	private static final String ENCODING = "UTF-8";
+
+	private MongoInsertionStrategy insertionStrategy;
+	private MongoDbConfiguration mongoDbConfiguration;
+
+	public TemplateDatabaseInsertionStrategy(MongoInsertionStrategy insertionStrategy,
+			MongoDbConfiguration mongoDbConfiguration) {
+		this.insertionStrategy = insertionStrategy;
+		this.mongoDbConfiguration = mongoDbConfiguration;
+	}
+
+	@Override
+	public void insert(MongoDbConnectionCallback connection, InputStream dataset) throws Throwable {
+
+		final DB mongoDb = connection.db();
+
+		if (!isEmpty(mongoDb)) {
+			insertionStrategy.insert(connection, dataset);
+			return;
+		}
+
+		String jsonData = IOUtils.readFullStream(dataset);
+		String datasetDigest = DocumentFingerprint.digest(jsonData);
+
+		final DB templateDb = mongoDb.getMongo().getDB(mongoDb.getName() + TEMPLATE_DATABASE_SUFFIX);
+
+		if (!isTemplateOf(templateDb, datasetDigest)) {
+
+			if (MultiDatabaseDataset.mayContainOtherDatabases(jsonData) || hasShardedCollections(jsonData)) {
+				insertionStrategy.insert(connection, new ByteArrayInputStream(jsonData.getBytes(ENCODING)));
+				return;
+			}
+
+			LOGGER.debug("Loading dataset into template database {}.", templateDb.getName());
+			createTemplate(connection, templateDb, jsonData, datasetDigest);
+		}
+
+		copyTemplate(templateDb, mongoDb);
+	}
+
+	private boolean isEmpty(DB mongoDb) {
+
+		for (String collectionName : mongoDb.getCollectionNames()) {
+			if (isNotASystemCollection(collectionName) && mongoDb.getCollection(collectionName).count() > 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private boolean isTemplateOf(DB templateDb, String datasetDigest) {
+
+		DBObject marker = templateDb.getCollection(TEMPLATE_MARKER_COLLECTION).findOne(
+				new BasicDBObject("_id", MARKER_ID));
+
+		return marker != null && datasetDigest.equals(marker.get(DIGEST));
+	}
+
+	private void createTemplate(final MongoDbConnectionCallback connection, final DB templateDb, String jsonData,
+			String datasetDigest) throws Throwable {
+
+		templateDb.dropDatabase();
+
+		insertionStrategy.insert(new MongoDbConnectionCallback() {
+
+			@Override
+			public DB db() {
+				return templateDb;
+			}
+
+			@Override
+			public DB db(String databaseName) {
+				return connection.db(databaseName);
+			}
+		}, new ByteArrayInputStream(jsonData.getBytes(ENCODING)));
+
+		templateDb.getCollection(TEMPLATE_MARKER_COLLECTION).save(
+				new BasicDBObject("_id", MARKER_ID).append(DIGEST, datasetDigest));
+	}
+
+	private void copyTemplate(DB templateDb, DB mongoDb) {
+
+		for (String collectionName : new HashSet<String>(mongoDb.getCollectionNames())) {
+			if (isNotASystemCollection(collectionName)) {
+				mongoDb.getCollection(collectionName).drop();
+			}
+		}
+
+		Mongo mongo = mongoDb.getMongo();
+		CommandResult commandResult;
+
+		if (this.mongoDbConfiguration.isAuthenticateParametersSet()) {
+			commandResult = MongoDbCommands.copyDatabase(mongo, templateDb.getName(), mongoDb.getName(),
+					this.mongoDbConfiguration.getUsername(), this.mongoDbConfiguration.getPassword());
+		} else {
+			commandResult = MongoDbCommands.copyDatabase(mongo, templateDb.getName(), mongoDb.getName());
+		}
+
+		commandResult.throwOnError();
+
+		DBCollection markerCollection = mongoDb.getCollection(TEMPLATE_MARKER_COLLECTION);
+		markerCollection.drop();
+	}
+
+	private boolean hasShardedCollections(String jsonData) {
+
+		DBObject parsedData = (DBObject) JSON.parse(jsonData);
+
+		for (String collectionName : parsedData.keySet()) {
+			Object collectionContent = parsedData.get(collectionName);
+
+			if (CollectionDefinition.isCollectionDocument(collectionContent)
+					&& CollectionDefinition.of(collectionContent).isSharded()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private boolean isNotASystemCollection(String collectionName) {
+		return !collectionName.startsWith(SYSTEM_COLLECTION_PREFIX);
+	}
+
+}
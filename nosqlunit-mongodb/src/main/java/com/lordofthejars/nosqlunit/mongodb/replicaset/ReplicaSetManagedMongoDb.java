@@ -13,7 +13,9 @@ import org.junit.rules.ExternalResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.lordofthejars.nosqlunit.mongodb.LifecycleManagersStarter;
 import com.lordofthejars.nosqlunit.mongodb.ManagedMongoDbLifecycleManager;
+import com.lordofthejars.nosqlunit.mongodb.MongoClientRegistry;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbCommands;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbLowLevelOpsFactory;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbLowLevelOps;
@@ -56,8 +58,6 @@ public class ReplicaSetManagedMongoDb extends ExternalResource {
 		}
 
 		waitingToBecomeStable(mongoClient);
-
-		mongoClient.close();
 		
 	}
 
@@ -96,8 +96,6 @@ public class ReplicaSetManagedMongoDb extends ExternalResource {
 		MongoClient mongoClient = getDefaultMongoClient();
 		
 		waitingToBecomeStable(mongoClient);
-		
-		mongoClient.close();
 
 	}
 
@@ -138,7 +136,6 @@ public class ReplicaSetManagedMongoDb extends ExternalResource {
 			commandResult = MongoDbCommands.replicaSetInitiate(mongoClient, cmd);
 		}
 		
-		mongoClient.close();
 		return commandResult;
 	}
 
@@ -151,6 +148,9 @@ public class ReplicaSetManagedMongoDb extends ExternalResource {
 			if(isServerStarted(managedMongoDbLifecycleManager)) {
 				managedMongoDbLifecycleManager.stopEngine();
 			}
+			
+			MongoClientRegistry.getInstance().closeMongoClients(managedMongoDbLifecycleManager.getHost(),
+					managedMongoDbLifecycleManager.getPort());
 		}
 		
 		LOGGER.info("Stopped Replica Set servers");
@@ -160,12 +160,7 @@ public class ReplicaSetManagedMongoDb extends ExternalResource {
 		
 		LOGGER.info("Starting Replica Set servers");
 		
-		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : replicaSetGroup
-				.getServers()) {
-			if (isServerStopped(managedMongoDbLifecycleManager)) {
-				managedMongoDbLifecycleManager.startEngine();
-			}
-		}
+		LifecycleManagersStarter.startInParallel(replicaSetGroup.getServers());
 		
 		LOGGER.info("Started Replica Set servers");
 	}
@@ -174,11 +169,6 @@ public class ReplicaSetManagedMongoDb extends ExternalResource {
 		return managedMongoDbLifecycleManager.isReady();
 	}
 	
-	private boolean isServerStopped(
-			ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager) {
-		return !managedMongoDbLifecycleManager.isReady();
-	}
-
 	private MongoClient getAvailableServersMongoClient()
 			throws UnknownHostException {
 
@@ -194,7 +184,8 @@ public class ReplicaSetManagedMongoDb extends ExternalResource {
 			}
 		}
 
-		return new MongoClient(seeds);
+		return MongoClientRegistry.getInstance().getMongoClient(seeds, replicaSetGroup.getUsername(),
+				replicaSetGroup.getPassword());
 
 	}
 
@@ -202,8 +193,8 @@ public class ReplicaSetManagedMongoDb extends ExternalResource {
 
 		ManagedMongoDbLifecycleManager defaultConnection = replicaSetGroup
 				.getDefaultConnection();
-		return new MongoClient(defaultConnection.getHost(),
-				defaultConnection.getPort());
+		return MongoClientRegistry.getInstance().getMongoClient(defaultConnection.getHost(),
+				defaultConnection.getPort(), replicaSetGroup.getUsername(), replicaSetGroup.getPassword());
 
 	}
 
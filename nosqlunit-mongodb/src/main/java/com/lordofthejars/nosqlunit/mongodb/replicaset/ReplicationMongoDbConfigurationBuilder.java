@@ -4,6 +4,7 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.lordofthejars.nosqlunit.mongodb.MongoClientRegistry;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbCommands;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbConfiguration;
 import com.mongodb.DBPort;
@@ -80,7 +81,8 @@ public class ReplicationMongoDbConfigurationBuilder {
 		}
 
 		
-		MongoClient mongoClient = new MongoClient(this.serverAddresses);
+		MongoClient mongoClient = MongoClientRegistry.getInstance().getMongoClient(this.serverAddresses,
+				this.mongoDbConfiguration.getUsername(), this.mongoDbConfiguration.getPassword());
 
 		if(this.enableSharding) {
 			enableSharding(mongoClient);
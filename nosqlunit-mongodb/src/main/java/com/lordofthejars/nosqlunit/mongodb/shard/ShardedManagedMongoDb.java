@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.mongodb.shard;
 
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -10,7 +11,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
+import com.lordofthejars.nosqlunit.mongodb.LifecycleManagersStarter;
 import com.lordofthejars.nosqlunit.mongodb.ManagedMongoDbLifecycleManager;
+import com.lordofthejars.nosqlunit.mongodb.MongoClientRegistry;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbCommands;
 import com.mongodb.MongoClient;
 
@@ -55,16 +58,10 @@ public class ShardedManagedMongoDb extends ExternalResource {
 		return abstractLifecycleManager.isReady();
 	}
 
-	private boolean isServerStopped(
-			AbstractLifecycleManager abstractLifecycleManager) {
-		return !abstractLifecycleManager.isReady();
-	}
-
 	@Override
 	protected void before() throws Throwable {
 
-		wakeUpShards();
-		wakeUpConfigs();
+		wakeUpShardsAndConfigs();
 		wakeUpMongos();
 		registerAllShards();
 	}
@@ -87,48 +84,22 @@ public class ShardedManagedMongoDb extends ExternalResource {
 		
 		LOGGER.info("Starting Mongos");
 		
-		List<ManagedMongosLifecycleManager> mongos = shardedGroup.getMongos();
-
-		for (ManagedMongosLifecycleManager managedMongosLifecycleManager : mongos) {
-			if (isServerStopped(managedMongosLifecycleManager)) {
-				managedMongosLifecycleManager.startEngine();
-			}
-		}
+		LifecycleManagersStarter.startInParallel(shardedGroup.getMongos());
 		
 		LOGGER.info("Started Mongos");
 		
 	}
 
-	private void wakeUpConfigs() throws Throwable {
+	private void wakeUpShardsAndConfigs() throws Throwable {
 		
-		LOGGER.info("Starting Configs");
+		LOGGER.info("Starting Shards and Configs");
 		
-		List<ManagedMongoDbLifecycleManager> configs = shardedGroup
-				.getConfigs();
-
-		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : configs) {
-			if (isServerStopped(managedMongoDbLifecycleManager)) {
-				managedMongoDbLifecycleManager.startEngine();
-			}
-		}
+		List<AbstractLifecycleManager> shardsAndConfigs = new ArrayList<AbstractLifecycleManager>(shardedGroup.getShards());
+		shardsAndConfigs.addAll(shardedGroup.getConfigs());
 		
-		LOGGER.info("Started Configs");
+		LifecycleManagersStarter.startInParallel(shardsAndConfigs);
 		
-	}
-
-	private void wakeUpShards() throws Throwable {
-		
-		LOGGER.info("Starting Shards");
-		
-		List<ManagedMongoDbLifecycleManager> shards = shardedGroup.getShards();
-
-		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : shards) {
-			if (isServerStopped(managedMongoDbLifecycleManager)) {
-				managedMongoDbLifecycleManager.startEngine();
-			}
-		}
-		
-		LOGGER.info("Started Shards");
+		LOGGER.info("Started Shards and Configs");
 	}
 
 	private void registerAllShards() throws UnknownHostException {
@@ -139,14 +110,13 @@ public class ShardedManagedMongoDb extends ExternalResource {
 		} else {
 			MongoDbCommands.addShard(mongosMongoClient, shardsUri());
 		}
-		
-		mongosMongoClient.close();
 	}
 
-	private MongoClient getMongosMongoClient() throws UnknownHostException {
+	private MongoClient getMongosMongoClient() {
 		
 		ManagedMongosLifecycleManager firstMongosServer = shardedGroup.getFirstMongosServer();
-		MongoClient mongoClient = new MongoClient(firstMongosServer.getHost(), firstMongosServer.getPort());
+		MongoClient mongoClient = MongoClientRegistry.getInstance().getMongoClient(firstMongosServer.getHost(),
+				firstMongosServer.getPort(), shardedGroup.getUsername(), shardedGroup.getPassword());
 		
 		return mongoClient;
 		
@@ -171,6 +141,7 @@ public class ShardedManagedMongoDb extends ExternalResource {
 			if (isServerStarted(managedMongosLifecycleManager)) {
 				managedMongosLifecycleManager.stopEngine();
 			}
+			closeMongoClients(managedMongosLifecycleManager);
 		}
 		
 		LOGGER.info("Stopped Mongos");
@@ -188,6 +159,7 @@ public class ShardedManagedMongoDb extends ExternalResource {
 			if (isServerStarted(managedMongoDbLifecycleManager)) {
 				managedMongoDbLifecycleManager.stopEngine();
 			}
+			closeMongoClients(managedMongoDbLifecycleManager);
 		}
 		
 		LOGGER.info("Stopped Configs");
@@ -204,9 +176,14 @@ public class ShardedManagedMongoDb extends ExternalResource {
 			if (isServerStarted(managedMongoDbLifecycleManager)) {
 				managedMongoDbLifecycleManager.stopEngine();
 			}
+			closeMongoClients(managedMongoDbLifecycleManager);
 		}
 		
 		LOGGER.info("Stopped Shards");
 	}
+
+	private void closeMongoClients(AbstractLifecycleManager lifecycleManager) {
+		MongoClientRegistry.getInstance().closeMongoClients(lifecycleManager.getHost(), lifecycleManager.getPort());
+	}
 	
 }
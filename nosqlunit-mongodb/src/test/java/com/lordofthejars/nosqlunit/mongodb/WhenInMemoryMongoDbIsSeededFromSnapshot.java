@@ -0,0 +1,108 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.foursquare.fongo.Fongo;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBObject;
+import com.mongodb.util.JSON;
+
+public class WhenInMemoryMongoDbIsSeededFromSnapshot {
+
+	private static final String DATA = "{\"col1\":[{\"name\":\"Alex\", \"address\":{\"city\":\"Barcelona\"}}, {\"name\":\"Soto\"}], \"col2\":[{\"name\":\"Ada\"}]}";
+
+	private DB db;
+	private MongoDbConnectionCallback connection;
+
+	@Before
+	public void setUp() {
+
+		db = new Fongo("snapshot").getDB("test");
+		connection = new MongoDbConnectionCallback() {
+
+			@Override
+			public DB db() {
+				return db;
+			}
+
+			@Override
+			public DB db(String databaseName) {
+				return db.getSisterDB(databaseName);
+			}
+		};
+	}
+
+	@Test
+	public void second_load_of_same_dataset_should_be_restored_from_snapshot() throws Throwable {
+
+		MongoInsertionStrategy defaultInsertionStrategy = spy(new DefaultInsertionStrategy());
+		InMemorySnapshotInsertionStrategy snapshotInsertionStrategy = new InMemorySnapshotInsertionStrategy(
+				defaultInsertionStrategy);
+
+		snapshotInsertionStrategy.insert(connection, dataset(DATA));
+		dropCollections();
+		snapshotInsertionStrategy.insert(connection, dataset(DATA));
+
+		verify(defaultInsertionStrategy, times(1)).insert(any(MongoDbConnectionCallback.class), any(InputStream.class));
+		MongoDbAssertion.strictAssertEquals((DBObject) JSON.parse(DATA), db);
+
+	}
+
+	@Test
+	public void changes_done_by_a_test_should_not_leak_into_snapshot() throws Throwable {
+
+		InMemorySnapshotInsertionStrategy snapshotInsertionStrategy = new InMemorySnapshotInsertionStrategy(
+				new DefaultInsertionStrategy());
+
+		snapshotInsertionStrategy.insert(connection, dataset(DATA));
+		db.getCollection("col1").update(new BasicDBObject("name", "Alex"),
+				new BasicDBObject("$set", new BasicDBObject("address.city", "Madrid")));
+		dropCollections();
+		snapshotInsertionStrategy.insert(connection, dataset(DATA));
+
+		assertThat(db.getCollection("col1").count(new BasicDBObject("address.city", "Barcelona")), is(1L));
+		assertThat(db.getCollection("col1").count(new BasicDBObject("address.city", "Madrid")), is(0L));
+
+	}
+
+	@Test
+	public void insertion_into_not_empty_database_should_be_delegated() throws Throwable {
+
+		MongoInsertionStrategy defaultInsertionStrategy = spy(new DefaultInsertionStrategy());
+		InMemorySnapshotInsertionStrategy snapshotInsertionStrategy = new InMemorySnapshotInsertionStrategy(
+				defaultInsertionStrategy);
+
+		snapshotInsertionStrategy.insert(connection, dataset(DATA));
+		snapshotInsertionStrategy.insert(connection, dataset(DATA));
+
+		verify(defaultInsertionStrategy, times(2)).insert(any(MongoDbConnectionCallback.class), any(InputStream.class));
+		assertThat(db.getCollection("col1").count(), is(4L));
+
+	}
+
+	private void dropCollections() {
+		for (String collectionName : new HashSet<String>(db.getCollectionNames())) {
+			if (!collectionName.startsWith("system")) {
+				db.getCollection(collectionName).drop();
+			}
+		}
+	}
+
+	private InputStream dataset(String data) throws Exception {
+		return new ByteArrayInputStream(data.getBytes("UTF-8"));
+	}
+
+}
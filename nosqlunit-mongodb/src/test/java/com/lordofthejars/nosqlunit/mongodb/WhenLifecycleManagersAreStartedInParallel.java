@@ -0,0 +1,118 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
+
+public class WhenLifecycleManagersAreStartedInParallel {
+
+	private List<AbstractLifecycleManager> startedServers = new ArrayList<AbstractLifecycleManager>();
+
+	@After
+	public void tearDown() {
+		for (AbstractLifecycleManager startedServer : startedServers) {
+			if (startedServer.isReady()) {
+				startedServer.stopEngine();
+			}
+		}
+	}
+
+	@Test
+	public void all_servers_should_be_starting_at_same_time() throws Throwable {
+
+		CountDownLatch allStarting = new CountDownLatch(3);
+
+		List<LatchedLifecycleManager> servers = Arrays.asList(new LatchedLifecycleManager(27501, allStarting),
+				new LatchedLifecycleManager(27502, allStarting), new LatchedLifecycleManager(27503, allStarting));
+		startedServers.addAll(servers);
+
+		LifecycleManagersStarter.startInParallel(servers);
+
+		for (LatchedLifecycleManager server : servers) {
+			assertThat(server.isReady(), is(true));
+			assertThat(server.sawOtherServersStarting, is(true));
+		}
+
+	}
+
+	@Test
+	public void already_started_servers_should_not_be_started_again() throws Throwable {
+
+		LatchedLifecycleManager server = new LatchedLifecycleManager(27504, new CountDownLatch(1));
+		startedServers.add(server);
+
+		LifecycleManagersStarter.startInParallel(Arrays.asList(server));
+		LifecycleManagersStarter.startInParallel(Arrays.asList(server));
+
+		assertThat(server.starts, is(1));
+
+	}
+
+	@Test
+	public void error_starting_a_server_should_be_propagated() throws Throwable {
+
+		LatchedLifecycleManager server = new LatchedLifecycleManager(27505, new CountDownLatch(1)) {
+			@Override
+			public void doStart() throws Throwable {
+				throw new IllegalStateException("Couldn't establish a connection");
+			}
+		};
+		startedServers.add(server);
+
+		try {
+			LifecycleManagersStarter.startInParallel(Arrays.asList(server));
+			fail();
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is("Couldn't establish a connection"));
+		}
+
+	}
+
+	private static class LatchedLifecycleManager extends AbstractLifecycleManager {
+
+		private int port;
+		private CountDownLatch allStarting;
+
+		private boolean sawOtherServersStarting;
+		private int starts;
+
+		public LatchedLifecycleManager(int port, CountDownLatch allStarting) {
+			this.port = port;
+			this.allStarting = allStarting;
+		}
+
+		@Override
+		public String getHost() {
+			return "localhost";
+		}
+
+		@Override
+		public int getPort() {
+			return port;
+		}
+
+		@Override
+		public void doStart() throws Throwable {
+			starts++;
+			allStarting.countDown();
+			sawOtherServersStarting = allStarting.await(5, TimeUnit.SECONDS);
+		}
+
+		@Override
+		public void doStop() {
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.mongodb.DB;
+import com.mongodb.Mongo;
+import com.mongodb.MongoClient;
+import com.mongodb.ServerAddress;
+
+public class WhenMongoClientsAreShared {
+
+	private MongoClientRegistry mongoClientRegistry = MongoClientRegistry.getInstance();
+
+	@After
+	public void tearDown() {
+		mongoClientRegistry.closeMongoClients("localhost", 27017);
+		mongoClientRegistry.closeMongoClients("localhost", 27018);
+	}
+
+	@Test
+	public void same_server_and_credentials_should_return_same_client() {
+
+		MongoClient mongoClient = mongoClientRegistry.getMongoClient("localhost", 27017, "alex", "pass");
+
+		assertThat(mongoClientRegistry.getMongoClient("localhost", 27017, "alex", "pass"), sameInstance(mongoClient));
+		assertThat(mongoClientRegistry.getMongoClient("localhost", 27017, "alex", "wrong"),
+				not(sameInstance(mongoClient)));
+		assertThat(mongoClientRegistry.getMongoClient("localhost", 27017, "ada", "pass"), not(sameInstance(mongoClient)));
+		assertThat(mongoClientRegistry.getMongoClient("localhost", 27017), not(sameInstance(mongoClient)));
+
+	}
+
+	@Test
+	public void seeds_in_any_order_should_return_same_client() throws Exception {
+
+		List<ServerAddress> seeds = Arrays.asList(new ServerAddress("localhost", 27017), new ServerAddress(
+				"localhost", 27018));
+		List<ServerAddress> reversedSeeds = Arrays.asList(new ServerAddress("localhost", 27018), new ServerAddress(
+				"localhost", 27017));
+
+		MongoClient mongoClient = mongoClientRegistry.getMongoClient(seeds);
+
+		assertThat(mongoClientRegistry.getMongoClient(reversedSeeds), sameInstance(mongoClient));
+
+	}
+
+	@Test
+	public void clients_of_stopped_server_should_be_closed_and_forgotten() throws Exception {
+
+		int registeredClients = mongoClientRegistry.size();
+
+		MongoClient directMongoClient = mongoClientRegistry.getMongoClient("localhost", 27018);
+		mongoClientRegistry.getMongoClient(Arrays.asList(new ServerAddress("localhost", 27017), new ServerAddress(
+				"localhost", 27018)));
+
+		assertThat(mongoClientRegistry.size(), is(registeredClients + 2));
+
+		mongoClientRegistry.closeMongoClients("localhost", 27018);
+
+		assertThat(mongoClientRegistry.size(), is(registeredClients));
+		assertThat(mongoClientRegistry.getMongoClient("localhost", 27018), not(sameInstance(directMongoClient)));
+
+	}
+
+	@Test
+	public void authenticated_database_should_not_be_authenticated_again() {
+
+		Mongo mongo = mock(Mongo.class);
+		DB db = mock(DB.class);
+
+		when(mongo.getDB("test")).thenReturn(db);
+		when(db.authenticate("alex", "pass".toCharArray())).thenReturn(true);
+		when(db.isAuthenticated()).thenReturn(false, true);
+
+		mongoClientRegistry.getAuthenticatedDatabase(mongo, "test", "alex", "pass");
+		mongoClientRegistry.getAuthenticatedDatabase(mongo, "test", "alex", "pass");
+
+		verify(db, times(1)).authenticate("alex", "pass".toCharArray());
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void authenticated_database_should_not_accept_other_password() {
+
+		Mongo mongo = mock(Mongo.class);
+		DB db = mock(DB.class);
+
+		when(mongo.getDB("test")).thenReturn(db);
+		when(db.authenticate("alex", "pass".toCharArray())).thenReturn(true);
+		when(db.isAuthenticated()).thenReturn(false, true);
+
+		mongoClientRegistry.getAuthenticatedDatabase(mongo, "test", "alex", "pass");
+		mongoClientRegistry.getAuthenticatedDatabase(mongo, "test", "alex", "wrong");
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalid_credentials_should_not_be_accepted() {
+
+		Mongo mongo = mock(Mongo.class);
+		DB db = mock(DB.class);
+
+		when(mongo.getDB("test")).thenReturn(db);
+
+		mongoClientRegistry.getAuthenticatedDatabase(mongo, "test", "alex", "wrong");
+
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.WriteConcern;
+
+public class WhenMongoDbCollectionsAreDefinedInDataset {
+
+	private static final String DATA = "" +
+			"{" +
+			"\"collection1\": {" +
+			"	\"options\": {\"capped\": true, \"size\": 1048576}," +
+			"	\"indexes\": [" +
+			"		{\"key\": {\"code\": 1, \"id\": -1}, \"unique\": true, \"sparse\": true}," +
+			"		{\"key\": {\"createdAt\": 1}, \"expireAfterSeconds\": 3600}" +
+			"	]," +
+			"	\"data\": [{\"id\":1,\"code\":\"JSON dataset\"}]" +
+			"}" +
+			"}";
+
+	private DB db;
+	private DBCollection collection1;
+	private MongoDbConnectionCallback connection;
+
+	@Before
+	public void setUp() {
+
+		db = mock(DB.class);
+		collection1 = mock(DBCollection.class);
+
+		when(db.getCollection("collection1")).thenReturn(collection1);
+		when(collection1.getName()).thenReturn("collection1");
+
+		connection = new MongoDbConnectionCallback() {
+
+			@Override
+			public DB db() {
+				return db;
+			}
+
+			@Override
+			public DB db(String databaseName) {
+				return db.getSisterDB(databaseName);
+			}
+		};
+	}
+
+	@Test
+	public void collection_should_be_created_with_options_and_indexes_around_data() throws Throwable {
+
+		new DefaultInsertionStrategy().insert(connection, new ByteArrayInputStream(DATA.getBytes("UTF-8")));
+
+		InOrder inOrder = inOrder(db, collection1);
+
+		inOrder.verify(db).createCollection("collection1",
+				new BasicDBObject("capped", true).append("size", 1048576));
+		inOrder.verify(collection1).ensureIndex(new BasicDBObject("code", 1).append("id", -1),
+				new BasicDBObject("unique", true).append("sparse", true));
+		inOrder.verify(collection1).insert(any(DBObject[].class), any(WriteConcern.class));
+		inOrder.verify(collection1).ensureIndex(new BasicDBObject("createdAt", 1),
+				new BasicDBObject("expireAfterSeconds", 3600));
+
+	}
+
+	@Test
+	public void existing_collection_should_not_be_created_again() throws Throwable {
+
+		when(db.collectionExists("collection1")).thenReturn(true);
+
+		new DefaultInsertionStrategy().insert(connection, new ByteArrayInputStream(DATA.getBytes("UTF-8")));
+
+		verify(db, never()).createCollection(eq("collection1"), any(DBObject.class));
+		verify(collection1).insert(any(DBObject[].class), any(WriteConcern.class));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void index_without_key_should_not_be_accepted() throws Throwable {
+
+		String data = "{\"collection1\": {\"indexes\": [{\"unique\": true}], \"data\": []}}";
+		new DefaultInsertionStrategy().insert(connection, new ByteArrayInputStream(data.getBytes("UTF-8")));
+
+	}
+
+}
@@ -0,0 +1,151 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.foursquare.fongo.Fongo;
+import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.util.JSON;
+
+public class WhenMongoDbDataIsAsserted {
+
+	private DB db;
+
+	@Before
+	public void setUp() {
+		db = new Fongo("assertion").getDB("test");
+	}
+
+	@Test
+	public void same_documents_in_different_order_should_be_equal() {
+
+		DBCollection collection = db.getCollection("col1");
+		collection.insert(new BasicDBObject("name", "Soto").append("age", 33L));
+		collection.insert(new BasicDBObject("surname", "Alex").append("name", "Alex"));
+
+		MongoDbAssertion.strictAssertEquals(
+				parse("{\"col1\":[{\"name\":\"Alex\", \"surname\":\"Alex\"}, {\"name\":\"Soto\", \"age\":33}]}"), db);
+
+	}
+
+	@Test
+	public void duplicated_expected_documents_should_be_matched_one_by_one() {
+
+		DBCollection collection = db.getCollection("col1");
+		collection.insert(new BasicDBObject("name", "Alex"));
+		collection.insert(new BasicDBObject("name", "Soto"));
+
+		try {
+			MongoDbAssertion.strictAssertEquals(parse("{\"col1\":[{\"name\":\"Alex\"}, {\"name\":\"Alex\"}]}"), db);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("Object # { \"name\" : \"Alex\"} # is not found"));
+			assertThat(e.getMessage(), containsString("# is not expected"));
+			assertThat(e.getMessage(), containsString("\"Soto\""));
+		}
+
+	}
+
+	@Test
+	public void every_not_found_and_not_expected_document_should_be_reported() {
+
+		DBCollection collection = db.getCollection("col1");
+		collection.insert(new BasicDBObject("name", "Alex"));
+		collection.insert(new BasicDBObject("name", "Soto"));
+		collection.insert(new BasicDBObject("name", "Ada").append("surname", "Lovelace"));
+
+		try {
+			MongoDbAssertion.strictAssertEquals(
+					parse("{\"col1\":[{\"name\":\"Alex\"}, {\"name\":\"Linus\"}, {\"name\":\"Ada\"}]}"), db);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("Expected collection col1 and insert collection have different elements"));
+			assertThat(e.getMessage(), containsString("Object # { \"name\" : \"Linus\"} # is not found"));
+			assertThat(e.getMessage(), containsString("Object # { \"name\" : \"Ada\"} # is not found"));
+			assertThat(e.getMessage(), containsString("{ \"name\" : \"Soto\" , \"_id\""));
+			assertThat(e.getMessage(), containsString("\"surname\" : \"Lovelace\""));
+			assertThat(e.getMessage(), not(containsString("\"Alex\"")));
+		}
+
+	}
+
+	@Test
+	public void documents_with_same_declared_id_should_be_equal() {
+
+		DBCollection collection = db.getCollection("col1");
+		collection.insert(new BasicDBObject("_id", 1).append("name", "Alex"));
+		collection.insert(new BasicDBObject("name", "Soto"));
+
+		MongoDbAssertion.strictAssertEquals(
+				parse("{\"col1\":[{\"_id\":1, \"name\":\"Alex\"}, {\"name\":\"Soto\"}]}"), db);
+
+	}
+
+	@Test
+	public void documents_with_different_declared_id_should_not_be_equal() {
+
+		DBCollection collection = db.getCollection("col1");
+		collection.insert(new BasicDBObject("_id", 2).append("name", "Alex"));
+
+		try {
+			MongoDbAssertion.strictAssertEquals(parse("{\"col1\":[{\"_id\":1, \"name\":\"Alex\"}]}"), db);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("Object # { \"_id\" : 1 , \"name\" : \"Alex\"} # is not found"));
+		}
+
+	}
+
+	@Test
+	public void other_databases_should_be_got_from_connection() {
+
+		DB ordersDb = db.getSisterDB("orders");
+		db.getCollection("col1").insert(new BasicDBObject("name", "Alex"));
+		ordersDb.getCollection("order").insert(new BasicDBObject("id", 1));
+
+		MongoDbConnectionCallback connection = mock(MongoDbConnectionCallback.class);
+		when(connection.db()).thenReturn(db);
+		when(connection.db("orders")).thenReturn(ordersDb);
+
+		MongoDbAssertion.strictAssertEquals(
+				parse("{\"col1\":[{\"name\":\"Alex\"}], \"databases\":{\"orders\":{\"order\":[{\"id\":1}]}}}"),
+				connection);
+
+		verify(connection).db("orders");
+
+	}
+
+	@Test
+	public void reported_documents_should_be_limited() {
+
+		DBCollection collection = db.getCollection("col1");
+		collection.insert(new BasicDBObject("name", "Alex"));
+		collection.insert(new BasicDBObject("name", "Soto"));
+
+		try {
+			MongoDbAssertion.strictAssertEquals(parse("{\"col1\":[]}"), db, 1);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("Expected collection col1 has 0 elements but insert collection has 2"));
+			assertThat(e.getMessage(), containsString("... and 1 more objects not expected"));
+		}
+
+	}
+
+	private DBObject parse(String expectedData) {
+		return (DBObject) JSON.parse(expectedData);
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import com.foursquare.fongo.Fongo;
+import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MapReduceCommand.OutputType;
+import com.mongodb.MapReduceOutput;
+import com.mongodb.util.JSON;
+
+public class WhenMongoDbDataIsAssertedByFingerprint {
+
+	private static final String EXPECTED_DATA = "{\"col1\":[{\"name\":\"Alex\", \"age\":33}, {\"name\":\"Soto\"}]}";
+
+	@Test
+	public void fingerprint_of_documents_should_not_depend_on_order() {
+
+		BasicDBList documents = (BasicDBList) JSON.parse("[{\"name\":\"Alex\", \"age\":33}, {\"name\":\"Soto\"}]");
+		BasicDBList reversedDocuments = (BasicDBList) JSON.parse("[{\"name\":\"Soto\"}, {\"age\":33.0, \"name\":\"Alex\"}]");
+
+		assertThat(CollectionFingerprint.of(documents), is(CollectionFingerprint.of(reversedDocuments)));
+		assertThat(CollectionFingerprint.of(documents).getCount(), is(2L));
+
+	}
+
+	@Test
+	public void same_server_fingerprint_should_not_read_documents() {
+
+		DBObject expectedData = (DBObject) JSON.parse(EXPECTED_DATA);
+		CollectionFingerprint expectedFingerprint = CollectionFingerprint.of((BasicDBList) expectedData.get("col1"));
+
+		DBObject result = new BasicDBObject("_id", 0).append("value",
+				new BasicDBObject("count", 2.0).append("hash", (double) expectedFingerprint.getHash()));
+
+		MapReduceOutput mapReduceOutput = mock(MapReduceOutput.class);
+		when(mapReduceOutput.results()).thenReturn(Collections.singletonList(result));
+
+		DBCollection collection = mock(DBCollection.class);
+		when(collection.mapReduce(anyString(), anyString(), anyString(), any(OutputType.class), any(DBObject.class)))
+				.thenReturn(mapReduceOutput);
+
+		DB db = mock(DB.class);
+		when(db.getCollectionNames()).thenReturn(new HashSet<String>(Collections.singleton("col1")));
+		when(db.getCollection("col1")).thenReturn(collection);
+
+		MongoDbAssertion.fingerprintAssertEquals(expectedData, db);
+
+		verify(collection, never()).find();
+
+	}
+
+	@Test
+	public void different_documents_should_be_reported_when_server_cannot_calculate_fingerprint() {
+
+		DB db = new Fongo("fingerprint").getDB("test");
+		DBCollection collection = db.getCollection("col1");
+		collection.insert(new BasicDBObject("name", "Alex").append("age", 33));
+		collection.insert(new BasicDBObject("name", "Soto"));
+
+		MongoDbAssertion.fingerprintAssertEquals((DBObject) JSON.parse(EXPECTED_DATA), db);
+
+		collection.insert(new BasicDBObject("name", "Ada"));
+
+		try {
+			MongoDbAssertion.fingerprintAssertEquals((DBObject) JSON.parse(EXPECTED_DATA), db);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("Expected collection col1 has 2 elements but insert collection has 3"));
+			assertThat(e.getMessage(), containsString("\"Ada\""));
+			assertThat(e.getMessage(), not(containsString("\"Soto\"")));
+		}
+
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.WriteConcern;
+
+public class WhenMongoDbDataIsInsertedInBatches {
+
+	private static final String DATA = "" +
+			"{" +
+			"\"collection1\": " +
+			"	[" +
+			"		{\"id\":1,\"code\":\"JSON dataset\"}," +
+			"		{\"id\":2,\"code\":\"Another row\"}," +
+			"		{\"id\":3,\"code\":\"Third row\"}" +
+			"	]," +
+			"\"collection2\": " +
+			"	[" +
+			"		{\"id\":4,\"code\":\"JSON dataset 2\"}" +
+			"	]" +
+			"}";
+
+	@Mock private DB db;
+	@Mock private DBCollection collection1;
+	@Mock private DBCollection collection2;
+
+	private MongoDbConnectionCallback connection;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+
+		when(db.getCollection("collection1")).thenReturn(collection1);
+		when(db.getCollection("collection2")).thenReturn(collection2);
+		when(collection1.getWriteConcern()).thenReturn(WriteConcern.SAFE);
+
+		connection = new MongoDbConnectionCallback() {
+			@Override
+			public DB db() {
+				return db;
+			}
+
+			@Override
+			public DB db(String databaseName) {
+				return db.getSisterDB(databaseName);
+			}
+		};
+	}
+
+	@Test
+	public void documents_should_be_split_by_maximum_number_of_documents() throws Throwable {
+
+		DefaultInsertionStrategy defaultInsertionStrategy = new DefaultInsertionStrategy(2,
+				DefaultInsertionStrategy.MAX_BATCH_BYTES, false);
+		defaultInsertionStrategy.insert(connection, new ByteArrayInputStream(DATA.getBytes("UTF-8")));
+
+		List<DBObject[]> batches = capturedBatches(collection1, 2);
+
+		assertThat(batches.get(0).length, is(2));
+		assertThat(batches.get(1).length, is(1));
+		assertThat(batches.get(1)[0].get("id"), is((Object) 3));
+
+	}
+
+	@Test
+	public void documents_should_be_split_by_maximum_batch_size() throws Throwable {
+
+		DefaultInsertionStrategy defaultInsertionStrategy = new DefaultInsertionStrategy(1000, 60, false);
+		defaultInsertionStrategy.insert(connection, new ByteArrayInputStream(DATA.getBytes("UTF-8")));
+
+		List<DBObject[]> batches = capturedBatches(collection1, 3);
+
+		for (DBObject[] batch : batches) {
+			assertThat(batch.length, is(1));
+		}
+
+	}
+
+	@Test
+	public void batches_should_continue_on_error() throws Throwable {
+
+		new DefaultInsertionStrategy().insert(connection, new ByteArrayInputStream(DATA.getBytes("UTF-8")));
+
+		ArgumentCaptor<WriteConcern> writeConcernCaptor = ArgumentCaptor.forClass(WriteConcern.class);
+		verify(collection1).insert(any(DBObject[].class), writeConcernCaptor.capture());
+
+		assertThat(writeConcernCaptor.getValue().getContinueOnErrorForInsert(), is(true));
+		assertThat(writeConcernCaptor.getValue().getW(), is(WriteConcern.SAFE.getW()));
+
+	}
+
+	@Test
+	public void collections_should_be_loaded_concurrently_when_enabled() throws Throwable {
+
+		DefaultInsertionStrategy defaultInsertionStrategy = new DefaultInsertionStrategy(
+				DefaultInsertionStrategy.DEFAULT_MAX_BATCH_DOCUMENTS, DefaultInsertionStrategy.MAX_BATCH_BYTES, true);
+		defaultInsertionStrategy.insert(connection, new ByteArrayInputStream(DATA.getBytes("UTF-8")));
+
+		assertThat(capturedBatches(collection1, 1).get(0).length, is(3));
+		assertThat(capturedBatches(collection2, 1).get(0).length, is(1));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void batch_size_greater_than_message_limit_should_not_be_allowed() {
+		new DefaultInsertionStrategy(1000, DefaultInsertionStrategy.MAX_BATCH_BYTES + 1, false);
+	}
+
+	private List<DBObject[]> capturedBatches(DBCollection collection, int expectedBatches) {
+
+		ArgumentCaptor<DBObject[]> batchCaptor = ArgumentCaptor.forClass(DBObject[].class);
+		verify(collection, times(expectedBatches)).insert(batchCaptor.capture(), any(WriteConcern.class));
+
+		return batchCaptor.getAllValues();
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import static com.lordofthejars.nosqlunit.mongodb.InMemoryMongoDb.InMemoryMongoRuleBuilder.newInMemoryMongoDbRule;
+import static com.lordofthejars.nosqlunit.mongodb.InMemoryMongoDbConfigurationBuilder.inMemoryMongoDb;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.mongodb.BasicDBObject;
+import com.mongodb.Mongo;
+
+public class WhenMongoDbDatasetSpansSeveralDatabases {
+
+	private static final String DATA = "" +
+			"{" +
+			"\"collection1\": [{\"id\":1}]," +
+			"\"databases\": {" +
+			"	\"orders\": {\"order\": [{\"id\":2}, {\"id\":3}]}," +
+			"	\"customers\": {\"customer\": [{\"id\":4}]}" +
+			"}" +
+			"}";
+
+	@ClassRule
+	public static final InMemoryMongoDb IN_MEMORY_MONGO_DB = newInMemoryMongoDbRule().build();
+
+	@After
+	public void tearDown() {
+		Mongo defaultEmbeddedInstance = EmbeddedMongoInstancesFactory.getInstance().getDefaultEmbeddedInstance();
+		defaultEmbeddedInstance.getDB("test").getCollection("collection1").drop();
+		defaultEmbeddedInstance.getDB("orders").getCollection("order").drop();
+		defaultEmbeddedInstance.getDB("customers").getCollection("customer").drop();
+	}
+
+	@Test
+	public void collections_of_other_databases_should_be_inserted() {
+
+		MongoOperation mongoOperation = new MongoOperation(inMemoryMongoDb().databaseName("test").build());
+		mongoOperation.insert(new ByteArrayInputStream(DATA.getBytes()));
+
+		Mongo mongo = mongoOperation.connectionManager();
+
+		assertThat(mongo.getDB("test").getCollection("collection1").count(), is(1L));
+		assertThat(mongo.getDB("test").collectionExists("databases"), is(false));
+		assertThat(mongo.getDB("orders").getCollection("order").count(), is(2L));
+		assertThat(mongo.getDB("customers").getCollection("customer").count(), is(1L));
+
+	}
+
+	@Test
+	public void other_databases_should_be_cleaned_by_same_operation() {
+
+		MongoOperation mongoOperation = new MongoOperation(inMemoryMongoDb().databaseName("test").build());
+		mongoOperation.insert(new ByteArrayInputStream(DATA.getBytes()));
+		mongoOperation.deleteAll();
+
+		Mongo mongo = mongoOperation.connectionManager();
+
+		assertThat(mongo.getDB("test").getCollection("collection1").count(), is(0L));
+		assertThat(mongo.getDB("orders").getCollection("order").count(), is(0L));
+		assertThat(mongo.getDB("customers").getCollection("customer").count(), is(0L));
+
+	}
+
+	@Test
+	public void other_databases_should_not_be_cleaned_by_other_operations() {
+
+		new MongoOperation(inMemoryMongoDb().databaseName("test").build()).insert(new ByteArrayInputStream(DATA
+				.getBytes()));
+
+		MongoOperation mongoOperation = new MongoOperation(inMemoryMongoDb().databaseName("test").build());
+		mongoOperation.deleteAll();
+
+		Mongo mongo = mongoOperation.connectionManager();
+
+		assertThat(mongo.getDB("test").getCollection("collection1").count(), is(0L));
+		assertThat(mongo.getDB("orders").getCollection("order").count(), is(2L));
+		assertThat(mongo.getDB("customers").getCollection("customer").count(), is(1L));
+
+	}
+
+	@Test
+	public void collections_of_every_database_should_be_compared() {
+
+		MongoOperation mongoOperation = new MongoOperation(inMemoryMongoDb().databaseName("test").build());
+		mongoOperation.insert(new ByteArrayInputStream(DATA.getBytes()));
+
+		assertThat(mongoOperation.databaseIs(new ByteArrayInputStream(DATA.getBytes())), is(true));
+
+		mongoOperation.connectionManager().getDB("orders").getCollection("order")
+				.remove(new BasicDBObject("id", 3));
+
+		try {
+			mongoOperation.databaseIs(new ByteArrayInputStream(DATA.getBytes()));
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("Expected collection order has 2 elements but insert collection has 1"));
+		}
+
+	}
+
+}
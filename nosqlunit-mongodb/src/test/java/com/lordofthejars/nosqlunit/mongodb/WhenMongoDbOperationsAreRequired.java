@@ -2,6 +2,7 @@ package com.lordofthejars.nosqlunit.mongodb;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -10,7 +11,6 @@ import static org.mockito.Mockito.when;
 import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 import org.junit.Before;
@@ -23,6 +23,7 @@ import com.mongodb.DB;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
 import com.mongodb.Mongo;
+import com.mongodb.WriteConcern;
 import com.mongodb.util.JSON;
 
 public class WhenMongoDbOperationsAreRequired {
@@ -179,14 +180,15 @@ public class WhenMongoDbOperationsAreRequired {
 	
 	private void verifyInsertedData(String[] expectedData, DBCollection mockCollection) {
 		
-		final ArgumentCaptor<DBObject> insertCaptor = ArgumentCaptor
-                .forClass(DBObject.class);
+		final ArgumentCaptor<DBObject[]> insertCaptor = ArgumentCaptor
+                .forClass(DBObject[].class);
 		
-		verify(mockCollection, times(2)).insert(insertCaptor.capture());
+		verify(mockCollection, times(1)).insert(insertCaptor.capture(), any(WriteConcern.class));
 		
-		List<DBObject> allValues = insertCaptor.getAllValues();
+		DBObject[] allValues = insertCaptor.getValue();
+		assertThat(allValues.length, is(expectedData.length));
 		for(int i=0;i<expectedData.length;i++) {
-			assertThat(allValues.get(i).toString(), is(expectedData[i]));
+			assertThat(allValues[i].toString(), is(expectedData[i]));
 		}
 		
 	}
@@ -0,0 +1,138 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.CommandResult;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.Mongo;
+
+public class WhenMongoDbTemplateDatabaseIsUsed {
+
+	private static final String DATA = "{\"collection1\":[{\"id\":1}, {\"id\":2}]}";
+
+	@Mock private Mongo mongo;
+	@Mock private DB db;
+	@Mock private DB templateDb;
+	@Mock private DB adminDb;
+	@Mock private DBCollection markerCollection;
+	@Mock private DBCollection targetMarkerCollection;
+	@Mock private CommandResult commandResult;
+	@Mock private MongoInsertionStrategy insertionStrategy;
+
+	private MongoDbConnectionCallback connection;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+
+		when(mongo.getDB("test")).thenReturn(db);
+		when(mongo.getDB("test__nosqlunit_template")).thenReturn(templateDb);
+		when(mongo.getDB("admin")).thenReturn(adminDb);
+
+		when(db.getName()).thenReturn("test");
+		when(db.getMongo()).thenReturn(mongo);
+		when(db.getCollectionNames()).thenReturn(Collections.<String> emptySet());
+		when(db.getCollection(TemplateDatabaseInsertionStrategy.TEMPLATE_MARKER_COLLECTION)).thenReturn(
+				targetMarkerCollection);
+
+		when(templateDb.getName()).thenReturn("test__nosqlunit_template");
+		when(templateDb.getCollection(TemplateDatabaseInsertionStrategy.TEMPLATE_MARKER_COLLECTION)).thenReturn(
+				markerCollection);
+
+		when(adminDb.command(any(DBObject.class))).thenReturn(commandResult);
+
+		connection = new MongoDbConnectionCallback() {
+
+			@Override
+			public DB db() {
+				return db;
+			}
+
+			@Override
+			public DB db(String databaseName) {
+				return db.getSisterDB(databaseName);
+			}
+		};
+	}
+
+	@Test
+	public void up_to_date_template_should_be_copied_without_loading_dataset() throws Throwable {
+
+		when(markerCollection.findOne(any(DBObject.class))).thenReturn(
+				new BasicDBObject("_id", "dataset").append("digest", DocumentFingerprint.digest(DATA)));
+
+		new TemplateDatabaseInsertionStrategy(insertionStrategy, new MongoDbConfiguration("localhost", "test")).insert(
+				connection, dataset(DATA));
+
+		verify(insertionStrategy, never()).insert(any(MongoDbConnectionCallback.class), any(InputStream.class));
+		verify(adminDb).command(
+				new BasicDBObject("copydb", 1).append("fromdb", "test__nosqlunit_template").append("todb", "test"));
+		verify(commandResult).throwOnError();
+		verify(targetMarkerCollection).drop();
+
+	}
+
+	@Test
+	public void missing_template_should_be_loaded_and_then_copied() throws Throwable {
+
+		new TemplateDatabaseInsertionStrategy(insertionStrategy, new MongoDbConfiguration("localhost", "test")).insert(
+				connection, dataset(DATA));
+
+		ArgumentCaptor<MongoDbConnectionCallback> templateConnection = ArgumentCaptor
+				.forClass(MongoDbConnectionCallback.class);
+
+		verify(templateDb).dropDatabase();
+		verify(insertionStrategy).insert(templateConnection.capture(), any(InputStream.class));
+		assertThat(templateConnection.getValue().db(), sameInstance(templateDb));
+
+		ArgumentCaptor<DBObject> marker = ArgumentCaptor.forClass(DBObject.class);
+		verify(markerCollection).save(marker.capture());
+		assertThat((String) marker.getValue().get("digest"), is(DocumentFingerprint.digest(DATA)));
+
+		verify(adminDb).command(any(DBObject.class));
+
+	}
+
+	@Test
+	public void not_empty_database_should_be_loaded_by_wrapped_strategy() throws Throwable {
+
+		DBCollection collection1 = mock(DBCollection.class);
+		when(collection1.count()).thenReturn(2L);
+		when(db.getCollectionNames()).thenReturn(new HashSet<String>(Collections.singleton("collection1")));
+		when(db.getCollection("collection1")).thenReturn(collection1);
+
+		new TemplateDatabaseInsertionStrategy(insertionStrategy, new MongoDbConfiguration("localhost", "test")).insert(
+				connection, dataset(DATA));
+
+		verify(insertionStrategy, times(1)).insert(any(MongoDbConnectionCallback.class), any(InputStream.class));
+		verify(adminDb, never()).command(any(DBObject.class));
+
+	}
+
+	private InputStream dataset(String data) throws Exception {
+		return new ByteArrayInputStream(data.getBytes("UTF-8"));
+	}
+
+}
@@ -13,10 +13,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
+import com.lordofthejars.nosqlunit.core.BackoffScheduler;
 import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
 import com.lordofthejars.nosqlunit.core.OsNameSystemPropertyOperatingSystemResolver;
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
 import com.lordofthejars.nosqlunit.env.SystemEnvironmentVariables;
 
 public class ManagedNeoServerLifecycleManager extends AbstractLifecycleManager {
@@ -30,7 +32,7 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedNeoServer.cl
 
 	private static final String LOCALHOST = "127.0.0.1";
 
-	private static final int NUM_RETRIES_TO_CHECK_SERVER_UP = 3;
+	private static final int SECONDS_TO_CHECK_SERVER_UP = 9;
 
 	protected static final String DEFAULT_NEO4J_TARGET_PATH = "target" + File.separatorChar + "neo4j-temp";
 	protected static final String NEO4J_BINARY_DIRECTORY = "bin";
@@ -46,6 +48,7 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedNeoServer.cl
 
 	private CommandLineExecutor commandLineExecutor = new CommandLineExecutor();
 	private OperatingSystemResolver operatingSystemResolver = new OsNameSystemPropertyOperatingSystemResolver();
+	private BackoffScheduler startupScheduler = new BackoffScheduler(SECONDS_TO_CHECK_SERVER_UP, TimeUnit.SECONDS);
 
 	public ManagedNeoServerLifecycleManager() {
 		super();
@@ -106,22 +109,28 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedNeoServer.cl
 
 	private boolean assertThatConnectionIsPossible() throws InterruptedException {
 
-		for (int i = 0; i < NUM_RETRIES_TO_CHECK_SERVER_UP; i++) {
+		return startupScheduler.awaitReady(new ReadinessProbe() {
 
-			List<String> status = statusNeo4j();
+			@Override
+			public boolean isReady() {
 
-			if (status.size() > 0) {
-				String currentStatus = status.get(0);
+				List<String> status;
 
-				if (!SERVER_NOT_AVAILABLE_MESSAGE.equalsIgnoreCase(currentStatus)) {
-					return true;
+				try {
+					status = statusNeo4j();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
 				}
-			}
 
-			TimeUnit.SECONDS.sleep(3);
-		}
+				if (status.size() > 0) {
+					String currentStatus = status.get(0);
+					return !SERVER_NOT_AVAILABLE_MESSAGE.equalsIgnoreCase(currentStatus);
+				}
 
-		return false;
+				return false;
+			}
+		});
 	}
 
 	private List<String> statusNeo4j() throws InterruptedException {
@@ -27,6 +27,17 @@ public class EmbeddedRedis extends ExternalResource {
 			return this;
 		}
 
+		public EmbeddedRedisRuleBuilder offHeapStorage() {
+			this.embeddedRedisLifecycleManager.setOffHeapStorage(true);
+			return this;
+		}
+
+		public EmbeddedRedisRuleBuilder offHeapSlabSize(int offHeapSlabSize) {
+			this.embeddedRedisLifecycleManager.setOffHeapStorage(true);
+			this.embeddedRedisLifecycleManager.setOffHeapSlabSize(offHeapSlabSize);
+			return this;
+		}
+
 		public EmbeddedRedis build() {
 			
 			if (this.embeddedRedisLifecycleManager.getTargetPath() == null) {
@@ -9,6 +9,7 @@ import redis.clients.jedis.Jedis;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
 import com.lordofthejars.nosqlunit.redis.embedded.EmbeddedRedisBuilder;
+import com.lordofthejars.nosqlunit.redis.embedded.OffHeapArena;
 
 public class EmbeddedRedisLifecycleManager extends AbstractLifecycleManager {
 
@@ -22,6 +23,9 @@ private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedRedis.class
 	
 	private String targetPath = INMEMORY_REDIS_TARGET_PATH;
 	
+	private boolean offHeapStorage = false;
+	private int offHeapSlabSize = OffHeapArena.DEFAULT_SLAB_SIZE;
+	
 	private Jedis jedis;
 	
 	public EmbeddedRedisLifecycleManager() {
@@ -55,6 +59,11 @@ private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedRedis.class
 
 	private Jedis createEmbeddedRedis() {
 		EmbeddedRedisBuilder embeddedRedisBuilder = new EmbeddedRedisBuilder();
+		
+		if (offHeapStorage) {
+			embeddedRedisBuilder.offHeapStorage(offHeapSlabSize);
+		}
+		
 		return  embeddedRedisBuilder.createEmbeddedJedis();	
 	}
 	
@@ -65,4 +74,20 @@ private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedRedis.class
 	public String getTargetPath() {
 		return targetPath;
 	}
+	
+	public void setOffHeapStorage(boolean offHeapStorage) {
+		this.offHeapStorage = offHeapStorage;
+	}
+	
+	public boolean isOffHeapStorage() {
+		return offHeapStorage;
+	}
+	
+	public void setOffHeapSlabSize(int offHeapSlabSize) {
+		this.offHeapSlabSize = offHeapSlabSize;
+	}
+	
+	public int getOffHeapSlabSize() {
+		return offHeapSlabSize;
+	}
 }
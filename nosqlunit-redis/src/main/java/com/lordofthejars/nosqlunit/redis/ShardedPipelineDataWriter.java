@@ -0,0 +1,171 @@
+package com.lordofthejars.nosqlunit.redis;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
+import com.lordofthejars.nosqlunit.redis.parser.DataWriter;
+
+/**
+ * Partitions dataset commands by the shard which owns each key, and then
+ * sends each partition through a pipeline of its shard, all shards at the
+ * same time.
+ */
+public class ShardedPipelineDataWriter implements DataWriter {
+
+	private RedisConnectionCallback connection;
+
+	private Map<Jedis, List<PipelinedCommand>> partitions = new LinkedHashMap<Jedis, List<PipelinedCommand>>();
+
+	public ShardedPipelineDataWriter(RedisConnectionCallback connection) {
+		this.connection = connection;
+	}
+
+	@Override
+	public void set(final byte[] key, final byte[] value) {
+		partitionOf(key).add(new PipelinedCommand() {
+
+			@Override
+			public void execute(Pipeline pipeline) {
+				pipeline.set(key, value);
+			}
+		});
+	}
+
+	@Override
+	public void rpush(final byte[] key, final byte[]... values) {
+		partitionOf(key).add(new PipelinedCommand() {
+
+			@Override
+			public void execute(Pipeline pipeline) {
+				for (byte[] value : values) {
+					pipeline.rpush(key, value);
+				}
+			}
+		});
+	}
+
+	@Override
+	public void sadd(final byte[] key, final byte[]... members) {
+		partitionOf(key).add(new PipelinedCommand() {
+
+			@Override
+			public void execute(Pipeline pipeline) {
+				for (byte[] member : members) {
+					pipeline.sadd(key, member);
+				}
+			}
+		});
+	}
+
+	@Override
+	public void zadd(final byte[] key, final Map<Double, byte[]> scoreMembers) {
+		partitionOf(key).add(new PipelinedCommand() {
+
+			@Override
+			public void execute(Pipeline pipeline) {
+				for (Entry<Double, byte[]> scoreMember : scoreMembers.entrySet()) {
+					pipeline.zadd(key, scoreMember.getKey(), scoreMember.getValue());
+				}
+			}
+		});
+	}
+
+	@Override
+	public void hmset(final byte[] key, final Map<byte[], byte[]> fields) {
+		partitionOf(key).add(new PipelinedCommand() {
+
+			@Override
+			public void execute(Pipeline pipeline) {
+				pipeline.hmset(key, fields);
+			}
+		});
+	}
+
+	@Override
+	public void expire(final byte[] key, final int seconds) {
+		partitionOf(key).add(new PipelinedCommand() {
+
+			@Override
+			public void execute(Pipeline pipeline) {
+				pipeline.expire(key, seconds);
+			}
+		});
+	}
+
+	@Override
+	public void expireAt(final byte[] key, final long unixTime) {
+		partitionOf(key).add(new PipelinedCommand() {
+
+			@Override
+			public void execute(Pipeline pipeline) {
+				pipeline.expireAt(key, unixTime);
+			}
+		});
+	}
+
+	/**
+	 * Sends all partitions to their shards in parallel and waits until every
+	 * shard has replied.
+	 * 
+	 * @throws JedisDataException
+	 *             first error replied by a shard, like a command against a key
+	 *             holding the wrong kind of value.
+	 */
+	public void load() {
+
+		List<Callable<Void>> loads = new ArrayList<Callable<Void>>(partitions.size());
+
+		for (final Entry<Jedis, List<PipelinedCommand>> partition : partitions.entrySet()) {
+			loads.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+
+					Pipeline pipeline = partition.getKey().pipelined();
+
+					for (PipelinedCommand pipelinedCommand : partition.getValue()) {
+						pipelinedCommand.execute(pipeline);
+					}
+
+					for (Object reply : pipeline.syncAndReturnAll()) {
+						if (reply instanceof JedisDataException) {
+							throw (JedisDataException) reply;
+						}
+					}
+
+					return null;
+				}
+			});
+		}
+
+		ParallelTasks.executeInParallel(loads);
+		partitions.clear();
+	}
+
+	private List<PipelinedCommand> partitionOf(byte[] key) {
+
+		Jedis shard = connection.getActiveJedis(key);
+		List<PipelinedCommand> partition = partitions.get(shard);
+
+		if (partition == null) {
+			partition = new ArrayList<PipelinedCommand>();
+			partitions.put(shard, partition);
+		}
+
+		return partition;
+	}
+
+	private interface PipelinedCommand {
+		void execute(Pipeline pipeline);
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.lordofthejars.nosqlunit.redis;
+
+import java.io.InputStream;
+
+import com.lordofthejars.nosqlunit.redis.parser.DataReader;
+
+public class ShardedRedisInsertionStrategy implements RedisInsertionStrategy {
+
+	@Override
+	public void insert(RedisConnectionCallback connection, InputStream dataset) throws Throwable {
+		ShardedPipelineDataWriter shardedPipelineDataWriter = new ShardedPipelineDataWriter(connection);
+
+		DataReader dataReader = new DataReader(shardedPipelineDataWriter);
+		dataReader.read(dataset);
+
+		shardedPipelineDataWriter.load();
+	}
+
+}
@@ -1,9 +1,10 @@
 package com.lordofthejars.nosqlunit.redis;
 
-import static ch.lambdaj.Lambda.forEach;
-
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 import redis.clients.jedis.BinaryJedisCommands;
 import redis.clients.jedis.Jedis;
@@ -11,6 +12,7 @@ import redis.clients.jedis.ShardedJedis;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.ParallelTasks;
 
 public class ShardedRedisOperation extends AbstractCustomizableDatabaseOperation<RedisConnectionCallback, ShardedJedis> {
 
@@ -18,7 +20,7 @@ public class ShardedRedisOperation extends AbstractCustomizableDatabaseOperation
 	
 	public ShardedRedisOperation(ShardedJedis shardedJedis) {
 		this.shardedJedis = shardedJedis;
-		setInsertionStrategy(new DefaultRedisInsertionStrategy());
+		setInsertionStrategy(new ShardedRedisInsertionStrategy());
 		setComparisonStrategy(new DefaultRedisComparisonStrategy());
 	}
 	
@@ -53,7 +55,22 @@ public class ShardedRedisOperation extends AbstractCustomizableDatabaseOperation
 
 	@Override
 	public void deleteAll() {
-		forEach(shardedJedis.getAllShards()).flushAll();
+
+		Collection<Jedis> shards = shardedJedis.getAllShards();
+		List<Callable<Void>> flushes = new ArrayList<Callable<Void>>(shards.size());
+
+		for (final Jedis shard : shards) {
+			flushes.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					shard.flushAll();
+					return null;
+				}
+			});
+		}
+
+		ParallelTasks.executeInParallel(flushes);
 	}
 
 	@Override
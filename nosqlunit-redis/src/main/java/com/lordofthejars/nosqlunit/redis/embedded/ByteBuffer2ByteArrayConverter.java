@@ -10,9 +10,29 @@ public class ByteBuffer2ByteArrayConverter implements Converter<ByteBuffer, byte
 		return new ByteBuffer2ByteArrayConverter();
 	}
 
+	/**
+	 * Returns the content of given buffer. Heap buffers wrapping a whole array
+	 * return that array, off-heap buffers are copied.
+	 * 
+	 * @param byteBuffer
+	 * @return content of byte buffer.
+	 */
+	public static byte[] toByteArray(ByteBuffer byteBuffer) {
+
+		if (byteBuffer.hasArray() && byteBuffer.arrayOffset() == 0 && byteBuffer.position() == 0
+				&& byteBuffer.remaining() == byteBuffer.array().length) {
+			return byteBuffer.array();
+		}
+
+		byte[] content = new byte[byteBuffer.remaining()];
+		byteBuffer.duplicate().get(content);
+
+		return content;
+	}
+
 	@Override
 	public byte[] convert(ByteBuffer from) {
-		return from.array();
+		return toByteArray(from);
 	}
 
 }
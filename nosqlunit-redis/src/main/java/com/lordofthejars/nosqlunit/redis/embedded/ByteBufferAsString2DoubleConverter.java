@@ -13,7 +13,7 @@ public class ByteBufferAsString2DoubleConverter implements Converter<ByteBuffer,
 	
 	@Override
 	public Double convert(ByteBuffer from) {
-		String value = SafeEncoder.encode(from.array());
+		String value = SafeEncoder.encode(ByteBuffer2ByteArrayConverter.toByteArray(from));
 		return Double.valueOf(value);
 	}
 
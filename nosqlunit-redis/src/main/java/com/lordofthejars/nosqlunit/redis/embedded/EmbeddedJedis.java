@@ -24,6 +24,7 @@ import redis.clients.jedis.SortingParams;
 import redis.clients.jedis.Transaction;
 import redis.clients.jedis.TransactionBlock;
 import redis.clients.jedis.Tuple;
+import redis.clients.util.SafeEncoder;
 import redis.clients.util.Slowlog;
 import ch.lambdaj.function.convert.Converter;
 
@@ -32,6 +33,8 @@ import com.lordofthejars.nosqlunit.redis.embedded.SortsetDatatypeOperations.Scor
 
 public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
+	public static final int DATABASES = 16;
+
 	private static final ByteArrayToStringConverter BYTE_ARRAY_TO_STRING_CONVERTER = ByteArrayToStringConverter
 			.createByteArrayToStringConverter();
 	private static final StringToByteArrayConverter STRING_TO_BYTE_ARRAY_CONVERTER = StringToByteArrayConverter
@@ -43,27 +46,57 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 	protected SortsetDatatypeOperations sortsetDatatypeOperations;
 	protected StringDatatypeOperations stringDatatypeOperations;
 	protected KeysServerOperations keysServerOperations;
+	protected MemoryServerOperations memoryServerOperations;
+	protected MonitorServerOperations monitorServerOperations;
 	protected PubSubServerOperations pubSubServerOperations;
 	protected ConnectionServerOperations connectionServerOperations;
 	protected ScriptingServerOperations scriptingServerOperations;
 	protected TransactionServerOperations transactionServerOperations;
+	protected Keyspace[] databases = new Keyspace[DATABASES];
 
 	public EmbeddedJedis() {
-		hashDatatypeOperations = new HashDatatypeOperations();
-		listDatatypeOperations = new ListDatatypeOperations();
-		setDatatypeOperations = new SetDatatypeOperations();
-		sortsetDatatypeOperations = new SortsetDatatypeOperations();
-		stringDatatypeOperations = new StringDatatypeOperations();
+		this(false, OffHeapArena.DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * Creates an embedded Redis which stores values outside Java heap. Each
+	 * database reserves off-heap memory in slabs of given size. Keys and
+	 * structures are still kept on heap.
+	 * 
+	 * @param offHeapSlabSize
+	 */
+	public EmbeddedJedis(int offHeapSlabSize) {
+		this(true, offHeapSlabSize);
+	}
+
+	private EmbeddedJedis(boolean offHeapStorage, int offHeapSlabSize) {
 		pubSubServerOperations = new PubSubServerOperations();
 		connectionServerOperations = new ConnectionServerOperations();
 		scriptingServerOperations = new ScriptingServerOperations();
 		transactionServerOperations = new TransactionServerOperations();
-		keysServerOperations = KeysServerOperations.createKeysServerOperations(hashDatatypeOperations,
-				listDatatypeOperations, setDatatypeOperations, sortsetDatatypeOperations, stringDatatypeOperations);
+
+		for (int index = 0; index < DATABASES; index++) {
+			databases[index] = offHeapStorage ? Keyspace.createKeyspace(OffHeapArena
+					.createOffHeapArena(offHeapSlabSize)) : Keyspace.createKeyspace();
+		}
+
+		RedisDatatypeOperations[] firstDatabase = databases[0].getRedisDatatypeOperations();
+
+		memoryServerOperations = MemoryServerOperations.createMemoryServerOperations(firstDatabase);
+		monitorServerOperations = MonitorServerOperations.createMonitorServerOperations();
+		keysServerOperations = KeysServerOperations.createKeysServerOperations(memoryServerOperations,
+				monitorServerOperations, firstDatabase);
+
+		for (int index = 1; index < DATABASES; index++) {
+			keysServerOperations.setDatabase(index, databases[index].getRedisDatatypeOperations());
+		}
+
+		useKeyspace(databases[0]);
 	}
 
 	@Override
 	public String set(byte[] key, byte[] value) {
+		updateTtlForWrite(key);
 		keysServerOperations.del(key);
 		stringDatatypeOperations.removeExpiration(key);
 		return stringDatatypeOperations.set(key, value);
@@ -106,7 +139,7 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public byte[] getSet(byte[] key, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, StringDatatypeOperations.STRING);
 		stringDatatypeOperations.removeExpiration(key);
 
@@ -115,49 +148,49 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public Long setnx(byte[] key, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, StringDatatypeOperations.STRING);
 		return this.stringDatatypeOperations.setnx(key, value);
 	}
 
 	@Override
 	public String setex(byte[] key, int seconds, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, StringDatatypeOperations.STRING);
 		return this.stringDatatypeOperations.setex(key, seconds, value);
 	}
 
 	@Override
 	public Long decrBy(byte[] key, long integer) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, StringDatatypeOperations.STRING);
 		return this.stringDatatypeOperations.decrBy(key, integer);
 	}
 
 	@Override
 	public Long decr(byte[] key) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, StringDatatypeOperations.STRING);
 		return this.stringDatatypeOperations.decr(key);
 	}
 
 	@Override
 	public Long incrBy(byte[] key, long integer) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, StringDatatypeOperations.STRING);
 		return this.stringDatatypeOperations.incrBy(key, integer);
 	}
 
 	@Override
 	public Long incr(byte[] key) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, StringDatatypeOperations.STRING);
 		return this.stringDatatypeOperations.incr(key);
 	}
 
 	@Override
 	public Long append(byte[] key, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, StringDatatypeOperations.STRING);
 		return this.stringDatatypeOperations.append(key, value);
 	}
@@ -171,7 +204,7 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public Long hset(byte[] key, byte[] field, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, HashDatatypeOperations.HASH);
 		return this.hashDatatypeOperations.hset(key, field, value);
 	}
@@ -185,14 +218,14 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public Long hsetnx(byte[] key, byte[] field, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, HashDatatypeOperations.HASH);
 		return this.hashDatatypeOperations.hsetnx(key, field, value);
 	}
 
 	@Override
 	public String hmset(byte[] key, Map<byte[], byte[]> hash) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, HashDatatypeOperations.HASH);
 		return this.hashDatatypeOperations.hmset(key, hash);
 	}
@@ -206,7 +239,7 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public Long hincrBy(byte[] key, byte[] field, long value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, HashDatatypeOperations.HASH);
 		return this.hashDatatypeOperations.hincrBy(key, field, value);
 	}
@@ -255,14 +288,14 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public Long rpush(byte[] key, byte[]... values) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, ListDatatypeOperations.LIST);
 		return this.listDatatypeOperations.rpush(key, values);
 	}
 
 	@Override
 	public Long lpush(byte[] key, byte[]... values) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, ListDatatypeOperations.LIST);
 		return this.listDatatypeOperations.lpush(key, values);
 	}
@@ -297,7 +330,7 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public String lset(byte[] key, int index, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, ListDatatypeOperations.LIST);
 		return this.listDatatypeOperations.lset(key, index, value);
 	}
@@ -325,7 +358,7 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public Long sadd(byte[] key, byte[]... member) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, SetDatatypeOperations.SET);
 		return this.setDatatypeOperations.sadd(key, member);
 	}
@@ -374,14 +407,14 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public Long zadd(byte[] key, double score, byte[] member) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, SortsetDatatypeOperations.ZSET);
 		return this.sortsetDatatypeOperations.zadd(key, score, member);
 	}
 
 	@Override
 	public Long zadd(byte[] key, Map<Double, byte[]> scoreMembers) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, SortsetDatatypeOperations.ZSET);
 		return this.sortsetDatatypeOperations.zadd(key, scoreMembers);
 	}
@@ -402,7 +435,7 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public Double zincrby(byte[] key, double score, byte[] member) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, SortsetDatatypeOperations.ZSET);
 		return this.sortsetDatatypeOperations.zincrby(key, score, member);
 	}
@@ -632,7 +665,7 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public Long linsert(byte[] key, LIST_POSITION where, byte[] pivot, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, ListDatatypeOperations.LIST);
 		return this.listDatatypeOperations.linsert(key, toListPosition().convert(where), pivot, value);
 	}
@@ -664,6 +697,14 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 		return this.objectEncoding(toByteArray().convert(key));
 	}
 
+	public Long objectFreq(byte[] key) {
+		return this.keysServerOperations.objectFreq(key);
+	}
+
+	public Long objectFreq(String key) {
+		return this.objectFreq(toByteArray().convert(key));
+	}
+
 	public void psubscribe(final JedisPubSub jedisPubSub, final byte[]... patterns) {
 		this.pubSubServerOperations.psubscribe(jedisPubSub, patterns);
 	}
@@ -701,20 +742,20 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 	@Override
 	public Long lpushx(byte[] key, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, ListDatatypeOperations.LIST);
 		return this.listDatatypeOperations.lpushx(key, value);
 	}
 
 	@Override
 	public Long rpushx(byte[] key, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, ListDatatypeOperations.LIST);
 		return this.listDatatypeOperations.rpushx(key, value);
 	}
 
 	public Boolean setbit(byte[] key, long offset, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, StringDatatypeOperations.STRING);
 		return this.stringDatatypeOperations.setbit(key, offset, value);
 	}
@@ -726,7 +767,7 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 	}
 
 	public Long setrange(byte[] key, long offset, byte[] value) {
-		updateTtl(key);
+		updateTtlForWrite(key);
 		checkValidTypeOrNone(key, StringDatatypeOperations.STRING);
 		return this.stringDatatypeOperations.setrange(key, offset, value);
 	}
@@ -742,12 +783,46 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 		return this.keysServerOperations.dbSize();
 	}
 
+	/**
+	 * Replaces selected database with an empty one, old keys are removed in
+	 * background.
+	 * 
+	 * @return Status code reply
+	 */
 	public String flushDB() {
-		return this.keysServerOperations.flushDB();
+		replaceWithEmptyKeyspace(this.keysServerOperations.getSelectedDatabase());
+		return "OK";
 	}
 
 	public String flushAll() {
-		return this.flushDB();
+
+		for (int index = 0; index < DATABASES; index++) {
+			replaceWithEmptyKeyspace(index);
+		}
+
+		return "OK";
+	}
+
+	/**
+	 * Swaps two databases, so that immediately all the clients connected to a
+	 * given database will see the data of the other database, and the other
+	 * way around.
+	 * 
+	 * @param index1
+	 * @param index2
+	 * @return Status code reply
+	 */
+	public String swapDB(final int index1, final int index2) {
+
+		String result = this.keysServerOperations.swapdb(index1, index2);
+
+		Keyspace keyspace1 = databases[index1];
+		databases[index1] = databases[index2];
+		databases[index2] = keyspace1;
+
+		useKeyspace(databases[this.keysServerOperations.getSelectedDatabase()]);
+
+		return result;
 	}
 
 	public Long del(final byte[]... keys) {
@@ -821,7 +896,12 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 	}
 
 	public Long move(final byte[] key, final int dbIndex) {
-		return this.move(key, dbIndex);
+		updateTtl(key);
+		return this.keysServerOperations.move(key, dbIndex);
+	}
+
+	public Long move(final String key, final int dbIndex) {
+		return this.move(SafeEncoder.encode(key), dbIndex);
 	}
 
 	@Override
@@ -1326,7 +1406,9 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 	}
 
 	public String select(final int index) {
-		return this.connectionServerOperations.select(index);
+		String result = this.keysServerOperations.select(index);
+		useKeyspace(databases[index]);
+		return result;
 	}
 
 	/**
@@ -1480,6 +1562,10 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 		return this.keysServerOperations.info();
 	}
 
+	public String info(final String section) {
+		return this.keysServerOperations.info(section);
+	}
+
 	public Long lastsave() {
 		return this.keysServerOperations.lastsave();
 	}
@@ -1487,6 +1573,10 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 	public void monitor(final JedisMonitor jedisMonitor) {
 		this.keysServerOperations.monitor(jedisMonitor);
 	}
+
+	public void unmonitor(final JedisMonitor jedisMonitor) {
+		this.keysServerOperations.unmonitor(jedisMonitor);
+	}
 	
 	public String shutdown() {
 		return this.keysServerOperations.shutdown();
@@ -1555,12 +1645,43 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 		}
 	}
 
+	private void useKeyspace(Keyspace keyspace) {
+		hashDatatypeOperations = keyspace.getHashDatatypeOperations();
+		listDatatypeOperations = keyspace.getListDatatypeOperations();
+		setDatatypeOperations = keyspace.getSetDatatypeOperations();
+		sortsetDatatypeOperations = keyspace.getSortsetDatatypeOperations();
+		stringDatatypeOperations = keyspace.getStringDatatypeOperations();
+	}
+
+	private void replaceWithEmptyKeyspace(int index) {
+
+		Keyspace oldKeyspace = databases[index];
+		Keyspace emptyKeyspace = oldKeyspace.createEmptyKeyspace();
+
+		databases[index] = emptyKeyspace;
+		this.keysServerOperations.setDatabase(index, emptyKeyspace.getRedisDatatypeOperations());
+
+		if (index == this.keysServerOperations.getSelectedDatabase()) {
+			useKeyspace(emptyKeyspace);
+		}
+
+		oldKeyspace.reclaimAsynchronously();
+	}
+
 	private void updateAllTtlTimes() {
 		this.keysServerOperations.updateTtl();
+		this.memoryServerOperations.evictIfNeeded();
 	}
 
 	private void updateTtl(byte[] key) {
 		this.keysServerOperations.updateTtl(key);
+		this.memoryServerOperations.lookupKey(key);
+	}
+
+	private void updateTtlForWrite(byte[] key) {
+		this.databases[this.keysServerOperations.getSelectedDatabase()].compactOffHeapArenaIfNeeded();
+		this.keysServerOperations.updateTtl(key);
+		this.memoryServerOperations.lookupKeyForWrite(key);
 	}
 
 	private Converter<ScoredByteBuffer, Tuple> toTuple() {
@@ -1568,7 +1689,7 @@ public class EmbeddedJedis implements JedisCommands, BinaryJedisCommands {
 
 			@Override
 			public Tuple convert(ScoredByteBuffer from) {
-				return new Tuple(from.getByteBuffer().array(), from.getScore());
+				return new Tuple(ByteBuffer2ByteArrayConverter.toByteArray(from.getByteBuffer()), from.getScore());
 			}
 		};
 	}
@@ -1,13 +1,47 @@
 package com.lordofthejars.nosqlunit.redis.embedded;
 
-import com.lordofthejars.nosqlunit.proxy.RedirectProxy;
-
+import net.sf.cglib.proxy.Enhancer;
 import redis.clients.jedis.Jedis;
 
 public class EmbeddedRedisBuilder {
 
+	private boolean offHeapStorage = false;
+	private int offHeapSlabSize = OffHeapArena.DEFAULT_SLAB_SIZE;
+
+	/**
+	 * Stores values outside Java heap, reserving memory in slabs of default
+	 * size.
+	 * 
+	 * @return this builder.
+	 */
+	public EmbeddedRedisBuilder offHeapStorage() {
+		return offHeapStorage(OffHeapArena.DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * Stores values outside Java heap, reserving memory in slabs of given size.
+	 * 
+	 * @param slabSize
+	 *            size in bytes of each reserved off-heap block.
+	 * @return this builder.
+	 */
+	public EmbeddedRedisBuilder offHeapStorage(int slabSize) {
+		this.offHeapStorage = true;
+		this.offHeapSlabSize = slabSize;
+		return this;
+	}
+
 	public Jedis createEmbeddedJedis() {
-		return RedirectProxy.createProxy(NoArgsJedis.class, new EmbeddedJedis());
+		return (Jedis) Enhancer.create(NoArgsJedis.class, new MonitoredRedirectMethod(createEmbeddedJedisInstance()));
 	}
-	
+
+	private EmbeddedJedis createEmbeddedJedisInstance() {
+
+		if (offHeapStorage) {
+			return new EmbeddedJedis(offHeapSlabSize);
+		}
+
+		return new EmbeddedJedis();
+	}
+
 }
@@ -3,7 +3,9 @@ package com.lordofthejars.nosqlunit.redis.embedded;
 import static java.nio.ByteBuffer.wrap;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -18,6 +20,63 @@ public abstract class ExpirationDatatypeOperations {
 
 	protected Map<ByteBuffer, Long> expirationsInMillis = new HashMap<ByteBuffer, Long>();
 
+	protected OffHeapArena offHeapArena;
+
+	/**
+	 * Stores values into given off-heap arena instead of Java heap. Keys are
+	 * always kept on heap.
+	 * 
+	 * @param offHeapArena
+	 */
+	public void setOffHeapArena(OffHeapArena offHeapArena) {
+		this.offHeapArena = offHeapArena;
+	}
+
+	/**
+	 * Returns number of bytes of values currently stored, used to know how
+	 * much of an off-heap arena is still alive.
+	 * 
+	 * @return bytes of stored values.
+	 */
+	public abstract long storedValueBytes();
+
+	/**
+	 * Copies every stored value into given off-heap arena and uses it for next
+	 * values. Values are only read from previous arena, so it can be released
+	 * afterwards.
+	 * 
+	 * @param offHeapArena
+	 */
+	public void relocateValues(OffHeapArena offHeapArena) {
+		setOffHeapArena(offHeapArena);
+		restoreValues();
+	}
+
+	/**
+	 * Replaces every stored value by a copy returned by
+	 * {@link #storeValue(ByteBuffer)}.
+	 */
+	protected abstract void restoreValues();
+
+	protected ByteBuffer storeValue(ByteBuffer value) {
+		return storeValue(ByteBuffer2ByteArrayConverter.toByteArray(value));
+	}
+
+	protected ByteBuffer storeValue(byte[] value) {
+		return offHeapArena == null ? wrap(value) : offHeapArena.allocate(value);
+	}
+
+	protected List<ByteBuffer> storeValues(byte[]... values) {
+
+		List<ByteBuffer> storedValues = new ArrayList<ByteBuffer>(values.length);
+
+		for (byte[] value : values) {
+			storedValues.add(storeValue(value));
+		}
+
+		return storedValues;
+	}
+
 	public long remainingTime(byte[] key) {
 		
 		if(timedoutState(key) == TtlState.NOT_EXPIRED) {
@@ -29,6 +88,13 @@ public abstract class ExpirationDatatypeOperations {
 		
 	}
 	
+	public long expirationTime(byte[] key) {
+		
+		Long expirationTime = expirationsInMillis.get(wrap(key));
+		return expirationTime == null ? NO_EXPIRATION : expirationTime;
+		
+	}
+	
 	public void addExpirationTime(byte[] key, long duration, TimeUnit unit) {
 
 		ByteBuffer wrappedKey = wrap(key);
@@ -82,6 +148,20 @@ public abstract class ExpirationDatatypeOperations {
 		return false;
 	}
 	
+	public void removeAllExpirations() {
+		this.expirationsInMillis.clear();
+	}
+	
+	public void moveTtlKey(byte[] key, ExpirationDatatypeOperations destination) {
+		
+		ByteBuffer wrappedKey = wrap(key);
+		
+		if(this.expirationsInMillis.containsKey(wrappedKey)) {
+			destination.expirationsInMillis.put(wrappedKey, this.expirationsInMillis.remove(wrappedKey));
+		}
+		
+	}
+	
 	public void renameTtlKey(byte[] oldKey, byte[] newKey) {
 		
 		ByteBuffer wrappedOldKey = wrap(oldKey);
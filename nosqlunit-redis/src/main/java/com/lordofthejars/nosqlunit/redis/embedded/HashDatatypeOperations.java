@@ -2,6 +2,7 @@ package com.lordofthejars.nosqlunit.redis.embedded;
 
 import static ch.lambdaj.Lambda.convert;
 import static com.lordofthejars.nosqlunit.redis.embedded.ByteArrayIncrement.incrementValue;
+import static com.lordofthejars.nosqlunit.redis.embedded.ByteBuffer2ByteArrayConverter.toByteArray;
 import static java.nio.ByteBuffer.wrap;
 
 import java.io.UnsupportedEncodingException;
@@ -42,7 +43,7 @@ public class HashDatatypeOperations extends ExpirationDatatypeOperations impleme
 	public Long hset(final byte[] key, final byte[] field, final byte[] value) {
 		long result = 0L;
 		
-		if(hashElements.put(wrap(key), wrap(field), wrap(value)) == null) {
+		if(hashElements.put(wrap(key), storeValue(field), storeValue(value)) == null) {
 			result = 1L;			
 		} 
 		
@@ -255,16 +256,10 @@ public class HashDatatypeOperations extends ExpirationDatatypeOperations impleme
 	}
 	
 	public void flushAllKeys() {
-		removeExpirations();
+		removeAllExpirations();
 		this.hashElements.clear();
 	}
 
-	private void removeExpirations() {
-		List<byte[]> keys = this.keys();
-		for (byte[] key : keys) {
-			this.removeExpiration(key);
-		}
-	}
 	
 	private Long setLongValue(final byte[] key, final byte[] field, final long value) {
 		try {
@@ -292,14 +287,14 @@ public class HashDatatypeOperations extends ExpirationDatatypeOperations impleme
 
 		final Map<byte[], byte[]> hash = new JedisByteHashMap();
 		for (Entry<ByteBuffer, ByteBuffer> entry : entrySet) {
-			hash.put(entry.getKey().array(), arrayValueOrNull(entry.getValue()));
+			hash.put(toByteArray(entry.getKey()), arrayValueOrNull(entry.getValue()));
 		}
 
 		return hash;
 	}
 
 	private byte[] arrayValueOrNull(ByteBuffer byteBuffer) {
-		return byteBuffer == null ? null : byteBuffer.array();
+		return byteBuffer == null ? null : toByteArray(byteBuffer);
 	}
 
 	private Collection<ByteBuffer> getAllFieldsValueByKey(final byte[] key) {
@@ -361,6 +356,26 @@ public class HashDatatypeOperations extends ExpirationDatatypeOperations impleme
 		return this.hashElements.containsRow(rowKey);
 	}
 
+	@Override
+	public boolean moveKey(byte[] key, RedisDatatypeOperations destination) {
+		ByteBuffer wrappedKey = wrap(key);
+		if(this.hashElements.containsRow(wrappedKey)) {
+			HashDatatypeOperations destinationHash = (HashDatatypeOperations) destination;
+			Map<ByteBuffer, ByteBuffer> row = this.hashElements.row(wrappedKey);
+			
+			for (Entry<ByteBuffer, ByteBuffer> entry : row.entrySet()) {
+				destinationHash.hashElements.put(wrappedKey, destinationHash.storeValue(toByteArray(entry.getKey())),
+						destinationHash.storeValue(toByteArray(entry.getValue())));
+			}
+			
+			deleteAllFields(wrappedKey);
+			moveTtlKey(key, destinationHash);
+			
+			return true;
+		}
+		return false;
+	}
+
 	@Override
 	public boolean renameKey(byte[] key, byte[] newKey) {
 		ByteBuffer wrappedKey = wrap(key);
@@ -388,5 +403,40 @@ public class HashDatatypeOperations extends ExpirationDatatypeOperations impleme
 		throw new UnsupportedOperationException();
 	}
 
-	
+	@Override
+	public long storedValueBytes() {
+
+		long storedValueBytes = 0L;
+
+		for (Table.Cell<ByteBuffer, ByteBuffer, ByteBuffer> cell : this.hashElements.cellSet()) {
+			storedValueBytes += cell.getColumnKey().remaining() + cell.getValue().remaining();
+		}
+
+		return storedValueBytes;
+	}
+
+	@Override
+	protected void restoreValues() {
+
+		Table<ByteBuffer, ByteBuffer, ByteBuffer> restoredHashElements = HashBasedTable.create();
+
+		for (Table.Cell<ByteBuffer, ByteBuffer, ByteBuffer> cell : this.hashElements.cellSet()) {
+			restoredHashElements.put(cell.getRowKey(), storeValue(cell.getColumnKey()), storeValue(cell.getValue()));
+		}
+
+		this.hashElements = restoredHashElements;
+	}
+
+	@Override
+	public long sizeOf(byte[] key) {
+		Map<ByteBuffer, ByteBuffer> row = this.hashElements.row(wrap(key));
+
+		if (row.isEmpty()) {
+			return 0L;
+		}
+
+		return MemoryUtils.keySize(key) + MemoryUtils.elementsSize(row.keySet())
+				+ MemoryUtils.elementsSize(row.values());
+	}
+
 }
@@ -8,11 +8,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.hamcrest.Matcher;
+
 import redis.clients.jedis.JedisMonitor;
 import redis.clients.jedis.SortingParams;
 import redis.clients.util.SafeEncoder;
@@ -25,61 +30,130 @@ public class KeysServerOperations {
 	protected static final String NONE = "none";
 	private static final String OK = "OK";
 	private static final String KO = "-";
+	private static final long DEFAULT_SLOWLOG_GET_ENTRIES = 10L;
+	private static final String DATABASES = "databases";
+	private static final String ALL_SECTIONS = "all";
+	private static final String DEFAULT_SECTION = "default";
+	private static final String MEMORY_SECTION = "memory";
+	private static final String STATS_SECTION = "stats";
+	private static final String COMMANDSTATS_SECTION = "commandstats";
+	private static final String LATENCYSTATS_SECTION = "latencystats";
+
 	private List<RedisDatatypeOperations> redisDatatypeOperations;
+	private List<List<RedisDatatypeOperations>> databases = new ArrayList<List<RedisDatatypeOperations>>();
+	private int selectedDatabase = 0;
+	private MemoryServerOperations memoryServerOperations;
+	private MonitorServerOperations monitorServerOperations;
+	private Map<String, String> configuration = new LinkedHashMap<String, String>();
 
 	private KeysServerOperations() {
 		super();
 	}
 
 	public static KeysServerOperations createKeysServerOperations(RedisDatatypeOperations... redisDatatypeOperations) {
+		return createKeysServerOperations(
+				MemoryServerOperations.createMemoryServerOperations(redisDatatypeOperations),
+				MonitorServerOperations.createMonitorServerOperations(), redisDatatypeOperations);
+	}
+
+	public static KeysServerOperations createKeysServerOperations(MemoryServerOperations memoryServerOperations,
+			MonitorServerOperations monitorServerOperations, RedisDatatypeOperations... redisDatatypeOperations) {
 
 		KeysServerOperations keysServerOperations = new KeysServerOperations();
 
 		keysServerOperations.redisDatatypeOperations = Arrays.asList(redisDatatypeOperations);
+		keysServerOperations.databases.add(keysServerOperations.redisDatatypeOperations);
+		keysServerOperations.memoryServerOperations = memoryServerOperations;
+		keysServerOperations.monitorServerOperations = monitorServerOperations;
 
 		return keysServerOperations;
 	}
 
 	/**
-	 * Return the number of keys in the currently selected database.
+	 * Sets the stores of given database, replacing current ones. Stores must
+	 * be given in the same order for every database.
 	 * 
-	 * @return Integer reply
+	 * @param index
+	 * @param redisDatatypeOperations
 	 */
-	public Long dbSize() {
+	public void setDatabase(int index, RedisDatatypeOperations... redisDatatypeOperations) {
 
-		long numberOfKeys = 0L;
+		List<RedisDatatypeOperations> database = Arrays.asList(redisDatatypeOperations);
 
-		for (RedisDatatypeOperations redisDatatypeOperations : this.redisDatatypeOperations) {
-			numberOfKeys += redisDatatypeOperations.getNumberOfKeys();
+		while (this.databases.size() <= index) {
+			this.databases.add(null);
 		}
 
-		return numberOfKeys;
+		this.databases.set(index, database);
+		this.memoryServerOperations.setKeyspace(index, redisDatatypeOperations);
+
+		if (index == this.selectedDatabase) {
+			this.redisDatatypeOperations = database;
+		}
 	}
 
 	/**
-	 * Delete all the keys of all the existing databases, not just the currently
-	 * selected one. This command never fails.
+	 * Select the DB with having the specified zero-based numeric index.
 	 * 
+	 * @param index
 	 * @return Status code reply
 	 */
-	public String flushAll() {
-		return flushDB();
+	public String select(final int index) {
+
+		checkDatabaseIndex(index);
+
+		this.selectedDatabase = index;
+		this.redisDatatypeOperations = this.databases.get(index);
+		this.memoryServerOperations.select(index);
+
+		return OK;
 	}
 
 	/**
-	 * Delete all the keys of the currently selected DB. This command never
-	 * fails.
+	 * Swaps two databases, so that immediately all the clients connected to a
+	 * given database will see the data of the other database, and the other
+	 * way around.
 	 * 
+	 * @param index1
+	 * @param index2
 	 * @return Status code reply
 	 */
-	public String flushDB() {
+	public String swapdb(final int index1, final int index2) {
+
+		checkDatabaseIndex(index1);
+		checkDatabaseIndex(index2);
+
+		List<RedisDatatypeOperations> database1 = this.databases.get(index1);
+		this.databases.set(index1, this.databases.get(index2));
+		this.databases.set(index2, database1);
+
+		this.memoryServerOperations.swapKeyspaces(index1, index2);
+
+		return select(this.selectedDatabase);
+	}
+
+	public int getSelectedDatabase() {
+		return selectedDatabase;
+	}
+
+	public int getNumberOfDatabases() {
+		return databases.size();
+	}
+
+	/**
+	 * Return the number of keys in the currently selected database.
+	 * 
+	 * @return Integer reply
+	 */
+	public Long dbSize() {
+
+		long numberOfKeys = 0L;
 
 		for (RedisDatatypeOperations redisDatatypeOperations : this.redisDatatypeOperations) {
-			redisDatatypeOperations.flushAllKeys();
+			numberOfKeys += redisDatatypeOperations.getNumberOfKeys();
 		}
 
-		return OK;
-
+		return numberOfKeys;
 	}
 
 	/**
@@ -100,6 +174,8 @@ public class KeysServerOperations {
 			numberOfRemovedelements += redisDatatypeOperations.del(keys);
 		}
 
+		this.memoryServerOperations.keysModified(keys);
+
 		return numberOfRemovedelements;
 
 	}
@@ -126,6 +202,12 @@ public class KeysServerOperations {
 
 	}
 
+	private void checkDatabaseIndex(int index) {
+		if (index < 0 || index >= this.databases.size()) {
+			throw new IllegalArgumentException("ERR DB index is out of range");
+		}
+	}
+
 	private RedisDatatypeOperations whereIsKey(byte[] key) {
 
 		for (RedisDatatypeOperations redisDatatypeOperations : this.redisDatatypeOperations) {
@@ -165,6 +247,8 @@ public class KeysServerOperations {
 			RedisDatatypeOperations oldKeyRepository = whereIsKey(oldKey);
 			oldKeyRepository.renameKey(oldKey, newKey);
 
+			this.memoryServerOperations.keysModified(oldKey, newKey);
+
 			return OK;
 		}
 
@@ -225,6 +309,7 @@ public class KeysServerOperations {
 
 		if (redisOperation != null) {
 			redisOperation.addExpirationTime(key, seconds, TimeUnit.SECONDS);
+			this.memoryServerOperations.keysModified(key);
 			return 1L;
 		} else {
 			return 0L;
@@ -268,6 +353,7 @@ public class KeysServerOperations {
 
 		if (redisOperation != null) {
 			redisOperation.addExpirationAt(key, unixTime, TimeUnit.SECONDS);
+			this.memoryServerOperations.keysModified(key);
 			return 1L;
 		} else {
 			return 0L;
@@ -333,6 +419,7 @@ public class KeysServerOperations {
 
 		for (RedisDatatypeOperations redisDatatypeOperations : this.redisDatatypeOperations) {
 			if (redisDatatypeOperations.removeExpiration(key)) {
+				this.memoryServerOperations.keysModified(key);
 				return 1L;
 			}
 		}
@@ -446,7 +533,48 @@ public class KeysServerOperations {
 
 	}
 
+	/**
+	 * Move the specified key from the currently selected DB to the specified
+	 * destination DB. Note that this command returns 1 only if the key was
+	 * successfully moved, and 0 if the target key was already there or if the
+	 * source key was not found at all, so it is possible to use MOVE as a
+	 * locking primitive.
+	 * 
+	 * @param key
+	 * @param dbIndex
+	 * @return Integer reply, specifically: 1 if the key was moved 0 if the key
+	 *         was not moved because already present on the target DB or was
+	 *         not found in the current DB.
+	 */
 	public Long move(final byte[] key, final int dbIndex) {
+
+		checkDatabaseIndex(dbIndex);
+
+		if (dbIndex == this.selectedDatabase) {
+			throw new IllegalArgumentException("ERR source and destination objects are the same");
+		}
+
+		updateTtl(key);
+
+		RedisDatatypeOperations source = whereIsKey(key);
+
+		if (source == null) {
+			return 0L;
+		}
+
+		List<RedisDatatypeOperations> destinationDatabase = this.databases.get(dbIndex);
+
+		for (RedisDatatypeOperations destination : destinationDatabase) {
+			if (destination.exists(key)) {
+				return 0L;
+			}
+		}
+
+		this.memoryServerOperations.keyMoved(key, dbIndex);
+
+		RedisDatatypeOperations destination = destinationDatabase.get(this.redisDatatypeOperations.indexOf(source));
+		source.moveKey(key, destination);
+
 		return 1L;
 	}
 
@@ -458,8 +586,27 @@ public class KeysServerOperations {
 		throw new UnsupportedOperationException("Object Encoding is not supported.");
 	}
 
-	public Long objectIdletime(byte[] string) {
-		throw new UnsupportedOperationException("Object Idel is not supported.");
+	/**
+	 * Returns the number of seconds since the object stored at the specified
+	 * key is idle (not requested by read or write operations).
+	 * 
+	 * @param key
+	 * @return Integer reply, idle time in seconds or null if key does not
+	 *         exist.
+	 */
+	public Long objectIdletime(byte[] key) {
+		return this.memoryServerOperations.objectIdletime(key);
+	}
+
+	/**
+	 * Returns the logarithmic access frequency counter of the object stored at
+	 * the specified key, as used by LFU eviction policies.
+	 * 
+	 * @param key
+	 * @return Integer reply, access frequency or null if key does not exist.
+	 */
+	public Long objectFreq(byte[] key) {
+		return this.memoryServerOperations.objectFreq(key);
 	}
 
 	/**
@@ -536,7 +683,24 @@ public class KeysServerOperations {
 	 * @return Bulk reply.
 	 */
 	public List<byte[]> configGet(final byte[] pattern) {
-		return new ArrayList<byte[]>();
+
+		Map<String, String> currentConfiguration = new LinkedHashMap<String, String>(
+				this.memoryServerOperations.configGet());
+		currentConfiguration.putAll(this.monitorServerOperations.configGet());
+		currentConfiguration.put(DATABASES, Integer.toString(this.databases.size()));
+		currentConfiguration.putAll(this.configuration);
+
+		Matcher<String> parameterMatcher = matches(SafeEncoder.encode(pattern));
+		List<byte[]> parametersAndValues = new ArrayList<byte[]>();
+
+		for (Entry<String, String> parameter : currentConfiguration.entrySet()) {
+			if (parameterMatcher.matches(parameter.getKey())) {
+				parametersAndValues.add(SafeEncoder.encode(parameter.getKey()));
+				parametersAndValues.add(SafeEncoder.encode(parameter.getValue()));
+			}
+		}
+
+		return parametersAndValues;
 	}
 
 
@@ -575,6 +739,15 @@ public class KeysServerOperations {
 	 * @return Status code reply
 	 */
 	public byte[] configSet(final byte[] parameter, final byte[] value) {
+
+		String parameterName = SafeEncoder.encode(parameter);
+		String parameterValue = SafeEncoder.encode(value);
+
+		if (!this.memoryServerOperations.configSet(parameterName, parameterValue)
+				&& !this.monitorServerOperations.configSet(parameterName, parameterValue)) {
+			this.configuration.put(parameterName.toLowerCase(), parameterValue);
+		}
+
 		return "OK".getBytes();
 	}
 
@@ -584,6 +757,8 @@ public class KeysServerOperations {
 	 * @return
 	 */
 	public String configResetStat() {
+		this.memoryServerOperations.resetStat();
+		this.monitorServerOperations.resetStat();
 		return "OK";
 	}
 
@@ -625,10 +800,50 @@ public class KeysServerOperations {
 	 * dataset.
 	 * <p>
 	 * 
+	 * Because Jedis offers no way to ask for a section, every section is
+	 * returned, including commandstats and latencystats.
+	 * 
 	 * @return Bulk reply
 	 */
 	public String info() {
-		return "Embedded Jedis";
+		return info(ALL_SECTIONS);
+	}
+
+	/**
+	 * Provide information and statistics about the server, only returning the
+	 * given section. Supported sections are memory, stats, commandstats and
+	 * latencystats. Default returns memory and stats, and all returns every
+	 * section.
+	 * 
+	 * @param section
+	 * @return Bulk reply
+	 */
+	public String info(final String section) {
+
+		String normalizedSection = section.toLowerCase();
+		boolean everySection = ALL_SECTIONS.equals(normalizedSection);
+		boolean allSections = everySection || DEFAULT_SECTION.equals(normalizedSection);
+
+		StringBuilder info = new StringBuilder();
+
+		if (allSections || MEMORY_SECTION.equals(normalizedSection)) {
+			info.append(this.memoryServerOperations.memoryInfo()).append("\r\n");
+		}
+
+		if (allSections || STATS_SECTION.equals(normalizedSection)) {
+			info.append(this.memoryServerOperations.statsInfo());
+			info.append(this.monitorServerOperations.statsInfo()).append("\r\n");
+		}
+
+		if (everySection || COMMANDSTATS_SECTION.equals(normalizedSection)) {
+			info.append(this.monitorServerOperations.commandstatsInfo()).append("\r\n");
+		}
+
+		if (everySection || LATENCYSTATS_SECTION.equals(normalizedSection)) {
+			info.append(this.monitorServerOperations.latencystatsInfo()).append("\r\n");
+		}
+
+		return info.toString();
 	}
 
 	/**
@@ -654,10 +869,19 @@ public class KeysServerOperations {
 	 * understand what is happening into the database. This command is used
 	 * directly via telnet.
 	 * 
+	 * <p>
+	 * Embedded instance does not block the caller, given monitor is registered
+	 * and receives every following command until
+	 * {@link #unmonitor(JedisMonitor)} is called.
+	 * 
 	 * @param jedisMonitor
 	 */
 	public void monitor(final JedisMonitor jedisMonitor) {
+		this.monitorServerOperations.addMonitor(jedisMonitor);
+	}
 
+	public void unmonitor(final JedisMonitor jedisMonitor) {
+		this.monitorServerOperations.removeMonitor(jedisMonitor);
 	}
 
 	/**
@@ -709,28 +933,50 @@ public class KeysServerOperations {
 		return OK;
 	}
 
+	/**
+	 * Returns the latest slow commands, see {@link #slowlogGet(long)}.
+	 * 
+	 * @return slow commands, newest first.
+	 */
 	public List<Slowlog> slowlogGet() {
-		return new ArrayList<Slowlog>();
+		return slowlogGet(DEFAULT_SLOWLOG_GET_ENTRIES);
 	}
 
+	/**
+	 * Returns given number of latest slow commands. A command is slow when its
+	 * execution takes at least slowlog-log-slower-than microseconds, and only
+	 * last slowlog-max-len slow commands are kept.
+	 * 
+	 * @param entries
+	 *            number of entries, negative number returns all of them.
+	 * @return slow commands, newest first.
+	 */
 	public List<Slowlog> slowlogGet(long entries) {
-		return new ArrayList<Slowlog>();
+		return this.monitorServerOperations.slowlogGet(entries);
 	}
 
 	public byte[] slowlogReset() {
+		this.monitorServerOperations.slowlogReset();
 		return "OK".getBytes();
 	}
 
 	public long slowlogLen() {
-		return 0L;
+		return this.monitorServerOperations.slowlogLen();
 	}
 
 	public List<byte[]> slowlogGetBinary() {
-		return new ArrayList<byte[]>();
+		return slowlogGetBinary(DEFAULT_SLOWLOG_GET_ENTRIES);
 	}
 
+	/**
+	 * Each element of the returned list is a slowlog entry encoded as a Redis
+	 * protocol multi bulk reply (id, timestamp, duration and arguments).
+	 * 
+	 * @param entries
+	 * @return encoded slowlog entries.
+	 */
 	public List<byte[]> slowlogGetBinary(long entries) {
-		return new ArrayList<byte[]>();
+		return this.monitorServerOperations.slowlogBinaryEntries(entries);
 	}
 
 	public void sync() {
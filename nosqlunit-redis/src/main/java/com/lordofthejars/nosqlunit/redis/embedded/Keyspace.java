@@ -0,0 +1,194 @@
+package com.lordofthejars.nosqlunit.redis.embedded;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Groups the stores of every datatype of one logical database.
+ * <p>
+ * Flushing a database replaces its keyspace with an empty one, so the old
+ * keyspace can be cleared in background without blocking next commands. Once
+ * cleared, its off-heap arena is reset and handed to next empty keyspace of
+ * the same database, so repeated flushes reuse at most two arenas.
+ * <p>
+ * Arena is also replaced when most of its bytes belong to overwritten or
+ * removed values, by copying live values into a new one.
+ */
+public class Keyspace {
+
+	private static final ExecutorService RECLAIMER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "embedded-redis-keyspace-reclaimer");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private HashDatatypeOperations hashDatatypeOperations = new HashDatatypeOperations();
+	private ListDatatypeOperations listDatatypeOperations = new ListDatatypeOperations();
+	private SetDatatypeOperations setDatatypeOperations = new SetDatatypeOperations();
+	private SortsetDatatypeOperations sortsetDatatypeOperations = new SortsetDatatypeOperations();
+	private StringDatatypeOperations stringDatatypeOperations = new StringDatatypeOperations();
+
+	private OffHeapArena offHeapArena;
+	private Queue<OffHeapArena> reclaimedOffHeapArenas = new ConcurrentLinkedQueue<OffHeapArena>();
+
+	private Keyspace() {
+		super();
+	}
+
+	public static Keyspace createKeyspace() {
+		return new Keyspace();
+	}
+
+	/**
+	 * Creates a keyspace which stores values into given off-heap arena.
+	 *
+	 * @param offHeapArena
+	 *            arena used only by this keyspace, or null to store values on
+	 *            heap.
+	 * @return keyspace.
+	 */
+	public static Keyspace createKeyspace(OffHeapArena offHeapArena) {
+
+		Keyspace keyspace = new Keyspace();
+		keyspace.offHeapArena = offHeapArena;
+
+		for (RedisDatatypeOperations redisDatatypeOperations : keyspace.getRedisDatatypeOperations()) {
+			((ExpirationDatatypeOperations) redisDatatypeOperations).setOffHeapArena(offHeapArena);
+		}
+
+		return keyspace;
+	}
+
+	/**
+	 * Returns an empty keyspace configured like this one. Its off-heap arena is
+	 * one already reclaimed from a previous keyspace of the same database, or
+	 * a new one if none has been reclaimed yet.
+	 *
+	 * @return empty keyspace.
+	 */
+	public Keyspace createEmptyKeyspace() {
+
+		if (offHeapArena == null) {
+			return createKeyspace();
+		}
+
+		Keyspace emptyKeyspace = createKeyspace(emptyOffHeapArena());
+		emptyKeyspace.reclaimedOffHeapArenas = reclaimedOffHeapArenas;
+
+		return emptyKeyspace;
+	}
+
+	/**
+	 * Copies live values into an empty off-heap arena when dead bytes of
+	 * overwritten or removed values exceed live ones. Live bytes are only
+	 * counted when arena has grown enough since last check. It must be called
+	 * between commands, when no value is being stored.
+	 */
+	public void compactOffHeapArenaIfNeeded() {
+
+		if (offHeapArena == null || !offHeapArena.isCompactionCheckDue()) {
+			return;
+		}
+
+		long liveBytes = 0L;
+
+		for (RedisDatatypeOperations redisDatatypeOperations : getRedisDatatypeOperations()) {
+			liveBytes += ((ExpirationDatatypeOperations) redisDatatypeOperations).storedValueBytes();
+		}
+
+		if (offHeapArena.getAllocatedBytes() - liveBytes > liveBytes) {
+
+			OffHeapArena compactedOffHeapArena = emptyOffHeapArena();
+
+			for (RedisDatatypeOperations redisDatatypeOperations : getRedisDatatypeOperations()) {
+				((ExpirationDatatypeOperations) redisDatatypeOperations).relocateValues(compactedOffHeapArena);
+			}
+
+			offHeapArena = compactedOffHeapArena;
+		}
+
+		offHeapArena.scheduleCompactionCheck(liveBytes);
+	}
+
+	/**
+	 * Removes all keys in background. Keyspace must not be used anymore.
+	 *
+	 * @return future completed when keyspace has been reclaimed.
+	 */
+	public Future<?> reclaimAsynchronously() {
+		return RECLAIMER.submit(new Runnable() {
+
+			@Override
+			public void run() {
+				reclaim();
+			}
+		});
+	}
+
+	/**
+	 * Returns stores of this keyspace, always in the same order so stores of
+	 * different keyspaces can be matched by position.
+	 *
+	 * @return stores.
+	 */
+	public RedisDatatypeOperations[] getRedisDatatypeOperations() {
+		return new RedisDatatypeOperations[] { hashDatatypeOperations, listDatatypeOperations,
+				setDatatypeOperations, sortsetDatatypeOperations, stringDatatypeOperations };
+	}
+
+	public HashDatatypeOperations getHashDatatypeOperations() {
+		return hashDatatypeOperations;
+	}
+
+	public ListDatatypeOperations getListDatatypeOperations() {
+		return listDatatypeOperations;
+	}
+
+	public SetDatatypeOperations getSetDatatypeOperations() {
+		return setDatatypeOperations;
+	}
+
+	public SortsetDatatypeOperations getSortsetDatatypeOperations() {
+		return sortsetDatatypeOperations;
+	}
+
+	public StringDatatypeOperations getStringDatatypeOperations() {
+		return stringDatatypeOperations;
+	}
+
+	public OffHeapArena getOffHeapArena() {
+		return offHeapArena;
+	}
+
+	private OffHeapArena emptyOffHeapArena() {
+
+		OffHeapArena emptyOffHeapArena = reclaimedOffHeapArenas.poll();
+
+		if (emptyOffHeapArena == null) {
+			emptyOffHeapArena = OffHeapArena.createOffHeapArena(offHeapArena.getSlabSize());
+		}
+
+		return emptyOffHeapArena;
+	}
+
+	private void reclaim() {
+
+		for (RedisDatatypeOperations redisDatatypeOperations : getRedisDatatypeOperations()) {
+			redisDatatypeOperations.flushAllKeys();
+		}
+
+		if (offHeapArena != null) {
+			offHeapArena.reset();
+			reclaimedOffHeapArenas.offer(offHeapArena);
+		}
+	}
+
+}
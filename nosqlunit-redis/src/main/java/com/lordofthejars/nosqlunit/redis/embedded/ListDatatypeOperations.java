@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.redis.embedded;
 
 import static ch.lambdaj.Lambda.convert;
+import static com.lordofthejars.nosqlunit.redis.embedded.ByteBuffer2ByteArrayConverter.toByteArray;
 import static java.nio.ByteBuffer.wrap;
 
 import java.nio.ByteBuffer;
@@ -146,7 +147,7 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 			int index = this.blockingMultimap.indexOf(wrappedKey, wrap(pivot));
 
 			if (isPivotFound(index)) {
-				this.blockingMultimap.addElementAt(wrappedKey, wrap(value), calculateIndexPosition(index, where));
+				this.blockingMultimap.addElementAt(wrappedKey, storeValue(value), calculateIndexPosition(index, where));
 				return (long) this.blockingMultimap.size(wrappedKey);
 			}
 			return -1L;
@@ -172,7 +173,7 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 	public byte[] lpop(final byte[] key) {
 
 		ByteBuffer polledElement = this.blockingMultimap.pollFirst(wrap(key));
-		return polledElement == null ? null : polledElement.array();
+		return polledElement == null ? null : toByteArray(polledElement);
 
 	}
 
@@ -192,7 +193,7 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 	public byte[] rpop(final byte[] key) {
 
 		ByteBuffer polledElement = this.blockingMultimap.pollLast(wrap(key));
-		return polledElement == null ? null : polledElement.array();
+		return polledElement == null ? null : toByteArray(polledElement);
 	}
 
 	/**
@@ -240,7 +241,7 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 
 		try {
 			this.blockingMultimap.remove(wrappedKey, realIndex);
-			ByteBuffer insertedValue = this.blockingMultimap.addElementAt(wrappedKey, wrap(value), realIndex);
+			ByteBuffer insertedValue = this.blockingMultimap.addElementAt(wrappedKey, storeValue(value), realIndex);
 			
 			if(insertedValue == null) {
 				return KO;
@@ -288,7 +289,7 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 	public byte[] lindex(final byte[] key, final int index) {
 
 		ByteBuffer elementAtIndex = this.blockingMultimap.getElement(wrap(key), index);
-		return elementAtIndex == null ? null : elementAtIndex.array();
+		return elementAtIndex == null ? null : toByteArray(elementAtIndex);
 
 	}
 
@@ -397,7 +398,7 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 	 */
 	public Long lpush(final byte[] key, final byte[]... values) {
 
-		Collection<ByteBuffer> elements = convert(values, new ByteArray2ByteBufferConverter());
+		Collection<ByteBuffer> elements = storeValues(values);
 
 		this.blockingMultimap.putFirst(wrap(key), elements);
 		return (long) blockingMultimap.size(wrap(key));
@@ -490,7 +491,7 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 	 */
 	public Long rpush(final byte[] key, final byte[]... values) {
 
-		Collection<ByteBuffer> elements = convert(values, new ByteArray2ByteBufferConverter());
+		Collection<ByteBuffer> elements = storeValues(values);
 
 		this.blockingMultimap.putLast(wrap(key), elements);
 		return (long) blockingMultimap.size(wrap(key));
@@ -594,16 +595,10 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 	}
 
 	public void flushAllKeys() {
-		removeExpirations();
+		removeAllExpirations();
 		this.blockingMultimap.clear();
 	}
 
-	private void removeExpirations() {
-		List<byte[]> keys = this.keys();
-		for (byte[] key : keys) {
-			this.removeExpiration(key);
-		}
-	}
 	
 	private long removeFirstElements(final int count, ByteBuffer wrappedKey, ByteBuffer wrappedValue) {
 
@@ -692,8 +687,8 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 				if (membersOfKey != null) {
 
 					List<byte[]> keyMember = new ArrayList<byte[]>();
-					keyMember.add(elements.getKey().array());
-					keyMember.add(membersOfKey.array());
+					keyMember.add(toByteArray(elements.getKey()));
+					keyMember.add(toByteArray(membersOfKey));
 
 					return keyMember;
 				} else {
@@ -843,6 +838,29 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 		return this.blockingMultimap.containsKey(wrap(key));
 	}
 
+	@Override
+	public boolean moveKey(byte[] key, RedisDatatypeOperations destination) {
+		ByteBuffer wrappedKey = wrap(key);
+
+		if (this.blockingMultimap.containsKey(wrappedKey)) {
+			ListDatatypeOperations destinationList = (ListDatatypeOperations) destination;
+			List<ByteBuffer> elements = new ArrayList<ByteBuffer>();
+
+			for (ByteBuffer element : this.blockingMultimap.elements(wrappedKey)) {
+				elements.add(destinationList.storeValue(toByteArray(element)));
+			}
+
+			destinationList.blockingMultimap.putLast(wrappedKey, elements);
+			this.blockingMultimap.clear(wrappedKey);
+
+			moveTtlKey(key, destinationList);
+
+			return true;
+		}
+
+		return false;
+	}
+
 	@Override
 	public boolean renameKey(byte[] key, byte[] newKey) {
 		ByteBuffer wrappedKey = wrap(key);
@@ -891,4 +909,45 @@ public class ListDatatypeOperations extends ExpirationDatatypeOperations impleme
 				DoubleToStringByteArrayConverter.createDoubleToStringByteArrayConverter()));
 	}
 
+	@Override
+	public long storedValueBytes() {
+
+		long storedValueBytes = 0L;
+
+		for (ByteBuffer key : this.blockingMultimap.keySet()) {
+			for (ByteBuffer element : this.blockingMultimap.elements(key)) {
+				storedValueBytes += element.remaining();
+			}
+		}
+
+		return storedValueBytes;
+	}
+
+	@Override
+	protected void restoreValues() {
+
+		for (ByteBuffer key : this.blockingMultimap.keySet()) {
+
+			Collection<ByteBuffer> elements = this.blockingMultimap.elements(key);
+			List<ByteBuffer> restoredElements = new ArrayList<ByteBuffer>(elements.size());
+
+			for (ByteBuffer element : elements) {
+				restoredElements.add(storeValue(element));
+			}
+
+			this.blockingMultimap.replaceValues(key, restoredElements);
+		}
+	}
+
+	@Override
+	public long sizeOf(byte[] key) {
+		ByteBuffer wrappedKey = wrap(key);
+
+		if (!this.blockingMultimap.containsKey(wrappedKey)) {
+			return 0L;
+		}
+
+		return MemoryUtils.keySize(key) + MemoryUtils.elementsSize(this.blockingMultimap.elements(wrappedKey));
+	}
+
 }
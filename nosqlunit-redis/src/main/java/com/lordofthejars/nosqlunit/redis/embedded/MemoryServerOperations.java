@@ -0,0 +1,737 @@
+package com.lordofthejars.nosqlunit.redis.embedded;
+
+import static java.nio.ByteBuffer.wrap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of the memory used by each key and of how keys are accessed, so
+ * embedded instances can honor maxmemory using the same approximated eviction
+ * algorithms as Redis: a few random keys are sampled and the best candidate
+ * according to the configured policy is evicted, until used memory goes below
+ * the limit again.
+ * <p>
+ * Sizes are measured lazily. Every key touched by a command is marked dirty
+ * and measured again before the next eviction check or memory report. Without
+ * maxmemory no eviction check drains them, so dirty keys are also measured in
+ * batches of {@value #MAX_DIRTY_KEYS}, keeping accounting memory proportional
+ * to the number of keys at an amortized constant cost per command.
+ */
+public class MemoryServerOperations {
+
+	protected static final String MAXMEMORY = "maxmemory";
+	protected static final String MAXMEMORY_POLICY = "maxmemory-policy";
+	protected static final String MAXMEMORY_SAMPLES = "maxmemory-samples";
+	protected static final String LFU_LOG_FACTOR = "lfu-log-factor";
+	protected static final String LFU_DECAY_TIME = "lfu-decay-time";
+
+	private static final int DEFAULT_MAXMEMORY_SAMPLES = 5;
+	private static final int DEFAULT_LFU_LOG_FACTOR = 10;
+	private static final int DEFAULT_LFU_DECAY_TIME = 1;
+
+	static final int MAX_DIRTY_KEYS = 1024;
+
+	private static final String OOM_ERROR = "OOM command not allowed when used memory > 'maxmemory'.";
+
+	private static final int LFU_INIT_VAL = 5;
+	private static final int LFU_MAX_VAL = 255;
+
+	public enum MaxmemoryPolicy {
+
+		NOEVICTION("noeviction", false), ALLKEYS_LRU("allkeys-lru", false), VOLATILE_LRU("volatile-lru", true), ALLKEYS_LFU(
+				"allkeys-lfu", false), VOLATILE_LFU("volatile-lfu", true), ALLKEYS_RANDOM("allkeys-random", false), VOLATILE_RANDOM(
+				"volatile-random", true), VOLATILE_TTL("volatile-ttl", true);
+
+		private String policyName;
+		private boolean onlyVolatileKeys;
+
+		private MaxmemoryPolicy(String policyName, boolean onlyVolatileKeys) {
+			this.policyName = policyName;
+			this.onlyVolatileKeys = onlyVolatileKeys;
+		}
+
+		public String getPolicyName() {
+			return policyName;
+		}
+
+		public boolean isOnlyVolatileKeys() {
+			return onlyVolatileKeys;
+		}
+
+		public static MaxmemoryPolicy fromPolicyName(String policyName) {
+
+			for (MaxmemoryPolicy maxmemoryPolicy : values()) {
+				if (maxmemoryPolicy.policyName.equalsIgnoreCase(policyName)) {
+					return maxmemoryPolicy;
+				}
+			}
+
+			throw new IllegalArgumentException("ERR Invalid argument '" + policyName + "' for CONFIG SET '"
+					+ MAXMEMORY_POLICY + "'");
+		}
+
+	}
+
+	private List<KeyspaceMemory> keyspaces = new ArrayList<KeyspaceMemory>();
+	private KeyspaceMemory selectedKeyspace;
+
+	private long maxmemory = 0L;
+	private MaxmemoryPolicy maxmemoryPolicy = MaxmemoryPolicy.NOEVICTION;
+	private int maxmemorySamples = DEFAULT_MAXMEMORY_SAMPLES;
+	private int lfuLogFactor = DEFAULT_LFU_LOG_FACTOR;
+	private int lfuDecayTime = DEFAULT_LFU_DECAY_TIME;
+
+	private long usedMemory = 0L;
+	private long usedMemoryPeak = 0L;
+	private long evictedKeys = 0L;
+
+	private Random random = new Random();
+
+	private MemoryServerOperations() {
+		super();
+	}
+
+	public static MemoryServerOperations createMemoryServerOperations(
+			RedisDatatypeOperations... redisDatatypeOperations) {
+
+		MemoryServerOperations memoryServerOperations = new MemoryServerOperations();
+		memoryServerOperations.setKeyspace(0, redisDatatypeOperations);
+		memoryServerOperations.select(0);
+
+		return memoryServerOperations;
+	}
+
+	/**
+	 * Starts tracking keys of given database, forgetting keys previously
+	 * tracked for it. Used memory of all databases counts against maxmemory.
+	 *
+	 * @param index
+	 * @param redisDatatypeOperations
+	 *            stores of the database.
+	 */
+	public void setKeyspace(int index, RedisDatatypeOperations... redisDatatypeOperations) {
+
+		KeyspaceMemory keyspace = new KeyspaceMemory(Arrays.asList(redisDatatypeOperations));
+
+		while (keyspaces.size() <= index) {
+			keyspaces.add(null);
+		}
+
+		KeyspaceMemory previousKeyspace = keyspaces.set(index, keyspace);
+
+		if (previousKeyspace != null) {
+			usedMemory -= previousKeyspace.usedMemory;
+		}
+
+		if (selectedKeyspace == previousKeyspace) {
+			selectedKeyspace = keyspace;
+		}
+	}
+
+	/**
+	 * Sets the database affected by next key commands.
+	 *
+	 * @param index
+	 */
+	public void select(int index) {
+		this.selectedKeyspace = keyspaces.get(index);
+	}
+
+	public void swapKeyspaces(int index1, int index2) {
+		KeyspaceMemory keyspace1 = keyspaces.get(index1);
+		keyspaces.set(index1, keyspaces.get(index2));
+		keyspaces.set(index2, keyspace1);
+	}
+
+	/**
+	 * Registers that given key has been moved from selected database to given
+	 * one, keeping its access history.
+	 *
+	 * @param key
+	 * @param index
+	 *            destination database.
+	 */
+	public void keyMoved(byte[] key, int index) {
+
+		ByteBuffer wrappedKey = wrap(key);
+		KeyspaceMemory destinationKeyspace = keyspaces.get(index);
+
+		KeyEntry keyEntry = selectedKeyspace.keyEntries.get(wrappedKey);
+		KeyEntry replacedKeyEntry = destinationKeyspace.keyEntries.get(wrappedKey);
+
+		if (replacedKeyEntry != null) {
+			forget(replacedKeyEntry);
+		}
+
+		selectedKeyspace.dirtyKeys.remove(wrappedKey);
+
+		if (keyEntry != null) {
+			forget(keyEntry);
+
+			keyEntry.keyspace = destinationKeyspace;
+			keyEntry.size = 0L;
+			keyEntry.volatileIndex = -1;
+			destinationKeyspace.track(keyEntry);
+		}
+
+		markDirty(destinationKeyspace, wrappedKey);
+	}
+
+	/**
+	 * Registers an access to given key, updating its LRU clock and LFU
+	 * counter, after evicting keys if memory is over maxmemory. It should be
+	 * called before executing any command which reads or writes the key.
+	 *
+	 * @param key
+	 */
+	public void lookupKey(byte[] key) {
+
+		evictIfNeeded();
+
+		ByteBuffer wrappedKey = wrap(key);
+
+		KeyEntry keyEntry = selectedKeyspace.keyEntries.get(wrappedKey);
+
+		if (keyEntry == null) {
+			selectedKeyspace.track(new KeyEntry(selectedKeyspace, wrappedKey));
+		} else {
+			keyEntry.access();
+		}
+
+		markDirty(selectedKeyspace, wrappedKey);
+	}
+
+	/**
+	 * Marks given keys as modified without counting it as an access, so their
+	 * size and expiration are refreshed on next accounting.
+	 *
+	 * @param keys
+	 */
+	public void keysModified(byte[]... keys) {
+		for (byte[] key : keys) {
+			markDirty(selectedKeyspace, wrap(key));
+		}
+	}
+
+	/**
+	 * Registers an access to given key like {@link #lookupKey(byte[])}, for a
+	 * command which may increase used memory. As Redis does, command is
+	 * rejected when memory is still over maxmemory after evicting keys, which
+	 * always happens with noeviction policy, or with a volatile policy when no
+	 * key has an expiration.
+	 *
+	 * @param key
+	 * @throws IllegalStateException
+	 *             if used memory cannot be lowered below maxmemory.
+	 */
+	public void lookupKeyForWrite(byte[] key) {
+
+		if (!evictIfNeeded()) {
+			throw new IllegalStateException(OOM_ERROR);
+		}
+
+		lookupKey(key);
+	}
+
+	/**
+	 * Evicts keys following configured policy until used memory is lower than
+	 * maxmemory. If maxmemory is 0 nothing is done.
+	 *
+	 * @return false if used memory is still over maxmemory because there are
+	 *         no keys which can be evicted, true otherwise.
+	 */
+	public boolean evictIfNeeded() {
+
+		if (maxmemory == 0) {
+			return true;
+		}
+
+		updateUsedMemory();
+
+		while (usedMemory > maxmemory) {
+
+			KeyEntry victim = selectVictim();
+
+			if (victim == null) {
+				return false;
+			}
+
+			evict(victim);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the estimated number of bytes used by all keys and values.
+	 *
+	 * @return used memory in bytes.
+	 */
+	public long usedMemory() {
+		updateUsedMemory();
+		return usedMemory;
+	}
+
+	/**
+	 * Returns the estimated number of bytes used by given key and its value.
+	 *
+	 * @param key
+	 * @return used memory in bytes or 0 if key does not exist.
+	 */
+	public long usedMemory(byte[] key) {
+		updateUsedMemory();
+
+		KeyEntry keyEntry = selectedKeyspace.keyEntries.get(wrap(key));
+		return keyEntry == null ? 0L : keyEntry.size;
+	}
+
+	/**
+	 * Returns the number of seconds since the object stored at the specified
+	 * key was last accessed.
+	 *
+	 * @param key
+	 * @return idle time in seconds or null if key does not exist.
+	 */
+	public Long objectIdletime(byte[] key) {
+
+		updateUsedMemory();
+
+		KeyEntry keyEntry = selectedKeyspace.keyEntries.get(wrap(key));
+
+		if (keyEntry == null) {
+			return null;
+		}
+
+		return TimeUnit.MILLISECONDS.toSeconds(keyEntry.idleTime());
+	}
+
+	/**
+	 * Returns the logarithmic access frequency counter of the object stored at
+	 * the specified key.
+	 *
+	 * @param key
+	 * @return access frequency or null if key does not exist.
+	 */
+	public Long objectFreq(byte[] key) {
+
+		updateUsedMemory();
+
+		KeyEntry keyEntry = selectedKeyspace.keyEntries.get(wrap(key));
+
+		if (keyEntry == null) {
+			return null;
+		}
+
+		return (long) keyEntry.decayedFrequency();
+	}
+
+	public Map<String, String> configGet() {
+
+		Map<String, String> configuration = new LinkedHashMap<String, String>();
+
+		configuration.put(MAXMEMORY, Long.toString(maxmemory));
+		configuration.put(MAXMEMORY_POLICY, maxmemoryPolicy.getPolicyName());
+		configuration.put(MAXMEMORY_SAMPLES, Integer.toString(maxmemorySamples));
+		configuration.put(LFU_LOG_FACTOR, Integer.toString(lfuLogFactor));
+		configuration.put(LFU_DECAY_TIME, Integer.toString(lfuDecayTime));
+
+		return configuration;
+	}
+
+	/**
+	 * Sets a memory related configuration parameter.
+	 *
+	 * @param parameter
+	 * @param value
+	 * @return true if parameter is a memory parameter, false otherwise.
+	 */
+	public boolean configSet(String parameter, String value) {
+
+		String normalizedParameter = parameter.toLowerCase();
+
+		if (MAXMEMORY.equals(normalizedParameter)) {
+			this.maxmemory = MemoryUtils.parseMemory(value);
+			evictIfNeeded();
+			return true;
+		}
+
+		if (MAXMEMORY_POLICY.equals(normalizedParameter)) {
+			this.maxmemoryPolicy = MaxmemoryPolicy.fromPolicyName(value);
+			return true;
+		}
+
+		if (MAXMEMORY_SAMPLES.equals(normalizedParameter)) {
+			this.maxmemorySamples = parsePositiveInteger(parameter, value);
+			return true;
+		}
+
+		if (LFU_LOG_FACTOR.equals(normalizedParameter)) {
+			this.lfuLogFactor = parsePositiveInteger(parameter, value);
+			return true;
+		}
+
+		if (LFU_DECAY_TIME.equals(normalizedParameter)) {
+			this.lfuDecayTime = parsePositiveInteger(parameter, value);
+			return true;
+		}
+
+		return false;
+	}
+
+	public void resetStat() {
+		this.evictedKeys = 0L;
+		this.usedMemoryPeak = usedMemory();
+	}
+
+	public String memoryInfo() {
+
+		long currentUsedMemory = usedMemory();
+
+		StringBuilder info = new StringBuilder();
+		info.append("# Memory").append("\r\n");
+		info.append("used_memory:").append(currentUsedMemory).append("\r\n");
+		info.append("used_memory_human:").append(MemoryUtils.toHuman(currentUsedMemory)).append("\r\n");
+		info.append("used_memory_peak:").append(usedMemoryPeak).append("\r\n");
+		info.append("used_memory_peak_human:").append(MemoryUtils.toHuman(usedMemoryPeak)).append("\r\n");
+		info.append("maxmemory:").append(maxmemory).append("\r\n");
+		info.append("maxmemory_human:").append(MemoryUtils.toHuman(maxmemory)).append("\r\n");
+		info.append("maxmemory_policy:").append(maxmemoryPolicy.getPolicyName()).append("\r\n");
+
+		return info.toString();
+	}
+
+	public String statsInfo() {
+
+		StringBuilder info = new StringBuilder();
+		info.append("# Stats").append("\r\n");
+		info.append("evicted_keys:").append(evictedKeys).append("\r\n");
+
+		return info.toString();
+	}
+
+	public long getEvictedKeys() {
+		return evictedKeys;
+	}
+
+	public long getMaxmemory() {
+		return maxmemory;
+	}
+
+	public MaxmemoryPolicy getMaxmemoryPolicy() {
+		return maxmemoryPolicy;
+	}
+
+	int getNumberOfDirtyKeys() {
+
+		int numberOfDirtyKeys = 0;
+
+		for (KeyspaceMemory keyspace : keyspaces) {
+			if (keyspace != null) {
+				numberOfDirtyKeys += keyspace.dirtyKeys.size();
+			}
+		}
+
+		return numberOfDirtyKeys;
+	}
+
+	/*
+	 * Pending keys are measured before marking the new one, as it is marked
+	 * before the command writes it.
+	 */
+	private void markDirty(KeyspaceMemory keyspace, ByteBuffer wrappedKey) {
+
+		if (keyspace.dirtyKeys.size() >= MAX_DIRTY_KEYS) {
+			updateUsedMemory();
+		}
+
+		keyspace.dirtyKeys.add(wrappedKey);
+	}
+
+	private void updateUsedMemory() {
+
+		for (KeyspaceMemory keyspace : keyspaces) {
+
+			if (keyspace == null || keyspace.dirtyKeys.isEmpty()) {
+				continue;
+			}
+
+			for (ByteBuffer dirtyKey : keyspace.dirtyKeys) {
+				measureKey(keyspace, dirtyKey);
+			}
+
+			keyspace.dirtyKeys.clear();
+		}
+
+		if (usedMemory > usedMemoryPeak) {
+			usedMemoryPeak = usedMemory;
+		}
+	}
+
+	private void measureKey(KeyspaceMemory keyspace, ByteBuffer wrappedKey) {
+
+		byte[] key = wrappedKey.array();
+
+		long size = 0L;
+		long expirationTime = ExpirationDatatypeOperations.NO_EXPIRATION;
+
+		for (RedisDatatypeOperations redisDatatypeOperations : keyspace.redisDatatypeOperations) {
+			size += redisDatatypeOperations.sizeOf(key);
+
+			long keyExpirationTime = redisDatatypeOperations.expirationTime(key);
+			if (keyExpirationTime != ExpirationDatatypeOperations.NO_EXPIRATION) {
+				expirationTime = keyExpirationTime;
+			}
+		}
+
+		KeyEntry keyEntry = keyspace.keyEntries.get(wrappedKey);
+
+		if (size == 0) {
+			if (keyEntry != null) {
+				forget(keyEntry);
+			}
+			return;
+		}
+
+		if (keyEntry == null) {
+			keyEntry = new KeyEntry(keyspace, wrappedKey);
+			keyspace.track(keyEntry);
+		}
+
+		long sizeDifference = size - keyEntry.size;
+		usedMemory += sizeDifference;
+		keyspace.usedMemory += sizeDifference;
+		keyEntry.size = size;
+		keyEntry.expirationTime = expirationTime;
+
+		boolean isVolatile = expirationTime != ExpirationDatatypeOperations.NO_EXPIRATION;
+
+		if (isVolatile && keyEntry.volatileIndex < 0) {
+			keyEntry.volatileIndex = addToSample(keyspace.volatileKeys, keyEntry);
+		} else if (!isVolatile && keyEntry.volatileIndex >= 0) {
+			removeFromSample(keyspace.volatileKeys, keyEntry.volatileIndex, false);
+			keyEntry.volatileIndex = -1;
+		}
+	}
+
+	/*
+	 * As Redis does, candidates are sampled from every database and the best
+	 * one of all of them is evicted.
+	 */
+	private KeyEntry selectVictim() {
+
+		if (maxmemoryPolicy == MaxmemoryPolicy.NOEVICTION) {
+			return null;
+		}
+
+		List<List<KeyEntry>> candidatesByKeyspace = new ArrayList<List<KeyEntry>>();
+
+		for (KeyspaceMemory keyspace : keyspaces) {
+
+			if (keyspace == null) {
+				continue;
+			}
+
+			List<KeyEntry> candidates = maxmemoryPolicy.isOnlyVolatileKeys() ? keyspace.volatileKeys
+					: keyspace.allKeys;
+
+			if (!candidates.isEmpty()) {
+				candidatesByKeyspace.add(candidates);
+			}
+		}
+
+		if (candidatesByKeyspace.isEmpty()) {
+			return null;
+		}
+
+		if (maxmemoryPolicy == MaxmemoryPolicy.ALLKEYS_RANDOM || maxmemoryPolicy == MaxmemoryPolicy.VOLATILE_RANDOM) {
+			List<KeyEntry> candidates = candidatesByKeyspace.get(random.nextInt(candidatesByKeyspace.size()));
+			return candidates.get(random.nextInt(candidates.size()));
+		}
+
+		KeyEntry bestCandidate = null;
+		long bestScore = Long.MIN_VALUE;
+
+		for (List<KeyEntry> candidates : candidatesByKeyspace) {
+			for (int sample = 0; sample < maxmemorySamples; sample++) {
+
+				KeyEntry candidate = candidates.get(random.nextInt(candidates.size()));
+				long score = evictionScore(candidate);
+
+				if (bestCandidate == null || score > bestScore) {
+					bestCandidate = candidate;
+					bestScore = score;
+				}
+			}
+		}
+
+		return bestCandidate;
+	}
+
+	private long evictionScore(KeyEntry keyEntry) {
+
+		switch (maxmemoryPolicy) {
+		case ALLKEYS_LFU:
+		case VOLATILE_LFU:
+			return LFU_MAX_VAL - keyEntry.decayedFrequency();
+		case VOLATILE_TTL:
+			return Long.MAX_VALUE - keyEntry.expirationTime;
+		default:
+			return keyEntry.idleTime();
+		}
+
+	}
+
+	private void evict(KeyEntry keyEntry) {
+
+		byte[] key = keyEntry.key.array();
+
+		for (RedisDatatypeOperations redisDatatypeOperations : keyEntry.keyspace.redisDatatypeOperations) {
+			redisDatatypeOperations.del(key);
+		}
+
+		forget(keyEntry);
+		keyEntry.keyspace.dirtyKeys.remove(keyEntry.key);
+		evictedKeys++;
+	}
+
+	private void forget(KeyEntry keyEntry) {
+
+		KeyspaceMemory keyspace = keyEntry.keyspace;
+
+		keyspace.keyEntries.remove(keyEntry.key);
+		removeFromSample(keyspace.allKeys, keyEntry.index, true);
+
+		if (keyEntry.volatileIndex >= 0) {
+			removeFromSample(keyspace.volatileKeys, keyEntry.volatileIndex, false);
+		}
+
+		usedMemory -= keyEntry.size;
+		keyspace.usedMemory -= keyEntry.size;
+	}
+
+	private int addToSample(List<KeyEntry> sample, KeyEntry keyEntry) {
+		sample.add(keyEntry);
+		return sample.size() - 1;
+	}
+
+	/*
+	 * Removal swaps the last element into the freed position so random
+	 * sampling keeps working over a dense list in O(1).
+	 */
+	private void removeFromSample(List<KeyEntry> sample, int index, boolean isAllKeysSample) {
+
+		int lastIndex = sample.size() - 1;
+		KeyEntry lastKeyEntry = sample.remove(lastIndex);
+
+		if (index != lastIndex) {
+			sample.set(index, lastKeyEntry);
+
+			if (isAllKeysSample) {
+				lastKeyEntry.index = index;
+			} else {
+				lastKeyEntry.volatileIndex = index;
+			}
+		}
+	}
+
+	private int parsePositiveInteger(String parameter, String value) {
+		try {
+			int number = Integer.parseInt(value.trim());
+
+			if (number <= 0) {
+				throw new IllegalArgumentException("ERR Invalid argument '" + value + "' for CONFIG SET '"
+						+ parameter + "'");
+			}
+
+			return number;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("ERR Invalid argument '" + value + "' for CONFIG SET '" + parameter
+					+ "'");
+		}
+	}
+
+	private final class KeyspaceMemory {
+
+		private List<RedisDatatypeOperations> redisDatatypeOperations;
+
+		private Map<ByteBuffer, KeyEntry> keyEntries = new HashMap<ByteBuffer, KeyEntry>();
+		private List<KeyEntry> allKeys = new ArrayList<KeyEntry>();
+		private List<KeyEntry> volatileKeys = new ArrayList<KeyEntry>();
+		private Set<ByteBuffer> dirtyKeys = new LinkedHashSet<ByteBuffer>();
+
+		private long usedMemory = 0L;
+
+		public KeyspaceMemory(List<RedisDatatypeOperations> redisDatatypeOperations) {
+			this.redisDatatypeOperations = redisDatatypeOperations;
+		}
+
+		public void track(KeyEntry keyEntry) {
+			keyEntries.put(keyEntry.key, keyEntry);
+			keyEntry.index = addToSample(allKeys, keyEntry);
+		}
+
+	}
+
+	private final class KeyEntry {
+
+		private KeyspaceMemory keyspace;
+		private ByteBuffer key;
+		private long size = 0L;
+		private long expirationTime = ExpirationDatatypeOperations.NO_EXPIRATION;
+		private int index = -1;
+		private int volatileIndex = -1;
+
+		private long lastAccessTime;
+		private int frequency = LFU_INIT_VAL;
+		private long lastDecrementTime;
+
+		public KeyEntry(KeyspaceMemory keyspace, ByteBuffer key) {
+			this.keyspace = keyspace;
+			this.key = key;
+			this.lastAccessTime = System.currentTimeMillis();
+			this.lastDecrementTime = this.lastAccessTime;
+		}
+
+		public void access() {
+			this.frequency = decayedFrequency();
+			this.lastDecrementTime = System.currentTimeMillis();
+			this.frequency = logarithmicIncrement(this.frequency);
+			this.lastAccessTime = System.currentTimeMillis();
+		}
+
+		public long idleTime() {
+			return System.currentTimeMillis() - lastAccessTime;
+		}
+
+		public int decayedFrequency() {
+			long elapsedMinutes = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis() - lastDecrementTime);
+			long periods = elapsedMinutes / lfuDecayTime;
+
+			return periods > frequency ? 0 : (int) (frequency - periods);
+		}
+
+		private int logarithmicIncrement(int counter) {
+
+			if (counter == LFU_MAX_VAL) {
+				return counter;
+			}
+
+			double baseValue = Math.max(counter - LFU_INIT_VAL, 0);
+			double probability = 1.0 / (baseValue * lfuLogFactor + 1);
+
+			return random.nextDouble() < probability ? counter + 1 : counter;
+		}
+
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.lordofthejars.nosqlunit.redis.embedded;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Locale;
+
+public class MemoryUtils {
+
+	/*
+	 * Approximated costs of the structures Redis allocates around the raw
+	 * payload (dictEntry, robj and sds headers for keys, list/dict nodes for
+	 * collection elements).
+	 */
+	private static final long KEY_OVERHEAD = 56;
+	private static final long ELEMENT_OVERHEAD = 24;
+	private static final long SCORE_SIZE = 8;
+
+	private static final long KILOBYTE = 1024;
+	private static final String[] UNITS = { "K", "M", "G" };
+
+	private MemoryUtils() {
+		super();
+	}
+
+	public static long keySize(byte[] key) {
+		return KEY_OVERHEAD + key.length;
+	}
+
+	public static long elementSize(ByteBuffer element) {
+		return ELEMENT_OVERHEAD + element.capacity();
+	}
+
+	public static long scoredElementSize(ByteBuffer element) {
+		return elementSize(element) + SCORE_SIZE;
+	}
+
+	public static long elementsSize(Collection<ByteBuffer> elements) {
+		long size = 0;
+
+		for (ByteBuffer element : elements) {
+			size += elementSize(element);
+		}
+
+		return size;
+	}
+
+	/**
+	 * Parses a memory amount as accepted by Redis configuration (1k => 1000
+	 * bytes, 1kb => 1024 bytes, 1m => 1000000 bytes, 1mb => 1024*1024 bytes, 1g
+	 * and 1gb likewise).
+	 *
+	 * @param value
+	 * @return number of bytes.
+	 */
+	public static long parseMemory(String value) {
+
+		String normalizedValue = value.trim().toLowerCase();
+		long multiplier = 1;
+
+		if (normalizedValue.endsWith("gb")) {
+			multiplier = KILOBYTE * KILOBYTE * KILOBYTE;
+		} else if (normalizedValue.endsWith("mb")) {
+			multiplier = KILOBYTE * KILOBYTE;
+		} else if (normalizedValue.endsWith("kb")) {
+			multiplier = KILOBYTE;
+		} else if (normalizedValue.endsWith("g")) {
+			multiplier = 1000L * 1000L * 1000L;
+		} else if (normalizedValue.endsWith("m")) {
+			multiplier = 1000L * 1000L;
+		} else if (normalizedValue.endsWith("k")) {
+			multiplier = 1000L;
+		} else if (normalizedValue.endsWith("b")) {
+			multiplier = 1;
+		}
+
+		String number = normalizedValue.replaceAll("[a-z]+$", "");
+
+		try {
+			long amount = Long.parseLong(number);
+
+			if (amount < 0) {
+				throw new IllegalArgumentException("ERR Invalid memory amount " + value);
+			}
+
+			return amount * multiplier;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("ERR Invalid memory amount " + value);
+		}
+	}
+
+	/**
+	 * Formats a number of bytes the same way INFO does for its *_human fields.
+	 *
+	 * @param bytes
+	 * @return human readable amount.
+	 */
+	public static String toHuman(long bytes) {
+
+		if (bytes < KILOBYTE) {
+			return bytes + "B";
+		}
+
+		double amount = bytes;
+		int unit = -1;
+
+		while (amount >= KILOBYTE && unit < UNITS.length - 1) {
+			amount /= KILOBYTE;
+			unit++;
+		}
+
+		return String.format(Locale.ENGLISH, "%.2f%s", amount, UNITS[unit]);
+	}
+
+}
@@ -0,0 +1,475 @@
+package com.lordofthejars.nosqlunit.redis.embedded;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import redis.clients.jedis.JedisMonitor;
+import redis.clients.util.SafeEncoder;
+import redis.clients.util.Slowlog;
+
+/**
+ * Keeps track of every command executed by an embedded instance: commands
+ * slower than slowlog-log-slower-than are stored in a fixed size ring buffer
+ * of slowlog-max-len entries, commands are streamed to registered monitors,
+ * and calls and latencies are accumulated per command for INFO commandstats
+ * and latencystats. Slowlog commands are never added to the slowlog, so
+ * inspecting it does not change it.
+ * <p>
+ * Arguments are only rendered when a command is slow or a monitor is
+ * registered, so the cost of tracking a fast command is a couple of counters.
+ */
+public class MonitorServerOperations {
+
+	protected static final String SLOWLOG_LOG_SLOWER_THAN = "slowlog-log-slower-than";
+	protected static final String SLOWLOG_MAX_LEN = "slowlog-max-len";
+
+	private static final long DEFAULT_SLOWLOG_LOG_SLOWER_THAN = 10000L;
+	private static final int DEFAULT_SLOWLOG_MAX_LEN = 128;
+
+	private static final String SLOWLOG_COMMAND_PREFIX = "slowlog";
+	private static final int SLOWLOG_ENTRY_MAX_ARGC = 32;
+	private static final int SLOWLOG_ENTRY_MAX_STRING = 128;
+
+	private static final double[] LATENCY_PERCENTILES = { 50.0, 99.0, 99.9 };
+
+	private long slowlogLogSlowerThan = DEFAULT_SLOWLOG_LOG_SLOWER_THAN;
+
+	private List<Object>[] slowlog;
+	private int slowlogHead = 0;
+	private int slowlogLength = 0;
+	private long nextSlowlogId = 0L;
+
+	private List<JedisMonitor> monitors = new CopyOnWriteArrayList<JedisMonitor>();
+
+	private Map<String, CommandStats> commandStats = new TreeMap<String, CommandStats>();
+	private long totalCommandsProcessed = 0L;
+
+	private MonitorServerOperations() {
+		super();
+	}
+
+	public static MonitorServerOperations createMonitorServerOperations() {
+
+		MonitorServerOperations monitorServerOperations = new MonitorServerOperations();
+		monitorServerOperations.slowlog = createSlowlog(DEFAULT_SLOWLOG_MAX_LEN);
+
+		return monitorServerOperations;
+	}
+
+	/**
+	 * Notifies registered monitors that a command is going to be executed.
+	 *
+	 * @param database
+	 *            index of database selected by client.
+	 * @param command
+	 * @param arguments
+	 */
+	public void commandReceived(int database, String command, Object[] arguments) {
+
+		if (monitors.isEmpty()) {
+			return;
+		}
+
+		long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+
+		StringBuilder monitorLine = new StringBuilder();
+		monitorLine.append(now / 1000000L).append('.').append(String.format(Locale.ENGLISH, "%06d", now % 1000000L))
+				.append(" [").append(database).append(" embedded]");
+
+		for (byte[] argument : renderArguments(command, arguments)) {
+			monitorLine.append(" \"").append(SafeEncoder.encode(argument)).append('"');
+		}
+
+		String event = monitorLine.toString();
+
+		for (JedisMonitor jedisMonitor : monitors) {
+			jedisMonitor.onCommand(event);
+		}
+	}
+
+	/**
+	 * Records execution of a command.
+	 *
+	 * @param command
+	 * @param arguments
+	 * @param durationInNanos
+	 */
+	public synchronized void commandExecuted(String command, Object[] arguments, long durationInNanos) {
+
+		long durationInMicros = TimeUnit.NANOSECONDS.toMicros(durationInNanos);
+
+		CommandStats stats = commandStats.get(command);
+
+		if (stats == null) {
+			stats = new CommandStats();
+			commandStats.put(command, stats);
+		}
+
+		stats.record(durationInMicros);
+		totalCommandsProcessed++;
+
+		if (slowlogLogSlowerThan >= 0 && durationInMicros >= slowlogLogSlowerThan && slowlog.length > 0
+				&& !command.startsWith(SLOWLOG_COMMAND_PREFIX)) {
+			addSlowlogEntry(command, arguments, durationInMicros);
+		}
+	}
+
+	public void addMonitor(JedisMonitor jedisMonitor) {
+		this.monitors.add(jedisMonitor);
+	}
+
+	public void removeMonitor(JedisMonitor jedisMonitor) {
+		this.monitors.remove(jedisMonitor);
+	}
+
+	public synchronized List<Slowlog> slowlogGet(long entries) {
+		return Slowlog.from(slowlogEntries(entries));
+	}
+
+	/**
+	 * Returns slowlog entries in the same raw format as they are received from
+	 * Redis (id, timestamp, duration and arguments), so they can be parsed with
+	 * {@link Slowlog#from(List)}.
+	 *
+	 * @param entries
+	 * @return raw slowlog entries.
+	 */
+	public synchronized List<Object> slowlogEntries(long entries) {
+
+		int numberOfEntries = entries < 0 ? slowlogLength : (int) Math.min(entries, slowlogLength);
+		List<Object> slowlogEntries = new ArrayList<Object>(numberOfEntries);
+
+		for (int i = 1; i <= numberOfEntries; i++) {
+			int index = (slowlogHead - i + slowlog.length) % slowlog.length;
+			slowlogEntries.add(slowlog[index]);
+		}
+
+		return slowlogEntries;
+	}
+
+	/**
+	 * Returns slowlog entries encoded as Redis protocol multi bulk replies
+	 * (id, timestamp, duration and arguments), one byte array per entry.
+	 *
+	 * @param entries
+	 * @return encoded slowlog entries.
+	 */
+	public synchronized List<byte[]> slowlogBinaryEntries(long entries) {
+
+		List<Object> slowlogEntries = slowlogEntries(entries);
+		List<byte[]> binaryEntries = new ArrayList<byte[]>(slowlogEntries.size());
+
+		for (Object slowlogEntry : slowlogEntries) {
+			ByteArrayOutputStream encodedEntry = new ByteArrayOutputStream();
+			encodeReply(encodedEntry, slowlogEntry);
+			binaryEntries.add(encodedEntry.toByteArray());
+		}
+
+		return binaryEntries;
+	}
+
+	public synchronized long slowlogLen() {
+		return slowlogLength;
+	}
+
+	public synchronized void slowlogReset() {
+		this.slowlog = createSlowlog(slowlog.length);
+		this.slowlogHead = 0;
+		this.slowlogLength = 0;
+	}
+
+	public synchronized Map<String, String> configGet() {
+
+		Map<String, String> configuration = new LinkedHashMap<String, String>();
+
+		configuration.put(SLOWLOG_LOG_SLOWER_THAN, Long.toString(slowlogLogSlowerThan));
+		configuration.put(SLOWLOG_MAX_LEN, Integer.toString(slowlog.length));
+
+		return configuration;
+	}
+
+	/**
+	 * Sets a slowlog related configuration parameter.
+	 *
+	 * @param parameter
+	 * @param value
+	 * @return true if parameter is a slowlog parameter, false otherwise.
+	 */
+	public synchronized boolean configSet(String parameter, String value) {
+
+		String normalizedParameter = parameter.toLowerCase();
+
+		if (SLOWLOG_LOG_SLOWER_THAN.equals(normalizedParameter)) {
+			this.slowlogLogSlowerThan = parseLong(parameter, value);
+			return true;
+		}
+
+		if (SLOWLOG_MAX_LEN.equals(normalizedParameter)) {
+			long maxLen = parseLong(parameter, value);
+
+			if (maxLen < 0 || maxLen > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("ERR Invalid argument '" + value + "' for CONFIG SET '"
+						+ parameter + "'");
+			}
+
+			resizeSlowlog((int) maxLen);
+			return true;
+		}
+
+		return false;
+	}
+
+	public synchronized void resetStat() {
+		this.commandStats.clear();
+		this.totalCommandsProcessed = 0L;
+	}
+
+	public synchronized String statsInfo() {
+		return "total_commands_processed:" + totalCommandsProcessed + "\r\n";
+	}
+
+	public synchronized String commandstatsInfo() {
+
+		StringBuilder info = new StringBuilder();
+		info.append("# Commandstats").append("\r\n");
+
+		for (Entry<String, CommandStats> stats : commandStats.entrySet()) {
+			CommandStats commandStats = stats.getValue();
+			info.append("cmdstat_").append(stats.getKey()).append(":calls=").append(commandStats.calls)
+					.append(",usec=").append(commandStats.totalMicros).append(",usec_per_call=")
+					.append(String.format(Locale.ENGLISH, "%.2f", commandStats.averageMicros())).append("\r\n");
+		}
+
+		return info.toString();
+	}
+
+	public synchronized String latencystatsInfo() {
+
+		StringBuilder info = new StringBuilder();
+		info.append("# Latencystats").append("\r\n");
+
+		for (Entry<String, CommandStats> stats : commandStats.entrySet()) {
+			info.append("latency_percentiles_usec_").append(stats.getKey()).append(":");
+
+			for (int i = 0; i < LATENCY_PERCENTILES.length; i++) {
+				if (i > 0) {
+					info.append(',');
+				}
+
+				double percentile = LATENCY_PERCENTILES[i];
+				info.append('p').append(formatPercentile(percentile)).append('=')
+						.append(stats.getValue().percentileMicros(percentile));
+			}
+
+			info.append("\r\n");
+		}
+
+		return info.toString();
+	}
+
+	public synchronized long getCalls(String command) {
+		CommandStats stats = commandStats.get(command);
+		return stats == null ? 0L : stats.calls;
+	}
+
+	/**
+	 * Returns latency histogram of given command. Position i counts calls
+	 * which took less than 2^i microseconds and at least 2^(i-1) microseconds.
+	 *
+	 * @param command
+	 * @return copy of histogram or an empty array if command was never called.
+	 */
+	public synchronized long[] getLatencyHistogram(String command) {
+		CommandStats stats = commandStats.get(command);
+		return stats == null ? new long[0] : stats.histogram.clone();
+	}
+
+	private void addSlowlogEntry(String command, Object[] arguments, long durationInMicros) {
+
+		List<Object> entry = new ArrayList<Object>(4);
+		entry.add(nextSlowlogId++);
+		entry.add(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+		entry.add(durationInMicros);
+		entry.add(truncateArguments(renderArguments(command, arguments)));
+
+		slowlog[slowlogHead] = entry;
+		slowlogHead = (slowlogHead + 1) % slowlog.length;
+
+		if (slowlogLength < slowlog.length) {
+			slowlogLength++;
+		}
+	}
+
+	private void resizeSlowlog(int maxLen) {
+
+		List<Object> currentEntries = slowlogEntries(maxLen);
+
+		this.slowlog = createSlowlog(maxLen);
+		this.slowlogHead = 0;
+		this.slowlogLength = 0;
+
+		for (int i = currentEntries.size() - 1; i >= 0; i--) {
+			slowlog[slowlogHead] = castEntry(currentEntries.get(i));
+			slowlogHead = (slowlogHead + 1) % slowlog.length;
+			slowlogLength++;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> castEntry(Object entry) {
+		return (List<Object>) entry;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object>[] createSlowlog(int maxLen) {
+		return new List[maxLen];
+	}
+
+	private static void encodeReply(ByteArrayOutputStream encodedReply, Object reply) {
+
+		if (reply instanceof Long) {
+			writeLine(encodedReply, ":" + reply);
+		} else if (reply instanceof byte[]) {
+			byte[] bulk = (byte[]) reply;
+			writeLine(encodedReply, "$" + bulk.length);
+			encodedReply.write(bulk, 0, bulk.length);
+			writeLine(encodedReply, "");
+		} else {
+			List<?> multiBulk = (List<?>) reply;
+			writeLine(encodedReply, "*" + multiBulk.size());
+
+			for (Object element : multiBulk) {
+				encodeReply(encodedReply, element);
+			}
+		}
+	}
+
+	private static void writeLine(ByteArrayOutputStream encodedReply, String line) {
+		byte[] encodedLine = SafeEncoder.encode(line + "\r\n");
+		encodedReply.write(encodedLine, 0, encodedLine.length);
+	}
+
+	private static List<byte[]> renderArguments(String command, Object[] arguments) {
+
+		List<byte[]> renderedArguments = new ArrayList<byte[]>();
+		renderedArguments.add(SafeEncoder.encode(command));
+
+		for (Object argument : arguments) {
+			addRenderedArgument(renderedArguments, argument);
+		}
+
+		return renderedArguments;
+	}
+
+	private static void addRenderedArgument(List<byte[]> renderedArguments, Object argument) {
+
+		if (argument instanceof byte[]) {
+			renderedArguments.add((byte[]) argument);
+		} else if (argument instanceof Object[]) {
+			for (Object element : (Object[]) argument) {
+				addRenderedArgument(renderedArguments, element);
+			}
+		} else if (argument instanceof Map<?, ?>) {
+			for (Entry<?, ?> element : ((Map<?, ?>) argument).entrySet()) {
+				addRenderedArgument(renderedArguments, element.getKey());
+				addRenderedArgument(renderedArguments, element.getValue());
+			}
+		} else {
+			renderedArguments.add(SafeEncoder.encode(String.valueOf(argument)));
+		}
+	}
+
+	private static List<byte[]> truncateArguments(List<byte[]> arguments) {
+
+		int argc = Math.min(arguments.size(), SLOWLOG_ENTRY_MAX_ARGC);
+		List<byte[]> truncatedArguments = new ArrayList<byte[]>(argc);
+
+		for (int i = 0; i < argc; i++) {
+
+			if (i == SLOWLOG_ENTRY_MAX_ARGC - 1 && arguments.size() > SLOWLOG_ENTRY_MAX_ARGC) {
+				truncatedArguments.add(SafeEncoder.encode("... (" + (arguments.size() - SLOWLOG_ENTRY_MAX_ARGC + 1)
+						+ " more arguments)"));
+				break;
+			}
+
+			byte[] argument = arguments.get(i);
+
+			if (argument.length > SLOWLOG_ENTRY_MAX_STRING) {
+				String truncatedArgument = SafeEncoder.encode(argument).substring(0, SLOWLOG_ENTRY_MAX_STRING);
+				argument = SafeEncoder.encode(truncatedArgument + "... ("
+						+ (argument.length - SLOWLOG_ENTRY_MAX_STRING) + " more bytes)");
+			}
+
+			truncatedArguments.add(argument);
+		}
+
+		return truncatedArguments;
+	}
+
+	private static String formatPercentile(double percentile) {
+		return percentile == Math.floor(percentile) ? Long.toString((long) percentile) : Double
+				.toString(percentile);
+	}
+
+	private static long parseLong(String parameter, String value) {
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("ERR Invalid argument '" + value + "' for CONFIG SET '" + parameter
+					+ "'");
+		}
+	}
+
+	private static final class CommandStats {
+
+		private static final int HISTOGRAM_BUCKETS = 64;
+
+		private long calls = 0L;
+		private long totalMicros = 0L;
+		private long[] histogram = new long[HISTOGRAM_BUCKETS];
+
+		public void record(long durationInMicros) {
+			calls++;
+			totalMicros += durationInMicros;
+			histogram[bucket(durationInMicros)]++;
+		}
+
+		public double averageMicros() {
+			return calls == 0 ? 0.0d : (double) totalMicros / calls;
+		}
+
+		/**
+		 * Upper bound of the bucket where given percentile falls.
+		 */
+		public long percentileMicros(double percentile) {
+
+			long rank = (long) Math.ceil(percentile / 100.0d * calls);
+			long accumulatedCalls = 0L;
+
+			for (int i = 0; i < histogram.length; i++) {
+				accumulatedCalls += histogram[i];
+
+				if (accumulatedCalls >= rank && histogram[i] > 0) {
+					return i == 0 ? 0L : (1L << i) - 1;
+				}
+			}
+
+			return 0L;
+		}
+
+		private static int bucket(long durationInMicros) {
+			return durationInMicros <= 0 ? 0 : Math.min(HISTOGRAM_BUCKETS - 1,
+					Long.SIZE - Long.numberOfLeadingZeros(durationInMicros));
+		}
+
+	}
+
+}
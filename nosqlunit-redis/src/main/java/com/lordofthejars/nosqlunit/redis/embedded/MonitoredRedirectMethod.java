@@ -0,0 +1,44 @@
+package com.lordofthejars.nosqlunit.redis.embedded;
+
+import java.lang.reflect.Method;
+
+import net.sf.cglib.proxy.MethodProxy;
+
+import com.lordofthejars.nosqlunit.proxy.RedirectProxy.RedirectMethod;
+
+/**
+ * Redirects Jedis calls to an {@link EmbeddedJedis} measuring how long each
+ * command takes. This is the only entry point of client commands, so calls
+ * made internally by the embedded engine are not counted twice.
+ */
+public class MonitoredRedirectMethod extends RedirectMethod<EmbeddedJedis> {
+
+	private MonitorServerOperations monitorServerOperations;
+	private KeysServerOperations keysServerOperations;
+
+	public MonitoredRedirectMethod(EmbeddedJedis embeddedJedis) {
+		super(embeddedJedis);
+		this.monitorServerOperations = embeddedJedis.monitorServerOperations;
+		this.keysServerOperations = embeddedJedis.keysServerOperations;
+	}
+
+	@Override
+	public Object intercept(Object object, Method method, Object[] arguments, MethodProxy proxy) throws Throwable {
+
+		if (method.getDeclaringClass() == Object.class) {
+			return super.intercept(object, method, arguments, proxy);
+		}
+
+		String command = method.getName().toLowerCase();
+		monitorServerOperations.commandReceived(keysServerOperations.getSelectedDatabase(), command, arguments);
+
+		long startTime = System.nanoTime();
+
+		try {
+			return super.intercept(object, method, arguments, proxy);
+		} finally {
+			monitorServerOperations.commandExecuted(command, arguments, System.nanoTime() - startTime);
+		}
+	}
+
+}
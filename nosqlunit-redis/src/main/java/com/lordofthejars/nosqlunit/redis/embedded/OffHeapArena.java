@@ -0,0 +1,170 @@
+package com.lordofthejars.nosqlunit.redis.embedded;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores values outside Java heap. Values are copied into direct ByteBuffer
+ * slabs using a bump pointer, and only a view of the copied bytes is kept on
+ * heap, so big datasets do not increase garbage collection pauses.
+ * <p>
+ * Single values are never freed, so overwritten or removed values (SET,
+ * APPEND, DEL, evictions, ...) leave dead bytes in the arena. Every time
+ * allocated bytes grow past a threshold, its {@link Keyspace} counts live
+ * bytes and, when dead bytes exceed live ones, copies live values into a new
+ * arena and drops this one, whose slabs are released by garbage collector
+ * once no value refers to them. Next check is scheduled after as many bytes
+ * as are alive have been allocated, so counting and copying cost is amortized
+ * over writes. When the database is flushed the arena is reset in background,
+ * once the old keyspace has been cleared, and its slabs are reused by a later
+ * keyspace of the same database.
+ */
+public class OffHeapArena {
+
+	public static final int DEFAULT_SLAB_SIZE = 1024 * 1024;
+
+	private int slabSize;
+
+	private List<ByteBuffer> slabs = new ArrayList<ByteBuffer>();
+	private int currentSlabIndex = -1;
+	private long allocatedBytes = 0L;
+	private long oversizedBytes = 0L;
+	private long nextCompactionCheck;
+
+	private OffHeapArena(int slabSize) {
+		this.slabSize = slabSize;
+		this.nextCompactionCheck = slabSize;
+	}
+
+	public static OffHeapArena createOffHeapArena() {
+		return createOffHeapArena(DEFAULT_SLAB_SIZE);
+	}
+
+	public static OffHeapArena createOffHeapArena(int slabSize) {
+
+		if (slabSize <= 0) {
+			throw new IllegalArgumentException("Slab size should be greater than 0 but was " + slabSize);
+		}
+
+		return new OffHeapArena(slabSize);
+	}
+
+	/**
+	 * Copies given value to off-heap memory.
+	 *
+	 * @param value
+	 * @return a buffer with position 0 and limit the length of value, backed
+	 *         by off-heap memory.
+	 */
+	public synchronized ByteBuffer allocate(byte[] value) {
+
+		allocatedBytes += value.length;
+
+		if (value.length > slabSize) {
+			return allocateOversized(value);
+		}
+
+		ByteBuffer slab = slabWithRoomFor(value.length);
+
+		int position = slab.position();
+		slab.put(value);
+
+		ByteBuffer handle = slab.duplicate();
+		handle.position(position);
+		handle.limit(position + value.length);
+
+		return handle.slice();
+	}
+
+	/**
+	 * Makes all slabs available again. Buffers returned before calling this
+	 * method must not be used anymore.
+	 */
+	public synchronized void reset() {
+
+		for (ByteBuffer slab : slabs) {
+			slab.clear();
+		}
+
+		currentSlabIndex = slabs.isEmpty() ? -1 : 0;
+		allocatedBytes = 0L;
+		oversizedBytes = 0L;
+		nextCompactionCheck = slabSize;
+	}
+
+	/**
+	 * Returns if enough bytes have been allocated since last check to count
+	 * again how many of them are still alive.
+	 *
+	 * @return true if a compaction check is due.
+	 */
+	public synchronized boolean isCompactionCheckDue() {
+		return allocatedBytes >= nextCompactionCheck;
+	}
+
+	/**
+	 * Schedules next compaction check after as many bytes as given live bytes,
+	 * and at least a slab, have been allocated.
+	 *
+	 * @param liveBytes
+	 *            bytes of this arena still used by stored values.
+	 */
+	public synchronized void scheduleCompactionCheck(long liveBytes) {
+		nextCompactionCheck = allocatedBytes + Math.max(liveBytes, slabSize);
+	}
+
+	/**
+	 * Returns number of bytes stored since last reset.
+	 *
+	 * @return allocated bytes.
+	 */
+	public synchronized long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * Returns number of bytes of off-heap memory currently reserved by this
+	 * arena.
+	 *
+	 * @return reserved bytes.
+	 */
+	public synchronized long getReservedBytes() {
+		return (long) slabs.size() * slabSize + oversizedBytes;
+	}
+
+	public int getSlabSize() {
+		return slabSize;
+	}
+
+	private ByteBuffer slabWithRoomFor(int length) {
+
+		while (currentSlabIndex >= 0 && currentSlabIndex < slabs.size()) {
+			ByteBuffer slab = slabs.get(currentSlabIndex);
+
+			if (slab.remaining() >= length) {
+				return slab;
+			}
+
+			currentSlabIndex++;
+		}
+
+		ByteBuffer slab = ByteBuffer.allocateDirect(slabSize);
+		slabs.add(slab);
+		currentSlabIndex = slabs.size() - 1;
+
+		return slab;
+	}
+
+	private ByteBuffer allocateOversized(byte[] value) {
+
+		ByteBuffer dedicatedBuffer = ByteBuffer.allocateDirect(value.length);
+		dedicatedBuffer.put(value);
+		dedicatedBuffer.flip();
+
+		oversizedBytes += value.length;
+
+		return dedicatedBuffer;
+	}
+
+}
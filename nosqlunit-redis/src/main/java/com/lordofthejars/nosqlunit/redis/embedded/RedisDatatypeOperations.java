@@ -12,6 +12,7 @@ public interface RedisDatatypeOperations {
 	Long del(byte[]... keys);
 	boolean exists(byte[] key);
 	boolean renameKey(byte[] key, byte[] newKey);
+	boolean moveKey(byte[] key, RedisDatatypeOperations destination);
 	void addExpirationTime(byte[] key, long duration, TimeUnit unit);
 	void addExpirationAt(byte[] key, long time, TimeUnit unit);
 	TtlState timedoutState(byte[] key);
@@ -20,4 +21,6 @@ public interface RedisDatatypeOperations {
 	List<byte[]> keys();
 	String type();
 	List<byte[]> sort(byte[] key);
+	long expirationTime(byte[] key);
+	long sizeOf(byte[] key);
 }
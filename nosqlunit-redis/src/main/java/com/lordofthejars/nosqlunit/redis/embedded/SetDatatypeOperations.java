@@ -2,6 +2,7 @@ package com.lordofthejars.nosqlunit.redis.embedded;
 
 import static ch.lambdaj.Lambda.convert;
 import static ch.lambdaj.collection.LambdaCollections.with;
+import static com.lordofthejars.nosqlunit.redis.embedded.ByteBuffer2ByteArrayConverter.toByteArray;
 import static java.nio.ByteBuffer.wrap;
 
 import java.nio.ByteBuffer;
@@ -11,6 +12,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
 
@@ -42,7 +44,7 @@ public class SetDatatypeOperations extends ExpirationDatatypeOperations implemen
 		long numberOfAddedElements = 0;
 
 		for (byte[] bs : members) {
-			if (setElements.put(wrap(key), wrap(bs))) {
+			if (setElements.put(wrap(key), storeValue(bs))) {
 				numberOfAddedElements++;
 			}
 		}
@@ -384,16 +386,10 @@ public class SetDatatypeOperations extends ExpirationDatatypeOperations implemen
 	}
 
 	public void flushAllKeys() {
-		removeExpirations();
+		removeAllExpirations();
 		this.setElements.clear();
 	}
 
-	private void removeExpirations() {
-		List<byte[]> keys = this.keys();
-		for (byte[] key : keys) {
-			this.removeExpiration(key);
-		}
-	}
 	
 	private Collection<ByteBuffer> getReferenceElement(final byte[]... keys) {
 		return setElements.get(wrap(keys[0]));
@@ -458,6 +454,27 @@ public class SetDatatypeOperations extends ExpirationDatatypeOperations implemen
 		return this.setElements.containsKey(wrap(key));
 	}
 
+	@Override
+	public boolean moveKey(byte[] key, RedisDatatypeOperations destination) {
+		ByteBuffer wrappedKey = wrap(key);
+
+		if (this.setElements.containsKey(wrappedKey)) {
+			SetDatatypeOperations destinationSet = (SetDatatypeOperations) destination;
+
+			for (ByteBuffer element : this.setElements.get(wrappedKey)) {
+				destinationSet.setElements.put(wrappedKey, destinationSet.storeValue(toByteArray(element)));
+			}
+
+			this.setElements.removeAll(wrappedKey);
+
+			moveTtlKey(key, destinationSet);
+
+			return true;
+		}
+
+		return false;
+	}
+
 	@Override
 	public boolean renameKey(byte[] key, byte[] newKey) {
 		ByteBuffer wrappedKey = wrap(key);
@@ -506,5 +523,40 @@ public class SetDatatypeOperations extends ExpirationDatatypeOperations implemen
 		return new LinkedList<byte[]>(convert(values,
 				DoubleToStringByteArrayConverter.createDoubleToStringByteArrayConverter()));
 	}
-	
+
+	@Override
+	public long storedValueBytes() {
+
+		long storedValueBytes = 0L;
+
+		for (ByteBuffer element : this.setElements.values()) {
+			storedValueBytes += element.remaining();
+		}
+
+		return storedValueBytes;
+	}
+
+	@Override
+	protected void restoreValues() {
+
+		Multimap<ByteBuffer, ByteBuffer> restoredSetElements = HashMultimap.create();
+
+		for (Entry<ByteBuffer, ByteBuffer> element : this.setElements.entries()) {
+			restoredSetElements.put(element.getKey(), storeValue(element.getValue()));
+		}
+
+		this.setElements = restoredSetElements;
+	}
+
+	@Override
+	public long sizeOf(byte[] key) {
+		ByteBuffer wrappedKey = wrap(key);
+
+		if (!this.setElements.containsKey(wrappedKey)) {
+			return 0L;
+		}
+
+		return MemoryUtils.keySize(key) + MemoryUtils.elementsSize(this.setElements.get(wrappedKey));
+	}
+
 }
@@ -12,6 +12,7 @@ import static ch.lambdaj.Lambda.var;
 import static ch.lambdaj.collection.LambdaCollections.with;
 import static com.lordofthejars.nosqlunit.redis.embedded.RangeUtils.getRealScoreForMaxValue;
 import static com.lordofthejars.nosqlunit.redis.embedded.RangeUtils.getRealScoreForMinValue;
+import static com.lordofthejars.nosqlunit.redis.embedded.ByteBuffer2ByteArrayConverter.toByteArray;
 import static java.nio.ByteBuffer.wrap;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
@@ -62,7 +63,7 @@ public class SortsetDatatypeOperations extends ExpirationDatatypeOperations impl
 
 		}
 
-		sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(wrap(member), score));
+		sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(storeValue(member), score));
 		return 1L;
 
 	}
@@ -70,7 +71,7 @@ public class SortsetDatatypeOperations extends ExpirationDatatypeOperations impl
 	private void removeAndUpdateElement(final double score, final byte[] member, ByteBuffer wrappedKey,
 			ScoredByteBuffer previousMember) {
 		sortset.remove(wrappedKey, previousMember);
-		sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(wrap(member), score));
+		sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(storeValue(member), score));
 	}
 
 	private ScoredByteBuffer findScoredByteBufferByKeyAndMember(final byte[] member, ByteBuffer wrappedKey) {
@@ -201,7 +202,7 @@ public class SortsetDatatypeOperations extends ExpirationDatatypeOperations impl
 			removeAndUpdateElement(newScore, member, wrappedKey, memberToUpdate);
 			return newScore;
 		} else {
-			sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(wrap(member), score));
+			sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(storeValue(member), score));
 			return score;
 		}
 
@@ -1073,16 +1074,10 @@ public class SortsetDatatypeOperations extends ExpirationDatatypeOperations impl
 	}
 	
 	public void flushAllKeys() {
-		removeExpirations();
+		removeAllExpirations();
 		this.sortset.clear();
 	}
 
-	private void removeExpirations() {
-		List<byte[]> keys = this.keys();
-		for (byte[] key : keys) {
-			this.removeExpiration(key);
-		}
-	}
 	
 	private void updateDestinationWithZParams(final byte[] dstkey, String typeOfAggregation,
 			List<ByteBuffer> weightValues, Set<ByteBuffer> elements, final byte[]... sets) {
@@ -1090,18 +1085,18 @@ public class SortsetDatatypeOperations extends ExpirationDatatypeOperations impl
 			byte[] setKey = sets[i];
 			ByteBuffer wrappedKey = wrap(setKey);
 			for (ByteBuffer elementBuffer : elements) {
-				ScoredByteBuffer element = findScoredByteBufferByKeyAndMember(elementBuffer.array(), wrappedKey);
+				ScoredByteBuffer element = findScoredByteBufferByKeyAndMember(toByteArray(elementBuffer), wrappedKey);
 
 				if (element != null) {
 					double newScore = element.getScore() * multiplicationFactor(weightValues, i);
 					if (ZParams.Aggregate.SUM.name().equals(typeOfAggregation)) {
-						zincrby(dstkey, newScore, elementBuffer.array());
+						zincrby(dstkey, newScore, toByteArray(elementBuffer));
 					} else {
 						if (ZParams.Aggregate.MIN.name().equals(typeOfAggregation)) {
-							zincrmin(dstkey, newScore, elementBuffer.array());
+							zincrmin(dstkey, newScore, toByteArray(elementBuffer));
 						} else {
 							if (ZParams.Aggregate.MAX.name().equals(typeOfAggregation)) {
-								zincrmax(dstkey, newScore, elementBuffer.array());
+								zincrmax(dstkey, newScore, toByteArray(elementBuffer));
 							}
 						}
 					}
@@ -1120,7 +1115,7 @@ public class SortsetDatatypeOperations extends ExpirationDatatypeOperations impl
 			removeAndUpdateElement(newScore, member, wrappedKey, memberToUpdate);
 			return newScore;
 		} else {
-			sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(wrap(member), score));
+			sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(storeValue(member), score));
 			return score;
 		}
 
@@ -1136,7 +1131,7 @@ public class SortsetDatatypeOperations extends ExpirationDatatypeOperations impl
 			removeAndUpdateElement(newScore, member, wrappedKey, memberToUpdate);
 			return newScore;
 		} else {
-			sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(wrap(member), score));
+			sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(storeValue(member), score));
 			return score;
 		}
 
@@ -1281,7 +1276,7 @@ public class SortsetDatatypeOperations extends ExpirationDatatypeOperations impl
 
 		@Override
 		public String toString() {
-			return new String(byteBuffer.array()) + " - " + score;
+			return new String(toByteArray(byteBuffer)) + " - " + score;
 		}
 
 	}
@@ -1307,6 +1302,28 @@ public class SortsetDatatypeOperations extends ExpirationDatatypeOperations impl
 		return this.sortset.containsKey(wrap(key));
 	}
 
+	@Override
+	public boolean moveKey(byte[] key, RedisDatatypeOperations destination) {
+		ByteBuffer wrappedKey = wrap(key);
+
+		if (this.sortset.containsKey(wrappedKey)) {
+			SortsetDatatypeOperations destinationSortset = (SortsetDatatypeOperations) destination;
+
+			for (ScoredByteBuffer element : this.sortset.get(wrappedKey)) {
+				destinationSortset.sortset.put(wrappedKey, ScoredByteBuffer.createScoredByteBuffer(
+						destinationSortset.storeValue(toByteArray(element.getByteBuffer())), element.getScore()));
+			}
+
+			this.sortset.removeAll(wrappedKey);
+
+			moveTtlKey(key, destinationSortset);
+
+			return true;
+		}
+
+		return false;
+	}
+
 	@Override
 	public boolean renameKey(byte[] key, byte[] newKey) {
 		ByteBuffer wrappedKey = wrap(key);
@@ -1371,5 +1388,47 @@ public class SortsetDatatypeOperations extends ExpirationDatatypeOperations impl
 		}
 		
 	}
-	
+
+	@Override
+	public long storedValueBytes() {
+
+		long storedValueBytes = 0L;
+
+		for (ScoredByteBuffer element : this.sortset.values()) {
+			storedValueBytes += element.getByteBuffer().remaining();
+		}
+
+		return storedValueBytes;
+	}
+
+	@Override
+	protected void restoreValues() {
+
+		Multimap<ByteBuffer, ScoredByteBuffer> restoredSortset = TreeMultimap.create();
+
+		for (Entry<ByteBuffer, ScoredByteBuffer> element : this.sortset.entries()) {
+			restoredSortset.put(element.getKey(), ScoredByteBuffer.createScoredByteBuffer(
+					storeValue(element.getValue().getByteBuffer()), element.getValue().getScore()));
+		}
+
+		this.sortset = restoredSortset;
+	}
+
+	@Override
+	public long sizeOf(byte[] key) {
+		ByteBuffer wrappedKey = wrap(key);
+
+		if (!this.sortset.containsKey(wrappedKey)) {
+			return 0L;
+		}
+
+		long size = MemoryUtils.keySize(key);
+
+		for (ScoredByteBuffer scoredByteBuffer : this.sortset.get(wrappedKey)) {
+			size += MemoryUtils.scoredElementSize(scoredByteBuffer.getByteBuffer());
+		}
+
+		return size;
+	}
+
 }
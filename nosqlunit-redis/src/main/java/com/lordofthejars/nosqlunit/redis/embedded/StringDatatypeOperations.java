@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.redis.embedded;
 
 import static ch.lambdaj.Lambda.convert;
+import static com.lordofthejars.nosqlunit.redis.embedded.ByteBuffer2ByteArrayConverter.toByteArray;
 import static java.nio.ByteBuffer.wrap;
 
 import java.nio.ByteBuffer;
@@ -46,9 +47,9 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 		ByteBuffer wrappedKey = wrap(key);
 
 		if (simpleTypes.containsKey(wrappedKey)) {
-			byte[] oldValue = simpleTypes.get(wrappedKey).array();
+			byte[] oldValue = toByteArray(simpleTypes.get(wrappedKey));
 			byte[] newValue = RangeUtils.concat(oldValue, value);
-			simpleTypes.put(wrappedKey, wrap(newValue));
+			simpleTypes.put(wrappedKey, storeValue(newValue));
 
 			return (long) newValue.length;
 
@@ -181,10 +182,10 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 	}
 
 	private long incrementAndSetValue(final byte[] key, final long integer) {
-		byte[] oldValue = simpleTypes.get(wrap(key)).array();
+		byte[] oldValue = toByteArray(simpleTypes.get(wrap(key)));
 		long newValue = incrementValue(oldValue, integer);
 		byte[] newValueByteArray = SafeEncoder.encode(Long.toString(newValue));
-		simpleTypes.put(wrap(key), wrap(newValueByteArray));
+		simpleTypes.put(wrap(key), storeValue(newValueByteArray));
 
 		return newValue;
 	}
@@ -210,7 +211,7 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 
 			try {
 
-				byte[] value = simpleTypes.get(wrap(key)).array();
+				byte[] value = toByteArray(simpleTypes.get(wrap(key)));
 				int bit = BitsUtils.getBit(value, (int) offset);
 
 				return BitsUtils.toBoolean(bit);
@@ -242,21 +243,21 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
     	int numberOfBytesRequired = BitsUtils.calculateNumberOfBytes((int)offset);
     	if (simpleTypes.containsKey(wrap(key))) {
 
-				byte[] currentValue = simpleTypes.get(wrap(key)).array();
+				byte[] currentValue = toByteArray(simpleTypes.get(wrap(key)));
 				
 				if(numberOfBytesRequired > currentValue.length) {
 					currentValue = BitsUtils.extendByteArrayBy(currentValue, numberOfBytesRequired-currentValue.length);
 				}
 				
 				BitsUtils.setBit(currentValue, (int)offset, realValue);
-				simpleTypes.put(wrap(key), wrap(currentValue));
+				simpleTypes.put(wrap(key), storeValue(currentValue));
 
 				return originalValue;
 				
 		} else {
 			byte[] values = new byte[numberOfBytesRequired];
 			BitsUtils.setBit(values, (int)offset, realValue);
-			simpleTypes.put(wrap(key), wrap(values));
+			simpleTypes.put(wrap(key), storeValue(values));
 			
 			return Boolean.FALSE;
 		}
@@ -267,7 +268,7 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
     	
     	if (simpleTypes.containsKey(wrap(key))) {
 
-			byte[] currentValue = simpleTypes.get(wrap(key)).array();
+			byte[] currentValue = toByteArray(simpleTypes.get(wrap(key)));
 			
 			if(offset + value.length > currentValue.length) {
 				currentValue = BitsUtils.extendByteArrayBy(currentValue, (int) ((offset + value.length)-currentValue.length));
@@ -275,7 +276,7 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 			
 			System.arraycopy(value, 0, currentValue, (int)offset, value.length);
 			
-			simpleTypes.put(wrap(key), wrap(currentValue));
+			simpleTypes.put(wrap(key), storeValue(currentValue));
 			
 			return (long) currentValue.length;
 			
@@ -289,7 +290,7 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 
 		if (simpleTypes.containsKey(wrap(key))) {
 
-			byte[] value = simpleTypes.get(wrap(key)).array();
+			byte[] value = toByteArray(simpleTypes.get(wrap(key)));
 			
 			int calculatedStart = RangeUtils.calculateStart((int)startOffset, value.length);
 			int calculatedEnd = RangeUtils.calculateEnd((int)endOffset, value.length);
@@ -313,7 +314,7 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 		if ((keysvalues.length % 2) != 0)
 			return null;
 		for (int index = 0; index < keysvalues.length; index += 2) {
-			simpleTypes.put(wrap(keysvalues[index]), wrap(keysvalues[index + 1]));
+			simpleTypes.put(wrap(keysvalues[index]), storeValue(keysvalues[index + 1]));
 		}
 		return OK;
 	}
@@ -325,7 +326,7 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 				return NONE_SUCCESS;
 		}
 		for (int index = 0; index < keysvalues.length; index += 2) {
-			simpleTypes.put(wrap(keysvalues[index]), wrap(keysvalues[index + 1]));
+			simpleTypes.put(wrap(keysvalues[index]), storeValue(keysvalues[index + 1]));
 		}
 		return SUCCESS;
 	}
@@ -340,7 +341,7 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 		if (!simpleTypes.containsKey(byteBufferKey))
 			return 0;
 
-		return (simpleTypes.get(byteBufferKey)).array().length;
+		return (simpleTypes.get(byteBufferKey)).remaining();
 	}
 
 	public String rename(byte[] oldKey, byte[] newKey) {
@@ -369,14 +370,14 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 			if (simpleTypes.get(wrap(key)) == null) {
 				values.add(null);
 			} else {
-				values.add((simpleTypes.get(wrap(key))).array());
+				values.add(toByteArray(simpleTypes.get(wrap(key))));
 			}
 		}
 		return values;
 	}
 
 	public byte[] get(byte[] key) {
-		return (simpleTypes.get(wrap(key))) == null ? null : (simpleTypes.get(wrap(key))).array();
+		return (simpleTypes.get(wrap(key))) == null ? null : toByteArray(simpleTypes.get(wrap(key)));
 	}
 
 	public byte[] getSet(byte[] key, byte[] value) {
@@ -386,17 +387,17 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 		 */
 		ByteBuffer byteBufferKey = wrap(key);
 		if (!simpleTypes.containsKey(byteBufferKey)) {
-			simpleTypes.put(wrap(key), wrap(value));
+			simpleTypes.put(wrap(key), storeValue(value));
 			return null;
 		} else {
 			ByteBuffer oldValue = simpleTypes.get(byteBufferKey);
-			simpleTypes.put(wrap(key), wrap(value));
-			return (oldValue).array();
+			simpleTypes.put(wrap(key), storeValue(value));
+			return toByteArray(oldValue);
 		}
 	}
 
 	public String set(byte[] key, byte[] value) {
-		simpleTypes.put(wrap(key), wrap(value));
+		simpleTypes.put(wrap(key), storeValue(value));
 		return OK;
 	}
 
@@ -439,16 +440,10 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 	}
 	
 	public void flushAllKeys() {
-		this.removeExpirations();
+		this.removeAllExpirations();
 		this.simpleTypes.clear();
 	}
 
-	private void removeExpirations() {
-		List<byte[]> keys = this.keys();
-		for (byte[] key : keys) {
-			this.removeExpiration(key);
-		}
-	}
 	
 	@Override
 	public Long del(byte[]... keys) {
@@ -474,6 +469,23 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 		return this.simpleTypes.containsKey(wrap(key));
 	}
 
+	@Override
+	public boolean moveKey(byte[] key, RedisDatatypeOperations destination) {
+		ByteBuffer wrappedKey = wrap(key);
+
+		if (this.simpleTypes.containsKey(wrappedKey)) {
+			StringDatatypeOperations destinationString = (StringDatatypeOperations) destination;
+			ByteBuffer element = this.simpleTypes.remove(wrappedKey);
+			destinationString.simpleTypes.put(wrappedKey, destinationString.storeValue(toByteArray(element)));
+
+			moveTtlKey(key, destinationString);
+
+			return true;
+		}
+
+		return false;
+	}
+
 	@Override
 	public boolean renameKey(byte[] key, byte[] newKey) {
 		ByteBuffer wrappedKey = wrap(key);
@@ -508,5 +520,29 @@ public class StringDatatypeOperations extends ExpirationDatatypeOperations imple
 		throw new UnsupportedOperationException();
 	}
 
-	
+	@Override
+	public long storedValueBytes() {
+
+		long storedValueBytes = 0L;
+
+		for (ByteBuffer value : this.simpleTypes.values()) {
+			storedValueBytes += value.remaining();
+		}
+
+		return storedValueBytes;
+	}
+
+	@Override
+	protected void restoreValues() {
+		for (Map.Entry<ByteBuffer, ByteBuffer> entry : this.simpleTypes.entrySet()) {
+			entry.setValue(storeValue(entry.getValue()));
+		}
+	}
+
+	@Override
+	public long sizeOf(byte[] key) {
+		ByteBuffer value = this.simpleTypes.get(wrap(key));
+		return value == null ? 0L : MemoryUtils.keySize(key) + MemoryUtils.elementSize(value);
+	}
+
 }
@@ -32,10 +32,14 @@ public class DataReader {
 	public static final String EXPIRE_AT_SEC_TOKEN = "expireAtSeconds";
 	public static final String SET_TOKEN = "set";
 
-	private BinaryJedisCommands jedis;
+	private DataWriter dataWriter;
 
 	public DataReader(BinaryJedisCommands jedis) {
-		this.jedis = jedis;
+		this(new JedisDataWriter(jedis));
+	}
+
+	public DataReader(DataWriter dataWriter) {
+		this.dataWriter = dataWriter;
 	}
 
 	public void read(InputStream data) {
@@ -93,7 +97,7 @@ public class DataReader {
 			fields.put(toByteArray(fieldObject.get(FIELD_TOKEN)), toByteArray(fieldObject.get(VALUE_TOKEN)));
 		}
 
-		this.jedis.hmset(toByteArray(key), fields);
+		this.dataWriter.hmset(toByteArray(key), fields);
 		setTTL(hashesObject, key);
 	}
 
@@ -120,7 +124,7 @@ public class DataReader {
 					toByteArray(valueScopeObject.get(VALUE_TOKEN)));
 		}
 
-		this.jedis.zadd(toByteArray(key), scoreMembers);
+		this.dataWriter.zadd(toByteArray(key), scoreMembers);
 		setTTL(sortsetObject, key);
 	}
 
@@ -139,7 +143,7 @@ public class DataReader {
 
 		Object key = setObject.get(KEY_TOKEN);
 
-		this.jedis.sadd(toByteArray(key), listValues.toArray(new byte[listValues.size()][]));
+		this.dataWriter.sadd(toByteArray(key), listValues.toArray(new byte[listValues.size()][]));
 		setTTL(setObject, key);
 	}
 
@@ -158,7 +162,7 @@ public class DataReader {
 
 		Object key = listObject.get(KEY_TOKEN);
 
-		this.jedis.rpush(toByteArray(key), listValues.toArray(new byte[listValues.size()][]));
+		this.dataWriter.rpush(toByteArray(key), listValues.toArray(new byte[listValues.size()][]));
 		setTTL(listObject, key);
 	}
 
@@ -178,7 +182,7 @@ public class DataReader {
 			JSONObject simpleElementObject = (JSONObject) simpleElement;
 			Object key = simpleElementObject.get(KEY_TOKEN);
 			
-			this.jedis.set(toByteArray(key),
+			this.dataWriter.set(toByteArray(key),
 					toByteArray(simpleElementObject.get(VALUE_TOKEN)));
 			setTTL(simpleElementObject, key);
 		}
@@ -190,7 +194,7 @@ public class DataReader {
 			Object expirationDate = object.get(EXPIRE_AT_SEC_TOKEN);
 			
 			if(expirationDate instanceof Long) {
-				this.jedis.expireAt(toByteArray(key), (Long)expirationDate);
+				this.dataWriter.expireAt(toByteArray(key), (Long)expirationDate);
 			} else {
 				throw new IllegalArgumentException("TTL expiration date should be a long value.");
 			}
@@ -200,7 +204,7 @@ public class DataReader {
 			Object expiration = object.get(EXPIRE_SEC_TOKEN);
 			
 			if(expiration instanceof Long) {
-				this.jedis.expire(toByteArray(key), ((Long)expiration).intValue());
+				this.dataWriter.expire(toByteArray(key), ((Long)expiration).intValue());
 			} else {
 				throw new IllegalArgumentException("TTL expiration date should be an integer value.");
 			}
@@ -0,0 +1,25 @@
+package com.lordofthejars.nosqlunit.redis.parser;
+
+import java.util.Map;
+
+/**
+ * Destination of the commands generated by {@link DataReader} while reading a
+ * dataset.
+ */
+public interface DataWriter {
+
+	void set(byte[] key, byte[] value);
+
+	void rpush(byte[] key, byte[]... values);
+
+	void sadd(byte[] key, byte[]... members);
+
+	void zadd(byte[] key, Map<Double, byte[]> scoreMembers);
+
+	void hmset(byte[] key, Map<byte[], byte[]> fields);
+
+	void expire(byte[] key, int seconds);
+
+	void expireAt(byte[] key, long unixTime);
+
+}
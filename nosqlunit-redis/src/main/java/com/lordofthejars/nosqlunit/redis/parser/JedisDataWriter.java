@@ -0,0 +1,53 @@
+package com.lordofthejars.nosqlunit.redis.parser;
+
+import java.util.Map;
+
+import redis.clients.jedis.BinaryJedisCommands;
+
+/**
+ * Sends each command to Redis as soon as it is read.
+ */
+public class JedisDataWriter implements DataWriter {
+
+	private BinaryJedisCommands jedis;
+
+	public JedisDataWriter(BinaryJedisCommands jedis) {
+		this.jedis = jedis;
+	}
+
+	@Override
+	public void set(byte[] key, byte[] value) {
+		this.jedis.set(key, value);
+	}
+
+	@Override
+	public void rpush(byte[] key, byte[]... values) {
+		this.jedis.rpush(key, values);
+	}
+
+	@Override
+	public void sadd(byte[] key, byte[]... members) {
+		this.jedis.sadd(key, members);
+	}
+
+	@Override
+	public void zadd(byte[] key, Map<Double, byte[]> scoreMembers) {
+		this.jedis.zadd(key, scoreMembers);
+	}
+
+	@Override
+	public void hmset(byte[] key, Map<byte[], byte[]> fields) {
+		this.jedis.hmset(key, fields);
+	}
+
+	@Override
+	public void expire(byte[] key, int seconds) {
+		this.jedis.expire(key, seconds);
+	}
+
+	@Override
+	public void expireAt(byte[] key, long unixTime) {
+		this.jedis.expireAt(key, unixTime);
+	}
+
+}
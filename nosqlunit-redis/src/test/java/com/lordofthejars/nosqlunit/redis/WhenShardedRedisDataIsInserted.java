@@ -0,0 +1,116 @@
+package com.lordofthejars.nosqlunit.redis;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+public class WhenShardedRedisDataIsInserted {
+
+	private static final String DATA = "{\n" + 
+			"\"data\":[\n" + 
+			"			{\"simple\": [\n" + 
+			"					{\n" + 
+			"						\"key\":\"key1\", \n" + 
+			"						\"value\":\"value1\"\n" + 
+			"					},\n" + 
+			"					{\n" + 
+			"						\"key\":\"key2\", \n" + 
+			"						\"value\":\"value2\"\n" + 
+			"					}\n" + 
+			"				]\n" + 
+			"			},\n" + 
+			"			{\"list\": [{\n" + 
+			"						\"key\":\"key3\",\n" + 
+			"						\"values\":[\n" + 
+			"							{\"value\":\"a\"},\n" + 
+			"							{\"value\":\"b\"}\n" + 
+			"						]\n" + 
+			"					}]\n" + 
+			"			}\n" + 
+			"	]\n" + 
+			"}";
+
+	@Mock
+	private RedisConnectionCallback connection;
+
+	@Mock
+	private Jedis firstShard;
+
+	@Mock
+	private Jedis secondShard;
+
+	@Mock
+	private Pipeline firstPipeline;
+
+	@Mock
+	private Pipeline secondPipeline;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+
+		when(firstShard.pipelined()).thenReturn(firstPipeline);
+		when(secondShard.pipelined()).thenReturn(secondPipeline);
+
+		when(connection.getActiveJedis(eq("key1".getBytes()))).thenReturn(firstShard);
+		when(connection.getActiveJedis(eq("key2".getBytes()))).thenReturn(secondShard);
+		when(connection.getActiveJedis(eq("key3".getBytes()))).thenReturn(firstShard);
+	}
+
+	@Test
+	public void commands_should_be_sent_through_pipeline_of_shard_owning_each_key() throws Throwable {
+
+		ShardedRedisInsertionStrategy shardedRedisInsertionStrategy = new ShardedRedisInsertionStrategy();
+		shardedRedisInsertionStrategy.insert(connection, new ByteArrayInputStream(DATA.getBytes()));
+
+		verify(firstPipeline).set("key1".getBytes(), "value1".getBytes());
+		verify(firstPipeline).rpush("key3".getBytes(), "a".getBytes());
+		verify(firstPipeline).rpush("key3".getBytes(), "b".getBytes());
+		verify(firstPipeline).syncAndReturnAll();
+
+		verify(secondPipeline).set("key2".getBytes(), "value2".getBytes());
+		verify(secondPipeline, never()).rpush(any(byte[].class), any(byte[].class));
+		verify(secondPipeline).syncAndReturnAll();
+
+	}
+
+	@Test
+	public void shards_without_keys_should_not_be_contacted() throws Throwable {
+
+		String data = "{\"data\":[{\"simple\": [{\"key\":\"key1\", \"value\":\"value1\"}]}]}";
+
+		ShardedRedisInsertionStrategy shardedRedisInsertionStrategy = new ShardedRedisInsertionStrategy();
+		shardedRedisInsertionStrategy.insert(connection, new ByteArrayInputStream(data.getBytes()));
+
+		verify(firstPipeline).syncAndReturnAll();
+		verify(secondShard, never()).pipelined();
+
+	}
+
+	@Test(expected = JedisDataException.class)
+	public void error_replied_by_a_shard_should_be_thrown() throws Throwable {
+
+		when(firstPipeline.syncAndReturnAll()).thenReturn(
+				Arrays.<Object> asList("OK", new JedisDataException(
+						"ERR Operation against a key holding the wrong kind of value")));
+
+		ShardedRedisInsertionStrategy shardedRedisInsertionStrategy = new ShardedRedisInsertionStrategy();
+		shardedRedisInsertionStrategy.insert(connection, new ByteArrayInputStream(DATA.getBytes()));
+
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.lordofthejars.nosqlunit.redis.embedded;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WhenEmbeddedDatabaseOperationsAreExecuted {
+
+	private EmbeddedJedis embeddedJedis;
+
+	@Before
+	public void setUp() {
+		embeddedJedis = new EmbeddedJedis();
+	}
+
+	@Test
+	public void keys_should_be_isolated_per_database() {
+
+		embeddedJedis.set("name", "Alex");
+		embeddedJedis.select(1);
+
+		assertThat(embeddedJedis.get("name"), is(nullValue()));
+
+		embeddedJedis.set("name", "Soto");
+		embeddedJedis.select(0);
+
+		assertThat(embeddedJedis.get("name"), is("Alex"));
+		assertThat(embeddedJedis.dbSize(), is(1L));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void select_should_fail_with_out_of_range_index() {
+		embeddedJedis.select(EmbeddedJedis.DATABASES);
+	}
+
+	@Test
+	public void move_should_transfer_key_with_its_expiration() {
+
+		embeddedJedis.setex("name", 100, "Alex");
+		embeddedJedis.rpush("songs", "Wish You Were Here", "Mother");
+
+		assertThat(embeddedJedis.move("name", 1), is(1L));
+		assertThat(embeddedJedis.move("songs", 1), is(1L));
+		assertThat(embeddedJedis.exists("name"), is(false));
+
+		embeddedJedis.select(1);
+
+		assertThat(embeddedJedis.get("name"), is("Alex"));
+		assertThat(embeddedJedis.ttl("name"), greaterThan(0L));
+		assertThat(embeddedJedis.lrange("songs", 0, -1), contains("Wish You Were Here", "Mother"));
+
+	}
+
+	@Test
+	public void move_should_not_transfer_key_already_present_in_destination() {
+
+		embeddedJedis.select(1);
+		embeddedJedis.set("name", "Soto");
+		embeddedJedis.select(0);
+		embeddedJedis.set("name", "Alex");
+
+		assertThat(embeddedJedis.move("name", 1), is(0L));
+		assertThat(embeddedJedis.move("surname", 1), is(0L));
+		assertThat(embeddedJedis.get("name"), is("Alex"));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void move_should_fail_when_destination_is_selected_database() {
+		embeddedJedis.set("name", "Alex");
+		embeddedJedis.move("name", 0);
+	}
+
+	@Test
+	public void swap_db_should_exchange_keyspaces() {
+
+		embeddedJedis.set("name", "Alex");
+		embeddedJedis.select(1);
+		embeddedJedis.hset("user", "name", "Soto");
+
+		embeddedJedis.swapDB(0, 1);
+
+		assertThat(embeddedJedis.get("name"), is("Alex"));
+		assertThat(embeddedJedis.exists("user"), is(false));
+
+		embeddedJedis.select(0);
+
+		assertThat(embeddedJedis.hget("user", "name"), is("Soto"));
+
+	}
+
+	@Test
+	public void flush_db_should_only_remove_keys_of_selected_database() {
+
+		embeddedJedis.set("name", "Alex");
+		embeddedJedis.select(1);
+		embeddedJedis.setex("name", 100, "Soto");
+
+		embeddedJedis.flushDB();
+
+		assertThat(embeddedJedis.dbSize(), is(0L));
+		assertThat(embeddedJedis.ttl("name"), is(-1L));
+
+		embeddedJedis.select(0);
+
+		assertThat(embeddedJedis.get("name"), is("Alex"));
+
+	}
+
+	@Test
+	public void flush_all_should_remove_keys_of_every_database() {
+
+		embeddedJedis.set("name", "Alex");
+		embeddedJedis.select(1);
+		embeddedJedis.setex("name", 100, "Soto");
+
+		embeddedJedis.flushAll();
+
+		assertThat(embeddedJedis.dbSize(), is(0L));
+		assertThat(embeddedJedis.ttl("name"), is(-1L));
+		embeddedJedis.select(0);
+		assertThat(embeddedJedis.dbSize(), is(0L));
+		assertThat(embeddedJedis.memoryServerOperations.usedMemory(), is(0L));
+
+	}
+
+	@Test
+	public void maxmemory_should_count_keys_of_every_database() {
+
+		embeddedJedis.configSet("maxmemory-policy", "allkeys-random");
+
+		embeddedJedis.set("name", "Alex");
+		embeddedJedis.select(1);
+		embeddedJedis.set("name", "Soto");
+
+		long maxmemory = embeddedJedis.memoryServerOperations.usedMemory() - 1;
+		embeddedJedis.configSet("maxmemory", Long.toString(maxmemory));
+
+		embeddedJedis.select(0);
+		long keysInFirstDatabase = embeddedJedis.dbSize();
+		embeddedJedis.select(1);
+		long keysInSecondDatabase = embeddedJedis.dbSize();
+
+		assertThat(keysInFirstDatabase + keysInSecondDatabase, is(1L));
+
+	}
+
+}
@@ -0,0 +1,247 @@
+package com.lordofthejars.nosqlunit.redis.embedded;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WhenEmbeddedMemoryOperationsAreExecuted {
+
+	private EmbeddedJedis embeddedJedis;
+
+	@Before
+	public void setUp() {
+		embeddedJedis = new EmbeddedJedis();
+		embeddedJedis.configSet("maxmemory-samples", "50");
+	}
+
+	@Test
+	public void used_memory_should_grow_with_inserted_keys_and_shrink_with_deleted_keys() {
+
+		long emptyMemory = embeddedJedis.memoryServerOperations.usedMemory();
+
+		embeddedJedis.set("name", "Alex");
+		embeddedJedis.rpush("songs", "Wish You Were Here", "Mother");
+		embeddedJedis.hset("user", "name", "alex");
+
+		long usedMemory = embeddedJedis.memoryServerOperations.usedMemory();
+		assertThat(usedMemory, greaterThan(emptyMemory));
+
+		embeddedJedis.del("name", "songs", "user");
+		embeddedJedis.dbSize();
+
+		assertThat(embeddedJedis.memoryServerOperations.usedMemory(), is(emptyMemory));
+
+	}
+
+	@Test
+	public void dirty_keys_should_be_bounded_without_maxmemory() {
+
+		for (int i = 0; i < 3 * MemoryServerOperations.MAX_DIRTY_KEYS; i++) {
+			embeddedJedis.set("key" + i, "value" + i);
+			embeddedJedis.del("key" + i);
+		}
+
+		assertThat(embeddedJedis.memoryServerOperations.getNumberOfDirtyKeys() <= MemoryServerOperations.MAX_DIRTY_KEYS,
+				is(true));
+		assertThat(embeddedJedis.memoryServerOperations.usedMemory(), is(0L));
+
+	}
+
+	@Test
+	public void info_memory_should_report_used_memory_and_policy() {
+
+		embeddedJedis.set("name", "Alex");
+		embeddedJedis.configSet("maxmemory", "1mb");
+		embeddedJedis.configSet("maxmemory-policy", "allkeys-lru");
+
+		String info = embeddedJedis.info("memory");
+
+		assertThat(info, containsString("used_memory:" + embeddedJedis.memoryServerOperations.usedMemory()));
+		assertThat(info, containsString("maxmemory:1048576"));
+		assertThat(info, containsString("maxmemory_policy:allkeys-lru"));
+
+	}
+
+	@Test
+	public void config_get_should_return_memory_parameters() {
+
+		embeddedJedis.configSet("maxmemory-policy", "volatile-ttl");
+
+		assertThat(embeddedJedis.configGet("maxmemory-policy"), contains("maxmemory-policy", "volatile-ttl"));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void config_set_should_fail_with_unknown_policy() {
+		embeddedJedis.configSet("maxmemory-policy", "most-beautiful");
+	}
+
+	@Test
+	public void noeviction_policy_should_reject_writes_over_maxmemory() {
+
+		embeddedJedis.set("key1", "value1");
+		embeddedJedis.set("key2", "value2");
+
+		embeddedJedis.configSet("maxmemory", "1");
+
+		try {
+			embeddedJedis.set("key3", "value3");
+			fail("Write over maxmemory should be rejected.");
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), startsWith("OOM command not allowed"));
+		}
+
+		assertThat(embeddedJedis.dbSize(), is(2L));
+		assertThat(embeddedJedis.get("key1"), is("value1"));
+		assertThat(embeddedJedis.del("key1"), is(1L));
+		assertThat(embeddedJedis.memoryServerOperations.getEvictedKeys(), is(0L));
+
+	}
+
+	@Test
+	public void volatile_policy_should_reject_writes_when_no_key_has_expiration() {
+
+		embeddedJedis.configSet("maxmemory-policy", "volatile-lru");
+		embeddedJedis.set("key1", "value1");
+
+		embeddedJedis.configSet("maxmemory", "1");
+
+		try {
+			embeddedJedis.lpush("key2", "value2");
+			fail("Write over maxmemory should be rejected.");
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), startsWith("OOM command not allowed"));
+		}
+
+		assertThat(embeddedJedis.exists("key1"), is(true));
+
+	}
+
+	@Test
+	public void allkeys_lru_policy_should_evict_least_recently_used_key() throws InterruptedException {
+
+		embeddedJedis.configSet("maxmemory-policy", "allkeys-lru");
+
+		embeddedJedis.set("key1", "value1");
+		TimeUnit.MILLISECONDS.sleep(20);
+		embeddedJedis.set("key2", "value2");
+		TimeUnit.MILLISECONDS.sleep(20);
+		embeddedJedis.set("key3", "value3");
+		TimeUnit.MILLISECONDS.sleep(20);
+		embeddedJedis.get("key1");
+
+		limitMemoryToCurrentUsageMinus(1);
+
+		assertThat(embeddedJedis.exists("key2"), is(false));
+		assertThat(embeddedJedis.exists("key1"), is(true));
+		assertThat(embeddedJedis.exists("key3"), is(true));
+		assertThat(embeddedJedis.info("stats"), containsString("evicted_keys:1"));
+
+	}
+
+	@Test
+	public void allkeys_lfu_policy_should_evict_least_frequently_used_key() {
+
+		embeddedJedis.configSet("maxmemory-policy", "allkeys-lfu");
+
+		embeddedJedis.set("key1", "value1");
+		embeddedJedis.set("key2", "value2");
+		embeddedJedis.set("key3", "value3");
+
+		embeddedJedis.get("key1");
+		embeddedJedis.get("key3");
+
+		limitMemoryToCurrentUsageMinus(1);
+
+		assertThat(embeddedJedis.exists("key2"), is(false));
+		assertThat(embeddedJedis.exists("key1"), is(true));
+		assertThat(embeddedJedis.exists("key3"), is(true));
+
+	}
+
+	@Test
+	public void volatile_ttl_policy_should_evict_key_with_nearest_expiration() {
+
+		embeddedJedis.configSet("maxmemory-policy", "volatile-ttl");
+
+		embeddedJedis.set("key1", "value1");
+		embeddedJedis.setex("key2", 100, "value2");
+		embeddedJedis.setex("key3", 10, "value3");
+
+		limitMemoryToCurrentUsageMinus(1);
+
+		assertThat(embeddedJedis.exists("key3"), is(false));
+		assertThat(embeddedJedis.exists("key1"), is(true));
+		assertThat(embeddedJedis.exists("key2"), is(true));
+
+	}
+
+	@Test
+	public void volatile_policies_should_not_evict_persistent_keys() {
+
+		embeddedJedis.configSet("maxmemory-policy", "volatile-lru");
+
+		embeddedJedis.set("key1", "value1");
+		embeddedJedis.set("key2", "value2");
+
+		limitMemoryToCurrentUsageMinus(1);
+
+		assertThat(embeddedJedis.dbSize(), is(2L));
+
+	}
+
+	@Test
+	public void allkeys_random_policy_should_evict_keys_until_memory_is_under_maxmemory() {
+
+		embeddedJedis.configSet("maxmemory-policy", "allkeys-random");
+
+		for (int i = 0; i < 10; i++) {
+			embeddedJedis.set("key" + i, "value" + i);
+		}
+
+		long maxmemory = embeddedJedis.memoryServerOperations.usedMemory() / 2;
+		embeddedJedis.configSet("maxmemory", Long.toString(maxmemory));
+		embeddedJedis.dbSize();
+
+		assertThat(embeddedJedis.memoryServerOperations.usedMemory() <= maxmemory, is(true));
+		assertThat(embeddedJedis.dbSize(), is(10L - embeddedJedis.memoryServerOperations.getEvictedKeys()));
+
+	}
+
+	@Test
+	public void object_freq_should_count_accesses_with_logarithmic_counter() {
+
+		embeddedJedis.set("key1", "value1");
+		assertThat(embeddedJedis.objectFreq("key1"), is(5L));
+
+		embeddedJedis.get("key1");
+		assertThat(embeddedJedis.objectFreq("key1"), is(6L));
+
+	}
+
+	@Test
+	public void object_idletime_should_return_seconds_since_last_access() {
+
+		embeddedJedis.set("key1", "value1");
+
+		assertThat(embeddedJedis.objectIdletime("key1"), is(0L));
+		assertThat(embeddedJedis.objectIdletime("key2"), is(nullValue()));
+
+	}
+
+	private void limitMemoryToCurrentUsageMinus(long bytes) {
+		long usedMemory = embeddedJedis.memoryServerOperations.usedMemory();
+		embeddedJedis.configSet("maxmemory", Long.toString(usedMemory - bytes));
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.lordofthejars.nosqlunit.redis.embedded;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisMonitor;
+import redis.clients.util.SafeEncoder;
+import redis.clients.util.Slowlog;
+
+public class WhenEmbeddedMonitorOperationsAreExecuted {
+
+	private Jedis jedis;
+
+	@Before
+	public void setUp() {
+		jedis = new EmbeddedRedisBuilder().createEmbeddedJedis();
+	}
+
+	@Test
+	public void slowlog_should_record_commands_slower_than_threshold_newest_first() {
+
+		jedis.configSet("slowlog-log-slower-than", "0");
+
+		jedis.set("name", "Alex");
+		jedis.get("name");
+
+		List<Slowlog> slowlog = jedis.slowlogGet(2);
+
+		assertThat(slowlog, hasSize(2));
+		assertThat(slowlog.get(0).getArgs(), contains("get", "name"));
+		assertThat(slowlog.get(1).getArgs(), contains("set", "name", "Alex"));
+		assertThat(slowlog.get(0).getId() > slowlog.get(1).getId(), is(true));
+
+	}
+
+	@Test
+	public void slowlog_should_keep_only_last_max_len_entries() {
+
+		jedis.configSet("slowlog-max-len", "3");
+		jedis.configSet("slowlog-log-slower-than", "0");
+
+		for (int i = 0; i < 10; i++) {
+			jedis.set("key" + i, "value" + i);
+		}
+
+		assertThat(jedis.slowlogLen(), is(3L));
+		assertThat(jedis.slowlogGet().get(0).getArgs().get(1), is("key9"));
+
+	}
+
+	@Test
+	public void binary_slowlog_should_return_encoded_entries() {
+
+		jedis.configSet("slowlog-log-slower-than", "0");
+		jedis.set("name", "Alex");
+
+		List<byte[]> slowlog = jedis.slowlogGetBinary(1);
+
+		assertThat(slowlog, hasSize(1));
+		assertThat(SafeEncoder.encode(slowlog.get(0)), startsWith("*4\r\n:"));
+		assertThat(SafeEncoder.encode(slowlog.get(0)),
+				endsWith("*3\r\n$3\r\nset\r\n$4\r\nname\r\n$4\r\nAlex\r\n"));
+
+	}
+
+	@Test
+	public void slowlog_should_be_empty_after_reset() {
+
+		jedis.configSet("slowlog-log-slower-than", "0");
+		jedis.set("name", "Alex");
+
+		jedis.slowlogReset();
+
+		assertThat(jedis.slowlogLen(), is(0L));
+
+	}
+
+	@Test
+	public void negative_threshold_should_disable_slowlog() {
+
+		jedis.configSet("slowlog-log-slower-than", "-1");
+		jedis.set("name", "Alex");
+
+		assertThat(jedis.slowlogLen(), is(0L));
+
+	}
+
+	@Test
+	public void monitor_should_receive_every_following_command() {
+
+		final List<String> commands = new ArrayList<String>();
+
+		jedis.monitor(new JedisMonitor() {
+			@Override
+			public void onCommand(String command) {
+				commands.add(command);
+			}
+		});
+
+		jedis.set("name", "Alex");
+		jedis.lpush("songs", "Wish You Were Here", "Mother");
+
+		assertThat(commands, hasSize(2));
+		assertThat(commands.get(0), endsWith("[0 embedded] \"set\" \"name\" \"Alex\""));
+		assertThat(commands.get(1), endsWith("\"lpush\" \"songs\" \"Wish You Were Here\" \"Mother\""));
+
+	}
+
+	@Test
+	public void monitor_should_receive_selected_database() {
+
+		final List<String> commands = new ArrayList<String>();
+
+		jedis.monitor(new JedisMonitor() {
+			@Override
+			public void onCommand(String command) {
+				commands.add(command);
+			}
+		});
+
+		jedis.select(1);
+		jedis.set("name", "Alex");
+
+		assertThat(commands, hasSize(2));
+		assertThat(commands.get(1), endsWith("[1 embedded] \"set\" \"name\" \"Alex\""));
+
+	}
+
+	@Test
+	public void info_should_return_calls_and_latencies_of_each_command() {
+
+		jedis.set("name", "Alex");
+		jedis.set("surname", "Soto");
+		jedis.get("name");
+
+		String info = jedis.info();
+
+		assertThat(info, containsString("cmdstat_set:calls=2,"));
+		assertThat(info, containsString("cmdstat_get:calls=1,"));
+		assertThat(info, containsString("latency_percentiles_usec_set:p50="));
+		assertThat(info, containsString("total_commands_processed:3"));
+
+	}
+
+	@Test
+	public void config_reset_stat_should_clear_command_stats() {
+
+		jedis.set("name", "Alex");
+		jedis.configResetStat();
+
+		assertThat(jedis.info(), not(containsString("cmdstat_set")));
+
+	}
+
+}
@@ -0,0 +1,159 @@
+package com.lordofthejars.nosqlunit.redis.embedded;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WhenEmbeddedOffHeapStorageIsUsed {
+
+	private OffHeapArena offHeapArena;
+	private EmbeddedJedis embeddedJedis;
+
+	@Before
+	public void setUp() {
+		offHeapArena = OffHeapArena.createOffHeapArena(16);
+		embeddedJedis = new EmbeddedJedis(16);
+	}
+
+	@Test
+	public void arena_should_return_direct_buffers_with_copied_content() {
+
+		ByteBuffer first = offHeapArena.allocate("Alex".getBytes());
+		ByteBuffer second = offHeapArena.allocate("Soto".getBytes());
+
+		assertThat(first.isDirect(), is(true));
+		assertThat(new String(ByteBuffer2ByteArrayConverter.toByteArray(first)), is("Alex"));
+		assertThat(new String(ByteBuffer2ByteArrayConverter.toByteArray(second)), is("Soto"));
+		assertThat(first.equals(ByteBuffer.wrap("Alex".getBytes())), is(true));
+		assertThat(offHeapArena.getReservedBytes(), is(16L));
+
+	}
+
+	@Test
+	public void arena_should_allocate_dedicated_buffer_for_values_bigger_than_slab() {
+
+		offHeapArena.allocate("This value is bigger than one slab".getBytes());
+
+		assertThat(offHeapArena.getReservedBytes(), is(34L));
+
+	}
+
+	@Test
+	public void arena_should_reuse_slabs_after_reset() {
+
+		offHeapArena.allocate("0123456789".getBytes());
+		offHeapArena.allocate("0123456789".getBytes());
+		offHeapArena.reset();
+		offHeapArena.allocate("0123456789".getBytes());
+
+		assertThat(offHeapArena.getReservedBytes(), is(32L));
+		assertThat(offHeapArena.getAllocatedBytes(), is(10L));
+
+	}
+
+	@Test
+	public void string_values_should_be_stored_off_heap() {
+
+		embeddedJedis.set("name", "Alex");
+		embeddedJedis.append("name", "andre");
+
+		assertThat(embeddedJedis.get("name"), is("Alexandre"));
+		assertThat(embeddedJedis.getrange("name", 4, -1), is("andre"));
+		assertThat(embeddedJedis.databases[0].getOffHeapArena().getAllocatedBytes(), is(13L));
+
+	}
+
+	@Test
+	public void collection_values_should_be_stored_off_heap() {
+
+		embeddedJedis.rpush("songs", "Wish You Were Here", "Mother");
+		embeddedJedis.sadd("members", "David", "Roger");
+		embeddedJedis.zadd("albums", 1973, "The Dark Side of the Moon");
+		embeddedJedis.zadd("albums", 1979, "The Wall");
+		embeddedJedis.hset("user", "name", "Alex");
+
+		assertThat(embeddedJedis.lrange("songs", 0, -1), contains("Wish You Were Here", "Mother"));
+		assertThat(embeddedJedis.smembers("members"), containsInAnyOrder("David", "Roger"));
+		assertThat(embeddedJedis.zrange("albums", 0, -1), contains("The Dark Side of the Moon", "The Wall"));
+		assertThat(embeddedJedis.hget("user", "name"), is("Alex"));
+		assertThat(embeddedJedis.sismember("members", "Roger"), is(true));
+
+	}
+
+	@Test
+	public void overwritten_values_should_be_compacted() {
+
+		for (int i = 0; i < 100; i++) {
+			embeddedJedis.set("name", "Alex" + (100000 + i));
+		}
+
+		assertThat(embeddedJedis.get("name"), is("Alex100099"));
+		assertThat(embeddedJedis.databases[0].getOffHeapArena().getReservedBytes(), lessThanOrEqualTo(64L));
+
+	}
+
+	@Test
+	public void compaction_should_keep_collection_values() {
+
+		embeddedJedis.rpush("songs", "Wish You Were Here", "Mother");
+		embeddedJedis.sadd("members", "David", "Roger");
+		embeddedJedis.zadd("albums", 1979, "The Wall");
+		embeddedJedis.hset("user", "name", "Alex");
+
+		OffHeapArena initialOffHeapArena = embeddedJedis.databases[0].getOffHeapArena();
+
+		for (int i = 0; i < 100; i++) {
+			embeddedJedis.set("counter", "value" + i);
+			embeddedJedis.del("counter");
+		}
+
+		assertThat(embeddedJedis.databases[0].getOffHeapArena(), not(sameInstance(initialOffHeapArena)));
+		assertThat(embeddedJedis.lrange("songs", 0, -1), contains("Wish You Were Here", "Mother"));
+		assertThat(embeddedJedis.smembers("members"), containsInAnyOrder("David", "Roger"));
+		assertThat(embeddedJedis.zrange("albums", 0, -1), contains("The Wall"));
+		assertThat(embeddedJedis.hget("user", "name"), is("Alex"));
+
+	}
+
+	@Test
+	public void flush_should_replace_off_heap_values() {
+
+		embeddedJedis.set("name", "Alex");
+		embeddedJedis.flushDB();
+
+		assertThat(embeddedJedis.databases[0].getOffHeapArena().getAllocatedBytes(), is(0L));
+		assertThat(embeddedJedis.get("name"), is(nullValue()));
+
+		embeddedJedis.set("name", "Soto");
+		assertThat(embeddedJedis.get("name"), is("Soto"));
+
+	}
+
+	@Test
+	public void flushed_keyspace_should_reuse_reclaimed_arena() throws InterruptedException, ExecutionException {
+
+		Keyspace keyspace = Keyspace.createKeyspace(offHeapArena);
+		offHeapArena.allocate("Alex".getBytes());
+
+		Keyspace emptyKeyspace = keyspace.createEmptyKeyspace();
+		keyspace.reclaimAsynchronously().get();
+
+		Keyspace nextEmptyKeyspace = emptyKeyspace.createEmptyKeyspace();
+
+		assertThat(nextEmptyKeyspace.getOffHeapArena(), sameInstance(offHeapArena));
+		assertThat(offHeapArena.getAllocatedBytes(), is(0L));
+
+	}
+
+}
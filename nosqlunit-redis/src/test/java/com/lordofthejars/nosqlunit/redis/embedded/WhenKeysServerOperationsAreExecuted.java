@@ -83,42 +83,6 @@ public class WhenKeysServerOperationsAreExecuted {
 		
 	}
 
-	@Test
-	public void flush_all_should_delete_all_elements() {
-		
-		String result = keysServerOperations.flushAll();
-		assertThat(result, is("OK"));
-		
-		Long numberOfKeys = keysServerOperations.dbSize();
-		assertThat(numberOfKeys, is(0L));
-		
-	}
-	
-	@Test
-	public void flush_all_should_delete_all_elements_and_expirations() {
-		
-		keysServerOperations.expire(JAMES_NAME, 5);
-		
-		String result = keysServerOperations.flushAll();
-		assertThat(result, is("OK"));
-		assertThat(keysServerOperations.ttl(JAMES_NAME), is(-1L));
-		
-		Long numberOfKeys = keysServerOperations.dbSize();
-		assertThat(numberOfKeys, is(0L));
-		
-	}
-	
-	@Test
-	public void flush_db_should_delete_all_elements() {
-		
-		String result = keysServerOperations.flushDB();
-		assertThat(result, is("OK"));
-		
-		Long numberOfKeys = keysServerOperations.dbSize();
-		assertThat(numberOfKeys, is(0L));
-		
-	}
-	
 	@Test
 	public void del_should_delete_given_keys() {
 		